@@ -3,9 +3,12 @@ package com.odyssey;
 import com.odyssey.core.GameEngine;
 import com.odyssey.core.GameState;
 import com.odyssey.core.GameConfig;
+import com.odyssey.world.WorldPregenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * The Odyssey - Revolutionary Voxel Maritime Adventure Game
  * 
@@ -30,9 +33,15 @@ public class OdysseyGame {
     /**
      * Main entry point for The Odyssey game.
      * 
-     * @param args Command line arguments
+     * @param args Command line arguments; {@code pregen <world> <seed> <radius> [threads]}
+     *             pre-generates a world instead of starting the game
      */
     public static void main(String[] args) {
+        // Headless world pre-generation: no window, engine or game loop
+        if (args.length > 0 && "pregen".equals(args[0])) {
+            System.exit(WorldPregenerator.runCommand(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        
         LOGGER.info("=== The Odyssey - Starting Maritime Adventure ===");
         LOGGER.info("Navigate the Boundless Azure - Build Your Fleet, Command Your Destiny, Shape the Seven Seas");
         
@@ -6,19 +6,22 @@ import com.odyssey.util.Logger;
 import org.joml.Vector3f;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Manages naval combat system including projectile physics, targeting, and damage resolution.
  * Handles all active projectiles and combat interactions between ships.
+ *
+ * Projectiles live in a {@link ProjectilePool} and are tested against a {@link ShipBroadPhase}
+ * rebuilt each update, so a full broadside from every ship in a fleet battle costs a few
+ * array passes rather than a collision check per projectile per ship.
  */
 public class CombatSystem {
     private static final Logger logger = Logger.getLogger(CombatSystem.class);
     
     // Active projectiles in the world
-    private final List<Projectile> activeProjectiles;
+    private final ProjectilePool projectiles;
+    private final ShipBroadPhase shipBroadPhase;
     
     // Combat settings
     private float maxCombatRange;
@@ -28,20 +31,18 @@ public class CombatSystem {
     
     // Performance tracking
     private int maxProjectiles;
-    private long lastCleanupTime;
-    private static final long CLEANUP_INTERVAL = 5000; // 5 seconds
     
     /**
      * Creates a new combat system
      */
     public CombatSystem() {
-        this.activeProjectiles = new CopyOnWriteArrayList<>();
+        this.projectiles = new ProjectilePool(256);
+        this.shipBroadPhase = new ShipBroadPhase();
         this.maxCombatRange = 1000.0f;
         this.friendlyFireEnabled = false;
         this.windStrength = 5.0f;
         this.windDirection = new Vector3f(1, 0, 0);
-        this.maxProjectiles = 500;
-        this.lastCleanupTime = System.currentTimeMillis();
+        this.maxProjectiles = 4096;
         
         logger.info("Combat system initialized with max range: {}, max projectiles: {}", 
                    maxCombatRange, maxProjectiles);
@@ -50,36 +51,26 @@ public class CombatSystem {
     /**
      * Updates all active projectiles and handles collisions
      */
-    public void update(float deltaTime, List<Ship> ships) {
-        // Calculate wind velocity
-        Vector3f windVelocity = new Vector3f(windDirection).mul(windStrength);
-        
-        // Update all projectiles
-        Iterator<Projectile> projectileIterator = activeProjectiles.iterator();
-        while (projectileIterator.hasNext()) {
-            Projectile projectile = projectileIterator.next();
-            
-            if (!projectile.isActive()) {
-                projectileIterator.remove();
-                continue;
-            }
-            
-            // Update projectile physics
-            projectile.update(deltaTime, windVelocity);
-            
-            // Check collisions with ships
-            checkProjectileCollisions(projectile, ships);
+    public synchronized void update(float deltaTime, List<Ship> ships) {
+        if (projectiles.size() == 0) {
+            return;
         }
         
-        // Periodic cleanup
-        performPeriodicCleanup();
+        // Gather ship bounds once for every projectile this step
+        shipBroadPhase.build(ships);
+        
+        projectiles.update(deltaTime,
+                           windDirection.x * windStrength,
+                           windDirection.y * windStrength,
+                           windDirection.z * windStrength,
+                           shipBroadPhase);
     }
     
     /**
      * Fires a projectile from a cannon
      */
-    public boolean fireProjectile(CannonComponent cannon, Ship firingShip, Vector3f targetDirection) {
-        if (activeProjectiles.size() >= maxProjectiles) {
+    public synchronized boolean fireProjectile(CannonComponent cannon, Ship firingShip, Vector3f targetDirection) {
+        if (projectiles.size() >= maxProjectiles) {
             logger.warn("Maximum projectile limit reached, cannot fire");
             return false;
         }
@@ -94,7 +85,7 @@ public class CombatSystem {
         Projectile.ProjectileType projectileType = getProjectileType(cannon.getLoadedAmmo());
         
         // Create projectile
-        Projectile projectile = new Projectile(
+        projectiles.add(
             projectileType,
             firingPosition,
             initialVelocity,
@@ -105,10 +96,8 @@ public class CombatSystem {
             firingShip
         );
         
-        activeProjectiles.add(projectile);
-        
-        logger.info("Projectile fired from {} cannon on ship {}: {} projectiles active", 
-                   cannon.getName(), firingShip.getName(), activeProjectiles.size());
+        logger.debug("Projectile fired from {} cannon on ship {}: {} projectiles active", 
+                   cannon.getName(), firingShip.getName(), projectiles.size());
         
         return true;
     }
@@ -177,32 +166,6 @@ public class CombatSystem {
         }
     }
     
-    /**
-     * Checks projectile collisions with all ships
-     */
-    private void checkProjectileCollisions(Projectile projectile, List<Ship> ships) {
-        for (Ship ship : ships) {
-            // Skip collision with firing ship unless friendly fire is enabled
-            if (ship == projectile.getFiringShip() && !friendlyFireEnabled) {
-                continue;
-            }
-            
-            // Check if projectile hits ship
-            if (projectile.checkCollision(ship)) {
-                projectile.applyDamage(ship);
-                
-                // Log combat event
-                logger.info("Combat hit: {} projectile from {} hit {} for {} damage",
-                           projectile.getType().getName(),
-                           projectile.getFiringShip().getName(),
-                           ship.getName(),
-                           projectile.getDamage());
-                
-                break; // Projectile is consumed on first hit
-            }
-        }
-    }
-    
     /**
      * Calculates optimal firing solution for hitting a moving target
      */
@@ -247,27 +210,6 @@ public class CombatSystem {
         return shipsInRange;
     }
     
-    /**
-     * Performs periodic cleanup of inactive projectiles and optimization
-     */
-    private void performPeriodicCleanup() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastCleanupTime > CLEANUP_INTERVAL) {
-            int initialCount = activeProjectiles.size();
-            
-            // Remove inactive projectiles
-            activeProjectiles.removeIf(projectile -> !projectile.isActive());
-            
-            int removedCount = initialCount - activeProjectiles.size();
-            if (removedCount > 0) {
-                logger.debug("Cleaned up {} inactive projectiles, {} remaining", 
-                           removedCount, activeProjectiles.size());
-            }
-            
-            lastCleanupTime = currentTime;
-        }
-    }
-    
     /**
      * Sets wind conditions affecting projectile trajectories
      */
@@ -280,19 +222,29 @@ public class CombatSystem {
     /**
      * Clears all active projectiles (useful for scene transitions)
      */
-    public void clearAllProjectiles() {
-        int count = activeProjectiles.size();
-        activeProjectiles.clear();
+    public synchronized void clearAllProjectiles() {
+        int count = projectiles.size();
+        projectiles.clear();
         logger.info("Cleared {} active projectiles", count);
     }
     
+    /**
+     * Copies the positions of active projectiles into out as x, y, z triples, for
+     * rendering without building a Projectile per shot
+     *
+     * @return the number of projectiles copied, at most out.length / 3
+     */
+    public synchronized int copyProjectilePositions(float[] out) {
+        return projectiles.copyPositions(out);
+    }
+    
     // Getters and setters
-    public List<Projectile> getActiveProjectiles() { 
-        return new ArrayList<>(activeProjectiles); 
+    public synchronized List<Projectile> getActiveProjectiles() { 
+        return projectiles.snapshot(); 
     }
     
-    public int getActiveProjectileCount() { 
-        return activeProjectiles.size(); 
+    public synchronized int getActiveProjectileCount() { 
+        return projectiles.size(); 
     }
     
     public float getMaxCombatRange() { 
@@ -67,6 +67,29 @@ public class Projectile {
         logger.debug("Projectile created: {} at {} with velocity {}", type.getName(), position, velocity);
     }
     
+    /**
+     * Creates a read-only copy of a projectile simulated elsewhere, without applying any
+     * accuracy deviation
+     */
+    Projectile(ProjectileType type, Vector3f position, Vector3f velocity, float damage, float range,
+               DamageType damageType, Ship firingShip, float timeAlive, float maxLifetime) {
+        this.type = type;
+        this.position = new Vector3f(position);
+        this.velocity = new Vector3f(velocity);
+        this.acceleration = new Vector3f(0, -9.81f * type.getGravityEffect(), 0);
+        this.damage = damage;
+        this.range = range;
+        this.accuracy = 1.0f;
+        this.damageType = damageType;
+        this.firingShip = firingShip;
+        this.timeAlive = timeAlive;
+        this.maxLifetime = maxLifetime;
+        this.isActive = true;
+        this.windResistance = type.getWindResistance();
+        this.gravityEffect = type.getGravityEffect();
+        this.waterDrag = type.getWaterDrag();
+    }
+    
     /**
      * Updates projectile physics and position
      */
@@ -127,6 +150,13 @@ public class Projectile {
      * Applies accuracy deviation to the initial velocity
      */
     private void applyAccuracyDeviation() {
+        applyAccuracyDeviation(velocity, accuracy);
+    }
+    
+    /**
+     * Scales each velocity component by a random deviation that grows as accuracy drops
+     */
+    static void applyAccuracyDeviation(Vector3f velocity, float accuracy) {
         float inaccuracy = 1.0f - accuracy;
         float maxDeviation = inaccuracy * 0.2f; // Maximum 20% deviation for 0 accuracy
         
@@ -240,6 +270,13 @@ public class Projectile {
      * Calculates actual damage based on projectile type and target
      */
     private float calculateActualDamage(Ship targetShip) {
+        return calculateImpactDamage(type, damage, velocity.length());
+    }
+    
+    /**
+     * Calculates the damage a projectile of the given type deals when it hits at the given speed
+     */
+    static float calculateImpactDamage(ProjectileType type, float damage, float impactSpeed) {
         float actualDamage = damage;
         
         // Apply projectile-specific damage modifiers
@@ -262,7 +299,6 @@ public class Projectile {
         }
         
         // Consider impact velocity
-        float impactSpeed = velocity.length();
         float speedMultiplier = Math.min(2.0f, impactSpeed / 50.0f); // Cap at 2x damage
         actualDamage *= speedMultiplier;
         
@@ -273,6 +309,13 @@ public class Projectile {
      * Handles special effects based on projectile type
      */
     private void handleSpecialEffects(Ship targetShip) {
+        applySpecialEffects(type, damage, targetShip);
+    }
+    
+    /**
+     * Applies the extra effects of a projectile type to a ship it hit
+     */
+    static void applySpecialEffects(ProjectileType type, float damage, Ship targetShip) {
         switch (type) {
             case CANNON_BALL:
                 // Standard projectile, no special effects
@@ -0,0 +1,316 @@
+package com.odyssey.combat;
+
+import com.odyssey.ship.DamageType;
+import com.odyssey.ship.Ship;
+import com.odyssey.util.Logger;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Live projectiles stored as parallel arrays, one slot per projectile.
+ *
+ * Integration and collision run as plain loops over the arrays, with no per-projectile
+ * objects or allocations. A projectile that is spent is replaced by the last one, so
+ * removal is O(1) and the live slots stay packed at the front.
+ *
+ * The physics matches {@link Projectile#update}, except that range is measured from the
+ * muzzle rather than from wherever the firing ship has since sailed. Hits are found by
+ * sweeping each projectile's path over the step against the ships' bounds, so a fast
+ * cannonball can't tunnel through a hull between two frames.
+ *
+ * Not thread-safe; {@link CombatSystem} guards access.
+ */
+final class ProjectilePool {
+    private static final Logger logger = Logger.getLogger(ProjectilePool.class);
+
+    /** Collision radius of a projectile, in world units */
+    static final float PROJECTILE_RADIUS = 0.15f;
+
+    private static final float GRAVITY = 9.81f;
+    private static final float AIR_DRAG = 0.01f;
+    private static final Projectile.ProjectileType[] TYPES = Projectile.ProjectileType.values();
+
+    private int size;
+
+    private float[] posX;
+    private float[] posY;
+    private float[] posZ;
+    private float[] velX;
+    private float[] velY;
+    private float[] velZ;
+    private float[] originX;
+    private float[] originY;
+    private float[] originZ;
+    private float[] timeAlive;
+    private float[] maxLifetime;
+    private float[] damage;
+    private float[] rangeSquared;
+    private byte[] type;
+    private boolean[] bounced;
+    private DamageType[] damageType;
+    private Ship[] firingShip;
+
+    ProjectilePool(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a projectile leaving the muzzle, applying its accuracy deviation
+     */
+    void add(Projectile.ProjectileType projectileType, Vector3f position, Vector3f velocity, float projectileDamage,
+             float range, float accuracy, DamageType projectileDamageType, Ship ship) {
+        if (size == posX.length) {
+            grow(size * 2);
+        }
+
+        Vector3f deviated = new Vector3f(velocity);
+        Projectile.applyAccuracyDeviation(deviated, accuracy);
+
+        int i = size++;
+        posX[i] = originX[i] = position.x;
+        posY[i] = originY[i] = position.y;
+        posZ[i] = originZ[i] = position.z;
+        velX[i] = deviated.x;
+        velY[i] = deviated.y;
+        velZ[i] = deviated.z;
+        timeAlive[i] = 0.0f;
+        // Same lifetime rule as Projectile: the time to cover the range at muzzle speed, plus half
+        maxLifetime[i] = range / deviated.length() * 1.5f;
+        damage[i] = projectileDamage;
+        rangeSquared[i] = range * range;
+        type[i] = (byte) projectileType.ordinal();
+        bounced[i] = false;
+        damageType[i] = projectileDamageType;
+        firingShip[i] = ship;
+    }
+
+    /**
+     * Advances every projectile by one step, then resolves hits against the ships
+     *
+     * @return the number of hits
+     */
+    int update(float deltaTime, float windX, float windY, float windZ, ShipBroadPhase ships) {
+        int hits = 0;
+        int i = 0;
+        while (i < size) {
+            float t = timeAlive[i] + deltaTime;
+            if (t >= maxLifetime[i]) {
+                remove(i);
+                continue;
+            }
+            timeAlive[i] = t;
+
+            Projectile.ProjectileType projectileType = TYPES[type[i]];
+            float x = posX[i];
+            float y = posY[i];
+            float z = posZ[i];
+
+            // Wind, then quadratic drag along the velocity
+            float windFactor = projectileType.getWindResistance() * deltaTime;
+            float vx = velX[i] + windX * windFactor;
+            float vy = velY[i] + windY * windFactor;
+            float vz = velZ[i] + windZ * windFactor;
+            float speed = (float) Math.sqrt(vx * vx + vy * vy + vz * vz);
+            if (speed > 0) {
+                float dragCoefficient = y <= 0.0f ? projectileType.getWaterDrag() : AIR_DRAG;
+                float scale = 1.0f - speed * dragCoefficient * deltaTime;
+                vx *= scale;
+                vy *= scale;
+                vz *= scale;
+            }
+            vy -= GRAVITY * projectileType.getGravityEffect() * deltaTime;
+
+            float nx = x + vx * deltaTime;
+            float ny = y + vy * deltaTime;
+            float nz = z + vz * deltaTime;
+
+            // Sweep the step before water impact, so a ball grazing a hull at the waterline still hits
+            int target = ships.sweep(x, y, z, nx, ny, nz, PROJECTILE_RADIUS, firingShip[i]);
+            if (target >= 0) {
+                // Damage lands where the ball met the hull, not where the step would have ended
+                float hitTime = ships.getHitTime();
+                applyHit(i, ships.getShip(target), x + (nx - x) * hitTime, y + (ny - y) * hitTime,
+                         z + (nz - z) * hitTime, (float) Math.sqrt(vx * vx + vy * vy + vz * vz));
+                hits++;
+                remove(i);
+                continue;
+            }
+
+            if (ny <= 0.0f && !bounced[i]) {
+                if (projectileType != Projectile.ProjectileType.CHAIN_SHOT) {
+                    logWaterImpact(i, projectileType, nx, ny, nz);
+                    remove(i);
+                    continue;
+                }
+                // Chain shot skips once
+                vy = Math.abs(vy) * 0.3f;
+                bounced[i] = true;
+            }
+
+            float dx = nx - originX[i];
+            float dy = ny - originY[i];
+            float dz = nz - originZ[i];
+            if (dx * dx + dy * dy + dz * dz > rangeSquared[i]) {
+                remove(i);
+                continue;
+            }
+
+            posX[i] = nx;
+            posY[i] = ny;
+            posZ[i] = nz;
+            velX[i] = vx;
+            velY[i] = vy;
+            velZ[i] = vz;
+            i++;
+        }
+        return hits;
+    }
+
+    /**
+     * Copies the positions of all live projectiles as x, y, z triples
+     *
+     * @return the number of projectiles copied
+     */
+    int copyPositions(float[] out) {
+        int count = Math.min(size, out.length / 3);
+        for (int i = 0; i < count; i++) {
+            out[i * 3] = posX[i];
+            out[i * 3 + 1] = posY[i];
+            out[i * 3 + 2] = posZ[i];
+        }
+        return count;
+    }
+
+    /**
+     * Builds a {@link Projectile} copy of every live projectile
+     */
+    List<Projectile> snapshot() {
+        List<Projectile> projectiles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            projectiles.add(new Projectile(
+                TYPES[type[i]],
+                new Vector3f(posX[i], posY[i], posZ[i]),
+                new Vector3f(velX[i], velY[i], velZ[i]),
+                damage[i],
+                (float) Math.sqrt(rangeSquared[i]),
+                damageType[i],
+                firingShip[i],
+                timeAlive[i],
+                maxLifetime[i]
+            ));
+        }
+        return projectiles;
+    }
+
+    void clear() {
+        Arrays.fill(damageType, 0, size, null);
+        Arrays.fill(firingShip, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Reports a projectile that is spent on reaching the water
+     */
+    private void logWaterImpact(int i, Projectile.ProjectileType projectileType, float x, float y, float z) {
+        switch (projectileType) {
+            case GRAPE_SHOT:
+                logger.debug("Grape shot spread created at ({}, {}, {})", x, y, z);
+                break;
+            case EXPLOSIVE_SHOT:
+                logger.debug("Explosion created at ({}, {}, {}) with damage {}", x, y, z, damage[i] * 1.5f);
+                break;
+            default:
+                // Cannonballs sink immediately
+                break;
+        }
+    }
+
+    private void applyHit(int i, Ship target, float x, float y, float z, float impactSpeed) {
+        Projectile.ProjectileType projectileType = TYPES[type[i]];
+        Vector3f shipPosition = target.getPosition();
+        Vector3f impact = new Vector3f(x - shipPosition.x, y - shipPosition.y, z - shipPosition.z);
+
+        float actualDamage = Projectile.calculateImpactDamage(projectileType, damage[i], impactSpeed);
+        target.takeDamage(impact, actualDamage, damageType[i]);
+        Projectile.applySpecialEffects(projectileType, damage[i], target);
+
+        logger.debug("Combat hit: {} projectile from {} hit {} for {} damage",
+                   projectileType.getName(), firingShip[i].getName(), target.getName(), actualDamage);
+    }
+
+    /**
+     * Moves the last projectile into slot i
+     */
+    private void remove(int i) {
+        int last = --size;
+        if (i != last) {
+            posX[i] = posX[last];
+            posY[i] = posY[last];
+            posZ[i] = posZ[last];
+            velX[i] = velX[last];
+            velY[i] = velY[last];
+            velZ[i] = velZ[last];
+            originX[i] = originX[last];
+            originY[i] = originY[last];
+            originZ[i] = originZ[last];
+            timeAlive[i] = timeAlive[last];
+            maxLifetime[i] = maxLifetime[last];
+            damage[i] = damage[last];
+            rangeSquared[i] = rangeSquared[last];
+            type[i] = type[last];
+            bounced[i] = bounced[last];
+            damageType[i] = damageType[last];
+            firingShip[i] = firingShip[last];
+        }
+        // Don't keep ships reachable from dead slots
+        damageType[last] = null;
+        firingShip[last] = null;
+    }
+
+    private void allocate(int capacity) {
+        posX = new float[capacity];
+        posY = new float[capacity];
+        posZ = new float[capacity];
+        velX = new float[capacity];
+        velY = new float[capacity];
+        velZ = new float[capacity];
+        originX = new float[capacity];
+        originY = new float[capacity];
+        originZ = new float[capacity];
+        timeAlive = new float[capacity];
+        maxLifetime = new float[capacity];
+        damage = new float[capacity];
+        rangeSquared = new float[capacity];
+        type = new byte[capacity];
+        bounced = new boolean[capacity];
+        damageType = new DamageType[capacity];
+        firingShip = new Ship[capacity];
+    }
+
+    private void grow(int capacity) {
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        velZ = Arrays.copyOf(velZ, capacity);
+        originX = Arrays.copyOf(originX, capacity);
+        originY = Arrays.copyOf(originY, capacity);
+        originZ = Arrays.copyOf(originZ, capacity);
+        timeAlive = Arrays.copyOf(timeAlive, capacity);
+        maxLifetime = Arrays.copyOf(maxLifetime, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        rangeSquared = Arrays.copyOf(rangeSquared, capacity);
+        type = Arrays.copyOf(type, capacity);
+        bounced = Arrays.copyOf(bounced, capacity);
+        damageType = Arrays.copyOf(damageType, capacity);
+        firingShip = Arrays.copyOf(firingShip, capacity);
+    }
+}
@@ -0,0 +1,284 @@
+package com.odyssey.combat;
+
+import com.odyssey.ship.Ship;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ship bounds for one combat step, bucketed into a uniform grid over the XZ plane.
+ *
+ * Bounds are axis-aligned boxes sized from the ship type, the same boxes
+ * {@link Projectile#checkCollision} uses. They are gathered once per step, so testing
+ * thousands of projectiles neither allocates nor calls back into the ships. The grid
+ * covers just the area the ships occupy. A ship is listed in every cell its box
+ * overlaps, so a sweep only tests the ships in the few cells its path crosses.
+ */
+final class ShipBroadPhase {
+
+    private static final int MAX_CELLS_PER_AXIS = 64;
+
+    private Ship[] ships = new Ship[16];
+    private float[] minX = new float[16];
+    private float[] minY = new float[16];
+    private float[] minZ = new float[16];
+    private float[] maxX = new float[16];
+    private float[] maxY = new float[16];
+    private float[] maxZ = new float[16];
+    private int count;
+
+    // Grid over the union of all boxes; cellStart[c]..cellStart[c + 1] indexes cellShips
+    private float boundsMinX;
+    private float boundsMinY;
+    private float boundsMinZ;
+    private float boundsMaxX;
+    private float boundsMaxY;
+    private float boundsMaxZ;
+    private float inverseCellSize;
+    private int cellsX;
+    private int cellsZ;
+    private int[] cellStart = new int[1];
+    private int[] cellShips = new int[16];
+
+    // Fraction of the last sweep's segment at which it entered the ship it hit
+    private float hitTime;
+
+    /**
+     * Gathers the bounds of the given ships and rebuilds the grid
+     */
+    void build(List<Ship> shipList) {
+        count = 0;
+        if (shipList.size() > ships.length) {
+            grow(shipList.size());
+        }
+
+        boundsMinX = boundsMinY = boundsMinZ = Float.POSITIVE_INFINITY;
+        boundsMaxX = boundsMaxY = boundsMaxZ = Float.NEGATIVE_INFINITY;
+        float largest = 0.0f;
+
+        for (Ship ship : shipList) {
+            if (ship == null) {
+                continue;
+            }
+            Vector3f position = ship.getPosition();
+            float halfWidth = ship.getShipType().getWidth() / 2;
+            float halfHeight = ship.getShipType().getHeight() / 2;
+            float halfLength = ship.getShipType().getLength() / 2;
+
+            int i = count++;
+            ships[i] = ship;
+            minX[i] = position.x - halfWidth;
+            maxX[i] = position.x + halfWidth;
+            minY[i] = position.y - halfHeight;
+            maxY[i] = position.y + halfHeight;
+            minZ[i] = position.z - halfLength;
+            maxZ[i] = position.z + halfLength;
+
+            boundsMinX = Math.min(boundsMinX, minX[i]);
+            boundsMinY = Math.min(boundsMinY, minY[i]);
+            boundsMinZ = Math.min(boundsMinZ, minZ[i]);
+            boundsMaxX = Math.max(boundsMaxX, maxX[i]);
+            boundsMaxY = Math.max(boundsMaxY, maxY[i]);
+            boundsMaxZ = Math.max(boundsMaxZ, maxZ[i]);
+            largest = Math.max(largest, Math.max(halfWidth, halfLength) * 2);
+        }
+        // Clear references left over from a larger fleet
+        Arrays.fill(ships, count, ships.length, null);
+
+        if (count == 0) {
+            cellsX = cellsZ = 0;
+            return;
+        }
+
+        // Cells about one ship long, unless the fleet is spread so wide that would be too many
+        float extent = Math.max(boundsMaxX - boundsMinX, boundsMaxZ - boundsMinZ);
+        float cellSize = Math.max(Math.max(largest, 1.0f), extent / MAX_CELLS_PER_AXIS);
+        inverseCellSize = 1.0f / cellSize;
+        cellsX = Math.min(MAX_CELLS_PER_AXIS, (int) ((boundsMaxX - boundsMinX) * inverseCellSize) + 1);
+        cellsZ = Math.min(MAX_CELLS_PER_AXIS, (int) ((boundsMaxZ - boundsMinZ) * inverseCellSize) + 1);
+
+        // Counting sort of ship indices into cells
+        int cells = cellsX * cellsZ;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        int entries = 0;
+        for (int i = 0; i < count; i++) {
+            int fromX = cellX(minX[i]);
+            int toX = cellX(maxX[i]);
+            int fromZ = cellZ(minZ[i]);
+            int toZ = cellZ(maxZ[i]);
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    cellStart[x + z * cellsX + 1]++;
+                }
+            }
+            entries += (toX - fromX + 1) * (toZ - fromZ + 1);
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        if (cellShips.length < entries) {
+            cellShips = new int[entries];
+        }
+
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        for (int i = 0; i < count; i++) {
+            int fromX = cellX(minX[i]);
+            int toX = cellX(maxX[i]);
+            int fromZ = cellZ(minZ[i]);
+            int toZ = cellZ(maxZ[i]);
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    cellShips[fill[x + z * cellsX]++] = i;
+                }
+            }
+        }
+    }
+
+    Ship getShip(int index) {
+        return ships[index];
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Sweeps a sphere along a segment and finds the first ship box it touches
+     *
+     * @param ignore a ship that can't be hit, usually the one that fired
+     * @return the index of the ship hit earliest along the segment, or -1; where along
+     *         the segment it was hit is then given by {@link #getHitTime()}
+     */
+    int sweep(float x0, float y0, float z0, float x1, float y1, float z1, float radius, Ship ignore) {
+        if (count == 0) {
+            return -1;
+        }
+        float sweepMinX = Math.min(x0, x1) - radius;
+        float sweepMaxX = Math.max(x0, x1) + radius;
+        float sweepMinY = Math.min(y0, y1) - radius;
+        float sweepMaxY = Math.max(y0, y1) + radius;
+        float sweepMinZ = Math.min(z0, z1) - radius;
+        float sweepMaxZ = Math.max(z0, z1) + radius;
+
+        // Most shots in flight are nowhere near any ship
+        if (sweepMaxX < boundsMinX || sweepMinX > boundsMaxX
+            || sweepMaxY < boundsMinY || sweepMinY > boundsMaxY
+            || sweepMaxZ < boundsMinZ || sweepMinZ > boundsMaxZ) {
+            return -1;
+        }
+
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float dz = z1 - z0;
+        int fromX = cellX(sweepMinX);
+        int toX = cellX(sweepMaxX);
+        int fromZ = cellZ(sweepMinZ);
+        int toZ = cellZ(sweepMaxZ);
+
+        int hit = -1;
+        hitTime = Float.POSITIVE_INFINITY;
+        for (int cz = fromZ; cz <= toZ; cz++) {
+            for (int cx = fromX; cx <= toX; cx++) {
+                int cell = cx + cz * cellsX;
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                    int i = cellShips[e];
+                    if (ships[i] == ignore) {
+                        continue;
+                    }
+                    float t = entryTime(i, x0, y0, z0, dx, dy, dz, radius);
+                    if (t < hitTime) {
+                        hitTime = t;
+                        hit = i;
+                    }
+                }
+            }
+        }
+        return hit;
+    }
+
+    /**
+     * Gets the fraction of the last sweep's segment, from 0 to 1, at which the sphere
+     * first touched the ship it hit
+     */
+    float getHitTime() {
+        return hitTime;
+    }
+
+    /**
+     * Slab test of the segment against ship i's box grown by the radius, which is the
+     * same as sweeping the sphere against the box
+     *
+     * @return the fraction of the segment at which it enters the box, 0 if it starts
+     *         inside, or infinity if it misses
+     */
+    private float entryTime(int i, float x0, float y0, float z0, float dx, float dy, float dz, float radius) {
+        float entry = 0.0f;
+        float exit = 1.0f;
+        for (int axis = 0; axis < 3; axis++) {
+            float origin;
+            float direction;
+            float min;
+            float max;
+            switch (axis) {
+                case 0:
+                    origin = x0;
+                    direction = dx;
+                    min = minX[i] - radius;
+                    max = maxX[i] + radius;
+                    break;
+                case 1:
+                    origin = y0;
+                    direction = dy;
+                    min = minY[i] - radius;
+                    max = maxY[i] + radius;
+                    break;
+                default:
+                    origin = z0;
+                    direction = dz;
+                    min = minZ[i] - radius;
+                    max = maxZ[i] + radius;
+                    break;
+            }
+
+            if (direction == 0.0f) {
+                if (origin < min || origin > max) {
+                    return Float.POSITIVE_INFINITY;
+                }
+                continue;
+            }
+            float t1 = (min - origin) / direction;
+            float t2 = (max - origin) / direction;
+            entry = Math.max(entry, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (entry > exit) {
+                return Float.POSITIVE_INFINITY;
+            }
+        }
+        return entry;
+    }
+
+    private int cellX(float x) {
+        int cell = (int) ((x - boundsMinX) * inverseCellSize);
+        return Math.max(0, Math.min(cellsX - 1, cell));
+    }
+
+    private int cellZ(float z) {
+        int cell = (int) ((z - boundsMinZ) * inverseCellSize);
+        return Math.max(0, Math.min(cellsZ - 1, cell));
+    }
+
+    private void grow(int capacity) {
+        ships = Arrays.copyOf(ships, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        minZ = Arrays.copyOf(minZ, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        maxZ = Arrays.copyOf(maxZ, capacity);
+    }
+}
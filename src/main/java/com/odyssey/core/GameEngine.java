@@ -5,6 +5,7 @@ import com.odyssey.input.GameAction;
 import com.odyssey.rendering.RenderEngine;
 import com.odyssey.world.WorldManager;
 import com.odyssey.audio.AudioEngine;
+import com.odyssey.combat.CombatManager;
 import com.odyssey.physics.PhysicsEngine;
 import com.odyssey.networking.NetworkManager;
 import com.odyssey.save.SaveManager;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import com.odyssey.world.weather.WeatherSystem;
 import com.odyssey.world.weather.WeatherCondition;
 import com.odyssey.ship.ShipManager;
@@ -66,6 +68,9 @@ public class GameEngine {
     private SaveManager saveManager;
     private LoadGameMenu loadGameMenu;
     private WeatherSystem weatherSystem;
+    
+    /** Reused for per-ship weather lookups */
+    private final WeatherCondition shipWeather = new WeatherCondition();
 
     // Timing and Performance
     private double deltaTime;
@@ -73,6 +78,11 @@ public class GameEngine {
     private long gameStartTime;
     private long totalGameTime; // Total game time in milliseconds
     
+    // Autosave
+    private static final String AUTOSAVE_NAME = "autosave";
+    private double autosaveTimer;
+    private CompletableFuture<Boolean> pendingAutosave;
+    
     // Engine State
     private boolean initialized = false;
     private boolean shouldClose = false;
@@ -373,6 +383,10 @@ public class GameEngine {
             worldManager.cleanup();
         }
         
+        if (weatherSystem != null) {
+            weatherSystem.shutdown();
+        }
+        
         if (physicsEngine != null) {
             physicsEngine.cleanup();
         }
@@ -553,6 +567,8 @@ public class GameEngine {
             shipManager = new ShipManager();
             questManager = new QuestManager();
             achievementManager = new AchievementManager();
+            combatManager = new CombatManager();
+            renderEngine.setCombatSystem(combatManager.getCombatSystem());
             
             LOGGER.info("All game systems initialized successfully");
         } catch (Exception e) {
@@ -570,6 +586,9 @@ public class GameEngine {
     /** Achievement management system */
     private AchievementManager achievementManager;
     
+    /** Combat system: projectiles and engagements */
+    private CombatManager combatManager;
+    
     /** Resource manager */
     private ResourceManager resourceManager;
     
@@ -586,9 +605,19 @@ public class GameEngine {
             
             // Update game management systems
             shipManager.update((float) deltaTime);
+            combatManager.update((float) deltaTime);
+            updateWeatherFocus();
             questManager.update((float) deltaTime);
             achievementManager.update((float) deltaTime);
             
+            // Hand ship state to the snapshot system when hosting
+            if (networkManager != null && networkManager.isServer()) {
+                networkManager.getSnapshotManager().updateShips(shipManager.getPlayerShips());
+            }
+            
+            // Write an incremental checkpoint when the autosave interval elapses
+            updateAutosave();
+            
             // Apply weather effects to ships
             // applyWeatherEffectsToShips();
             
@@ -605,6 +634,29 @@ public class GameEngine {
         }
     }
     
+    /**
+     * Triggers an incremental autosave every configured interval. Only changed state is
+     * captured on the game thread; the checkpoint itself is written on the save thread.
+     */
+    private void updateAutosave() {
+        if (saveManager == null || !config.isEnableAutosave()) {
+            return;
+        }
+        
+        autosaveTimer += deltaTime;
+        if (autosaveTimer < config.getAutosaveInterval()) {
+            return;
+        }
+        
+        // Wait for the previous checkpoint to finish rather than queueing another
+        if (pendingAutosave != null && !pendingAutosave.isDone()) {
+            return;
+        }
+        
+        autosaveTimer = 0;
+        pendingAutosave = saveManager.autosave(AUTOSAVE_NAME);
+    }
+    
     private void updatePaused() {
         // Update pause menu, but not game world
     }
@@ -616,6 +668,9 @@ public class GameEngine {
     
     private void updateCombat() {
         // Update combat systems
+        if (combatManager != null) {
+            combatManager.update((float) deltaTime);
+        }
     }
     
     private void updateDialogue() {
@@ -888,6 +943,18 @@ public class GameEngine {
                 player.setSpawnPoint(playerData.getSpawnPoint());
                 player.setGameTime(playerData.getGameTime());
                 
+                // Restore faction standing
+                if (saveData.getFactionReputations() != null) {
+                    for (Map.Entry<String, Integer> entry : saveData.getFactionReputations().entrySet()) {
+                        try {
+                            player.getFactionManager().restoreReputation(
+                                com.odyssey.faction.FactionType.valueOf(entry.getKey()), entry.getValue());
+                        } catch (IllegalArgumentException e) {
+                            LOGGER.warn("Ignoring reputation for unknown faction '{}'", entry.getKey());
+                        }
+                    }
+                }
+                
                 LOGGER.info("Player data loaded successfully: {} at position {}", 
                     player.getPlayerName(), player.getPosition());
             }
@@ -1281,15 +1348,30 @@ public class GameEngine {
         return new HashMap<>();
     }
 
+    /**
+     * Keeps the precomputed weather field centered on the player's lead ship
+     */
+    private void updateWeatherFocus() {
+        if (shipManager != null && weatherSystem != null) {
+            List<Ship> ships = shipManager.getPlayerShips();
+            if (!ships.isEmpty() && ships.get(0) != null) {
+                Vector3f position = ships.get(0).getPosition();
+                weatherSystem.setFieldFocus(position.x, position.z);
+            }
+        }
+    }
+
     private void applyWeatherEffectsToShips() {
         if (shipManager != null && weatherSystem != null) {
             List<Ship> ships = shipManager.getPlayerShips();
             for (Ship ship : ships) {
                 if (ship != null) {
                     // Get weather at ship's position
+                    Vector3f position = ship.getPosition();
                     WeatherCondition weather = weatherSystem.getWeatherAt(
-                        (int) ship.getPosition().x,
-                        (int) ship.getPosition().z
+                        (int) position.x,
+                        (int) position.z,
+                        shipWeather
                     );
                     
                     // Apply weather effects to ship
@@ -18,6 +18,9 @@ public class FactionManager {
     private Random random;
     private long lastUpdateTime;
     
+    // Reputation values as of the last save checkpoint, used to find what changed
+    private final Map<FactionType, Integer> savedReputations;
+    
     // Event and consequence settings
     private static final long UPDATE_INTERVAL = 60000; // 1 minute
     private static final int MAX_ACTIVE_EVENTS = 5;
@@ -27,10 +30,12 @@ public class FactionManager {
         this.activeEvents = new HashMap<>();
         this.random = new Random();
         this.lastUpdateTime = System.currentTimeMillis();
+        this.savedReputations = new HashMap<>();
         
         // Initialize reputation for all factions
         for (FactionType faction : FactionType.values()) {
             playerReputations.put(faction, new FactionReputation(faction));
+            savedReputations.put(faction, 0);
         }
     }
     
@@ -296,6 +301,31 @@ public class FactionManager {
         return new HashMap<>(playerReputations);
     }
     
+    /**
+     * Returns the reputation of every faction that changed since the last save checkpoint
+     * and makes the current values the new checkpoint. Comparing against the checkpoint
+     * covers every mutation path (actions, relationship effects, events and decay).
+     */
+    public synchronized Map<FactionType, Integer> collectChangedReputations() {
+        Map<FactionType, Integer> changed = new HashMap<>();
+        for (Map.Entry<FactionType, FactionReputation> entry : playerReputations.entrySet()) {
+            int value = entry.getValue().getReputation();
+            Integer saved = savedReputations.put(entry.getKey(), value);
+            if (saved == null || saved != value) {
+                changed.put(entry.getKey(), value);
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Restores a faction's reputation from save data
+     */
+    public synchronized void restoreReputation(FactionType faction, int value) {
+        playerReputations.put(faction, new FactionReputation(faction, value));
+        savedReputations.put(faction, value);
+    }
+    
     public List<FactionEvent> getActiveEvents() {
         return new ArrayList<>(activeEvents.values());
     }
@@ -0,0 +1,46 @@
+package com.odyssey.networking;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of fixed-size direct buffers shared by the network connections.
+ *
+ * Connections only hold a buffer while they have a partial frame to read or bytes
+ * waiting to be written, so idle connections cost no buffer memory. Buffers released
+ * while the pool is full are left to the garbage collector.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> free;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating a new one if the pool is empty
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize) {
+            buffer.clear();
+            free.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getPooledCount() {
+        return free.size();
+    }
+}
@@ -4,98 +4,145 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.Socket;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents a client connection on the server side.
- * Handles communication with a single connected client.
+ * Handles communication with a single connected client over a non-blocking channel.
+ *
+ * Reads and writes run on the server's selector thread. Messages can be sent from any
+ * thread; they are queued as frames and the selector thread writes them out in batches.
  */
 public class ClientConnection {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientConnection.class);
     
+    /** Bytes a client may have queued before it is considered too slow and dropped */
+    private static final int MAX_PENDING_BYTES = 1024 * 1024;
+    
     private final String clientId;
-    private final Socket socket;
+    private final SocketChannel channel;
     private final NetworkManager networkManager;
     private final AtomicBoolean connected = new AtomicBoolean(true);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    
+    private final FrameDecoder decoder;
+    private final FrameWriter writer;
+    private SelectionKey selectionKey;
     
-    private ObjectOutputStream output;
-    private ObjectInputStream input;
+    /** Short network ID assigned when the client joined, 0 until then */
+    private volatile int netId;
     
     /**
      * Create a new client connection.
-     * 
+     *
      * @param clientId Unique identifier for this client
-     * @param socket The client's socket connection
+     * @param channel The client's non-blocking socket channel
      * @param networkManager Reference to the network manager
+     * @param bufferPool Pool the connection borrows read and write buffers from
      */
-    public ClientConnection(String clientId, Socket socket, NetworkManager networkManager) {
+    public ClientConnection(String clientId, SocketChannel channel, NetworkManager networkManager, BufferPool bufferPool) {
         this.clientId = clientId;
-        this.socket = socket;
+        this.channel = channel;
         this.networkManager = networkManager;
-        
-        try {
-            // Set up input/output streams
-            this.output = new ObjectOutputStream(socket.getOutputStream());
-            this.input = new ObjectInputStream(socket.getInputStream());
-            
-            LOGGER.info("Client connection established: {}", clientId);
-        } catch (IOException e) {
-            LOGGER.error("Failed to set up client streams for: {}", clientId, e);
-            connected.set(false);
-        }
+        this.decoder = new FrameDecoder(bufferPool);
+        this.writer = new FrameWriter(bufferPool, MAX_PENDING_BYTES);
     }
     
     /**
-     * Handle client communication in a separate thread.
+     * Register this connection with the server selector for reads.
+     * Must be called on the selector thread.
      */
-    public void handleClient() {
-        LOGGER.info("Starting client handler for: {}", clientId);
-        
-        while (connected.get() && !Thread.currentThread().isInterrupted()) {
-            try {
-                // Read incoming message from client
-                NetworkMessage message = (NetworkMessage) input.readObject();
+    void register(Selector selector) throws IOException {
+        selectionKey = channel.register(selector, SelectionKey.OP_READ, this);
+        LOGGER.info("Client connection established: {}", clientId);
+    }
+    
+    /**
+     * Read available bytes and forward every complete message to the network manager.
+     * Called on the selector thread when the channel is readable.
+     */
+    void handleRead() {
+        try {
+            if (decoder.read(channel) < 0) {
+                LOGGER.info("Client closed the connection: {}", clientId);
+                close();
+                return;
+            }
+            
+            byte[] frame;
+            while ((frame = decoder.nextFrame()) != null) {
+                NetworkMessage message = FrameCodec.decode(frame);
                 
-                // Set the sender ID
+                // Set the sender ID; the connection is trusted over whatever the client sent
                 message.setSenderId(clientId);
+                message.setSenderNetId(netId);
                 
-                // Forward message to network manager for processing
                 networkManager.addIncomingMessage(message);
-                
                 LOGGER.debug("Received message from client {}: {}", clientId, message.getMessageType());
-                
-            } catch (IOException | ClassNotFoundException e) {
-                if (connected.get()) {
-                    LOGGER.warn("Error reading from client {}: {}", clientId, e.getMessage());
-                    disconnect();
-                }
-                break;
             }
+        } catch (IOException e) {
+            if (connected.get()) {
+                LOGGER.warn("Error reading from client {}: {}", clientId, e.getMessage());
+            }
+            close();
+        }
+    }
+    
+    /**
+     * Write queued frames, asking for write readiness if the socket buffer fills up.
+     * Called on the selector thread.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        if (!connected.get()) {
+            return;
         }
         
-        LOGGER.info("Client handler stopped for: {}", clientId);
+        try {
+            boolean drained = writer.flush(channel);
+            selectionKey.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException | CancelledKeyException e) {
+            if (connected.get()) {
+                LOGGER.warn("Error writing to client {}: {}", clientId, e.getMessage());
+            }
+            close();
+        }
     }
     
     /**
      * Send a message to this client.
-     * 
+     *
      * @param message The message to send
-     * @throws IOException If sending fails
+     * @throws IOException If the message cannot be encoded or the client is gone
      */
     public void sendMessage(NetworkMessage message) throws IOException {
+        sendFrame(FrameCodec.encode(message));
+        LOGGER.debug("Queued message for client {}: {}", clientId, message.getMessageType());
+    }
+    
+    /**
+     * Queue an already encoded frame payload, so a broadcast encodes its message once.
+     *
+     * @param frame The frame payload
+     * @throws IOException If the client is not connected or has too much data queued
+     */
+    void sendFrame(byte[] frame) throws IOException {
         if (!connected.get()) {
             throw new IOException("Client is not connected: " + clientId);
         }
         
-        try {
-            output.writeObject(message);
-            output.flush();
-            LOGGER.debug("Sent message to client {}: {}", clientId, message.getMessageType());
-        } catch (IOException e) {
-            LOGGER.error("Failed to send message to client {}: {}", clientId, e.getMessage());
-            disconnect();
-            throw e;
+        if (!writer.enqueue(frame)) {
+            LOGGER.warn("Dropping client {}: more than {} bytes waiting to be sent", clientId, MAX_PENDING_BYTES);
+            requestClose();
+            throw new IOException("Send queue full for client: " + clientId);
+        }
+        
+        if (flushScheduled.compareAndSet(false, true)) {
+            networkManager.scheduleFlush(this);
         }
     }
     
@@ -109,16 +156,11 @@ public class ClientConnection {
         
         LOGGER.info("Disconnecting client: {}", clientId);
         
+        if (selectionKey != null) {
+            selectionKey.cancel();
+        }
         try {
-            if (output != null) {
-                output.close();
-            }
-            if (input != null) {
-                input.close();
-            }
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
-            }
+            channel.close();
         } catch (IOException e) {
             LOGGER.warn("Error closing client connection {}: {}", clientId, e.getMessage());
         }
@@ -126,9 +168,30 @@ public class ClientConnection {
         LOGGER.info("Client disconnected: {}", clientId);
     }
     
+    /**
+     * Disconnect from any thread. The client is forgotten at once and the selector thread
+     * is asked to {@link #close()} the connection, since only it may release the buffers.
+     */
+    void requestClose() {
+        disconnect();
+        networkManager.removeClient(this);
+        networkManager.scheduleClose(this);
+    }
+    
+    /**
+     * Disconnect and return pooled buffers. Only the selector thread may release
+     * buffers, since it is the only thread using them.
+     */
+    void close() {
+        disconnect();
+        decoder.release();
+        writer.release();
+        networkManager.removeClient(this);
+    }
+    
     /**
      * Get the client ID.
-     * 
+     *
      * @return The unique client identifier
      */
     public String getClientId() {
@@ -136,23 +199,51 @@ public class ClientConnection {
     }
     
     /**
-     * Check if the client is still connected.
+     * Get the short network ID assigned at join.
      * 
+     * @return The network ID, or 0 if the client has not joined yet
+     */
+    public int getNetId() {
+        return netId;
+    }
+    
+    /**
+     * Set the short network ID.
+     * 
+     * @param netId The network ID assigned to this client
+     */
+    void setNetId(int netId) {
+        this.netId = netId;
+    }
+    
+    /**
+     * Check if the client is still connected.
+     *
      * @return True if connected, false otherwise
      */
     public boolean isConnected() {
-        return connected.get() && socket != null && !socket.isClosed();
+        return connected.get() && channel.isOpen();
+    }
+    
+    /**
+     * Check if frames are still waiting to be written to this client.
+     *
+     * @return True if there is unsent data
+     */
+    public boolean hasPendingWrites() {
+        return writer.hasPending();
     }
     
     /**
      * Get the client's remote address.
-     * 
+     *
      * @return The client's address as a string
      */
     public String getRemoteAddress() {
-        if (socket != null) {
-            return socket.getRemoteSocketAddress().toString();
+        try {
+            return String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            return "Unknown";
         }
-        return "Unknown";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Network message sent by either side just before it closes the connection, so the
+ * other side can drop the peer at once instead of waiting for the socket to fail.
+ * Carries no fields.
+ */
+public class DisconnectMessage extends NetworkMessage {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** Binary wire codec */
+    static final MessageCodec<DisconnectMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(DisconnectMessage message, BinaryWriter writer) {
+            // No fields
+        }
+        
+        @Override
+        public DisconnectMessage decode(BinaryReader reader) throws IOException {
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                reader.skipField();
+            }
+            return new DisconnectMessage();
+        }
+    };
+    
+    public DisconnectMessage() {
+        super(MessageType.DISCONNECT);
+    }
+}
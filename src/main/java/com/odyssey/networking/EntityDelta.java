@@ -0,0 +1,136 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Changes to one entity between a client's acknowledged snapshot and the current one.
+ *
+ * An entity the client has not seen is sent in full with its kind; otherwise only the
+ * fields that changed are sent. Positions and velocities are sent as differences from
+ * the baseline, which are usually a single varint byte, while angles and flags are sent
+ * as absolute values since a difference would not be any smaller.
+ */
+public final class EntityDelta {
+
+    private static final int TAG_ENTITY_ID = 1;
+    private static final int TAG_KIND = 2;
+    private static final int TAG_FIRST_FIELD = 3;
+
+    /** Fields sent as differences from the baseline */
+    private static final int RELATIVE_FIELDS = 1 << EntityState.X | 1 << EntityState.Y | 1 << EntityState.Z
+                                             | 1 << EntityState.VELOCITY_X | 1 << EntityState.VELOCITY_Y
+                                             | 1 << EntityState.VELOCITY_Z;
+
+    private final int entityId;
+    private final EntityState.Kind kind;
+    private final int changedFields;
+    private final long[] values;
+
+    private EntityDelta(int entityId, EntityState.Kind kind, int changedFields, long[] values) {
+        this.entityId = entityId;
+        this.kind = kind;
+        this.changedFields = changedFields;
+        this.values = values;
+    }
+
+    /**
+     * Computes the delta from a baseline state to the current one.
+     *
+     * @param baseline the state the client already has, or null if it has none
+     * @return the delta, or null if nothing changed
+     */
+    public static EntityDelta between(EntityState baseline, EntityState current) {
+        long[] values = new long[EntityState.FIELD_COUNT];
+        int changed = 0;
+        for (int field = 0; field < EntityState.FIELD_COUNT; field++) {
+            long value = current.getField(field);
+            long base = baseline != null ? baseline.getField(field) : 0;
+            if (value != base) {
+                changed |= 1 << field;
+                values[field] = baseline != null && isRelative(field) ? value - base : value;
+            }
+        }
+
+        if (baseline != null && changed == 0) {
+            return null;
+        }
+        return new EntityDelta(current.getEntityId(), baseline == null ? current.getKind() : null, changed, values);
+    }
+
+    /**
+     * Applies this delta to the client's baseline state.
+     *
+     * @param baseline the baseline state, ignored for full entries
+     * @throws IOException if the entry is a delta and the baseline does not have the entity
+     */
+    public EntityState applyTo(EntityState baseline) throws IOException {
+        if (isFull()) {
+            return new EntityState(entityId, kind, values.clone());
+        }
+        if (baseline == null) {
+            throw new IOException("Delta for entity " + entityId + " has no baseline");
+        }
+
+        long[] fields = baseline.copyFields();
+        for (int field = 0; field < EntityState.FIELD_COUNT; field++) {
+            if ((changedFields & 1 << field) != 0) {
+                fields[field] = isRelative(field) ? fields[field] + values[field] : values[field];
+            }
+        }
+        return new EntityState(entityId, baseline.getKind(), fields);
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Checks whether this entry carries the complete state of an entity new to the client
+     */
+    public boolean isFull() {
+        return kind != null;
+    }
+
+    void write(BinaryWriter writer) {
+        writer.writeVarIntField(TAG_ENTITY_ID, entityId);
+        if (kind != null) {
+            writer.writeVarIntField(TAG_KIND, kind.ordinal());
+        }
+        for (int field = 0; field < EntityState.FIELD_COUNT; field++) {
+            if ((changedFields & 1 << field) != 0) {
+                writer.writeSignedVarLongField(TAG_FIRST_FIELD + field, values[field]);
+            }
+        }
+    }
+
+    static EntityDelta read(BinaryReader reader) throws IOException {
+        int entityId = 0;
+        EntityState.Kind kind = null;
+        int changed = 0;
+        long[] values = new long[EntityState.FIELD_COUNT];
+        for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+            int field = tag - TAG_FIRST_FIELD;
+            if (tag == TAG_ENTITY_ID) {
+                entityId = reader.readVarInt();
+            } else if (tag == TAG_KIND) {
+                kind = EntityState.Kind.fromOrdinal(reader.readVarInt());
+                if (kind == null) {
+                    throw new IOException("Unknown entity kind in snapshot");
+                }
+            } else if (field >= 0 && field < EntityState.FIELD_COUNT) {
+                values[field] = reader.readSignedVarLong();
+                changed |= 1 << field;
+            } else {
+                reader.skipField();
+            }
+        }
+        return new EntityDelta(entityId, kind, changed, values);
+    }
+
+    private static boolean isRelative(int field) {
+        return (RELATIVE_FIELDS & 1 << field) != 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.odyssey.networking;
+
+import com.odyssey.world.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * Replicated state of one player or ship, stored in the quantized form used on the wire.
+ *
+ * Values are kept quantized (see {@link Quantization}) so two states compare equal when
+ * they would encode to the same bytes, and movement below the wire precision never
+ * produces a delta.
+ */
+public final class EntityState {
+
+    /**
+     * Kinds of replicated entity
+     */
+    public enum Kind {
+        PLAYER,
+        SHIP;
+
+        private static final Kind[] VALUES = values();
+
+        static Kind fromOrdinal(int ordinal) {
+            return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+        }
+    }
+
+    static final int X = 0;
+    static final int Y = 1;
+    static final int Z = 2;
+    static final int YAW = 3;
+    static final int PITCH = 4;
+    static final int ROLL = 5;
+    static final int VELOCITY_X = 6;
+    static final int VELOCITY_Y = 7;
+    static final int VELOCITY_Z = 8;
+    static final int FLAGS = 9;
+    static final int FIELD_COUNT = 10;
+
+    /** Quantized units per chunk along the X and Z axes */
+    private static final long CHUNK_UNITS = (long) (Quantization.POSITION_SCALE * Chunk.CHUNK_SIZE);
+
+    private final int entityId;
+    private final Kind kind;
+    private final long[] fields;
+
+    EntityState(int entityId, Kind kind, long[] fields) {
+        this.entityId = entityId;
+        this.kind = kind;
+        this.fields = fields;
+    }
+
+    public static EntityState of(int entityId, Kind kind, double x, double y, double z,
+                                 float yaw, float pitch, float roll,
+                                 double velocityX, double velocityY, double velocityZ, int flags) {
+        long[] fields = new long[FIELD_COUNT];
+        fields[X] = Quantization.quantizePosition(x);
+        fields[Y] = Quantization.quantizePosition(y);
+        fields[Z] = Quantization.quantizePosition(z);
+        fields[YAW] = Quantization.quantizeAngle(yaw);
+        fields[PITCH] = Quantization.quantizeAngle(pitch);
+        fields[ROLL] = Quantization.quantizeAngle(roll);
+        fields[VELOCITY_X] = Quantization.quantizeVelocity(velocityX);
+        fields[VELOCITY_Y] = Quantization.quantizeVelocity(velocityY);
+        fields[VELOCITY_Z] = Quantization.quantizeVelocity(velocityZ);
+        fields[FLAGS] = flags;
+        return new EntityState(entityId, kind, fields);
+    }
+
+    public int getEntityId() { return entityId; }
+    public Kind getKind() { return kind; }
+
+    public double getX() { return Quantization.dequantizePosition(fields[X]); }
+    public double getY() { return Quantization.dequantizePosition(fields[Y]); }
+    public double getZ() { return Quantization.dequantizePosition(fields[Z]); }
+
+    public float getYaw() { return Quantization.dequantizeAngle((int) fields[YAW]); }
+    public float getPitch() { return Quantization.dequantizeAngle((int) fields[PITCH]); }
+    public float getRoll() { return Quantization.dequantizeAngle((int) fields[ROLL]); }
+
+    public double getVelocityX() { return Quantization.dequantizeVelocity((int) fields[VELOCITY_X]); }
+    public double getVelocityY() { return Quantization.dequantizeVelocity((int) fields[VELOCITY_Y]); }
+    public double getVelocityZ() { return Quantization.dequantizeVelocity((int) fields[VELOCITY_Z]); }
+
+    public int getFlags() { return (int) fields[FLAGS]; }
+
+    /**
+     * Gets the X coordinate of the chunk holding this entity
+     */
+    public int getChunkX() {
+        return (int) Math.floorDiv(fields[X], CHUNK_UNITS);
+    }
+
+    /**
+     * Gets the Z coordinate of the chunk holding this entity
+     */
+    public int getChunkZ() {
+        return (int) Math.floorDiv(fields[Z], CHUNK_UNITS);
+    }
+
+    long getField(int field) {
+        return fields[field];
+    }
+
+    long[] copyFields() {
+        return fields.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EntityState)) return false;
+        EntityState other = (EntityState) o;
+        return entityId == other.entityId && kind == other.kind && Arrays.equals(fields, other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * entityId + kind.hashCode()) + Arrays.hashCode(fields);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntityState{id=%d, kind=%s, pos=(%.2f,%.2f,%.2f), yaw=%.1f}",
+                             entityId, kind, getX(), getY(), getZ(), getYaw());
+    }
+}
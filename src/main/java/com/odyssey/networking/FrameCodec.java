@@ -0,0 +1,47 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Converts messages to and from frame payloads using the binary wire protocol described
+ * in {@link MessageRegistry}.
+ *
+ * On the wire every frame is a 4-byte big-endian payload length followed by the
+ * payload. Frames are limited to {@link #MAX_FRAME_SIZE} bytes so a whole frame always
+ * fits in one pooled buffer.
+ */
+public final class FrameCodec {
+
+    /** Size of the length prefix in front of every frame */
+    public static final int HEADER_SIZE = Integer.BYTES;
+
+    /** Size of the pooled buffers frames are read into and coalesced in */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Largest payload a single frame may carry */
+    public static final int MAX_FRAME_SIZE = BUFFER_SIZE - HEADER_SIZE;
+
+    /** Scratch writers, one per sending thread, so encoding only allocates the result */
+    private static final ThreadLocal<BinaryWriter> WRITERS = ThreadLocal.withInitial(() -> new BinaryWriter(512));
+
+    private FrameCodec() {
+    }
+
+    public static byte[] encode(NetworkMessage message) throws IOException {
+        BinaryWriter writer = WRITERS.get();
+        writer.reset();
+        MessageRegistry.getDefault().encode(message, writer);
+        if (writer.size() > MAX_FRAME_SIZE) {
+            throw new IOException("Message " + message.getMessageType() + " is " + writer.size()
+                                  + " bytes, frames are limited to " + MAX_FRAME_SIZE);
+        }
+        return writer.toByteArray();
+    }
+
+    public static NetworkMessage decode(byte[] payload) throws IOException {
+        return MessageRegistry.getDefault().decode(new BinaryReader(payload));
+    }
+}
@@ -0,0 +1,70 @@
+package com.odyssey.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits the bytes read from a channel into length-prefixed frames.
+ *
+ * A pooled buffer is borrowed for each read and handed back as soon as no partial
+ * frame is left in it. Not thread-safe; each connection reads from a single thread.
+ */
+final class FrameDecoder {
+
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+
+    FrameDecoder(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Reads whatever the channel has available.
+     *
+     * @return the number of bytes read, or -1 at end of stream
+     */
+    int read(ReadableByteChannel channel) throws IOException {
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        return channel.read(buffer);
+    }
+
+    /**
+     * Gets the next complete frame payload, or null if more bytes are needed
+     */
+    byte[] nextFrame() throws IOException {
+        if (buffer == null) {
+            return null;
+        }
+
+        buffer.flip();
+        byte[] frame = null;
+        if (buffer.remaining() >= FrameCodec.HEADER_SIZE) {
+            int length = buffer.getInt(buffer.position());
+            if (length < 0 || length > FrameCodec.MAX_FRAME_SIZE) {
+                release();
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (buffer.remaining() >= FrameCodec.HEADER_SIZE + length) {
+                buffer.position(buffer.position() + FrameCodec.HEADER_SIZE);
+                frame = new byte[length];
+                buffer.get(frame);
+            }
+        }
+        buffer.compact();
+
+        if (buffer.position() == 0) {
+            release();
+        }
+        return frame;
+    }
+
+    void release() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.odyssey.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queues outgoing frames and writes them in batches.
+ *
+ * Frames can be queued from any thread. {@link #flush} packs as many queued frames as
+ * fit into one pooled buffer so a burst of small messages goes out in a single write,
+ * and only one thread may flush at a time. The queue is bounded by bytes, so a client
+ * that stops reading is dropped instead of growing the server's memory.
+ */
+final class FrameWriter {
+
+    private final BufferPool pool;
+    private final int maxPendingBytes;
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingBytes = new AtomicInteger();
+    private ByteBuffer buffer;
+
+    FrameWriter(BufferPool pool, int maxPendingBytes) {
+        this.pool = pool;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Queues a frame payload.
+     *
+     * @return false if the queue is full and the frame was dropped
+     */
+    boolean enqueue(byte[] payload) {
+        if (payload.length > FrameCodec.MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("Frame of " + payload.length + " bytes exceeds " + FrameCodec.MAX_FRAME_SIZE);
+        }
+        if (pendingBytes.addAndGet(payload.length) > maxPendingBytes) {
+            pendingBytes.addAndGet(-payload.length);
+            return false;
+        }
+        pending.offer(payload);
+        return true;
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the channel stops accepting bytes.
+     *
+     * @return true if everything was written, false if bytes are still waiting
+     */
+    boolean flush(WritableByteChannel channel) throws IOException {
+        while (true) {
+            if ((buffer == null || !buffer.hasRemaining()) && !fill()) {
+                return true;
+            }
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+        }
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty() || (buffer != null && buffer.hasRemaining());
+    }
+
+    /**
+     * Drops every queued frame and hands the write buffer back to the pool
+     */
+    void release() {
+        releaseBuffer();
+        pending.clear();
+        pendingBytes.set(0);
+    }
+
+    /**
+     * Packs queued frames into the write buffer. Returns false, with the buffer handed
+     * back to the pool, when nothing was queued.
+     */
+    private boolean fill() {
+        if (pending.isEmpty()) {
+            releaseBuffer();
+            return false;
+        }
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+
+        buffer.clear();
+        byte[] frame;
+        while ((frame = pending.peek()) != null && buffer.remaining() >= FrameCodec.HEADER_SIZE + frame.length) {
+            pending.poll();
+            pendingBytes.addAndGet(-frame.length);
+            buffer.putInt(frame.length);
+            buffer.put(frame);
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private void releaseBuffer() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Network message that only keeps an idle connection alive. Carries no fields.
+ */
+public class HeartbeatMessage extends NetworkMessage {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** Binary wire codec */
+    static final MessageCodec<HeartbeatMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(HeartbeatMessage message, BinaryWriter writer) {
+            // No fields
+        }
+        
+        @Override
+        public HeartbeatMessage decode(BinaryReader reader) throws IOException {
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                reader.skipField();
+            }
+            return new HeartbeatMessage();
+        }
+    };
+    
+    public HeartbeatMessage() {
+        super(MessageType.HEARTBEAT);
+    }
+}
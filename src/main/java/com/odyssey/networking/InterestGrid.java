@@ -0,0 +1,54 @@
+package com.odyssey.networking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets replicated entities by the world chunk they are in, so each client's area of
+ * interest can be gathered from the chunks around it instead of scanning every entity.
+ */
+final class InterestGrid {
+
+    private final Map<Long, List<EntityState>> cells = new HashMap<>();
+
+    /**
+     * Re-buckets the given entities, replacing the previous contents
+     */
+    void rebuild(Collection<EntityState> entities) {
+        for (List<EntityState> cell : cells.values()) {
+            cell.clear();
+        }
+        for (EntityState entity : entities) {
+            cells.computeIfAbsent(chunkKey(entity.getChunkX(), entity.getChunkZ()), key -> new ArrayList<>())
+                 .add(entity);
+        }
+        cells.values().removeIf(List::isEmpty);
+    }
+
+    /**
+     * Collects every entity within {@code radius} chunks of the given chunk, skipping the
+     * entity with {@code excludedId}
+     */
+    void collect(int chunkX, int chunkZ, int radius, int excludedId, Map<Integer, EntityState> out) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                List<EntityState> cell = cells.get(chunkKey(chunkX + dx, chunkZ + dz));
+                if (cell == null) {
+                    continue;
+                }
+                for (EntityState entity : cell) {
+                    if (entity.getEntityId() != excludedId) {
+                        out.put(entity.getEntityId(), entity);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -1,5 +1,10 @@
 package com.odyssey.networking;
 
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Network message sent by clients when requesting to join a server.
  * Contains player information and connection details.
@@ -8,6 +13,52 @@ public class JoinRequestMessage extends NetworkMessage {
     
     private static final long serialVersionUID = 1L;
     
+    private static final int TAG_PLAYER_NAME = 1;
+    private static final int TAG_CLIENT_VERSION = 2;
+    private static final int TAG_PLAYER_ID = 3;
+    private static final int TAG_PASSWORD = 4;
+    private static final int TAG_LANGUAGE = 5;
+    
+    /** Binary wire codec */
+    static final MessageCodec<JoinRequestMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(JoinRequestMessage message, BinaryWriter writer) {
+            writer.writeStringField(TAG_PLAYER_NAME, message.playerName);
+            writer.writeStringField(TAG_CLIENT_VERSION, message.clientVersion);
+            writer.writeStringField(TAG_PLAYER_ID, message.playerId);
+            writer.writeStringField(TAG_PASSWORD, message.password);
+            writer.writeStringField(TAG_LANGUAGE, message.language);
+        }
+        
+        @Override
+        public JoinRequestMessage decode(BinaryReader reader) throws IOException {
+            String playerName = null, clientVersion = null, playerId = null, password = null, language = null;
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                switch (tag) {
+                    case TAG_PLAYER_NAME:
+                        playerName = reader.readString();
+                        break;
+                    case TAG_CLIENT_VERSION:
+                        clientVersion = reader.readString();
+                        break;
+                    case TAG_PLAYER_ID:
+                        playerId = reader.readString();
+                        break;
+                    case TAG_PASSWORD:
+                        password = reader.readString();
+                        break;
+                    case TAG_LANGUAGE:
+                        language = reader.readString();
+                        break;
+                    default:
+                        reader.skipField();
+                        break;
+                }
+            }
+            return new JoinRequestMessage(playerName, clientVersion, playerId, password, language);
+        }
+    };
+    
     /** Player's display name */
     private final String playerName;
     
@@ -1,5 +1,10 @@
 package com.odyssey.networking;
 
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Network message sent by server in response to a client join request.
  * Contains the result of the join attempt and server information.
@@ -8,6 +13,79 @@ public class JoinResponseMessage extends NetworkMessage {
     
     private static final long serialVersionUID = 1L;
     
+    private static final int TAG_ACCEPTED = 1;
+    private static final int TAG_REJECTION_REASON = 2;
+    private static final int TAG_SERVER_NAME = 3;
+    private static final int TAG_SERVER_VERSION = 4;
+    private static final int TAG_MAX_PLAYERS = 5;
+    private static final int TAG_CURRENT_PLAYERS = 6;
+    private static final int TAG_MOTD = 7;
+    private static final int TAG_ASSIGNED_PLAYER_ID = 8;
+    private static final int TAG_ASSIGNED_NET_ID = 9;
+    
+    /** Binary wire codec */
+    static final MessageCodec<JoinResponseMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(JoinResponseMessage message, BinaryWriter writer) {
+            writer.writeBooleanField(TAG_ACCEPTED, message.accepted);
+            writer.writeStringField(TAG_REJECTION_REASON, message.rejectionReason);
+            writer.writeStringField(TAG_SERVER_NAME, message.serverName);
+            writer.writeStringField(TAG_SERVER_VERSION, message.serverVersion);
+            writer.writeVarIntField(TAG_MAX_PLAYERS, message.maxPlayers);
+            writer.writeVarIntField(TAG_CURRENT_PLAYERS, message.currentPlayers);
+            writer.writeStringField(TAG_MOTD, message.motd);
+            writer.writeStringField(TAG_ASSIGNED_PLAYER_ID, message.assignedPlayerId);
+            writer.writeVarIntField(TAG_ASSIGNED_NET_ID, message.assignedNetId);
+        }
+        
+        @Override
+        public JoinResponseMessage decode(BinaryReader reader) throws IOException {
+            boolean accepted = false;
+            String rejectionReason = null, serverName = null, serverVersion = null, motd = null, assignedPlayerId = null;
+            int maxPlayers = 0, currentPlayers = 0, assignedNetId = 0;
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                switch (tag) {
+                    case TAG_ACCEPTED:
+                        accepted = reader.readBoolean();
+                        break;
+                    case TAG_REJECTION_REASON:
+                        rejectionReason = reader.readString();
+                        break;
+                    case TAG_SERVER_NAME:
+                        serverName = reader.readString();
+                        break;
+                    case TAG_SERVER_VERSION:
+                        serverVersion = reader.readString();
+                        break;
+                    case TAG_MAX_PLAYERS:
+                        maxPlayers = reader.readVarInt();
+                        break;
+                    case TAG_CURRENT_PLAYERS:
+                        currentPlayers = reader.readVarInt();
+                        break;
+                    case TAG_MOTD:
+                        motd = reader.readString();
+                        break;
+                    case TAG_ASSIGNED_PLAYER_ID:
+                        assignedPlayerId = reader.readString();
+                        break;
+                    case TAG_ASSIGNED_NET_ID:
+                        assignedNetId = reader.readVarInt();
+                        break;
+                    default:
+                        reader.skipField();
+                        break;
+                }
+            }
+            
+            if (!accepted) {
+                return new JoinResponseMessage(rejectionReason, serverName, serverVersion, maxPlayers, currentPlayers);
+            }
+            return new JoinResponseMessage(serverName, serverVersion, maxPlayers, currentPlayers,
+                                           motd, assignedPlayerId, assignedNetId);
+        }
+    };
+    
     /** Whether the join request was accepted */
     private final boolean accepted;
     
@@ -32,6 +110,9 @@ public class JoinResponseMessage extends NetworkMessage {
     /** Assigned player ID for this session */
     private final String assignedPlayerId;
     
+    /** Short network ID identifying this player in messages relayed by the server */
+    private final int assignedNetId;
+    
     /**
      * Constructor for accepted join response.
      * 
@@ -45,6 +126,23 @@ public class JoinResponseMessage extends NetworkMessage {
     public JoinResponseMessage(String serverName, String serverVersion, 
                              int maxPlayers, int currentPlayers, 
                              String motd, String assignedPlayerId) {
+        this(serverName, serverVersion, maxPlayers, currentPlayers, motd, assignedPlayerId, 0);
+    }
+    
+    /**
+     * Constructor for accepted join response carrying a short network ID.
+     * 
+     * @param serverName The server name
+     * @param serverVersion The server version
+     * @param maxPlayers Maximum players allowed
+     * @param currentPlayers Current players online
+     * @param motd Message of the day
+     * @param assignedPlayerId The assigned player ID
+     * @param assignedNetId The assigned short network ID
+     */
+    public JoinResponseMessage(String serverName, String serverVersion, 
+                             int maxPlayers, int currentPlayers, 
+                             String motd, String assignedPlayerId, int assignedNetId) {
         super(MessageType.JOIN_RESPONSE);
         this.accepted = true;
         this.rejectionReason = null;
@@ -54,6 +152,7 @@ public class JoinResponseMessage extends NetworkMessage {
         this.currentPlayers = currentPlayers;
         this.motd = motd;
         this.assignedPlayerId = assignedPlayerId;
+        this.assignedNetId = assignedNetId;
     }
     
     /**
@@ -76,6 +175,7 @@ public class JoinResponseMessage extends NetworkMessage {
         this.currentPlayers = currentPlayers;
         this.motd = null;
         this.assignedPlayerId = null;
+        this.assignedNetId = 0;
     }
     
     /**
@@ -150,6 +250,15 @@ public class JoinResponseMessage extends NetworkMessage {
         return assignedPlayerId;
     }
     
+    /**
+     * Get the short network ID assigned to the player.
+     * 
+     * @return The assigned network ID (0 if rejected)
+     */
+    public int getAssignedNetId() {
+        return assignedNetId;
+    }
+    
     /**
      * Check if the server is full.
      * 
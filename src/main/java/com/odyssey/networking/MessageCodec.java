@@ -0,0 +1,22 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Encodes the body of one message type for the binary wire protocol.
+ *
+ * Bodies are tagged fields written with {@link BinaryWriter}, so a peer can skip fields
+ * it does not know. The frame header carrying the message type and sender is written by
+ * {@link MessageRegistry}.
+ *
+ * @param <T> the message class handled by this codec
+ */
+public interface MessageCodec<T extends NetworkMessage> {
+
+    void encode(T message, BinaryWriter writer);
+
+    T decode(BinaryReader reader) throws IOException;
+}
@@ -0,0 +1,114 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps message types to their wire ids and codecs.
+ *
+ * A frame payload is the varint wire id of the message type, the varint short id of the
+ * sender ({@code 0} for the server or an unassigned client) and the tagged body written
+ * by the type's codec. Message ids and timestamps are not sent; a decoded message gets a
+ * fresh id and its local receive time.
+ *
+ * Wire ids are fixed here rather than taken from enum ordinals, so reordering
+ * {@link MessageType} never changes the protocol. Give new types the next unused id.
+ */
+public final class MessageRegistry {
+
+    private static final MessageRegistry DEFAULT = createDefault();
+
+    private final Map<MessageType, Registration<?>> byType = new EnumMap<>(MessageType.class);
+    private final Map<Integer, Registration<?>> byWireId = new HashMap<>();
+
+    /**
+     * Gets the registry holding every message type the game sends
+     */
+    public static MessageRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static MessageRegistry createDefault() {
+        MessageRegistry registry = new MessageRegistry();
+        registry.register(MessageType.JOIN_REQUEST, 1, JoinRequestMessage.class, JoinRequestMessage.CODEC);
+        registry.register(MessageType.JOIN_RESPONSE, 2, JoinResponseMessage.class, JoinResponseMessage.CODEC);
+        registry.register(MessageType.DISCONNECT, 3, DisconnectMessage.class, DisconnectMessage.CODEC);
+        registry.register(MessageType.HEARTBEAT, 4, HeartbeatMessage.class, HeartbeatMessage.CODEC);
+        registry.register(MessageType.PLAYER_POSITION, 5, PlayerPositionMessage.class, PlayerPositionMessage.CODEC);
+        registry.register(MessageType.ENTITY_SNAPSHOT, 6, SnapshotMessage.class, SnapshotMessage.CODEC);
+        registry.register(MessageType.SNAPSHOT_ACK, 7, SnapshotAckMessage.class, SnapshotAckMessage.CODEC);
+        return registry;
+    }
+
+    public <T extends NetworkMessage> void register(MessageType type, int wireId, Class<T> messageClass,
+                                                    MessageCodec<T> codec) {
+        if (wireId <= 0) {
+            throw new IllegalArgumentException("Wire ids start at 1: " + wireId);
+        }
+        if (byType.containsKey(type) || byWireId.containsKey(wireId)) {
+            throw new IllegalArgumentException("Message type " + type + " or wire id " + wireId + " is already registered");
+        }
+
+        Registration<T> registration = new Registration<>(type, wireId, messageClass, codec);
+        byType.put(type, registration);
+        byWireId.put(wireId, registration);
+    }
+
+    public boolean isRegistered(MessageType type) {
+        return byType.containsKey(type);
+    }
+
+    /**
+     * Writes the frame payload for a message into the writer
+     */
+    public void encode(NetworkMessage message, BinaryWriter writer) throws IOException {
+        Registration<?> registration = byType.get(message.getMessageType());
+        if (registration == null) {
+            throw new IOException("No codec registered for message type " + message.getMessageType());
+        }
+
+        writer.writeVarInt(registration.wireId);
+        writer.writeVarInt(message.getSenderNetId());
+        registration.encode(message, writer);
+    }
+
+    public NetworkMessage decode(BinaryReader reader) throws IOException {
+        int wireId = reader.readVarInt();
+        Registration<?> registration = byWireId.get(wireId);
+        if (registration == null) {
+            throw new IOException("Unknown message wire id " + wireId);
+        }
+
+        int senderNetId = reader.readVarInt();
+        NetworkMessage message = registration.codec.decode(reader);
+        message.setSenderNetId(senderNetId);
+        return message;
+    }
+
+    private static final class Registration<T extends NetworkMessage> {
+        private final MessageType type;
+        private final int wireId;
+        private final Class<T> messageClass;
+        private final MessageCodec<T> codec;
+
+        Registration(MessageType type, int wireId, Class<T> messageClass, MessageCodec<T> codec) {
+            this.type = type;
+            this.wireId = wireId;
+            this.messageClass = messageClass;
+            this.codec = codec;
+        }
+
+        void encode(NetworkMessage message, BinaryWriter writer) throws IOException {
+            if (!messageClass.isInstance(message)) {
+                throw new IOException("Message of type " + type + " is a " + message.getClass().getSimpleName()
+                                      + ", expected " + messageClass.getSimpleName());
+            }
+            codec.encode(messageClass.cast(message), writer);
+        }
+    }
+}
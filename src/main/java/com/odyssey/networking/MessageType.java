@@ -58,6 +58,13 @@ public enum MessageType {
     /** Ocean physics updates (waves, currents) */
     OCEAN_UPDATE,
     
+    // State replication
+    /** Delta-compressed snapshot of nearby players and ships */
+    ENTITY_SNAPSHOT,
+    
+    /** Client acknowledgement of an applied snapshot */
+    SNAPSHOT_ACK,
+    
     // Combat messages
     /** Cannon fire event */
     CANNON_FIRE,
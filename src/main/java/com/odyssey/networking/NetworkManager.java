@@ -6,19 +6,39 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Network manager for The Odyssey.
  * Handles multiplayer networking, server connections, and data synchronization.
+ *
+ * The server runs every connection on a single selector thread, so the number of
+ * threads stays fixed no matter how many players are connected. Messages travel as
+ * length-prefixed frames read into and coalesced in pooled direct buffers.
  */
 public class NetworkManager {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(NetworkManager.class);
     
+    /** How long the selector blocks before rechecking the running flag */
+    private static final long SELECT_TIMEOUT_MS = 250;
+    
+    /** Upper bound on idle buffers kept for reuse across all connections */
+    private static final int MAX_POOLED_BUFFERS = 256;
+    
     private final GameConfig config;
     private boolean initialized = false;
     private boolean isServer = false;
@@ -27,18 +47,30 @@ public class NetworkManager {
     private int serverPort;
     
     // Server components
-    private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
+    private volatile Selector selector;
     private final AtomicBoolean serverRunning = new AtomicBoolean(false);
     private ExecutorService serverExecutor;
     private final Map<String, ClientConnection> connectedClients = new ConcurrentHashMap<>();
+    private final Queue<ClientConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
+    private final Queue<ClientConnection> pendingCloses = new ConcurrentLinkedQueue<>();
+    private final BufferPool bufferPool = new BufferPool(FrameCodec.BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final AtomicInteger nextNetId = new AtomicInteger(1);
     
     // Client components
-    private Socket clientSocket;
-    private ObjectOutputStream clientOutput;
-    private ObjectInputStream clientInput;
+    private SocketChannel clientChannel;
+    private FrameDecoder clientDecoder;
+    private FrameWriter clientWriter;
     private final AtomicBoolean clientConnected = new AtomicBoolean(false);
+    private volatile int localNetId;
     private ExecutorService clientExecutor;
     
+    // State replication
+    private SnapshotManager snapshotManager;
+    private final SnapshotReceiver snapshotReceiver = new SnapshotReceiver();
+    private double snapshotInterval;
+    private double snapshotTimer;
+    
     // Message processing
     private final BlockingQueue<NetworkMessage> incomingMessages = new LinkedBlockingQueue<>();
     private final BlockingQueue<NetworkMessage> outgoingMessages = new LinkedBlockingQueue<>();
@@ -63,6 +95,10 @@ public class NetworkManager {
             serverAddress = config.getString("network.serverAddress", "localhost");
             serverPort = config.getInt("network.serverPort", 25565);
             
+            // Snapshot rate in Hz and area of interest radius in chunks
+            snapshotInterval = 1.0 / Math.max(1, config.getInt("network.snapshotRate", 20));
+            snapshotManager = new SnapshotManager(config.getInt("network.interestRadius", 8));
+            
             initialized = true;
             LOGGER.info("NetworkManager initialized successfully");
             
@@ -85,19 +121,23 @@ public class NetworkManager {
             this.serverPort = port;
             this.isServer = true;
             
-            // Initialize server socket and start listening
-            serverSocket = new ServerSocket(port);
+            // Initialize non-blocking server channel and start listening
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port));
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
             serverRunning.set(true);
             
-            // Create thread pool for handling client connections
-            serverExecutor = Executors.newCachedThreadPool(r -> {
+            // One thread drives every connection, the other drains the outgoing queue
+            serverExecutor = Executors.newFixedThreadPool(2, r -> {
                 Thread t = new Thread(r, "NetworkServer-" + System.currentTimeMillis());
                 t.setDaemon(true);
                 return t;
             });
             
-            // Start accepting client connections
-            serverExecutor.submit(this::acceptClientConnections);
+            // Start the selector loop
+            serverExecutor.submit(this::runSelector);
             
             // Start message processing thread
             serverExecutor.submit(this::processOutgoingMessages);
@@ -124,13 +164,14 @@ public class NetworkManager {
             this.serverPort = port;
             this.isClient = true;
             
-            // Initialize client socket and connect to server
-            clientSocket = new Socket(address, port);
+            // Initialize client channel and connect to server
+            clientChannel = SocketChannel.open(new InetSocketAddress(address, port));
+            clientChannel.socket().setTcpNoDelay(true);
             clientConnected.set(true);
             
-            // Set up input/output streams
-            clientOutput = new ObjectOutputStream(clientSocket.getOutputStream());
-            clientInput = new ObjectInputStream(clientSocket.getInputStream());
+            // Set up frame reader/writer
+            clientDecoder = new FrameDecoder(bufferPool);
+            clientWriter = new FrameWriter(bufferPool, Integer.MAX_VALUE);
             
             // Create thread pool for client operations
             clientExecutor = Executors.newFixedThreadPool(2, r -> {
@@ -161,27 +202,29 @@ public class NetworkManager {
         LOGGER.info("Disconnecting from network...");
         
         if (isServer) {
-            // Stop server and disconnect all clients
-            serverRunning.set(false);
-            
-            // Disconnect all clients
+            // Tell every client the server is going away; the frames go out below
             for (ClientConnection client : connectedClients.values()) {
                 try {
-                    client.disconnect();
+                    client.sendMessage(new DisconnectMessage());
                 } catch (Exception e) {
-                    LOGGER.warn("Error disconnecting client: {}", client.getClientId(), e);
+                    LOGGER.warn("Failed to notify client of shutdown: {}", client.getClientId(), e);
                 }
             }
-            connectedClients.clear();
             
-            // Close server socket
-            if (serverSocket != null && !serverSocket.isClosed()) {
+            // Stop server
+            serverRunning.set(false);
+            
+            // Close server channel and wake the selector so it notices the shutdown
+            if (serverChannel != null && serverChannel.isOpen()) {
                 try {
-                    serverSocket.close();
+                    serverChannel.close();
                 } catch (IOException e) {
-                    LOGGER.warn("Error closing server socket", e);
+                    LOGGER.warn("Error closing server channel", e);
                 }
             }
+            if (selector != null) {
+                selector.wakeup();
+            }
             
             // Shutdown server executor
             if (serverExecutor != null) {
@@ -196,19 +239,42 @@ public class NetworkManager {
                 }
             }
             
+            // The selector thread is gone, so this thread may write out the disconnect
+            // notices and release every client's buffers
+            for (ClientConnection client : connectedClients.values()) {
+                try {
+                    client.flush();
+                    client.close();
+                } catch (Exception e) {
+                    LOGGER.warn("Error disconnecting client: {}", client.getClientId(), e);
+                }
+            }
+            connectedClients.clear();
+            
+            if (selector != null) {
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Error closing selector", e);
+                }
+            }
+            pendingFlushes.clear();
+            pendingCloses.clear();
+            
             LOGGER.info("Server stopped");
         }
         
         if (isClient) {
-            // Disconnect from server
+            // Tell the server we are leaving, then disconnect
+            if (clientConnected.get()) {
+                sendMessagesToServer(List.of(new DisconnectMessage()));
+            }
             clientConnected.set(false);
             
-            // Close client streams and socket
+            // Close client channel, which also unblocks the reader thread
             try {
-                if (clientOutput != null) clientOutput.close();
-                if (clientInput != null) clientInput.close();
-                if (clientSocket != null && !clientSocket.isClosed()) {
-                    clientSocket.close();
+                if (clientChannel != null && clientChannel.isOpen()) {
+                    clientChannel.close();
                 }
             } catch (IOException e) {
                 LOGGER.warn("Error closing client connection", e);
@@ -230,10 +296,16 @@ public class NetworkManager {
             LOGGER.info("Disconnected from server");
         }
         
-        // Clear message queues
+        // Clear message queues and replicated state
         incomingMessages.clear();
         outgoingMessages.clear();
+        if (snapshotManager != null) {
+            snapshotManager.clear();
+        }
+        snapshotReceiver.reset();
+        snapshotTimer = 0;
         
+        localNetId = 0;
         isServer = false;
         isClient = false;
     }
@@ -291,6 +363,15 @@ public class NetworkManager {
         return isServer || isClient;
     }
     
+    /**
+     * Get the short network ID the server assigned to this client.
+     * 
+     * @return The network ID, or 0 if not joined
+     */
+    public int getLocalNetId() {
+        return localNetId;
+    }
+    
     /**
      * Get server address.
      */
@@ -314,6 +395,29 @@ public class NetworkManager {
         if (!initialized) return;
         
         processMessages();
+        
+        // Send state snapshots at the configured rate
+        if (isServer) {
+            snapshotTimer += deltaTime;
+            if (snapshotTimer >= snapshotInterval) {
+                snapshotTimer %= snapshotInterval;
+                snapshotManager.sendSnapshots(connectedClients.values());
+            }
+        }
+    }
+    
+    /**
+     * Get the server-side snapshot manager that replicates players and ships.
+     */
+    public SnapshotManager getSnapshotManager() {
+        return snapshotManager;
+    }
+    
+    /**
+     * Get the client-side view of replicated players and ships.
+     */
+    public SnapshotReceiver getSnapshotReceiver() {
+        return snapshotReceiver;
     }
     
     /**
@@ -331,27 +435,52 @@ public class NetworkManager {
     // Private helper methods
     
     /**
-     * Accept incoming client connections (server mode).
+     * Selector loop driving the server channel and every client connection (server mode).
      */
-    private void acceptClientConnections() {
+    private void runSelector() {
         LOGGER.info("Server listening for client connections");
         
         while (serverRunning.get() && !Thread.currentThread().isInterrupted()) {
             try {
-                Socket clientSocket = serverSocket.accept();
-                String clientId = clientSocket.getRemoteSocketAddress().toString();
-                
-                LOGGER.info("New client connection from: {}", clientId);
+                selector.select(SELECT_TIMEOUT_MS);
                 
-                ClientConnection clientConnection = new ClientConnection(clientId, clientSocket, this);
-                connectedClients.put(clientId, clientConnection);
+                // Write out frames queued by other threads since the last pass
+                ClientConnection pending;
+                while ((pending = pendingFlushes.poll()) != null) {
+                    pending.flush();
+                }
                 
-                // Start handling this client in a separate thread
-                serverExecutor.submit(clientConnection::handleClient);
+                // Release connections dropped by other threads
+                while ((pending = pendingCloses.poll()) != null) {
+                    pending.close();
+                }
                 
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    
+                    if (key.isAcceptable()) {
+                        acceptClientConnection();
+                        continue;
+                    }
+                    
+                    ClientConnection connection = (ClientConnection) key.attachment();
+                    if (key.isReadable()) {
+                        connection.handleRead();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                break;
             } catch (IOException e) {
                 if (serverRunning.get()) {
-                    LOGGER.error("Error accepting client connection", e);
+                    LOGGER.error("Error in server selector loop", e);
                 }
             }
         }
@@ -359,6 +488,33 @@ public class NetworkManager {
         LOGGER.info("Server stopped accepting connections");
     }
     
+    /**
+     * Accept a pending client connection (server mode, selector thread).
+     */
+    private void acceptClientConnection() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            String clientId = channel.getRemoteAddress().toString();
+            
+            LOGGER.info("New client connection from: {}", clientId);
+            
+            ClientConnection clientConnection = new ClientConnection(clientId, channel, this, bufferPool);
+            clientConnection.register(selector);
+            connectedClients.put(clientId, clientConnection);
+            
+        } catch (IOException e) {
+            if (serverRunning.get()) {
+                LOGGER.error("Error accepting client connection", e);
+            }
+        }
+    }
+    
     /**
      * Process outgoing messages (both server and client mode).
      */
@@ -366,12 +522,21 @@ public class NetworkManager {
         while ((isServer && serverRunning.get()) || (isClient && clientConnected.get())) {
             try {
                 NetworkMessage message = outgoingMessages.poll(1, TimeUnit.SECONDS);
-                if (message != null) {
-                    if (isServer) {
-                        sendMessageToClients(message);
-                    } else if (isClient) {
-                        sendMessageToServer(message);
+                if (message == null) {
+                    continue;
+                }
+                
+                // Take everything else already queued so it goes out in the same writes
+                List<NetworkMessage> batch = new ArrayList<>();
+                batch.add(message);
+                outgoingMessages.drainTo(batch);
+                
+                if (isServer) {
+                    for (NetworkMessage queued : batch) {
+                        sendMessageToClients(queued);
                     }
+                } else if (isClient) {
+                    sendMessagesToServer(batch);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -388,10 +553,17 @@ public class NetworkManager {
     private void processIncomingClientMessages() {
         while (clientConnected.get() && !Thread.currentThread().isInterrupted()) {
             try {
-                NetworkMessage message = (NetworkMessage) clientInput.readObject();
-                incomingMessages.offer(message);
-                LOGGER.debug("Received message from server: {}", message.getMessageType());
-            } catch (IOException | ClassNotFoundException e) {
+                if (clientDecoder.read(clientChannel) < 0) {
+                    throw new EOFException("Server closed the connection");
+                }
+                
+                byte[] frame;
+                while ((frame = clientDecoder.nextFrame()) != null) {
+                    NetworkMessage message = FrameCodec.decode(frame);
+                    incomingMessages.offer(message);
+                    LOGGER.debug("Received message from server: {}", message.getMessageType());
+                }
+            } catch (IOException e) {
                 if (clientConnected.get()) {
                     LOGGER.error("Error reading message from server", e);
                     clientConnected.set(false);
@@ -399,15 +571,29 @@ public class NetworkManager {
                 break;
             }
         }
+        clientDecoder.release();
     }
     
     /**
      * Send message to all connected clients (server mode).
      */
     private void sendMessageToClients(NetworkMessage message) {
+        if (connectedClients.isEmpty()) {
+            return;
+        }
+        
+        // Encode once and share the frame between every client
+        byte[] frame;
+        try {
+            frame = FrameCodec.encode(message);
+        } catch (IOException e) {
+            LOGGER.error("Failed to encode message: {}", message.getMessageType(), e);
+            return;
+        }
+        
         for (ClientConnection client : connectedClients.values()) {
             try {
-                client.sendMessage(message);
+                client.sendFrame(frame);
             } catch (Exception e) {
                 LOGGER.warn("Failed to send message to client: {}", client.getClientId(), e);
             }
@@ -415,16 +601,21 @@ public class NetworkManager {
     }
     
     /**
-     * Send message to server (client mode).
+     * Send a batch of messages to the server in as few writes as possible (client mode).
+     * Synchronized since the disconnect notice is sent from the calling thread.
      */
-    private void sendMessageToServer(NetworkMessage message) {
+    private synchronized void sendMessagesToServer(List<NetworkMessage> messages) {
         try {
-            clientOutput.writeObject(message);
-            clientOutput.flush();
-            LOGGER.debug("Sent message to server: {}", message.getMessageType());
+            for (NetworkMessage message : messages) {
+                clientWriter.enqueue(FrameCodec.encode(message));
+            }
+            // The channel is blocking, so a single flush writes everything
+            clientWriter.flush(clientChannel);
+            LOGGER.debug("Sent {} messages to server", messages.size());
         } catch (IOException e) {
             LOGGER.error("Failed to send message to server", e);
             clientConnected.set(false);
+            clientWriter.release();
         }
     }
     
@@ -448,9 +639,22 @@ public class NetworkManager {
             case PLAYER_POSITION:
                 handlePlayerPosition((PlayerPositionMessage) message);
                 break;
+            case ENTITY_SNAPSHOT:
+                if (isClient) {
+                    handleSnapshot((SnapshotMessage) message);
+                }
+                break;
+            case SNAPSHOT_ACK:
+                if (isServer) {
+                    snapshotManager.acknowledge(message.getSenderId(), ((SnapshotAckMessage) message).getSequence());
+                }
+                break;
             case DISCONNECT:
                 handleDisconnect(message);
                 break;
+            case HEARTBEAT:
+                // Only keeps the connection alive
+                break;
             default:
                 LOGGER.warn("Unhandled message type: {}", message.getMessageType());
                 break;
@@ -463,6 +667,14 @@ public class NetworkManager {
     private void handleJoinRequest(JoinRequestMessage request) {
         LOGGER.info("Processing join request from player: {}", request.getPlayerName());
         
+        // Assign a short network ID that replaces the sender string on the wire
+        ClientConnection client = connectedClients.get(request.getSenderId());
+        int netId = 0;
+        if (client != null) {
+            netId = client.getNetId() != 0 ? client.getNetId() : nextNetId.getAndIncrement();
+            client.setNetId(netId);
+        }
+        
         // Create response message (accepted)
         JoinResponseMessage response = new JoinResponseMessage(
             "The Odyssey Server",    // serverName
@@ -470,10 +682,20 @@ public class NetworkManager {
             100,                     // maxPlayers
             connectedClients.size(), // currentPlayers
             "Welcome to The Odyssey!", // motd
-            request.getPlayerId()    // assignedPlayerId
+            request.getPlayerId(),   // assignedPlayerId
+            netId                    // assignedNetId
         );
         
-        sendData(response);
+        // Reply to the joining client only; the network ID is meaningless to anyone else
+        if (client != null) {
+            try {
+                client.sendMessage(response);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to send join response to client: {}", client.getClientId(), e);
+            }
+        } else {
+            sendData(response);
+        }
     }
     
     /**
@@ -481,7 +703,8 @@ public class NetworkManager {
      */
     private void handleJoinResponse(JoinResponseMessage response) {
         if (response.isAccepted()) {
-            LOGGER.info("Successfully joined server: {}", response.getServerName());
+            localNetId = response.getAssignedNetId();
+            LOGGER.info("Successfully joined server: {} (network ID {})", response.getServerName(), localNetId);
         } else {
             LOGGER.warn("Join request rejected: {}", response.getRejectionReason());
         }
@@ -497,8 +720,20 @@ public class NetworkManager {
             position.getY(), 
             position.getZ());
         
-        // Forward to game engine for processing
-        // This would typically update the player's position in the game world
+        // Replicate to nearby clients through the next snapshots
+        if (isServer) {
+            snapshotManager.updatePlayer(position.getSenderNetId(), position);
+        }
+    }
+    
+    /**
+     * Handle a state snapshot (client mode).
+     */
+    private void handleSnapshot(SnapshotMessage snapshot) {
+        SnapshotAckMessage ack = snapshotReceiver.apply(snapshot);
+        if (ack != null) {
+            sendData(ack);
+        }
     }
     
     /**
@@ -509,7 +744,15 @@ public class NetworkManager {
         
         if (isServer) {
             // Remove client from connected clients
-            connectedClients.remove(message.getSenderId());
+            ClientConnection client = connectedClients.remove(message.getSenderId());
+            if (client != null) {
+                snapshotManager.removePlayer(client.getNetId());
+                client.requestClose();
+            }
+        } else if (isClient) {
+            // The server is shutting down; don't send a notice back
+            clientConnected.set(false);
+            disconnect();
         }
     }
     
@@ -519,4 +762,33 @@ public class NetworkManager {
     public void addIncomingMessage(NetworkMessage message) {
         incomingMessages.offer(message);
     }
+    
+    /**
+     * Ask the selector thread to write a connection's queued frames (called by ClientConnection).
+     */
+    void scheduleFlush(ClientConnection connection) {
+        pendingFlushes.offer(connection);
+        Selector current = selector;
+        if (current != null) {
+            current.wakeup();
+        }
+    }
+    
+    /**
+     * Ask the selector thread to close a connection and release its buffers (called by ClientConnection).
+     */
+    void scheduleClose(ClientConnection connection) {
+        pendingCloses.offer(connection);
+        Selector current = selector;
+        if (current != null) {
+            current.wakeup();
+        }
+    }
+    
+    /**
+     * Forget a connection that has been closed (called by ClientConnection).
+     */
+    void removeClient(ClientConnection connection) {
+        connectedClients.remove(connection.getClientId(), connection);
+    }
 }
\ No newline at end of file
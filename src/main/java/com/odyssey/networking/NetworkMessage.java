@@ -23,6 +23,9 @@ public abstract class NetworkMessage implements Serializable {
     /** ID of the sender (player/server) */
     private String senderId;
     
+    /** Short numeric sender ID used on the wire (0 for the server or an unassigned client) */
+    private int senderNetId;
+    
     /**
      * Constructor for NetworkMessage.
      * 
@@ -79,6 +82,24 @@ public abstract class NetworkMessage implements Serializable {
         this.senderId = senderId;
     }
     
+    /**
+     * Get the short sender ID assigned by the server when the sender joined.
+     * 
+     * @return The sender's network ID, or 0 for the server
+     */
+    public int getSenderNetId() {
+        return senderNetId;
+    }
+    
+    /**
+     * Set the short sender ID.
+     * 
+     * @param senderNetId The sender's network ID
+     */
+    public void setSenderNetId(int senderNetId) {
+        this.senderNetId = senderNetId;
+    }
+    
     /**
      * Get the age of this message in milliseconds.
      * 
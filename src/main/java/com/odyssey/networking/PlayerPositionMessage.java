@@ -1,5 +1,10 @@
 package com.odyssey.networking;
 
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
 /**
  * Network message for player position and movement updates.
  * Contains player location, rotation, velocity, and movement state.
@@ -8,6 +13,102 @@ public class PlayerPositionMessage extends NetworkMessage {
     
     private static final long serialVersionUID = 1L;
     
+    private static final int TAG_X = 1;
+    private static final int TAG_Y = 2;
+    private static final int TAG_Z = 3;
+    private static final int TAG_YAW = 4;
+    private static final int TAG_PITCH = 5;
+    private static final int TAG_ROLL = 6;
+    private static final int TAG_VELOCITY_X = 7;
+    private static final int TAG_VELOCITY_Y = 8;
+    private static final int TAG_VELOCITY_Z = 9;
+    private static final int TAG_FLAGS = 10;
+    private static final int TAG_SHIP_ID = 11;
+    
+    /** Movement state bits, as packed by {@link #getMovementFlags()} */
+    public static final int FLAG_WALKING = 1;
+    public static final int FLAG_RUNNING = 1 << 1;
+    public static final int FLAG_SWIMMING = 1 << 2;
+    public static final int FLAG_ON_SHIP = 1 << 3;
+    
+    /**
+     * Binary wire codec. Positions, angles and velocities are quantized (see
+     * {@link Quantization}) and zero-valued fields are left out, so a player standing
+     * still costs only a few bytes.
+     */
+    static final MessageCodec<PlayerPositionMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(PlayerPositionMessage message, BinaryWriter writer) {
+            writePosition(writer, TAG_X, message.x);
+            writePosition(writer, TAG_Y, message.y);
+            writePosition(writer, TAG_Z, message.z);
+            writeAngle(writer, TAG_YAW, message.yaw);
+            writeAngle(writer, TAG_PITCH, message.pitch);
+            writeAngle(writer, TAG_ROLL, message.roll);
+            writeVelocity(writer, TAG_VELOCITY_X, message.velocityX);
+            writeVelocity(writer, TAG_VELOCITY_Y, message.velocityY);
+            writeVelocity(writer, TAG_VELOCITY_Z, message.velocityZ);
+            
+            int flags = message.getMovementFlags();
+            if (flags != 0) {
+                writer.writeVarIntField(TAG_FLAGS, flags);
+            }
+            writer.writeStringField(TAG_SHIP_ID, message.shipId);
+        }
+        
+        @Override
+        public PlayerPositionMessage decode(BinaryReader reader) throws IOException {
+            double x = 0, y = 0, z = 0, velocityX = 0, velocityY = 0, velocityZ = 0;
+            float yaw = 0, pitch = 0, roll = 0;
+            int flags = 0;
+            String shipId = null;
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                switch (tag) {
+                    case TAG_X:
+                        x = Quantization.dequantizePosition(reader.readSignedVarLong());
+                        break;
+                    case TAG_Y:
+                        y = Quantization.dequantizePosition(reader.readSignedVarLong());
+                        break;
+                    case TAG_Z:
+                        z = Quantization.dequantizePosition(reader.readSignedVarLong());
+                        break;
+                    case TAG_YAW:
+                        yaw = Quantization.dequantizeAngle(reader.readVarInt());
+                        break;
+                    case TAG_PITCH:
+                        pitch = Quantization.dequantizeAngle(reader.readVarInt());
+                        break;
+                    case TAG_ROLL:
+                        roll = Quantization.dequantizeAngle(reader.readVarInt());
+                        break;
+                    case TAG_VELOCITY_X:
+                        velocityX = Quantization.dequantizeVelocity(reader.readSignedVarInt());
+                        break;
+                    case TAG_VELOCITY_Y:
+                        velocityY = Quantization.dequantizeVelocity(reader.readSignedVarInt());
+                        break;
+                    case TAG_VELOCITY_Z:
+                        velocityZ = Quantization.dequantizeVelocity(reader.readSignedVarInt());
+                        break;
+                    case TAG_FLAGS:
+                        flags = reader.readVarInt();
+                        break;
+                    case TAG_SHIP_ID:
+                        shipId = reader.readString();
+                        break;
+                    default:
+                        reader.skipField();
+                        break;
+                }
+            }
+            return new PlayerPositionMessage(x, y, z, yaw, pitch, roll, velocityX, velocityY, velocityZ,
+                                             (flags & FLAG_WALKING) != 0, (flags & FLAG_RUNNING) != 0,
+                                             (flags & FLAG_SWIMMING) != 0, (flags & FLAG_ON_SHIP) != 0,
+                                             shipId);
+        }
+    };
+    
     /** Player's world position */
     private final double x, y, z;
     
@@ -86,6 +187,18 @@ public class PlayerPositionMessage extends NetworkMessage {
     public boolean isOnShip() { return isOnShip; }
     public String getShipId() { return shipId; }
     
+    /**
+     * Get the movement state packed into {@code FLAG_*} bits.
+     * 
+     * @return The movement flags
+     */
+    public int getMovementFlags() {
+        return (isWalking ? FLAG_WALKING : 0)
+             | (isRunning ? FLAG_RUNNING : 0)
+             | (isSwimming ? FLAG_SWIMMING : 0)
+             | (isOnShip ? FLAG_ON_SHIP : 0);
+    }
+    
     /**
      * Calculate the distance from this position to another position.
      * 
@@ -108,6 +221,27 @@ public class PlayerPositionMessage extends NetworkMessage {
         return Math.sqrt(velocityX * velocityX + velocityY * velocityY + velocityZ * velocityZ);
     }
     
+    private static void writePosition(BinaryWriter writer, int tag, double value) {
+        long quantized = Quantization.quantizePosition(value);
+        if (quantized != 0) {
+            writer.writeSignedVarLongField(tag, quantized);
+        }
+    }
+    
+    private static void writeAngle(BinaryWriter writer, int tag, float degrees) {
+        int quantized = Quantization.quantizeAngle(degrees);
+        if (quantized != 0) {
+            writer.writeVarIntField(tag, quantized);
+        }
+    }
+    
+    private static void writeVelocity(BinaryWriter writer, int tag, double value) {
+        int quantized = Quantization.quantizeVelocity(value);
+        if (quantized != 0) {
+            writer.writeSignedVarIntField(tag, quantized);
+        }
+    }
+    
     @Override
     public String toString() {
         return String.format("PlayerPositionMessage{pos=(%.2f,%.2f,%.2f), rot=(%.1f,%.1f,%.1f), " +
@@ -0,0 +1,43 @@
+package com.odyssey.networking;
+
+/**
+ * Fixed-point conversions used to shrink positions, angles and velocities on the wire.
+ *
+ * Positions keep 1/64 of a block, which is below what a player can see, and velocities
+ * keep 1/256 of a block per second. Angles are folded into 16 bits and come back in the
+ * range [-180, 180), so 270 degrees decodes as -90. The resulting integers are small
+ * enough to usually fit in one to three varint bytes.
+ */
+public final class Quantization {
+
+    public static final double POSITION_SCALE = 64.0;
+    public static final double VELOCITY_SCALE = 256.0;
+    private static final float ANGLE_SCALE = 65536.0f / 360.0f;
+
+    private Quantization() {
+    }
+
+    public static long quantizePosition(double value) {
+        return Math.round(value * POSITION_SCALE);
+    }
+
+    public static double dequantizePosition(long value) {
+        return value / POSITION_SCALE;
+    }
+
+    public static int quantizeVelocity(double value) {
+        return (int) Math.round(value * VELOCITY_SCALE);
+    }
+
+    public static double dequantizeVelocity(int value) {
+        return value / VELOCITY_SCALE;
+    }
+
+    public static int quantizeAngle(float degrees) {
+        return Math.round(degrees * ANGLE_SCALE) & 0xFFFF;
+    }
+
+    public static float dequantizeAngle(int value) {
+        return (short) value / ANGLE_SCALE;
+    }
+}
@@ -0,0 +1,60 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+
+/**
+ * Network message sent by a client once it has applied a snapshot, so the server can
+ * use that snapshot as the baseline for the next deltas.
+ */
+public class SnapshotAckMessage extends NetworkMessage {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final int TAG_SEQUENCE = 1;
+    
+    /** Binary wire codec */
+    static final MessageCodec<SnapshotAckMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(SnapshotAckMessage message, BinaryWriter writer) {
+            writer.writeVarIntField(TAG_SEQUENCE, message.sequence);
+        }
+        
+        @Override
+        public SnapshotAckMessage decode(BinaryReader reader) throws IOException {
+            int sequence = 0;
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                if (tag == TAG_SEQUENCE) {
+                    sequence = reader.readVarInt();
+                } else {
+                    reader.skipField();
+                }
+            }
+            return new SnapshotAckMessage(sequence);
+        }
+    };
+    
+    /** Sequence number of the applied snapshot */
+    private final int sequence;
+    
+    /**
+     * Constructor for SnapshotAckMessage.
+     *
+     * @param sequence The sequence number of the applied snapshot
+     */
+    public SnapshotAckMessage(int sequence) {
+        super(MessageType.SNAPSHOT_ACK);
+        this.sequence = sequence;
+    }
+    
+    public int getSequence() {
+        return sequence;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SnapshotAckMessage{sequence=%d}", sequence);
+    }
+}
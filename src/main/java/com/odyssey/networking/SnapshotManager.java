@@ -0,0 +1,252 @@
+package com.odyssey.networking;
+
+import com.odyssey.ship.Ship;
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Server-side replication of player and ship state.
+ *
+ * Each snapshot tick every joined client gets the entities within its area of interest,
+ * a square of chunks around its own player, encoded as deltas against the last snapshot
+ * the client acknowledged. Until an acknowledgement arrives the same baseline is reused,
+ * so a lost or late snapshot never corrupts the client's view. If a client falls more than
+ * {@link #HISTORY_SIZE} snapshots behind it gets a complete snapshot instead.
+ *
+ * Bandwidth per client therefore follows how many entities are near it and how much they
+ * change, not how many players are online. Not thread-safe; used from the game thread.
+ */
+public class SnapshotManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotManager.class);
+
+    /** Snapshots remembered per client, and by the client receiver, as possible baselines */
+    static final int HISTORY_SIZE = 32;
+
+    /** Ship entity IDs start here so they never collide with player network IDs */
+    private static final int SHIP_ENTITY_ID_BASE = 1 << 16;
+
+    private final int interestRadius;
+    private final Map<Integer, EntityState> entities = new HashMap<>();
+    private final Map<String, Integer> shipEntityIds = new HashMap<>();
+    private final Map<String, ClientView> views = new HashMap<>();
+    private final InterestGrid grid = new InterestGrid();
+    private int nextShipEntityId = SHIP_ENTITY_ID_BASE;
+    private int sequence;
+
+    /**
+     * @param interestRadius how many chunks around a player its area of interest reaches
+     */
+    public SnapshotManager(int interestRadius) {
+        this.interestRadius = interestRadius;
+    }
+
+    /**
+     * Records the latest position reported by a joined player
+     */
+    public void updatePlayer(int netId, PlayerPositionMessage position) {
+        if (netId == 0) {
+            return;
+        }
+        entities.put(netId, EntityState.of(netId, EntityState.Kind.PLAYER,
+                                           position.getX(), position.getY(), position.getZ(),
+                                           position.getYaw(), position.getPitch(), position.getRoll(),
+                                           position.getVelocityX(), position.getVelocityY(), position.getVelocityZ(),
+                                           position.getMovementFlags()));
+    }
+
+    public void removePlayer(int netId) {
+        entities.remove(netId);
+    }
+
+    /**
+     * Replaces the replicated ships with the given set; ships not in it are removed
+     */
+    public void updateShips(Collection<Ship> ships) {
+        Set<String> present = new HashSet<>();
+        Vector3f angles = new Vector3f();
+        for (Ship ship : ships) {
+            present.add(ship.getId());
+            int entityId = shipEntityIds.computeIfAbsent(ship.getId(), id -> nextShipEntityId++);
+
+            Vector3f position = ship.getPosition();
+            Vector3f velocity = ship.getVelocity();
+            ship.getOrientation().getEulerAnglesXYZ(angles);
+            entities.put(entityId, EntityState.of(entityId, EntityState.Kind.SHIP,
+                                                  position.x, position.y, position.z,
+                                                  (float) Math.toDegrees(angles.y), (float) Math.toDegrees(angles.x),
+                                                  (float) Math.toDegrees(angles.z),
+                                                  velocity.x, velocity.y, velocity.z, 0));
+        }
+
+        Iterator<Map.Entry<String, Integer>> it = shipEntityIds.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            if (!present.contains(entry.getKey())) {
+                entities.remove(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Records that a client has applied a snapshot
+     */
+    public void acknowledge(String clientId, int acknowledgedSequence) {
+        ClientView view = views.get(clientId);
+        if (view != null) {
+            view.acknowledge(acknowledgedSequence);
+        }
+    }
+
+    /**
+     * Builds and queues a snapshot for every joined client. Clients that have gone away
+     * are forgotten, and so is every player entity without a joined connection, whether
+     * or not it was ever sent a snapshot.
+     *
+     * @return the number of snapshots sent
+     */
+    public int sendSnapshots(Collection<ClientConnection> clients) {
+        List<ClientConnection> joined = new ArrayList<>();
+        Set<String> live = new HashSet<>();
+        Set<Integer> liveNetIds = new HashSet<>();
+        for (ClientConnection client : clients) {
+            if (client.isConnected() && client.getNetId() != 0) {
+                joined.add(client);
+                live.add(client.getClientId());
+                liveNetIds.add(client.getNetId());
+            }
+        }
+        views.keySet().retainAll(live);
+        entities.values().removeIf(state -> state.getKind() == EntityState.Kind.PLAYER
+                                            && !liveNetIds.contains(state.getEntityId()));
+
+        sequence++;
+        grid.rebuild(entities.values());
+
+        int sent = 0;
+        for (ClientConnection client : joined) {
+            SnapshotMessage snapshot = buildSnapshot(client.getClientId(), client.getNetId());
+            if (snapshot == null) {
+                continue;
+            }
+            try {
+                client.sendMessage(snapshot);
+                sent++;
+            } catch (IOException e) {
+                LOGGER.warn("Failed to send snapshot to client {}: {}", client.getClientId(), e.getMessage());
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Builds the current snapshot for one client, or returns null if nothing changed
+     * since the snapshot it acknowledged. Uses the grid from the current tick.
+     */
+    SnapshotMessage buildSnapshot(String clientId, int netId) {
+        ClientView view = views.computeIfAbsent(clientId, _ -> new ClientView());
+        Map<Integer, EntityState> baseline = view.getBaseline();
+        int baselineSequence = baseline != null ? view.ackedSequence : 0;
+        if (baseline == null) {
+            baseline = Map.of();
+        }
+
+        Map<Integer, EntityState> visible = new HashMap<>();
+        EntityState self = entities.get(netId);
+        if (self != null) {
+            grid.collect(self.getChunkX(), self.getChunkZ(), interestRadius, netId, visible);
+        }
+
+        List<EntityDelta> deltas = new ArrayList<>();
+        for (EntityState state : visible.values()) {
+            EntityDelta delta = EntityDelta.between(baseline.get(state.getEntityId()), state);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (Integer entityId : baseline.keySet()) {
+            if (!visible.containsKey(entityId)) {
+                removed.add(entityId);
+            }
+        }
+
+        if (baselineSequence != 0 && deltas.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+        view.record(sequence, visible);
+        return new SnapshotMessage(sequence, baselineSequence, deltas, removed);
+    }
+
+    /**
+     * Forgets all entities and clients
+     */
+    public void clear() {
+        entities.clear();
+        shipEntityIds.clear();
+        views.clear();
+        sequence = 0;
+    }
+
+    public int getEntityCount() {
+        return entities.size();
+    }
+
+    /**
+     * Snapshots sent to one client, kept until they are too old to serve as a baseline
+     */
+    private static final class ClientView {
+        private final int[] sequences = new int[HISTORY_SIZE];
+        private final List<Map<Integer, EntityState>> states = new ArrayList<>(HISTORY_SIZE);
+        private int ackedSequence;
+
+        ClientView() {
+            for (int i = 0; i < HISTORY_SIZE; i++) {
+                states.add(null);
+            }
+        }
+
+        void record(int sequence, Map<Integer, EntityState> visible) {
+            int slot = Math.floorMod(sequence, HISTORY_SIZE);
+            sequences[slot] = sequence;
+            states.set(slot, visible);
+        }
+
+        void acknowledge(int sequence) {
+            if (sequence > ackedSequence && find(sequence) != null) {
+                ackedSequence = sequence;
+            }
+        }
+
+        /**
+         * Gets the acknowledged state, or null if there is none or it has been overwritten
+         */
+        Map<Integer, EntityState> getBaseline() {
+            if (ackedSequence == 0) {
+                return null;
+            }
+            Map<Integer, EntityState> baseline = find(ackedSequence);
+            if (baseline == null) {
+                ackedSequence = 0;
+            }
+            return baseline;
+        }
+
+        private Map<Integer, EntityState> find(int sequence) {
+            int slot = Math.floorMod(sequence, HISTORY_SIZE);
+            return sequences[slot] == sequence ? states.get(slot) : null;
+        }
+    }
+}
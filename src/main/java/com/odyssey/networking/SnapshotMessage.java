@@ -0,0 +1,106 @@
+package com.odyssey.networking;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Network message carrying one client's view of the replicated entities, encoded as
+ * changes against the last snapshot that client acknowledged.
+ * A baseline sequence of 0 means the snapshot is complete and needs no baseline.
+ */
+public class SnapshotMessage extends NetworkMessage {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final int TAG_SEQUENCE = 1;
+    private static final int TAG_BASELINE_SEQUENCE = 2;
+    private static final int TAG_ENTITY = 3;
+    private static final int TAG_REMOVED = 4;
+    
+    /** Binary wire codec */
+    static final MessageCodec<SnapshotMessage> CODEC = new MessageCodec<>() {
+        @Override
+        public void encode(SnapshotMessage message, BinaryWriter writer) {
+            writer.writeVarIntField(TAG_SEQUENCE, message.sequence);
+            writer.writeVarIntField(TAG_BASELINE_SEQUENCE, message.baselineSequence);
+            for (EntityDelta delta : message.entities) {
+                writer.writeMessageField(TAG_ENTITY, delta::write);
+            }
+            for (int entityId : message.removedEntities) {
+                writer.writeVarIntField(TAG_REMOVED, entityId);
+            }
+        }
+        
+        @Override
+        public SnapshotMessage decode(BinaryReader reader) throws IOException {
+            int sequence = 0, baselineSequence = 0;
+            List<EntityDelta> entities = new ArrayList<>();
+            List<Integer> removed = new ArrayList<>();
+            for (int tag = reader.nextField(); tag != BinaryReader.END; tag = reader.nextField()) {
+                switch (tag) {
+                    case TAG_SEQUENCE:
+                        sequence = reader.readVarInt();
+                        break;
+                    case TAG_BASELINE_SEQUENCE:
+                        baselineSequence = reader.readVarInt();
+                        break;
+                    case TAG_ENTITY:
+                        entities.add(EntityDelta.read(reader.readMessage()));
+                        break;
+                    case TAG_REMOVED:
+                        removed.add(reader.readVarInt());
+                        break;
+                    default:
+                        reader.skipField();
+                        break;
+                }
+            }
+            return new SnapshotMessage(sequence, baselineSequence, entities, removed);
+        }
+    };
+    
+    /** Sequence number of this snapshot */
+    private final int sequence;
+    
+    /** Sequence number of the snapshot the deltas are relative to (0 for none) */
+    private final int baselineSequence;
+    
+    /** New or changed entities */
+    private final List<EntityDelta> entities;
+    
+    /** Entities that left the client's area of interest or were removed */
+    private final List<Integer> removedEntities;
+    
+    /**
+     * Constructor for SnapshotMessage.
+     *
+     * @param sequence The snapshot sequence number
+     * @param baselineSequence The acknowledged snapshot the deltas are relative to, or 0
+     * @param entities The new or changed entities
+     * @param removedEntities The IDs of entities the client should drop
+     */
+    public SnapshotMessage(int sequence, int baselineSequence,
+                           List<EntityDelta> entities, List<Integer> removedEntities) {
+        super(MessageType.ENTITY_SNAPSHOT);
+        this.sequence = sequence;
+        this.baselineSequence = baselineSequence;
+        this.entities = entities;
+        this.removedEntities = removedEntities;
+    }
+    
+    public int getSequence() { return sequence; }
+    public int getBaselineSequence() { return baselineSequence; }
+    public List<EntityDelta> getEntities() { return Collections.unmodifiableList(entities); }
+    public List<Integer> getRemovedEntities() { return Collections.unmodifiableList(removedEntities); }
+    
+    @Override
+    public String toString() {
+        return String.format("SnapshotMessage{sequence=%d, baseline=%d, entities=%d, removed=%d}",
+                           sequence, baselineSequence, entities.size(), removedEntities.size());
+    }
+}
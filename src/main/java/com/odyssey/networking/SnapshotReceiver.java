@@ -0,0 +1,99 @@
+package com.odyssey.networking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side counterpart of {@link SnapshotManager}. Rebuilds the full entity view from
+ * each delta snapshot and keeps recent views around, since the server may base the next
+ * snapshot on any of them it has seen acknowledged.
+ */
+public class SnapshotReceiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotReceiver.class);
+
+    private final int[] sequences = new int[SnapshotManager.HISTORY_SIZE];
+    private final List<Map<Integer, EntityState>> history = new ArrayList<>(SnapshotManager.HISTORY_SIZE);
+    private Map<Integer, EntityState> entities = Collections.emptyMap();
+    private int latestSequence;
+
+    public SnapshotReceiver() {
+        for (int i = 0; i < SnapshotManager.HISTORY_SIZE; i++) {
+            history.add(null);
+        }
+    }
+
+    /**
+     * Applies a snapshot to its baseline.
+     *
+     * @return the acknowledgement to send back, or null if the snapshot was stale or its
+     *         baseline is no longer known
+     */
+    public SnapshotAckMessage apply(SnapshotMessage snapshot) {
+        if (snapshot.getSequence() <= latestSequence) {
+            return null;
+        }
+
+        Map<Integer, EntityState> baseline = Collections.emptyMap();
+        if (snapshot.getBaselineSequence() != 0) {
+            baseline = find(snapshot.getBaselineSequence());
+            if (baseline == null) {
+                LOGGER.warn("Dropping snapshot {}: baseline {} is no longer available",
+                            snapshot.getSequence(), snapshot.getBaselineSequence());
+                return null;
+            }
+        }
+
+        Map<Integer, EntityState> next = new HashMap<>(baseline);
+        for (int entityId : snapshot.getRemovedEntities()) {
+            next.remove(entityId);
+        }
+        try {
+            for (EntityDelta delta : snapshot.getEntities()) {
+                next.put(delta.getEntityId(), delta.applyTo(baseline.get(delta.getEntityId())));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Dropping snapshot {}: {}", snapshot.getSequence(), e.getMessage());
+            return null;
+        }
+
+        int slot = Math.floorMod(snapshot.getSequence(), SnapshotManager.HISTORY_SIZE);
+        sequences[slot] = snapshot.getSequence();
+        history.set(slot, next);
+        entities = next;
+        latestSequence = snapshot.getSequence();
+        return new SnapshotAckMessage(latestSequence);
+    }
+
+    /**
+     * Gets the replicated entities from the latest snapshot, keyed by entity ID
+     */
+    public Map<Integer, EntityState> getEntities() {
+        return Collections.unmodifiableMap(entities);
+    }
+
+    public int getLatestSequence() {
+        return latestSequence;
+    }
+
+    public void reset() {
+        for (int i = 0; i < SnapshotManager.HISTORY_SIZE; i++) {
+            sequences[i] = 0;
+            history.set(i, null);
+        }
+        entities = Collections.emptyMap();
+        latestSequence = 0;
+    }
+
+    private Map<Integer, EntityState> find(int sequence) {
+        int slot = Math.floorMod(sequence, SnapshotManager.HISTORY_SIZE);
+        return sequences[slot] == sequence ? history.get(slot) : null;
+    }
+}
@@ -320,6 +320,7 @@ public class Player {
     public void setPlayerName(String playerName) { this.playerName = playerName; }
     
     public Vector3f getPosition() { return new Vector3f(position); }
+    public Vector3f getPosition(Vector3f dest) { return dest.set(position); }
     public Vector3f getRotation() { return new Vector3f(rotation); }
     public Vector3f getVelocity() { return new Vector3f(velocity); }
     
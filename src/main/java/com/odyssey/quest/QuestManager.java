@@ -27,6 +27,9 @@ public class QuestManager {
     /** Quest objectives tracking */
     private final Map<String, Map<String, Boolean>> questObjectives;
     
+    /** Quest IDs whose progress changed since the last save checkpoint */
+    private final Set<String> dirtyQuests;
+    
     /**
      * Creates a new QuestManager instance.
      */
@@ -36,6 +39,7 @@ public class QuestManager {
         this.completedQuests = new ConcurrentHashMap<>();
         this.questProgress = new ConcurrentHashMap<>();
         this.questObjectives = new ConcurrentHashMap<>();
+        this.dirtyQuests = ConcurrentHashMap.newKeySet();
         
         // Initialize default quests
         initializeDefaultQuests();
@@ -92,6 +96,7 @@ public class QuestManager {
         activeQuests.put(questId, quest);
         questProgress.put(questId, 0);
         questObjectives.put(questId, new HashMap<>());
+        dirtyQuests.add(questId);
         
         LOGGER.info("Started quest '{}': {}", questId, quest.getTitle());
         return true;
@@ -111,6 +116,7 @@ public class QuestManager {
         
         int oldProgress = questProgress.getOrDefault(questId, 0);
         questProgress.put(questId, progress);
+        dirtyQuests.add(questId);
         
         Quest quest = activeQuests.get(questId);
         if (quest != null && progress >= quest.getMaxProgress()) {
@@ -145,6 +151,7 @@ public class QuestManager {
         }
         
         completedQuests.put(questId, quest);
+        dirtyQuests.add(questId);
         
         // Award rewards
         if (quest.getExperienceReward() > 0) {
@@ -191,6 +198,9 @@ public class QuestManager {
         questProgress.clear();
         questProgress.putAll(savedProgress);
         
+        // Loaded state matches the save it came from
+        dirtyQuests.clear();
+        
         // Restore active quests based on progress
         for (Map.Entry<String, Integer> entry : savedProgress.entrySet()) {
             String questId = entry.getKey();
@@ -304,6 +314,7 @@ public class QuestManager {
      * Clears all quest data.
      */
     public void clear() {
+        dirtyQuests.addAll(questProgress.keySet());
         activeQuests.clear();
         completedQuests.clear();
         questProgress.clear();
@@ -311,6 +322,22 @@ public class QuestManager {
         LOGGER.info("Cleared all quest data");
     }
     
+    /**
+     * Returns the progress of every quest changed since the last save checkpoint and
+     * resets the change tracking. A null value means the quest's progress was cleared.
+     * 
+     * @return Map of changed quest progress
+     */
+    public Map<String, Integer> drainDirtyQuestProgress() {
+        Map<String, Integer> changed = new HashMap<>();
+        for (Iterator<String> it = dirtyQuests.iterator(); it.hasNext(); ) {
+            String questId = it.next();
+            it.remove();
+            changed.put(questId, questProgress.get(questId));
+        }
+        return changed;
+    }
+    
     /**
      * Get the total number of quests completed by the player
      */
@@ -56,6 +56,7 @@ public class Camera {
     // View matrix
     private Matrix4f viewMatrix;
     private boolean viewMatrixDirty = true;
+    private final Vector3f viewCenter = new Vector3f();
     
     // Projection matrix properties
     private Matrix4f projectionMatrix;
@@ -264,8 +265,7 @@ public class Camera {
      * Look at a specific point.
      */
     public void lookAt(Vector3f target) {
-        Vector3f direction = new Vector3f(target).sub(position).normalize();
-        this.forward.set(direction);
+        this.forward.set(target).sub(position).normalize();
         
         updateAnglesFromForward();
         updateVectors();
@@ -295,6 +295,13 @@ public class Camera {
         return new Vector3f(position);
     }
     
+    /**
+     * Get camera position without allocating.
+     */
+    public Vector3f getPosition(Vector3f dest) {
+        return dest.set(position);
+    }
+    
     /**
      * Get camera forward vector.
      */
@@ -414,8 +421,8 @@ public class Camera {
      * Update the internal view matrix.
      */
     private void updateViewMatrix() {
-        Vector3f center = new Vector3f(position).add(forward);
-        viewMatrix.setLookAt(position, center, up);
+        viewCenter.set(position).add(forward);
+        viewMatrix.setLookAt(position, viewCenter, up);
         viewMatrixDirty = false;
     }
     
@@ -443,8 +450,7 @@ public class Camera {
      */
     private void updateVectors() {
         // Calculate right vector (cross product of world up and forward)
-        Vector3f worldUp = new Vector3f(0.0f, 1.0f, 0.0f);
-        forward.cross(worldUp, right);
+        forward.cross(0.0f, 1.0f, 0.0f, right);
         right.normalize();
         
         // Calculate up vector (cross product of forward and right)
@@ -472,6 +478,19 @@ public class Camera {
         return new Matrix4f(projectionMatrix);
     }
     
+    /**
+     * Get the combined view-projection matrix (projection * view) without allocating.
+     */
+    public Matrix4f getViewProjectionMatrix(Matrix4f dest) {
+        if (viewMatrixDirty) {
+            updateViewMatrix();
+        }
+        if (projectionMatrixDirty) {
+            updateProjectionMatrix();
+        }
+        return projectionMatrix.mul(viewMatrix, dest);
+    }
+    
     /**
      * Get near plane distance.
      */
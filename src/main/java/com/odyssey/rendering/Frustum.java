@@ -0,0 +1,87 @@
+package com.odyssey.rendering;
+
+import org.joml.Matrix4f;
+
+/**
+ * The six clip planes of a view-projection matrix, for testing bounds against what the
+ * camera can see.
+ *
+ * Planes are extracted straight from the matrix rows, so any projection works and no
+ * camera parameters are needed. Tests are conservative: a box that straddles two planes
+ * outside a corner of the frustum may be reported visible, but a box that is reported
+ * outside is never on screen.
+ */
+public final class Frustum {
+
+    private static final int PLANES = 6;
+
+    // a, b, c, d for each plane; a point p is inside when a*x + b*y + c*z + d >= 0 for all
+    private final float[] planes = new float[PLANES * 4];
+
+    /**
+     * Extracts the planes of a view-projection matrix (projection * view)
+     *
+     * @return this
+     */
+    public Frustum update(Matrix4f viewProjection) {
+        Matrix4f m = viewProjection;
+        // Rows of the matrix; JOML's mCR is column C, row R
+        setPlane(0, m.m03() + m.m00(), m.m13() + m.m10(), m.m23() + m.m20(), m.m33() + m.m30()); // left
+        setPlane(1, m.m03() - m.m00(), m.m13() - m.m10(), m.m23() - m.m20(), m.m33() - m.m30()); // right
+        setPlane(2, m.m03() + m.m01(), m.m13() + m.m11(), m.m23() + m.m21(), m.m33() + m.m31()); // bottom
+        setPlane(3, m.m03() - m.m01(), m.m13() - m.m11(), m.m23() - m.m21(), m.m33() - m.m31()); // top
+        setPlane(4, m.m03() + m.m02(), m.m13() + m.m12(), m.m23() + m.m22(), m.m33() + m.m32()); // near
+        setPlane(5, m.m03() - m.m02(), m.m13() - m.m12(), m.m23() - m.m22(), m.m33() - m.m32()); // far
+        return this;
+    }
+
+    /**
+     * Checks whether an axis-aligned box is at least partly inside the frustum
+     */
+    public boolean testAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (int i = 0; i < PLANES * 4; i += 4) {
+            float a = planes[i];
+            float b = planes[i + 1];
+            float c = planes[i + 2];
+            // The corner furthest along the plane normal; if even that is behind, the whole box is
+            float x = a >= 0 ? maxX : minX;
+            float y = b >= 0 ? maxY : minY;
+            float z = c >= 0 ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[i + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a sphere is at least partly inside the frustum
+     */
+    public boolean testSphere(float x, float y, float z, float radius) {
+        for (int i = 0; i < PLANES * 4; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a point is inside the frustum
+     */
+    public boolean testPoint(float x, float y, float z) {
+        return testSphere(x, y, z, 0.0f);
+    }
+
+    /**
+     * Stores a plane scaled to a unit normal, so sphere tests can compare against the radius
+     */
+    private void setPlane(int plane, float a, float b, float c, float d) {
+        float inverseLength = (float) (1.0 / Math.sqrt(a * a + b * b + c * c));
+        int i = plane * 4;
+        planes[i] = a * inverseLength;
+        planes[i + 1] = b * inverseLength;
+        planes[i + 2] = c * inverseLength;
+        planes[i + 3] = d * inverseLength;
+    }
+}
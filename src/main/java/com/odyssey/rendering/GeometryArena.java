@@ -0,0 +1,286 @@
+package com.odyssey.rendering;
+
+import java.util.Arrays;
+
+/**
+ * Sub-allocator for one large GPU buffer, handing out contiguous ranges of it.
+ *
+ * Sizes and offsets are in elements of whatever the buffer holds, e.g. vertices or
+ * indices; the caller scales them to bytes. Each allocation is identified by an int
+ * handle that stays valid until it is freed, even when {@link #defragment} moves its
+ * range, so holders look the offset up again with {@link #getOffset} instead of caching it.
+ *
+ * Free ranges are kept sorted by offset and merged with their neighbours on free.
+ * Allocation takes the smallest free range that fits, which keeps large ranges intact for
+ * large chunks. When nothing fits, {@link #allocate} returns {@link #NONE} and the owner
+ * decides whether to {@link #defragment}, {@link #grow}, or both, since only it can move
+ * the buffer contents. Contains no GL calls. Not thread-safe.
+ */
+public final class GeometryArena {
+
+    /** Returned by {@link #allocate} when no free range is large enough */
+    public static final int NONE = -1;
+
+    /** Told where each live allocation ends up during {@link #defragment} */
+    public interface Relocator {
+        /**
+         * Called for every live allocation in offset order. Ranges only ever move towards
+         * the start of the buffer and from equals to for ones that stay put.
+         */
+        void relocate(int handle, int from, int to, int size);
+    }
+
+    private int capacity;
+    private int used;
+
+    // Free ranges sorted by offset, never adjacent to each other
+    private int[] freeOffsets = new int[16];
+    private int[] freeSizes = new int[16];
+    private int freeCount;
+
+    // Allocations by handle; a size of 0 marks a free handle
+    private int[] offsets = new int[64];
+    private int[] sizes = new int[64];
+    private int[] freeHandles = new int[64];
+    private int freeHandleCount;
+    private int handleCount;
+    private int allocationCount;
+
+    private long[] sortScratch = new long[64];
+
+    public GeometryArena(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        if (capacity > 0) {
+            freeOffsets[0] = 0;
+            freeSizes[0] = capacity;
+            freeCount = 1;
+        }
+    }
+
+    /**
+     * Reserves a range of elements
+     *
+     * @return the allocation's handle, or {@link #NONE} if no free range is large enough
+     */
+    public int allocate(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Allocation size must be positive: " + size);
+        }
+
+        int best = -1;
+        for (int i = 0; i < freeCount; i++) {
+            int free = freeSizes[i];
+            if (free >= size && (best < 0 || free < freeSizes[best])) {
+                best = i;
+                if (free == size) {
+                    break;
+                }
+            }
+        }
+        if (best < 0) {
+            return NONE;
+        }
+
+        int offset = freeOffsets[best];
+        if (freeSizes[best] == size) {
+            removeFreeRange(best);
+        } else {
+            freeOffsets[best] += size;
+            freeSizes[best] -= size;
+        }
+
+        int handle = newHandle();
+        offsets[handle] = offset;
+        sizes[handle] = size;
+        used += size;
+        allocationCount++;
+        return handle;
+    }
+
+    /**
+     * Returns an allocation's range to the free list, merging it with adjacent free ranges
+     */
+    public void free(int handle) {
+        checkHandle(handle);
+        int offset = offsets[handle];
+        int size = sizes[handle];
+        sizes[handle] = 0;
+        used -= size;
+        allocationCount--;
+        if (freeHandleCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeHandles.length * 2);
+        }
+        freeHandles[freeHandleCount++] = handle;
+
+        // First free range after the freed one
+        int index = Arrays.binarySearch(freeOffsets, 0, freeCount, offset);
+        index = index < 0 ? -index - 1 : index;
+        boolean joinsPrevious = index > 0 && freeOffsets[index - 1] + freeSizes[index - 1] == offset;
+        boolean joinsNext = index < freeCount && offset + size == freeOffsets[index];
+
+        if (joinsPrevious && joinsNext) {
+            freeSizes[index - 1] += size + freeSizes[index];
+            removeFreeRange(index);
+        } else if (joinsPrevious) {
+            freeSizes[index - 1] += size;
+        } else if (joinsNext) {
+            freeOffsets[index] = offset;
+            freeSizes[index] += size;
+        } else {
+            insertFreeRange(index, offset, size);
+        }
+    }
+
+    /**
+     * Extends the arena to a larger capacity; the new space joins the free range at the end
+     */
+    public void grow(int newCapacity) {
+        if (newCapacity <= capacity) {
+            return;
+        }
+        int added = newCapacity - capacity;
+        if (freeCount > 0 && freeOffsets[freeCount - 1] + freeSizes[freeCount - 1] == capacity) {
+            freeSizes[freeCount - 1] += added;
+        } else {
+            insertFreeRange(freeCount, capacity, added);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Packs every live allocation against the start of the arena, leaving one free range at
+     * the end. The relocator is told each allocation's old and new offset so the owner can
+     * copy the buffer contents; ranges may overlap their old place, so the copy has to go
+     * through a separate buffer or be done in the order given.
+     *
+     * @return the number of allocations that moved
+     */
+    public int defragment(Relocator relocator) {
+        if (sortScratch.length < allocationCount) {
+            sortScratch = new long[Math.max(allocationCount, sortScratch.length * 2)];
+        }
+        int live = 0;
+        for (int handle = 0; handle < handleCount; handle++) {
+            if (sizes[handle] > 0) {
+                sortScratch[live++] = (long) offsets[handle] << 32 | handle;
+            }
+        }
+        Arrays.sort(sortScratch, 0, live);
+
+        int cursor = 0;
+        int moved = 0;
+        for (int i = 0; i < live; i++) {
+            int handle = (int) sortScratch[i];
+            int from = offsets[handle];
+            int size = sizes[handle];
+            relocator.relocate(handle, from, cursor, size);
+            if (from != cursor) {
+                offsets[handle] = cursor;
+                moved++;
+            }
+            cursor += size;
+        }
+
+        freeCount = 0;
+        if (cursor < capacity) {
+            freeOffsets[0] = cursor;
+            freeSizes[0] = capacity - cursor;
+            freeCount = 1;
+        }
+        return moved;
+    }
+
+    public int getOffset(int handle) {
+        checkHandle(handle);
+        return offsets[handle];
+    }
+
+    public int getSize(int handle) {
+        checkHandle(handle);
+        return sizes[handle];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of elements in live allocations
+     */
+    public int getUsed() {
+        return used;
+    }
+
+    public int getFree() {
+        return capacity - used;
+    }
+
+    public int getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * Gets the number of separate free ranges; 1 (or 0 when full) after defragmenting
+     */
+    public int getFreeBlockCount() {
+        return freeCount;
+    }
+
+    /**
+     * Gets the largest allocation that would currently succeed
+     */
+    public int getLargestFreeBlock() {
+        int largest = 0;
+        for (int i = 0; i < freeCount; i++) {
+            largest = Math.max(largest, freeSizes[i]);
+        }
+        return largest;
+    }
+
+    /**
+     * Gets how much of the free space is unusable for one allocation of all of it: 0 when
+     * the free space is a single range, approaching 1 as it splinters into small ones
+     */
+    public float getFragmentation() {
+        int free = getFree();
+        return free == 0 ? 0.0f : 1.0f - (float) getLargestFreeBlock() / free;
+    }
+
+    private int newHandle() {
+        if (freeHandleCount > 0) {
+            return freeHandles[--freeHandleCount];
+        }
+        if (handleCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, handleCount * 2);
+            sizes = Arrays.copyOf(sizes, handleCount * 2);
+        }
+        return handleCount++;
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= handleCount || sizes[handle] == 0) {
+            throw new IllegalArgumentException("Not a live allocation: " + handle);
+        }
+    }
+
+    private void insertFreeRange(int index, int offset, int size) {
+        if (freeCount == freeOffsets.length) {
+            freeOffsets = Arrays.copyOf(freeOffsets, freeCount * 2);
+            freeSizes = Arrays.copyOf(freeSizes, freeCount * 2);
+        }
+        System.arraycopy(freeOffsets, index, freeOffsets, index + 1, freeCount - index);
+        System.arraycopy(freeSizes, index, freeSizes, index + 1, freeCount - index);
+        freeOffsets[index] = offset;
+        freeSizes[index] = size;
+        freeCount++;
+    }
+
+    private void removeFreeRange(int index) {
+        System.arraycopy(freeOffsets, index + 1, freeOffsets, index, freeCount - index - 1);
+        System.arraycopy(freeSizes, index + 1, freeSizes, index, freeCount - index - 1);
+        freeCount--;
+    }
+}
@@ -0,0 +1,91 @@
+package com.odyssey.rendering;
+
+import java.util.Arrays;
+
+/**
+ * Packs indexed draws that share one vertex and index buffer into the records read by
+ * glMultiDrawElementsIndirect, so a whole layer of chunks goes out in one call.
+ *
+ * Each record is five ints: index count, instance count (always 1), first index, base
+ * vertex and base instance. The base instance is the draw's position in the list, which
+ * selects the draw's origin from a per-instance attribute with a divisor of 1; the
+ * origins are packed alongside, three floats per draw. Both arrays are reused across
+ * frames, so nothing is allocated once they have grown to the largest frame. Contains no
+ * GL calls. Not thread-safe.
+ */
+public final class IndirectDrawBuilder {
+
+    public static final int INTS_PER_COMMAND = 5;
+    public static final int FLOATS_PER_ORIGIN = 3;
+
+    private int[] commands = new int[INTS_PER_COMMAND * 256];
+    private float[] origins = new float[FLOATS_PER_ORIGIN * 256];
+    private int drawCount;
+    private int indexCount;
+
+    /**
+     * Adds a draw of indices relative to its own first vertex, placed at an origin
+     *
+     * @param indexCount number of indices to draw; empty draws are skipped
+     * @param firstIndex offset of the first index in the index buffer
+     * @param baseVertex offset of the draw's first vertex in the vertex buffer
+     */
+    public void add(int indexCount, int firstIndex, int baseVertex, float originX, float originY, float originZ) {
+        if (indexCount <= 0) {
+            return;
+        }
+        if ((drawCount + 1) * INTS_PER_COMMAND > commands.length) {
+            commands = Arrays.copyOf(commands, commands.length * 2);
+            origins = Arrays.copyOf(origins, origins.length * 2);
+        }
+
+        int command = drawCount * INTS_PER_COMMAND;
+        commands[command] = indexCount;
+        commands[command + 1] = 1;
+        commands[command + 2] = firstIndex;
+        commands[command + 3] = baseVertex;
+        commands[command + 4] = drawCount;
+
+        int origin = drawCount * FLOATS_PER_ORIGIN;
+        origins[origin] = originX;
+        origins[origin + 1] = originY;
+        origins[origin + 2] = originZ;
+
+        drawCount++;
+        this.indexCount += indexCount;
+    }
+
+    public void clear() {
+        drawCount = 0;
+        indexCount = 0;
+    }
+
+    /**
+     * Gets the packed draw records; only the first drawCount * 5 ints are used
+     */
+    public int[] getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the packed draw origins; only the first drawCount * 3 floats are used
+     */
+    public float[] getOrigins() {
+        return origins;
+    }
+
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * Gets the number of indices across all draws
+     */
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    public boolean isEmpty() {
+        return drawCount == 0;
+    }
+}
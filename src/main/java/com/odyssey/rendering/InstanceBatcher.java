@@ -0,0 +1,228 @@
+package com.odyssey.rendering;
+
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups draws of the same mesh with the same shader and material so each group can be
+ * drawn with one instanced call.
+ *
+ * Only shaders with a registered instanced variant are batched; that variant reads the
+ * model matrix per instance (see {@link Mesh#INSTANCE_MATRIX_LOCATION}) instead of from
+ * a uniform. Each batch packs its instances' model matrices, 16 column-major floats
+ * apiece, ready to stream into the mesh's instance buffer. Meshes, shaders and
+ * materials are only compared by identity, so the batcher is generic over them: the
+ * renderer batches Mesh, Shader and Texture, and tests can group without GL objects.
+ *
+ * Batches are kept in the order their first instance arrived and are pooled across
+ * frames, so once they have grown to the largest frame nothing is allocated. Contains no
+ * GL calls. Not thread-safe.
+ *
+ * @param <M> mesh type
+ * @param <S> shader type
+ * @param <T> material type
+ */
+public final class InstanceBatcher<M, S, T> {
+
+    public static final int FLOATS_PER_INSTANCE = 16;
+
+    private final Map<S, S> instancedShaders = new IdentityHashMap<>();
+    // First batch of each mesh; batches of the same mesh with other state are chained
+    private final Map<M, Batch<M, S, T>> batchesByMesh = new IdentityHashMap<>();
+    private final List<Batch<M, S, T>> batches = new ArrayList<>();
+    private final List<Batch<M, S, T>> pool = new ArrayList<>();
+    private int instanceCount;
+
+    /**
+     * Draws with a shader may be batched and drawn with its instanced variant; ignored if
+     * either failed to load
+     */
+    public void registerInstancedShader(S shader, S instancedShader) {
+        if (shader != null && instancedShader != null) {
+            instancedShaders.put(shader, instancedShader);
+        }
+    }
+
+    public boolean isInstanced(S shader) {
+        return shader != null && instancedShaders.containsKey(shader);
+    }
+
+    /**
+     * Adds one instance to the batch for its mesh, shader and material
+     *
+     * @param material the draw's material, or null for none
+     * @return true if the instance was batched, false if the shader has no instanced
+     *         variant and the caller has to draw it as usual
+     */
+    public boolean add(M mesh, S shader, T material, Matrix4f modelMatrix) {
+        if (mesh == null || !isInstanced(shader)) {
+            return false;
+        }
+        batchFor(mesh, shader, material).add(modelMatrix);
+        instanceCount++;
+        return true;
+    }
+
+    /**
+     * Adds uniformly scaled, unrotated instances at packed x, y, z positions, e.g. the
+     * projectile positions from {@link com.odyssey.combat.CombatSystem#copyProjectilePositions}
+     *
+     * @return true if the instances were batched, false if the shader has no instanced variant
+     */
+    public boolean addInstances(M mesh, S shader, T material, float[] positions, int count, float scale) {
+        if (mesh == null || !isInstanced(shader)) {
+            return false;
+        }
+        if (count <= 0) {
+            return true;
+        }
+        Batch<M, S, T> batch = batchFor(mesh, shader, material);
+        batch.ensureCapacity(batch.instanceCount + count);
+        for (int i = 0; i < count; i++) {
+            batch.addTranslationScale(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2], scale);
+        }
+        instanceCount += count;
+        return true;
+    }
+
+    /**
+     * Gets a batch in order of first submission
+     */
+    public Batch<M, S, T> getBatch(int index) {
+        return batches.get(index);
+    }
+
+    public int getBatchCount() {
+        return batches.size();
+    }
+
+    /**
+     * Gets the number of instances across all batches
+     */
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    public boolean isEmpty() {
+        return batches.isEmpty();
+    }
+
+    /**
+     * Empties every batch, returning them to the pool for the next frame
+     */
+    public void clear() {
+        for (int i = 0; i < batches.size(); i++) {
+            Batch<M, S, T> batch = batches.get(i);
+            batch.reset();
+            pool.add(batch);
+        }
+        batches.clear();
+        batchesByMesh.clear();
+        instanceCount = 0;
+    }
+
+    private Batch<M, S, T> batchFor(M mesh, S shader, T material) {
+        Batch<M, S, T> first = batchesByMesh.get(mesh);
+        for (Batch<M, S, T> batch = first; batch != null; batch = batch.next) {
+            if (batch.shader == shader && batch.material == material) {
+                return batch;
+            }
+        }
+
+        Batch<M, S, T> batch = pool.isEmpty() ? new Batch<>() : pool.remove(pool.size() - 1);
+        batch.mesh = mesh;
+        batch.shader = shader;
+        batch.instancedShader = instancedShaders.get(shader);
+        batch.material = material;
+        batch.next = first;
+        batchesByMesh.put(mesh, batch);
+        batches.add(batch);
+        return batch;
+    }
+
+    /**
+     * Instances sharing a mesh, shader and material
+     */
+    public static final class Batch<M, S, T> {
+        private M mesh;
+        private S shader;
+        private S instancedShader;
+        private T material;
+        private float[] transforms = new float[FLOATS_PER_INSTANCE * 16];
+        private int instanceCount;
+        private Batch<M, S, T> next;
+
+        private void add(Matrix4f modelMatrix) {
+            ensureCapacity(instanceCount + 1);
+            modelMatrix.get(transforms, instanceCount * FLOATS_PER_INSTANCE);
+            instanceCount++;
+        }
+
+        private void addTranslationScale(float x, float y, float z, float scale) {
+            int offset = instanceCount * FLOATS_PER_INSTANCE;
+            Arrays.fill(transforms, offset, offset + FLOATS_PER_INSTANCE, 0.0f);
+            transforms[offset] = scale;
+            transforms[offset + 5] = scale;
+            transforms[offset + 10] = scale;
+            transforms[offset + 12] = x;
+            transforms[offset + 13] = y;
+            transforms[offset + 14] = z;
+            transforms[offset + 15] = 1.0f;
+            instanceCount++;
+        }
+
+        private void ensureCapacity(int instances) {
+            if (instances * FLOATS_PER_INSTANCE > transforms.length) {
+                int capacity = Math.max(instances, transforms.length / FLOATS_PER_INSTANCE * 2);
+                transforms = Arrays.copyOf(transforms, capacity * FLOATS_PER_INSTANCE);
+            }
+        }
+
+        private void reset() {
+            mesh = null;
+            shader = null;
+            instancedShader = null;
+            material = null;
+            instanceCount = 0;
+            next = null;
+        }
+
+        public M getMesh() {
+            return mesh;
+        }
+
+        /**
+         * Gets the shader the batched draws were submitted with
+         */
+        public S getShader() {
+            return shader;
+        }
+
+        /**
+         * Gets the variant of the shader that reads per-instance model matrices
+         */
+        public S getInstancedShader() {
+            return instancedShader;
+        }
+
+        public T getMaterial() {
+            return material;
+        }
+
+        /**
+         * Gets the packed model matrices; only the first instanceCount * 16 floats are used
+         */
+        public float[] getTransforms() {
+            return transforms;
+        }
+
+        public int getInstanceCount() {
+            return instanceCount;
+        }
+    }
+}
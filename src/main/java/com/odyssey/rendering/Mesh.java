@@ -14,6 +14,8 @@ import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL33.*;
 
 /**
  * Represents a 3D mesh for The Odyssey rendering system.
@@ -29,6 +31,7 @@ public class Mesh {
     private int vao; // Vertex Array Object
     private int vbo; // Vertex Buffer Object
     private int ebo; // Element Buffer Object (indices)
+    private int instanceVbo; // Per-instance model matrices, created on first instanced draw
     
     // Mesh data
     private float[] vertices;
@@ -45,6 +48,18 @@ public class Mesh {
     private int drawMode = GL_TRIANGLES;
     private boolean useIndices = false;
     
+    // Direct staging buffers shared by every in-place reupload; GL calls only come from the
+    // render thread, so they are never used concurrently
+    private static FloatBuffer vertexStaging = BufferUtils.createFloatBuffer(16 * 1024);
+    private static IntBuffer indexStaging = BufferUtils.createIntBuffer(4 * 1024);
+    private static FloatBuffer instanceStaging = BufferUtils.createFloatBuffer(16 * 256);
+    
+    /**
+     * First attribute location of the per-instance model matrix; a mat4 takes this and
+     * the next three locations, one column each
+     */
+    public static final int INSTANCE_MATRIX_LOCATION = 3;
+    
     /**
      * Vertex attribute descriptor.
      */
@@ -324,6 +339,51 @@ public class Mesh {
         glBindBuffer(GL_ARRAY_BUFFER, 0);
     }
     
+    /**
+     * Replace vertex and index data in place, keeping the VAO and buffer objects.
+     * 
+     * Each buffer is orphaned first, re-specified at the new size with no data, so the
+     * driver can hand out fresh storage instead of stalling until draws still reading the
+     * old contents finish. The data then goes in through the shared staging buffers, so
+     * a reupload allocates nothing on the Java side.
+     */
+    public void reupload(float[] newVertices, int[] newIndices) {
+        if (useIndices != (newIndices != null)) {
+            throw new IllegalArgumentException("Mesh '" + name + "' was created " 
+                                               + (useIndices ? "with" : "without") + " indices");
+        }
+        
+        this.vertices = newVertices;
+        this.vertexCount = newVertices.length;
+        
+        if (vertexStaging.capacity() < newVertices.length) {
+            vertexStaging = BufferUtils.createFloatBuffer(Integer.highestOneBit(newVertices.length) << 1);
+        }
+        vertexStaging.clear();
+        vertexStaging.put(newVertices).flip();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, (long) newVertices.length * Float.BYTES, GL_DYNAMIC_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, vertexStaging);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        
+        if (useIndices) {
+            this.indices = newIndices;
+            this.indexCount = newIndices.length;
+            
+            if (indexStaging.capacity() < newIndices.length) {
+                indexStaging = BufferUtils.createIntBuffer(Integer.highestOneBit(newIndices.length) << 1);
+            }
+            indexStaging.clear();
+            indexStaging.put(newIndices).flip();
+            // The element buffer binding is VAO state, so bind through the VAO
+            glBindVertexArray(vao);
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
+            glBufferData(GL_ELEMENT_ARRAY_BUFFER, (long) newIndices.length * Integer.BYTES, GL_DYNAMIC_DRAW);
+            glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, 0, indexStaging);
+            glBindVertexArray(0);
+        }
+    }
+    
     /**
      * Update index data.
      */
@@ -366,13 +426,60 @@ public class Mesh {
         glBindVertexArray(vao);
         
         if (useIndices) {
-            glDrawElements(drawMode, indexCount, GL_UNSIGNED_INT, 0);
+            glDrawElementsInstanced(drawMode, indexCount, GL_UNSIGNED_INT, 0, instanceCount);
         } else {
             int verticesPerElement = stride / Float.BYTES;
-            glDrawArrays(drawMode, 0, vertexCount / verticesPerElement);
+            glDrawArraysInstanced(drawMode, 0, vertexCount / verticesPerElement, instanceCount);
+        }
+        
+        glBindVertexArray(0);
+    }
+    
+    /**
+     * Render one instance per model matrix in a single draw call.
+     * 
+     * The matrices (16 floats each, column-major) are streamed into a per-instance
+     * buffer bound to {@link #INSTANCE_MATRIX_LOCATION}, so the shader must read its
+     * model matrix from there rather than from a uniform. The buffer is orphaned before
+     * each upload and filled through a shared staging buffer, as in {@link #reupload}.
+     */
+    public void renderInstanced(float[] transforms, int instanceCount) {
+        if (instanceCount <= 0) {
+            return;
+        }
+        int floats = instanceCount * 16;
+        if (instanceStaging.capacity() < floats) {
+            instanceStaging = BufferUtils.createFloatBuffer(Integer.highestOneBit(floats) << 1);
         }
+        instanceStaging.clear();
+        instanceStaging.put(transforms, 0, floats).flip();
         
+        glBindVertexArray(vao);
+        if (instanceVbo == 0) {
+            createInstanceBuffer();
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVbo);
+        glBufferData(GL_ARRAY_BUFFER, (long) floats * Float.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, instanceStaging);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
         glBindVertexArray(0);
+        
+        renderInstanced(instanceCount);
+    }
+    
+    /**
+     * Creates the instance buffer and points the matrix columns at it; the VAO must be bound
+     */
+    private void createInstanceBuffer() {
+        instanceVbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVbo);
+        int matrixStride = 16 * Float.BYTES;
+        for (int column = 0; column < 4; column++) {
+            int location = INSTANCE_MATRIX_LOCATION + column;
+            glEnableVertexAttribArray(location);
+            glVertexAttribPointer(location, 4, GL_FLOAT, false, matrixStride, (long) column * 4 * Float.BYTES);
+            glVertexAttribDivisor(location, 1);
+        }
     }
     
     /**
@@ -589,6 +696,11 @@ public class Mesh {
             ebo = 0;
         }
         
+        if (instanceVbo != 0) {
+            glDeleteBuffers(instanceVbo);
+            instanceVbo = 0;
+        }
+        
         logger.debug("Cleaned up mesh: {}", name);
     }
     
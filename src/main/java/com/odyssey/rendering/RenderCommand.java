@@ -42,6 +42,11 @@ public class RenderCommand {
     private Matrix4f modelMatrix;
     private Vector3f worldPosition;
     
+    // Normal matrix and the model matrix it was computed from; the model matrix is handed
+    // out mutably, so staleness is found by comparing rather than by a dirty flag
+    private final Matrix4f normalMatrix = new Matrix4f();
+    private final Matrix4f normalMatrixSource = new Matrix4f();
+    
     // Rendering properties
     private RenderQueue renderQueue;
     private int sortingOrder;
@@ -174,6 +179,20 @@ public class RenderCommand {
         return modelMatrix;
     }
     
+    /**
+     * Get the normal matrix (inverse transpose of the model matrix).
+     * 
+     * Cached until the model matrix changes, so a command whose transform stays the
+     * same from frame to frame inverts it only once.
+     */
+    public Matrix4f getNormalMatrix() {
+        if (!normalMatrixSource.equals(modelMatrix)) {
+            normalMatrixSource.set(modelMatrix);
+            normalMatrix.set(modelMatrix).invert().transpose();
+        }
+        return normalMatrix;
+    }
+    
     /**
      * Get world position.
      */
@@ -380,6 +399,8 @@ public class RenderCommand {
         copy.shader = this.shader;
         copy.textures = new ArrayList<>(this.textures);
         copy.modelMatrix.set(this.modelMatrix);
+        copy.normalMatrix.set(this.normalMatrix);
+        copy.normalMatrixSource.set(this.normalMatrixSource);
         copy.worldPosition.set(this.worldPosition);
         copy.renderQueue = this.renderQueue;
         copy.sortingOrder = this.sortingOrder;
@@ -395,7 +416,7 @@ public class RenderCommand {
     }
     
     /**
-     * Reset render command to default state.
+     * Reset render command to default state, keeping its allocations for reuse.
      */
     public void reset() {
         mesh = null;
@@ -0,0 +1,66 @@
+package com.odyssey.rendering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-frame arena of reusable render commands.
+ *
+ * Producers take a slot with {@link #acquire} instead of building a new command, and
+ * the whole arena is rewound with {@link #reset} at the start of the next frame. Slots
+ * are handed out in the same order every frame, so a chunk that is drawn each frame
+ * keeps getting the same command back, along with its texture list and cached normal
+ * matrix. Once the arena has grown to the largest frame nothing more is allocated.
+ *
+ * Commands stay valid until the next reset; anything that holds them across frames,
+ * such as the renderer's queues, has to be cleared by then. Not thread-safe.
+ */
+public final class RenderCommandArena {
+
+    private final List<RenderCommand> slots = new ArrayList<>();
+    private final List<RenderCommand> frame = new ArrayList<>();
+    private final List<RenderCommand> frameView = Collections.unmodifiableList(frame);
+
+    /**
+     * Takes the next free slot, reset to a default command
+     */
+    public RenderCommand acquire() {
+        RenderCommand command;
+        if (frame.size() < slots.size()) {
+            command = slots.get(frame.size());
+            command.reset();
+        } else {
+            command = new RenderCommand();
+            slots.add(command);
+        }
+        frame.add(command);
+        return command;
+    }
+
+    /**
+     * Rewinds the arena so its slots are handed out again
+     */
+    public void reset() {
+        frame.clear();
+    }
+
+    /**
+     * Gets the commands acquired since the last reset, in acquisition order. The list is
+     * a live read-only view and the same instance every frame
+     */
+    public List<RenderCommand> getCommands() {
+        return frameView;
+    }
+
+    public int size() {
+        return frame.size();
+    }
+
+    /**
+     * Gets how many slots the arena holds, used or not
+     */
+    public int getCapacity() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,224 @@
+package com.odyssey.rendering;
+
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Commands submitted for a frame, ordered by a 64-bit sort key so that consecutive
+ * draws share as much GL state as possible.
+ *
+ * Key layout, from the highest bits down:
+ * <pre>
+ * opaque       queue:2 | shader:12 | material:16 | depth:24 (front to back) | unused:10
+ * transparent  queue:2 | depth:24 (back to front) | shader:12 | material:16 | unused:10
+ * ui           queue:2 | sorting order:16 | unused:46
+ * </pre>
+ * The queue comes first, so opaque draws precede transparent ones, which precede UI.
+ * Opaque draws group by shader, then material. Transparent draws must blend in depth
+ * order, so depth outranks state for them. A command's material is its first texture.
+ * Shaders and materials get small ids the first time they are seen. The ids are kept
+ * across frames, so the same state keeps the same place in the order.
+ *
+ * Keys are sorted with a stable LSD radix sort. Commands with equal keys stay in
+ * submission order, which keeps UI draws as submitted. The sort skips byte passes in
+ * which every key has the same byte. Nothing is allocated once the arrays have grown
+ * to the largest frame. Contains no GL calls.
+ */
+public final class RenderCommandQueue {
+
+    private static final int QUEUE_SHIFT = 62;
+    private static final int SHADER_BITS = 12;
+    private static final int MATERIAL_BITS = 16;
+    private static final int DEPTH_BITS = 24;
+    private static final int ORDER_BITS = 16;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private RenderCommand[] commands = new RenderCommand[256];
+    private long[] keys = new long[256];
+    private long[] scratchKeys = new long[256];
+    private int[] order = new int[256];
+    private int[] scratchOrder = new int[256];
+    private final int[] counts = new int[256];
+    private int size;
+
+    private final Map<Shader, Integer> shaderIds = new IdentityHashMap<>();
+    private final Map<Texture, Integer> materialIds = new IdentityHashMap<>();
+
+    public void add(RenderCommand command) {
+        if (size == commands.length) {
+            grow(size * 2);
+        }
+        commands[size++] = command;
+    }
+
+    /**
+     * Builds every command's key against the camera position and sorts them; commands
+     * are then read back in order with {@link #get}
+     */
+    public void sort(Vector3f cameraPosition) {
+        for (int i = 0; i < size; i++) {
+            keys[i] = key(commands[i], cameraPosition);
+            order[i] = i;
+        }
+        radixSort();
+    }
+
+    /**
+     * Gets the command at a position in the sorted order
+     */
+    public RenderCommand get(int index) {
+        return commands[order[index]];
+    }
+
+    /**
+     * Gets the sort key of the command at a position in the sorted order
+     */
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(commands, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Encodes a command's state and depth into its sort key
+     */
+    long key(RenderCommand command, Vector3f cameraPosition) {
+        RenderCommand.RenderQueue queue = command.getRenderQueue();
+        if (queue == RenderCommand.RenderQueue.UI) {
+            return uiKey(command.getSortingOrder());
+        }
+
+        long shader = idOf(shaderIds, command.getShader(), SHADER_BITS);
+        long material = command.getTextures().isEmpty()
+            ? 0 : idOf(materialIds, command.getTextures().get(0), MATERIAL_BITS);
+        long depth = depthBits(command.getWorldPosition(), cameraPosition);
+
+        return queue == RenderCommand.RenderQueue.TRANSPARENT
+            ? transparentKey(shader, material, depth) : opaqueKey(shader, material, depth);
+    }
+
+    /**
+     * Opaque key: shader, then material, then depth front to back
+     */
+    static long opaqueKey(long shader, long material, long depth) {
+        return (long) RenderCommand.RenderQueue.OPAQUE.ordinal() << QUEUE_SHIFT
+            | shader << (QUEUE_SHIFT - SHADER_BITS)
+            | material << (QUEUE_SHIFT - SHADER_BITS - MATERIAL_BITS)
+            | depth << (QUEUE_SHIFT - SHADER_BITS - MATERIAL_BITS - DEPTH_BITS);
+    }
+
+    /**
+     * Transparent key: depth back to front, then shader and material
+     */
+    static long transparentKey(long shader, long material, long depth) {
+        long backToFront = DEPTH_MASK - depth;
+        return (long) RenderCommand.RenderQueue.TRANSPARENT.ordinal() << QUEUE_SHIFT
+            | backToFront << (QUEUE_SHIFT - DEPTH_BITS)
+            | shader << (QUEUE_SHIFT - DEPTH_BITS - SHADER_BITS)
+            | material << (QUEUE_SHIFT - DEPTH_BITS - SHADER_BITS - MATERIAL_BITS);
+    }
+
+    /**
+     * UI key: the sorting order alone, so equal orders keep submission order
+     */
+    static long uiKey(int sortingOrder) {
+        // Biased so negative orders sort first
+        long order = (sortingOrder + (1 << (ORDER_BITS - 1))) & ((1 << ORDER_BITS) - 1);
+        return (long) RenderCommand.RenderQueue.UI.ordinal() << QUEUE_SHIFT | order << (QUEUE_SHIFT - ORDER_BITS);
+    }
+
+    /**
+     * Squared distance reduced to 24 bits. The bits of a non-negative float order the
+     * same way as its value, so the top of them make an ordered fixed-width depth.
+     */
+    static long depthBits(Vector3f position, Vector3f cameraPosition) {
+        float dx = position.x - cameraPosition.x;
+        float dy = position.y - cameraPosition.y;
+        float dz = position.z - cameraPosition.z;
+        int bits = Float.floatToRawIntBits(dx * dx + dy * dy + dz * dz);
+        return (bits >>> (31 - DEPTH_BITS)) & DEPTH_MASK;
+    }
+
+    /**
+     * Gets the small id of a shader or material, handing out the next one on first
+     * sight. Id 0 means none; ids past the field width wrap, costing only batching.
+     */
+    private static <T> long idOf(Map<T, Integer> ids, T value, int bits) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = ids.size() + 1;
+            ids.put(value, id);
+        }
+        return id & ((1L << bits) - 1);
+    }
+
+    /**
+     * Stable LSD radix sort of keys, one byte per pass, carrying the command order along
+     */
+    private void radixSort() {
+        long[] sourceKeys = keys;
+        int[] sourceOrder = order;
+        long[] targetKeys = scratchKeys;
+        int[] targetOrder = scratchOrder;
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) (sourceKeys[i] >>> shift) & 0xFF]++;
+            }
+            // A byte that is the same in every key leaves the order as it is
+            if (size == 0 || counts[(int) (sourceKeys[0] >>> shift) & 0xFF] == size) {
+                continue;
+            }
+
+            int offset = 0;
+            for (int b = 0; b < 256; b++) {
+                int count = counts[b];
+                counts[b] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                int slot = counts[(int) (sourceKeys[i] >>> shift) & 0xFF]++;
+                targetKeys[slot] = sourceKeys[i];
+                targetOrder[slot] = sourceOrder[i];
+            }
+
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapOrder = sourceOrder;
+            sourceOrder = targetOrder;
+            targetOrder = swapOrder;
+        }
+
+        keys = sourceKeys;
+        order = sourceOrder;
+        scratchKeys = targetKeys;
+        scratchOrder = targetOrder;
+    }
+
+    private void grow(int capacity) {
+        commands = Arrays.copyOf(commands, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        scratchKeys = new long[capacity];
+        order = Arrays.copyOf(order, capacity);
+        scratchOrder = new int[capacity];
+    }
+}
@@ -1,5 +1,6 @@
 package com.odyssey.rendering;
 
+import com.odyssey.combat.CombatSystem;
 import com.odyssey.core.GameConfig;
 import com.odyssey.core.GameState;
 import com.odyssey.render.Window;
@@ -133,6 +134,15 @@ public class RenderEngine {
         renderer.setWorld(world);
     }
     
+    /**
+     * Set the combat system whose projectiles are drawn with the world.
+     * 
+     * @param combatSystem The combat system, or null for none
+     */
+    public void setCombatSystem(CombatSystem combatSystem) {
+        renderer.setCombatSystem(combatSystem);
+    }
+    
     /**
      * Get the current world reference.
      * 
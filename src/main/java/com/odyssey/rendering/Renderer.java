@@ -1,5 +1,6 @@
 package com.odyssey.rendering;
 
+import com.odyssey.combat.CombatSystem;
 import com.odyssey.core.GameConfig;
 import com.odyssey.core.TimeOfDaySystem;
 import com.odyssey.ui.LoadGameMenu;
@@ -11,6 +12,8 @@ import com.odyssey.util.PerformanceProfiler;
 import com.odyssey.rendering.ComputeShaderManager;
 import com.odyssey.rendering.GraphicsSettings;
 
+import com.odyssey.world.Chunk;
+import com.odyssey.world.ChunkGeometryArena;
 import com.odyssey.world.World;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
@@ -23,6 +26,7 @@ import org.lwjgl.opengl.GL43;
 import org.lwjgl.opengl.GLCapabilities;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.lwjgl.opengl.GL11.*;
@@ -78,6 +82,9 @@ public class Renderer {
     // World
     private World world;
 
+    // Source of the projectiles drawn each frame; null outside a game
+    private CombatSystem combatSystem;
+
     // Rendering state
     private boolean initialized = false;
     private boolean renderingWorld = false; // Track whether world content is being rendered
@@ -91,6 +98,10 @@ public class Renderer {
     private int frameCount = 0;
     private int drawCalls = 0;
     private int verticesRendered = 0;
+    private int shaderSwitches = 0;
+    private int textureBinds = 0;
+    private int commandsRendered = 0;
+    private int instancedDrawCalls = 0;
     private Timer performanceTimer;
 
     // Rendering settings
@@ -100,10 +111,32 @@ public class Renderer {
     private boolean blending = false;
     private Vector3f clearColor = new Vector3f(0.1f, 0.2f, 0.4f); // Ocean blue
 
-    // Render queues
+    // Render queues; every command goes through the sorted queue, opaque ones are also
+    // kept in submission order for the AO G-buffer pass
+    private final RenderCommandQueue commandQueue = new RenderCommandQueue();
     private List<RenderCommand> opaqueQueue = new ArrayList<>();
-    private List<RenderCommand> transparentQueue = new ArrayList<>();
-    private List<RenderCommand> uiQueue = new ArrayList<>();
+
+    // GL state last set while executing the command queue, so unchanged state isn't reissued
+    private static final int TRACKED_TEXTURE_UNITS = 16;
+    private static final int SHADOW_MAP_UNIT = 1;
+    private Shader boundShader;
+    private final int[] boundTextures = new int[TRACKED_TEXTURE_UNITS];
+    private final List<Shader> shadersWithFrameUniforms = new ArrayList<>();
+    private final Vector3f frameCameraPosition = new Vector3f();
+
+    // Opaque draws of shared meshes, drawn instanced ahead of the command queue
+    private final InstanceBatcher<Mesh, Shader, Texture> instanceBatcher = new InstanceBatcher<>();
+
+    // Chunk meshes outside the arena, sorted front to back for the world pass
+    private final RenderCommandQueue worldQueue = new RenderCommandQueue();
+    private final Vector3f worldCameraPosition = new Vector3f();
+
+    // Shared chunk buffers drawn with multi-draw-indirect; null without OpenGL 4.3
+    private ChunkGeometryArena chunkGeometry;
+    private final List<Chunk> shadowChunks = new ArrayList<>();
+
+    private static final float PROJECTILE_SCALE = 0.25f;
+    private float[] projectilePositions = new float[3 * 256];
 
     // Advanced Rendering Settings
     private boolean waterRenderingEnabled = true;
@@ -221,7 +254,18 @@ public class Renderer {
         adaptiveQualityManager.setAdaptiveQualityEnabled(true);
 
         shaderManager.loadShader("opaque", "shaders/opaque.vert", "shaders/opaque.frag");
+        shaderManager.loadShader("opaque_instanced", "shaders/opaque_instanced.vert", "shaders/opaque.frag");
+        instanceBatcher.registerInstancedShader(shaderManager.getShader("opaque"),
+                                                shaderManager.getShader("opaque_instanced"));
         shaderManager.loadShader("quad", "shaders/quad.vert", "shaders/quad.frag");
+
+        // Multi-draw-indirect needs 4.3; older contexts keep drawing chunk meshes one by one
+        if (glCapabilities.OpenGL43 && shaderManager.hasShader("csm_pbr_chunk")
+                && shaderManager.hasShader("csm_shadow_chunk")) {
+            chunkGeometry = new ChunkGeometryArena();
+        } else {
+            logger.info("Chunk geometry arena unavailable, drawing chunks individually");
+        }
         
         // Load post-processing shaders
         shaderManager.loadShader("bloom_extract", "shaders/bloom_extract.vert", "shaders/bloom_extract.frag");
@@ -345,11 +389,15 @@ public class Renderer {
         // Reset performance counters
         drawCalls = 0;
         verticesRendered = 0;
+        shaderSwitches = 0;
+        textureBinds = 0;
+        commandsRendered = 0;
+        instancedDrawCalls = 0;
 
         // Clear render queues
+        commandQueue.clear();
+        instanceBatcher.clear();
         opaqueQueue.clear();
-        transparentQueue.clear();
-        uiQueue.clear();
 
         // Clear buffers
         glBindFramebuffer(GL_FRAMEBUFFER, 0);
@@ -387,29 +435,40 @@ public class Renderer {
     }
 
     /**
-     * Render all queued render commands.
+     * Render all queued render commands in sort key order: opaque grouped by shader and
+     * material, transparent back-to-front, then UI in submission order.
      */
     private void renderQueues() {
-        // Render opaque objects first
-        renderQueue(opaqueQueue, false);
+        if (commandQueue.isEmpty() && instanceBatcher.isEmpty()) {
+            return;
+        }
 
-        // Render transparent objects (sorted back-to-front)
-        sortTransparentQueue();
-        renderQueue(transparentQueue, true);
+        camera.getPosition(frameCameraPosition);
+        commandQueue.sort(frameCameraPosition);
+
+        // Other passes bind shaders and textures freely, so start from unknown state
+        boundShader = null;
+        Arrays.fill(boundTextures, -1);
+        shadersWithFrameUniforms.clear();
+
+        // Instanced batches are all opaque, so they go ahead of the sorted queue
+        setBlending(false);
+        for (int i = 0; i < instanceBatcher.getBatchCount(); i++) {
+            renderInstanceBatch(instanceBatcher.getBatch(i));
+        }
 
-        // Render UI elements last
-        renderQueue(uiQueue, true);
+        for (int i = 0; i < commandQueue.size(); i++) {
+            RenderCommand command = commandQueue.get(i);
+            // Sorted by queue first, so blending only changes at queue boundaries
+            setBlending(command.getRenderQueue() != RenderCommand.RenderQueue.OPAQUE);
+            executeRenderCommand(command);
+        }
     }
 
     /**
-     * Render a specific queue of render commands.
+     * Enable or disable alpha blending if it isn't already in that state.
      */
-    private void renderQueue(List<RenderCommand> queue, boolean enableBlending) {
-        if (queue.isEmpty()) {
-            return;
-        }
-
-        // Set blending state
+    private void setBlending(boolean enableBlending) {
         if (enableBlending && !blending) {
             GL11.glEnable(GL11.GL_BLEND);
             GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
@@ -418,36 +477,23 @@ public class Renderer {
             GL11.glDisable(GL11.GL_BLEND);
             blending = false;
         }
-
-        // Render each command
-        for (RenderCommand command : queue) {
-            executeRenderCommand(command);
-        }
     }
 
     /**
-     * Execute a single render command.
+     * Execute a single render command, issuing only the state that differs from the
+     * previous command.
      */
     private void executeRenderCommand(RenderCommand command) {
-        // Set common uniforms
         Shader shader = command.getShader();
-        if (shader != null) {
-            shader.setUniform("u_ViewMatrix", viewMatrix);
-            shader.setUniform("u_ProjectionMatrix", projectionMatrix);
-            shader.setUniform("u_ViewProjectionMatrix", viewProjectionMatrix);
-            shader.setUniform("u_CameraPosition", camera.getPosition());
+        useShader(shader);
 
-            // Set shadow map uniforms
-            shader.setUniform("shadowMap", 1);
-            glActiveTexture(GL_TEXTURE1);
-            glBindTexture(GL_TEXTURE_2D, shadowMap.getDepthMap());
-        }
-
-        // Bind textures
+        // Bind textures; the shadow map unit is only taken when the command doesn't use it
         List<Texture> textures = command.getTextures();
         for (int i = 0; i < textures.size(); i++) {
-            GL13.glActiveTexture(GL13.GL_TEXTURE0 + i);
-            textures.get(i).bind();
+            bindTexture(i, textures.get(i));
+        }
+        if (shader != null) {
+            bindShadowMap(textures.size());
         }
 
         // Set model matrix
@@ -455,9 +501,8 @@ public class Renderer {
         if (shader != null && modelMatrix != null) {
             shader.setUniform("u_ModelMatrix", modelMatrix);
 
-            // Calculate and set normal matrix
-            Matrix4f normalMatrix = new Matrix4f(modelMatrix).invert().transpose();
-            shader.setUniform("u_NormalMatrix", normalMatrix);
+            // Normal matrix is cached on the command until its transform changes
+            shader.setUniform("u_NormalMatrix", command.getNormalMatrix());
         }
 
         // Render mesh
@@ -467,44 +512,134 @@ public class Renderer {
             drawCalls++;
             verticesRendered += mesh.getVertexCount();
         }
+        commandsRendered++;
+    }
+
+    /**
+     * Draw a batch of instances with one instanced call, using the instanced variant of
+     * the batch's shader.
+     */
+    private void renderInstanceBatch(InstanceBatcher.Batch<Mesh, Shader, Texture> batch) {
+        useShader(batch.getInstancedShader());
+
+        int textureCount = 0;
+        if (batch.getMaterial() != null) {
+            bindTexture(0, batch.getMaterial());
+            textureCount = 1;
+        }
+        bindShadowMap(textureCount);
+
+        Mesh mesh = batch.getMesh();
+        mesh.renderInstanced(batch.getTransforms(), batch.getInstanceCount());
+        drawCalls++;
+        instancedDrawCalls++;
+        verticesRendered += mesh.getVertexCount() * batch.getInstanceCount();
+        commandsRendered += batch.getInstanceCount();
     }
 
     /**
-     * Sort transparent queue back-to-front for proper alpha blending.
+     * Bind a shader unless it is already bound, setting its per-frame uniforms the first
+     * time it is used in the frame.
      */
-    private void sortTransparentQueue() {
-        Vector3f cameraPos = camera.getPosition();
+    private void useShader(Shader shader) {
+        if (shader == null || shader == boundShader) {
+            return;
+        }
+        shader.bind();
+        boundShader = shader;
+        shaderSwitches++;
 
-        transparentQueue.sort((a, b) -> {
-            // Calculate distance from camera to object
-            Vector3f posA = a.getWorldPosition();
-            Vector3f posB = b.getWorldPosition();
+        // Uniforms stay with the program, so per-frame values only need setting once
+        if (!shadersWithFrameUniforms.contains(shader)) {
+            shadersWithFrameUniforms.add(shader);
+            shader.setUniform("u_ViewMatrix", viewMatrix);
+            shader.setUniform("u_ProjectionMatrix", projectionMatrix);
+            shader.setUniform("u_ViewProjectionMatrix", viewProjectionMatrix);
+            shader.setUniform("u_CameraPosition", frameCameraPosition);
+            shader.setUniform("shadowMap", SHADOW_MAP_UNIT);
+        }
+    }
 
-            float distA = cameraPos.distanceSquared(posA);
-            float distB = cameraPos.distanceSquared(posB);
+    /**
+     * Bind a texture to a unit unless it is already bound there.
+     */
+    private void bindTexture(int unit, Texture texture) {
+        if (unit >= TRACKED_TEXTURE_UNITS) {
+            texture.bind(unit);
+            textureBinds++;
+        } else if (boundTextures[unit] != texture.getTextureId()) {
+            texture.bind(unit);
+            boundTextures[unit] = texture.getTextureId();
+            textureBinds++;
+        }
+    }
 
-            // Sort back-to-front (larger distance first)
-            return Float.compare(distB, distA);
-        });
+    /**
+     * Bind the shadow map to its unit if a draw using textureCount units leaves it free.
+     */
+    private void bindShadowMap(int textureCount) {
+        if (textureCount <= SHADOW_MAP_UNIT && boundTextures[SHADOW_MAP_UNIT] != shadowMap.getDepthMap()) {
+            glActiveTexture(GL_TEXTURE0 + SHADOW_MAP_UNIT);
+            glBindTexture(GL_TEXTURE_2D, shadowMap.getDepthMap());
+            boundTextures[SHADOW_MAP_UNIT] = shadowMap.getDepthMap();
+            textureBinds++;
+        }
     }
 
     /**
-     * Submit a render command to the appropriate queue.
+     * Submit a render command to the appropriate queue. Opaque commands whose shader has
+     * an instanced variant are batched with others of the same mesh, shader and material
+     * and drawn in one instanced call.
      */
     public void submit(RenderCommand command) {
-        switch (command.getRenderQueue()) {
-            case OPAQUE:
-                opaqueQueue.add(command);
-                break;
-            case TRANSPARENT:
-                transparentQueue.add(command);
-                break;
-            case UI:
-                uiQueue.add(command);
-                break;
+        if (command.getRenderQueue() == RenderCommand.RenderQueue.OPAQUE) {
+            opaqueQueue.add(command);
+        }
+        if (!batchInstanced(command)) {
+            commandQueue.add(command);
         }
     }
 
+    /**
+     * Add a command to the instance batcher if it can be drawn instanced: visible,
+     * opaque, with at most one texture (its material) and a shader with an instanced
+     * variant.
+     */
+    private boolean batchInstanced(RenderCommand command) {
+        List<Texture> textures = command.getTextures();
+        if (!command.isValid() || command.getRenderQueue() != RenderCommand.RenderQueue.OPAQUE
+                || textures.size() > 1) {
+            return false;
+        }
+        Texture material = textures.isEmpty() ? null : textures.get(0);
+        return instanceBatcher.add(command.getMesh(), command.getShader(), material, command.getModelMatrix());
+    }
+
+    /**
+     * Submit unrotated copies of a mesh at packed x, y, z positions, drawn with one
+     * instanced call per mesh, shader and material. The shader needs an instanced
+     * variant; without one nothing is drawn.
+     *
+     * @return true if the instances were queued
+     */
+    public boolean submitInstances(Mesh mesh, Shader shader, Texture material, float[] positions, int count,
+                                   float scale) {
+        return instanceBatcher.addInstances(mesh, shader, material, positions, count, scale);
+    }
+
+    /**
+     * Submit every active projectile as an instance of the sphere mesh.
+     */
+    public void submitProjectiles(CombatSystem combatSystem) {
+        int needed = combatSystem.getActiveProjectileCount() * 3;
+        if (projectilePositions.length < needed) {
+            projectilePositions = new float[Math.max(needed, projectilePositions.length * 2)];
+        }
+        int count = combatSystem.copyProjectilePositions(projectilePositions);
+        submitInstances(meshManager.getSphereMesh(), shaderManager.getShader("opaque"), null,
+                        projectilePositions, count, PROJECTILE_SCALE);
+    }
+
     /**
      * Render the world.
      *
@@ -519,6 +654,10 @@ public class Renderer {
         // Set flag to indicate we're rendering world content
         renderingWorld = true;
 
+        if (chunkGeometry != null && world.getGeometryArena() != chunkGeometry) {
+            world.setGeometryArena(chunkGeometry);
+        }
+
         // Start frame profiling
         performanceProfiler.startFrame();
 
@@ -549,83 +688,46 @@ public class Renderer {
             csmPbrShader = shaderManager.getShader("pbr");
         }
         
-        csmPbrShader.bind();
-        csmPbrShader.setUniform("projection", projectionMatrix);
-        csmPbrShader.setUniform("view", viewMatrix);
-        csmPbrShader.setUniform("camPos", currentCamera.getPosition());
-
-        // Set light uniforms
-        for (int i = 0; i < 4; i++) {
-            csmPbrShader.setUniform("lightPositions[" + i + "]", new Vector3f(0.0f, 10.0f, 0.0f));
-            csmPbrShader.setUniform("lightColors[" + i + "]", new Vector3f(1.0f, 1.0f, 1.0f));
-        }
-
-        // Set CSM uniforms
-        csmPbrShader.setUniform("numCascades", cascadedShadowMap.getNumCascades());
-        csmPbrShader.setUniform("enablePCF", cascadedShadowMap.isPCFEnabled());
-        csmPbrShader.setUniform("pcfSamples", cascadedShadowMap.getPCFSamples());
-        csmPbrShader.setUniform("pcfRadius", cascadedShadowMap.getPCFRadius());
-        csmPbrShader.setUniform("shadowBias", 0.005f);
-        
-        // Set cascade splits and light space matrices
-        float[] cascadeSplits = cascadedShadowMap.getCascadeSplits();
-        Matrix4f[] lightSpaceMatrices = cascadedShadowMap.getLightSpaceMatrices();
-        
-        for (int i = 0; i < cascadedShadowMap.getNumCascades(); i++) {
-            csmPbrShader.setUniform("cascadeSplits[" + i + "]", cascadeSplits[i]);
-            csmPbrShader.setUniform("lightSpaceMatrices[" + i + "]", lightSpaceMatrices[i]);
+        // Chunks still holding their own meshes, before the arena is attached or without one.
+        // Only the solid layer is drawn here; water goes through the water renderer.
+        List<RenderCommand> chunkCommands = world.getRenderCommands(currentCamera);
+        for (int i = 0; i < chunkCommands.size(); i++) {
+            RenderCommand command = chunkCommands.get(i);
+            if (command.getRenderQueue() == RenderCommand.RenderQueue.OPAQUE) {
+                worldQueue.add(command.setShader(csmPbrShader));
+            }
         }
-
-        // Bind PBR textures
-        glActiveTexture(GL_TEXTURE0);
-        textureManager.getTexture("albedoMap").bind();
-        csmPbrShader.setUniform("albedoMap", 0);
-        
-        glActiveTexture(GL_TEXTURE1);
-        textureManager.getTexture("normalMap").bind();
-        csmPbrShader.setUniform("normalMap", 1);
-        
-        glActiveTexture(GL_TEXTURE2);
-        textureManager.getTexture("metallicMap").bind();
-        csmPbrShader.setUniform("metallicMap", 2);
-        
-        glActiveTexture(GL_TEXTURE3);
-        textureManager.getTexture("roughnessMap").bind();
-        csmPbrShader.setUniform("roughnessMap", 3);
-        
-        glActiveTexture(GL_TEXTURE4);
-        textureManager.getTexture("aoMap").bind();
-        csmPbrShader.setUniform("aoMap", 4);
-
-        // Bind IBL textures
-        glActiveTexture(GL_TEXTURE5);
-        glBindTexture(GL_TEXTURE_CUBE_MAP, ibl.getIrradianceMap());
-        csmPbrShader.setUniform("irradianceMap", 5);
-        
-        glActiveTexture(GL_TEXTURE6);
-        glBindTexture(GL_TEXTURE_CUBE_MAP, ibl.getPrefilterMap());
-        csmPbrShader.setUniform("prefilterMap", 6);
-        
-        glActiveTexture(GL_TEXTURE7);
-        glBindTexture(GL_TEXTURE_2D, ibl.getBrdfLUTTexture());
-        csmPbrShader.setUniform("brdfLUT", 7);
-
-        // Bind shadow map textures
-        for (int i = 0; i < cascadedShadowMap.getNumCascades(); i++) {
-            glActiveTexture(GL_TEXTURE8 + i);
-            glBindTexture(GL_TEXTURE_2D, cascadedShadowMap.getShadowMap(i));
-            csmPbrShader.setUniform("shadowMaps[" + i + "]", 8 + i);
+        if (!worldQueue.isEmpty()) {
+            currentCamera.getPosition(worldCameraPosition);
+            worldQueue.sort(worldCameraPosition);
+            setupWorldShader(csmPbrShader, currentCamera);
+            for (int i = 0; i < worldQueue.size(); i++) {
+                RenderCommand command = worldQueue.get(i);
+                csmPbrShader.setUniform("model", command.getModelMatrix());
+                command.getMesh().render();
+                drawCalls++;
+                verticesRendered += command.getMesh().getVertexCount();
+                commandsRendered++;
+            }
+            worldQueue.clear();
         }
-
-        java.util.Collection<com.odyssey.world.Chunk> chunks = world.getChunks();
-        for (com.odyssey.world.Chunk chunk : chunks) {
-            if (chunk.getMesh() != null) {
-                csmPbrShader.setUniform("model", chunk.getModelMatrix());
-                chunk.getMesh().render();
+        List<Chunk> visibleChunks = world.getLastVisibleChunks();
+
+        // Everything in the arena in one indirect draw
+        Shader chunkShader = shaderManager.getShader("csm_pbr_chunk");
+        if (chunkGeometry != null && chunkShader != null) {
+            setupWorldShader(chunkShader, currentCamera);
+            if (chunkGeometry.draw(ChunkGeometryArena.Layer.SOLID, visibleChunks) > 0) {
+                drawCalls++;
             }
         }
         performanceProfiler.endSection("World Rendering");
 
+        // Projectiles are drawn instanced with the command queue at the end of the frame
+        if (combatSystem != null) {
+            submitProjectiles(combatSystem);
+        }
+
         if (graphicsSettings.isWaterRenderingEnabled()) {
             performanceProfiler.startSection("Water Rendering");
             waterRenderer.render(currentCamera, projectionMatrix, viewMatrix, new Vector3f(-1, -1, -1));
@@ -700,6 +802,82 @@ public class Renderer {
         adaptiveQualityManager.updateQuality(performanceProfiler.getCurrentFPS());
     }
 
+    /**
+     * Binds a world shader and sets the camera, light, shadow and material uniforms and
+     * textures every world shader shares.
+     */
+    private void setupWorldShader(Shader shader, Camera camera) {
+        shader.bind();
+        shaderSwitches++;
+        shader.setUniform("projection", projectionMatrix);
+        shader.setUniform("view", viewMatrix);
+        shader.setUniform("camPos", camera.getPosition());
+
+        // Set light uniforms
+        for (int i = 0; i < 4; i++) {
+            shader.setUniform("lightPositions[" + i + "]", new Vector3f(0.0f, 10.0f, 0.0f));
+            shader.setUniform("lightColors[" + i + "]", new Vector3f(1.0f, 1.0f, 1.0f));
+        }
+
+        // Set CSM uniforms
+        shader.setUniform("numCascades", cascadedShadowMap.getNumCascades());
+        shader.setUniform("enablePCF", cascadedShadowMap.isPCFEnabled());
+        shader.setUniform("pcfSamples", cascadedShadowMap.getPCFSamples());
+        shader.setUniform("pcfRadius", cascadedShadowMap.getPCFRadius());
+        shader.setUniform("shadowBias", 0.005f);
+        
+        // Set cascade splits and light space matrices
+        float[] cascadeSplits = cascadedShadowMap.getCascadeSplits();
+        Matrix4f[] lightSpaceMatrices = cascadedShadowMap.getLightSpaceMatrices();
+        
+        for (int i = 0; i < cascadedShadowMap.getNumCascades(); i++) {
+            shader.setUniform("cascadeSplits[" + i + "]", cascadeSplits[i]);
+            shader.setUniform("lightSpaceMatrices[" + i + "]", lightSpaceMatrices[i]);
+        }
+
+        // Bind PBR textures
+        glActiveTexture(GL_TEXTURE0);
+        textureManager.getTexture("albedoMap").bind();
+        shader.setUniform("albedoMap", 0);
+        
+        glActiveTexture(GL_TEXTURE1);
+        textureManager.getTexture("normalMap").bind();
+        shader.setUniform("normalMap", 1);
+        
+        glActiveTexture(GL_TEXTURE2);
+        textureManager.getTexture("metallicMap").bind();
+        shader.setUniform("metallicMap", 2);
+        
+        glActiveTexture(GL_TEXTURE3);
+        textureManager.getTexture("roughnessMap").bind();
+        shader.setUniform("roughnessMap", 3);
+        
+        glActiveTexture(GL_TEXTURE4);
+        textureManager.getTexture("aoMap").bind();
+        shader.setUniform("aoMap", 4);
+
+        // Bind IBL textures
+        glActiveTexture(GL_TEXTURE5);
+        glBindTexture(GL_TEXTURE_CUBE_MAP, ibl.getIrradianceMap());
+        shader.setUniform("irradianceMap", 5);
+        
+        glActiveTexture(GL_TEXTURE6);
+        glBindTexture(GL_TEXTURE_CUBE_MAP, ibl.getPrefilterMap());
+        shader.setUniform("prefilterMap", 6);
+        
+        glActiveTexture(GL_TEXTURE7);
+        glBindTexture(GL_TEXTURE_2D, ibl.getBrdfLUTTexture());
+        shader.setUniform("brdfLUT", 7);
+
+        // Bind shadow map textures
+        for (int i = 0; i < cascadedShadowMap.getNumCascades(); i++) {
+            glActiveTexture(GL_TEXTURE8 + i);
+            glBindTexture(GL_TEXTURE_2D, cascadedShadowMap.getShadowMap(i));
+            shader.setUniform("shadowMaps[" + i + "]", 8 + i);
+        }
+        textureBinds += 8 + cascadedShadowMap.getNumCascades();
+    }
+
     private void renderShadowMap(World world, Camera renderCamera, Matrix4f renderProjectionMatrix, Matrix4f renderViewMatrix, Vector3f lightDirection) {
         // Update CSM light space matrices based on camera frustum
         cascadedShadowMap.updateLightSpaceMatrices(renderCamera, lightDirection);
@@ -708,7 +886,10 @@ public class Renderer {
         if (shadowShader == null) {
             shadowShader = shaderManager.getShader("shadow"); // Fallback to old shader
         }
-        shadowShader.bind();
+        Shader chunkShadowShader = chunkGeometry != null ? shaderManager.getShader("csm_shadow_chunk") : null;
+
+        // Chunks outside the camera's view still cast shadows into it
+        world.getChunkIndex().values(shadowChunks);
 
         // Render each cascade
         for (int i = 0; i < cascadedShadowMap.getNumCascades(); i++) {
@@ -717,17 +898,26 @@ public class Renderer {
 
             // Set light space matrix for current cascade
             Matrix4f lightSpaceMatrix = cascadedShadowMap.getLightSpaceMatrix(i);
+            shadowShader.bind();
             shadowShader.setUniform("u_LightSpaceMatrix", lightSpaceMatrix);
 
-            // Render world chunks
-            java.util.Collection<com.odyssey.world.Chunk> chunks = world.getChunks();
-            for (com.odyssey.world.Chunk chunk : chunks) {
+            // Render world chunks that still hold their own meshes
+            for (int c = 0; c < shadowChunks.size(); c++) {
+                Chunk chunk = shadowChunks.get(c);
                 if (chunk.getMesh() != null) {
                     shadowShader.setUniform("u_ModelMatrix", chunk.getModelMatrix());
                     chunk.getMesh().render();
                 }
             }
+
+            // And the arena's in one indirect draw
+            if (chunkShadowShader != null) {
+                chunkShadowShader.bind();
+                chunkShadowShader.setUniform("u_LightSpaceMatrix", lightSpaceMatrix);
+                chunkGeometry.draw(ChunkGeometryArena.Layer.SOLID, shadowChunks);
+            }
         }
+        shadowChunks.clear();
 
         cascadedShadowMap.unbind();
         shadowShader.unbind();
@@ -755,18 +945,12 @@ public class Renderer {
         // Disable depth testing for UI elements
         glDisable(GL_DEPTH_TEST);
 
-        // Process UI queue
-        for (RenderCommand command : uiQueue) {
-            // For now, we assume UI commands are for text rendering
-            // This will be expanded to handle other UI elements
-        }
-
-        // Clear UI queue for next frame
-        uiQueue.clear();
+        // UI commands are drawn with the rest of the sorted command queue in endFrame
 
         // Restore rendering state
         glEnable(GL_DEPTH_TEST);
         glDisable(GL_BLEND);
+        blending = false;
     }
 
     public void renderMainMenu(MainMenu mainMenu) {
@@ -931,6 +1115,13 @@ public class Renderer {
         return world;
     }
 
+    /**
+     * Set the combat system whose projectiles are drawn with the world.
+     */
+    public void setCombatSystem(CombatSystem combatSystem) {
+        this.combatSystem = combatSystem;
+    }
+
     public void renderWorld() {
         if (world != null) {
             render(world, camera);
@@ -1136,8 +1327,10 @@ public class Renderer {
         float frameTime = performanceTimer.getFrameTimeMillis();
 
         logger.debug(Logger.PERFORMANCE,
-                "Rendering Stats - FPS: {}, Frame: {:.2f}ms, Draw Calls: {}, Vertices: {}",
-                fps, frameTime, drawCalls, verticesRendered);
+                "Rendering Stats - FPS: {}, Frame: {:.2f}ms, Draw Calls: {}, Vertices: {}, " +
+                "Shader Switches: {}, Texture Binds: {} for {} commands, Instanced Draws: {}",
+                fps, frameTime, drawCalls, verticesRendered, shaderSwitches, textureBinds, commandsRendered,
+                instancedDrawCalls);
     }
 
     /**
@@ -1168,6 +1361,34 @@ public class Renderer {
         return verticesRendered;
     }
 
+    /**
+     * Get how many times the queued commands changed the bound shader this frame.
+     */
+    public int getShaderSwitches() {
+        return shaderSwitches;
+    }
+
+    /**
+     * Get how many texture binds the queued commands issued this frame, shadow map included.
+     */
+    public int getTextureBinds() {
+        return textureBinds;
+    }
+
+    /**
+     * Get how many queued commands were executed this frame, counting each instance.
+     */
+    public int getCommandsRendered() {
+        return commandsRendered;
+    }
+
+    /**
+     * Get how many of this frame's draw calls were instanced batches.
+     */
+    public int getInstancedDrawCalls() {
+        return instancedDrawCalls;
+    }
+
     /**
      * Cleanup renderer resources.
      */
@@ -1186,6 +1407,11 @@ public class Renderer {
             meshManager.cleanup();
         }
 
+        if (chunkGeometry != null) {
+            chunkGeometry.cleanup();
+            chunkGeometry = null;
+        }
+
         if (framebufferManager != null) {
             framebufferManager.cleanup();
         }
@@ -7,6 +7,7 @@ import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL32;
@@ -42,6 +43,10 @@ public class Shader {
     private boolean compiled = false;
     private boolean bound = false;
     
+    // Direct buffer shared by every single-matrix upload so per-draw uniforms allocate
+    // nothing; uniforms are only set from the render thread
+    private static final FloatBuffer matrixStaging = BufferUtils.createFloatBuffer(16);
+    
     /**
      * Create a new shader with a name.
      */
@@ -284,11 +289,8 @@ public class Shader {
     public void setUniform(String name, Matrix3f matrix) {
         int location = getUniformLocation(name);
         if (location != -1) {
-            try (MemoryStack stack = MemoryStack.stackPush()) {
-                FloatBuffer buffer = stack.mallocFloat(9);
-                matrix.get(buffer);
-                GL20.glUniformMatrix3fv(location, false, buffer);
-            }
+            matrix.get(matrixStaging.limit(9));
+            GL20.glUniformMatrix3fv(location, false, matrixStaging);
         }
     }
     
@@ -298,11 +300,8 @@ public class Shader {
     public void setUniform(String name, Matrix4f matrix) {
         int location = getUniformLocation(name);
         if (location != -1) {
-            try (MemoryStack stack = MemoryStack.stackPush()) {
-                FloatBuffer buffer = stack.mallocFloat(16);
-                matrix.get(buffer);
-                GL20.glUniformMatrix4fv(location, false, buffer);
-            }
+            matrix.get(matrixStaging.limit(16));
+            GL20.glUniformMatrix4fv(location, false, matrixStaging);
         }
     }
     
@@ -129,6 +129,8 @@ public class ShaderManager {
         loadShader("pbr", "src/main/resources/shaders/pbr.vert", "src/main/resources/shaders/pbr.frag");
         loadShader("csm_shadow", "src/main/resources/shaders/csm_shadow.vert", "src/main/resources/shaders/csm_shadow.frag");
         loadShader("csm_pbr", "src/main/resources/shaders/pbr.vert", "src/main/resources/shaders/csm_pbr.frag");
+        loadShader("csm_pbr_chunk", "src/main/resources/shaders/pbr_chunk.vert", "src/main/resources/shaders/csm_pbr.frag");
+        loadShader("csm_shadow_chunk", "src/main/resources/shaders/csm_shadow_chunk.vert", "src/main/resources/shaders/csm_shadow.frag");
         
         // Load bloom shaders
         loadShader("bloom_extract", "src/main/resources/shaders/bloom_extract.vert", "src/main/resources/shaders/bloom_extract.frag");
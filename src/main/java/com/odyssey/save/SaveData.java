@@ -44,6 +44,7 @@ public class SaveData implements Serializable {
     private Map<String, Integer> questProgress;
     private Map<String, Boolean> achievements;
     private Map<String, Object> statistics;
+    private Map<String, Integer> factionReputations;
     
     /**
      * Constructor for creating a new save.
@@ -58,6 +59,19 @@ public class SaveData implements Serializable {
         this.gameState = GameState.MAIN_MENU;
     }
     
+    /**
+     * Constructor for restoring a save with its original identity.
+     */
+    SaveData(UUID saveId, String saveName, String gameVersion, LocalDateTime createdAt, LocalDateTime lastModified) {
+        this.saveId = saveId;
+        this.saveName = saveName;
+        this.gameVersion = gameVersion;
+        this.createdAt = createdAt;
+        this.lastModified = lastModified;
+        this.playtimeSeconds = 0;
+        this.gameState = GameState.MAIN_MENU;
+    }
+    
     /**
      * Update the last modified timestamp.
      */
@@ -174,6 +188,14 @@ public class SaveData implements Serializable {
         this.achievements = achievements;
     }
     
+    public Map<String, Integer> getFactionReputations() {
+        return factionReputations;
+    }
+    
+    public void setFactionReputations(Map<String, Integer> factionReputations) {
+        this.factionReputations = factionReputations;
+    }
+    
     public Map<String, Object> getStatistics() {
         return statistics;
     }
@@ -0,0 +1,612 @@
+package com.odyssey.save;
+
+import com.odyssey.core.GameState;
+import com.odyssey.ship.Ship;
+import com.odyssey.ship.ShipType;
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Versioned binary codec for save files, player state and ships.
+ *
+ * A save starts with a fixed magic number and a varint schema version, followed by the
+ * {@link SaveData} fields as tagged values (see {@link BinaryWriter}). Readers skip tags
+ * they do not know, so adding fields only needs a new tag; the schema version is bumped
+ * when the meaning of an existing tag changes. Absent fields decode to their defaults
+ * and absent maps decode to null, mirroring unset fields on a fresh {@link SaveData}.
+ *
+ * Free-form maps ({@code Map<String, Object>}) support booleans, numbers, strings and
+ * nested maps and lists; any other value is stored as its string form.
+ */
+public final class SaveDataCodec {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaveDataCodec.class);
+
+    public static final int MAGIC = 0x5653444F; // "ODSV" little-endian
+    public static final int SCHEMA_VERSION = 1;
+
+    // SaveData
+    private static final int SAVE_ID_MOST = 1;
+    private static final int SAVE_ID_LEAST = 2;
+    private static final int SAVE_NAME = 3;
+    private static final int GAME_VERSION = 4;
+    private static final int CREATED_AT = 5;
+    private static final int LAST_MODIFIED = 6;
+    private static final int PLAYTIME = 7;
+    private static final int PLAYER = 8;
+    private static final int WORLD = 9;
+    private static final int SHIP = 10;
+    private static final int ACTIVE_SHIP = 11;
+    private static final int GAME_STATE = 12;
+    private static final int GAME_FLAGS = 13;
+    private static final int QUEST_PROGRESS = 14;
+    private static final int ACHIEVEMENTS = 15;
+    private static final int STATISTICS = 16;
+    private static final int FACTION_REPUTATIONS = 17;
+
+    // PlayerSaveData
+    private static final int PLAYER_NAME = 1;
+    private static final int PLAYER_POSITION = 2;
+    private static final int PLAYER_ROTATION = 3;
+    private static final int PLAYER_VELOCITY = 4;
+    private static final int PLAYER_HEALTH = 5;
+    private static final int PLAYER_MAX_HEALTH = 6;
+    private static final int PLAYER_LEVEL = 7;
+    private static final int PLAYER_EXPERIENCE = 8;
+    private static final int PLAYER_INVENTORY = 9;
+    private static final int PLAYER_STATS = 10;
+    private static final int PLAYER_ON_SHIP = 11;
+    private static final int PLAYER_SHIP_ID = 12;
+    private static final int PLAYER_SPAWN_POINT = 13;
+    private static final int PLAYER_GAME_TIME = 14;
+
+    // WorldSaveData
+    private static final int WORLD_NAME = 1;
+    private static final int WORLD_SEED = 2;
+    private static final int WORLD_GAME_TIME = 3;
+    private static final int WORLD_WEATHER = 4;
+    private static final int WORLD_FLAGS = 5;
+    private static final int WORLD_CHUNK_DATA = 6;
+
+    // Ship
+    private static final int SHIP_NAME = 1;
+    private static final int SHIP_TYPE = 2;
+    private static final int SHIP_POSITION = 3;
+    private static final int SHIP_ORIENTATION = 4;
+    private static final int SHIP_VELOCITY = 5;
+    private static final int SHIP_HEALTH = 6;
+    private static final int SHIP_WATER_LEVEL = 7;
+
+    // Map entries and dynamic values
+    private static final int ENTRY = 1;
+    private static final int ENTRY_KEY = 1;
+    private static final int ENTRY_VALUE = 2;
+    private static final int VALUE_BOOLEAN = 1;
+    private static final int VALUE_INT = 2;
+    private static final int VALUE_LONG = 3;
+    private static final int VALUE_FLOAT = 4;
+    private static final int VALUE_DOUBLE = 5;
+    private static final int VALUE_STRING = 6;
+    private static final int VALUE_MAP = 7;
+    private static final int VALUE_LIST = 8;
+
+    private SaveDataCodec() {
+    }
+
+    /**
+     * Checks whether the data starts with the codec's magic number
+     */
+    public static boolean isEncoded(byte[] data) {
+        return data.length >= Integer.BYTES
+            && (data[0] & 0xFF | (data[1] & 0xFF) << 8 | (data[2] & 0xFF) << 16 | (data[3] & 0xFF) << 24) == MAGIC;
+    }
+
+    // Save data
+
+    public static byte[] encode(SaveData saveData) {
+        BinaryWriter out = new BinaryWriter(4096);
+        out.writeInt(MAGIC);
+        out.writeVarInt(SCHEMA_VERSION);
+
+        UUID saveId = saveData.getSaveId();
+        out.writeLongField(SAVE_ID_MOST, saveId.getMostSignificantBits());
+        out.writeLongField(SAVE_ID_LEAST, saveId.getLeastSignificantBits());
+        out.writeStringField(SAVE_NAME, saveData.getSaveName());
+        out.writeStringField(GAME_VERSION, saveData.getGameVersion());
+        writeDateTime(out, CREATED_AT, saveData.getCreatedAt());
+        writeDateTime(out, LAST_MODIFIED, saveData.getLastModified());
+        out.writeSignedVarLongField(PLAYTIME, saveData.getPlaytimeSeconds());
+
+        if (saveData.getPlayerData() != null) {
+            out.writeMessageField(PLAYER, player -> writePlayer(player, saveData.getPlayerData()));
+        }
+        if (saveData.getWorldData() != null) {
+            out.writeMessageField(WORLD, world -> writeWorld(world, saveData.getWorldData()));
+        }
+        if (saveData.getPlayerShips() != null) {
+            for (Ship ship : saveData.getPlayerShips()) {
+                out.writeMessageField(SHIP, entry -> writeShip(entry, ship));
+            }
+        }
+        out.writeStringField(ACTIVE_SHIP, saveData.getActiveShipId());
+        if (saveData.getGameState() != null) {
+            out.writeStringField(GAME_STATE, saveData.getGameState().name());
+        }
+
+        writeValueMap(out, GAME_FLAGS, saveData.getGameFlags());
+        writeIntMap(out, QUEST_PROGRESS, saveData.getQuestProgress());
+        writeBooleanMap(out, ACHIEVEMENTS, saveData.getAchievements());
+        writeValueMap(out, STATISTICS, saveData.getStatistics());
+        writeIntMap(out, FACTION_REPUTATIONS, saveData.getFactionReputations());
+        return out.toByteArray();
+    }
+
+    public static SaveData decode(byte[] data) throws IOException {
+        if (!isEncoded(data)) {
+            throw new IOException("Not an encoded save");
+        }
+        BinaryReader in = new BinaryReader(data, Integer.BYTES, data.length - Integer.BYTES);
+        int version = in.readVarInt();
+        if (version > SCHEMA_VERSION) {
+            throw new IOException("Save schema version " + version + " is newer than supported version " + SCHEMA_VERSION);
+        }
+
+        long idMost = 0;
+        long idLeast = 0;
+        String saveName = null;
+        String gameVersion = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime lastModified = null;
+        long playtime = 0;
+        SaveData.PlayerSaveData playerData = null;
+        SaveData.WorldSaveData worldData = null;
+        List<Ship> ships = null;
+        String activeShipId = null;
+        GameState gameState = null;
+        Map<String, Object> gameFlags = null;
+        Map<String, Integer> questProgress = null;
+        Map<String, Boolean> achievements = null;
+        Map<String, Object> statistics = null;
+        Map<String, Integer> factionReputations = null;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case SAVE_ID_MOST: idMost = in.readLong(); break;
+                case SAVE_ID_LEAST: idLeast = in.readLong(); break;
+                case SAVE_NAME: saveName = in.readString(); break;
+                case GAME_VERSION: gameVersion = in.readString(); break;
+                case CREATED_AT: createdAt = readDateTime(in); break;
+                case LAST_MODIFIED: lastModified = readDateTime(in); break;
+                case PLAYTIME: playtime = in.readSignedVarLong(); break;
+                case PLAYER: playerData = readPlayer(in.readMessage()); break;
+                case WORLD: worldData = readWorld(in.readMessage()); break;
+                case SHIP:
+                    if (ships == null) {
+                        ships = new ArrayList<>();
+                    }
+                    Ship ship = readShip(in.readMessage());
+                    if (ship != null) {
+                        ships.add(ship);
+                    }
+                    break;
+                case ACTIVE_SHIP: activeShipId = in.readString(); break;
+                case GAME_STATE: gameState = parseGameState(in.readString()); break;
+                case GAME_FLAGS: gameFlags = readValueMap(in.readMessage()); break;
+                case QUEST_PROGRESS: questProgress = readIntMap(in.readMessage()); break;
+                case ACHIEVEMENTS: achievements = readBooleanMap(in.readMessage()); break;
+                case STATISTICS: statistics = readValueMap(in.readMessage()); break;
+                case FACTION_REPUTATIONS: factionReputations = readIntMap(in.readMessage()); break;
+                default: in.skipField(); break;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SaveData saveData = new SaveData(new UUID(idMost, idLeast), saveName, gameVersion,
+                                         createdAt != null ? createdAt : now,
+                                         lastModified != null ? lastModified : now);
+        saveData.setPlaytimeSeconds(playtime);
+        saveData.setPlayerData(playerData);
+        saveData.setWorldData(worldData);
+        saveData.setPlayerShips(ships != null ? ships : new ArrayList<>());
+        saveData.setActiveShipId(activeShipId);
+        if (gameState != null) {
+            saveData.setGameState(gameState);
+        }
+        saveData.setGameFlags(gameFlags);
+        saveData.setQuestProgress(questProgress);
+        saveData.setAchievements(achievements);
+        saveData.setStatistics(statistics);
+        saveData.setFactionReputations(factionReputations);
+        return saveData;
+    }
+
+    // Player
+
+    public static byte[] encodePlayer(SaveData.PlayerSaveData playerData) {
+        BinaryWriter out = new BinaryWriter(512);
+        writePlayer(out, playerData);
+        return out.toByteArray();
+    }
+
+    public static SaveData.PlayerSaveData decodePlayer(byte[] data) throws IOException {
+        return readPlayer(new BinaryReader(data));
+    }
+
+    private static void writePlayer(BinaryWriter out, SaveData.PlayerSaveData player) {
+        out.writeStringField(PLAYER_NAME, player.getPlayerName());
+        writeVector(out, PLAYER_POSITION, player.getPosition());
+        writeVector(out, PLAYER_ROTATION, player.getRotation());
+        writeVector(out, PLAYER_VELOCITY, player.getVelocity());
+        out.writeFloatField(PLAYER_HEALTH, player.getHealth());
+        out.writeFloatField(PLAYER_MAX_HEALTH, player.getMaxHealth());
+        out.writeSignedVarIntField(PLAYER_LEVEL, player.getLevel());
+        out.writeSignedVarLongField(PLAYER_EXPERIENCE, player.getExperience());
+        writeIntMap(out, PLAYER_INVENTORY, player.getInventory());
+        writeValueMap(out, PLAYER_STATS, player.getPlayerStats());
+        out.writeBooleanField(PLAYER_ON_SHIP, player.isOnShip());
+        out.writeStringField(PLAYER_SHIP_ID, player.getShipId());
+        writeVector(out, PLAYER_SPAWN_POINT, player.getSpawnPoint());
+        out.writeSignedVarLongField(PLAYER_GAME_TIME, player.getGameTime());
+    }
+
+    private static SaveData.PlayerSaveData readPlayer(BinaryReader in) throws IOException {
+        SaveData.PlayerSaveData player = new SaveData.PlayerSaveData();
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case PLAYER_NAME: player.setPlayerName(in.readString()); break;
+                case PLAYER_POSITION: player.setPosition(readVector(in)); break;
+                case PLAYER_ROTATION: player.setRotation(readVector(in)); break;
+                case PLAYER_VELOCITY: player.setVelocity(readVector(in)); break;
+                case PLAYER_HEALTH: player.setHealth(in.readFloat()); break;
+                case PLAYER_MAX_HEALTH: player.setMaxHealth(in.readFloat()); break;
+                case PLAYER_LEVEL: player.setLevel(in.readSignedVarInt()); break;
+                case PLAYER_EXPERIENCE: player.setExperience(in.readSignedVarLong()); break;
+                case PLAYER_INVENTORY: player.setInventory(readIntMap(in.readMessage())); break;
+                case PLAYER_STATS: player.setPlayerStats(readValueMap(in.readMessage())); break;
+                case PLAYER_ON_SHIP: player.setOnShip(in.readBoolean()); break;
+                case PLAYER_SHIP_ID: player.setShipId(in.readString()); break;
+                case PLAYER_SPAWN_POINT: player.setSpawnPoint(readVector(in)); break;
+                case PLAYER_GAME_TIME: player.setGameTime(in.readSignedVarLong()); break;
+                default: in.skipField(); break;
+            }
+        }
+        return player;
+    }
+
+    // World
+
+    private static void writeWorld(BinaryWriter out, SaveData.WorldSaveData world) {
+        out.writeStringField(WORLD_NAME, world.getWorldName());
+        out.writeLongField(WORLD_SEED, world.getWorldSeed());
+        out.writeSignedVarLongField(WORLD_GAME_TIME, world.getGameTime());
+        out.writeStringField(WORLD_WEATHER, world.getWeatherState());
+        writeValueMap(out, WORLD_FLAGS, world.getWorldFlags());
+        out.writeBytesField(WORLD_CHUNK_DATA, world.getChunkData());
+    }
+
+    private static SaveData.WorldSaveData readWorld(BinaryReader in) throws IOException {
+        SaveData.WorldSaveData world = new SaveData.WorldSaveData();
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case WORLD_NAME: world.setWorldName(in.readString()); break;
+                case WORLD_SEED: world.setWorldSeed(in.readLong()); break;
+                case WORLD_GAME_TIME: world.setGameTime(in.readSignedVarLong()); break;
+                case WORLD_WEATHER: world.setWeatherState(in.readString()); break;
+                case WORLD_FLAGS: world.setWorldFlags(readValueMap(in.readMessage())); break;
+                case WORLD_CHUNK_DATA: world.setChunkData(in.readBytes()); break;
+                default: in.skipField(); break;
+            }
+        }
+        return world;
+    }
+
+    // Ships
+
+    /**
+     * Encodes the persistent state of a ship: identity, transform, motion and condition.
+     * Components are rebuilt from the ship type when the ship is decoded.
+     */
+    public static byte[] encodeShip(Ship ship) {
+        BinaryWriter out = new BinaryWriter(128);
+        writeShip(out, ship);
+        return out.toByteArray();
+    }
+
+    public static Ship decodeShip(byte[] data) throws IOException {
+        return readShip(new BinaryReader(data));
+    }
+
+    private static void writeShip(BinaryWriter out, Ship ship) {
+        out.writeStringField(SHIP_NAME, ship.getName());
+        out.writeStringField(SHIP_TYPE, ship.getShipType().name());
+        writeVector(out, SHIP_POSITION, ship.getPosition());
+        Quaternionf orientation = ship.getOrientation();
+        out.writeMessageField(SHIP_ORIENTATION, q -> q.writeFloat(orientation.x).writeFloat(orientation.y)
+                                                      .writeFloat(orientation.z).writeFloat(orientation.w));
+        writeVector(out, SHIP_VELOCITY, ship.getVelocity());
+        out.writeFloatField(SHIP_HEALTH, ship.getHealth());
+        out.writeFloatField(SHIP_WATER_LEVEL, ship.getWaterLevel());
+    }
+
+    /**
+     * Reads a ship, or returns null if its type is unknown to this build
+     */
+    private static Ship readShip(BinaryReader in) throws IOException {
+        String name = null;
+        String type = null;
+        Vector3f position = new Vector3f();
+        Quaternionf orientation = null;
+        Vector3f velocity = null;
+        Float health = null;
+        float waterLevel = 0.0f;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case SHIP_NAME: name = in.readString(); break;
+                case SHIP_TYPE: type = in.readString(); break;
+                case SHIP_POSITION: position = readVector(in); break;
+                case SHIP_ORIENTATION:
+                    BinaryReader q = in.readMessage();
+                    orientation = new Quaternionf(q.readFloat(), q.readFloat(), q.readFloat(), q.readFloat());
+                    break;
+                case SHIP_VELOCITY: velocity = readVector(in); break;
+                case SHIP_HEALTH: health = in.readFloat(); break;
+                case SHIP_WATER_LEVEL: waterLevel = in.readFloat(); break;
+                default: in.skipField(); break;
+            }
+        }
+
+        ShipType shipType;
+        try {
+            shipType = ShipType.valueOf(type);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            LOGGER.warn("Skipping saved ship '{}' with unknown type {}", name, type);
+            return null;
+        }
+
+        Ship ship = new Ship(name, shipType, position);
+        if (orientation != null) {
+            ship.setOrientation(orientation);
+        }
+        if (velocity != null) {
+            ship.setVelocity(velocity);
+        }
+        ship.restoreCondition(health != null ? health : ship.getMaxHealth(), waterLevel);
+        return ship;
+    }
+
+    // Shared value encodings
+
+    private static void writeVector(BinaryWriter out, int tag, Vector3f vector) {
+        if (vector != null) {
+            out.writeMessageField(tag, v -> v.writeFloat(vector.x).writeFloat(vector.y).writeFloat(vector.z));
+        }
+    }
+
+    private static Vector3f readVector(BinaryReader in) throws IOException {
+        BinaryReader v = in.readMessage();
+        return new Vector3f(v.readFloat(), v.readFloat(), v.readFloat());
+    }
+
+    private static void writeDateTime(BinaryWriter out, int tag, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            out.writeSignedVarLongField(tag, dateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    private static LocalDateTime readDateTime(BinaryReader in) throws IOException {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readSignedVarLong()), ZoneOffset.UTC);
+    }
+
+    private static GameState parseGameState(String name) {
+        try {
+            return GameState.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown saved game state {}, using default", name);
+            return null;
+        }
+    }
+
+    private static void writeIntMap(BinaryWriter out, int tag, Map<String, Integer> map) {
+        if (map == null) {
+            return;
+        }
+        out.writeMessageField(tag, entries -> {
+            for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    entries.writeMessageField(ENTRY, e -> e.writeStringField(ENTRY_KEY, entry.getKey())
+                                                          .writeSignedVarIntField(ENTRY_VALUE, entry.getValue()));
+                }
+            }
+        });
+    }
+
+    private static Map<String, Integer> readIntMap(BinaryReader in) throws IOException {
+        Map<String, Integer> map = new HashMap<>();
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            if (tag != ENTRY) {
+                in.skipField();
+                continue;
+            }
+            BinaryReader entry = in.readMessage();
+            String key = null;
+            int value = 0;
+            int field;
+            while ((field = entry.nextField()) != BinaryReader.END) {
+                if (field == ENTRY_KEY) {
+                    key = entry.readString();
+                } else if (field == ENTRY_VALUE) {
+                    value = entry.readSignedVarInt();
+                } else {
+                    entry.skipField();
+                }
+            }
+            if (key != null) {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    private static void writeBooleanMap(BinaryWriter out, int tag, Map<String, Boolean> map) {
+        if (map == null) {
+            return;
+        }
+        out.writeMessageField(tag, entries -> {
+            for (Map.Entry<String, Boolean> entry : map.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    entries.writeMessageField(ENTRY, e -> e.writeStringField(ENTRY_KEY, entry.getKey())
+                                                          .writeBooleanField(ENTRY_VALUE, entry.getValue()));
+                }
+            }
+        });
+    }
+
+    private static Map<String, Boolean> readBooleanMap(BinaryReader in) throws IOException {
+        Map<String, Boolean> map = new HashMap<>();
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            if (tag != ENTRY) {
+                in.skipField();
+                continue;
+            }
+            BinaryReader entry = in.readMessage();
+            String key = null;
+            boolean value = false;
+            int field;
+            while ((field = entry.nextField()) != BinaryReader.END) {
+                if (field == ENTRY_KEY) {
+                    key = entry.readString();
+                } else if (field == ENTRY_VALUE) {
+                    value = entry.readBoolean();
+                } else {
+                    entry.skipField();
+                }
+            }
+            if (key != null) {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    private static void writeValueMap(BinaryWriter out, int tag, Map<String, Object> map) {
+        if (map != null) {
+            out.writeMessageField(tag, entries -> writeValueEntries(entries, map));
+        }
+    }
+
+    private static void writeValueEntries(BinaryWriter out, Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                out.writeMessageField(ENTRY, e -> {
+                    e.writeStringField(ENTRY_KEY, String.valueOf(entry.getKey()));
+                    e.writeMessageField(ENTRY_VALUE, value -> writeValue(value, entry.getValue()));
+                });
+            }
+        }
+    }
+
+    private static void writeValue(BinaryWriter out, Object value) {
+        if (value instanceof Boolean) {
+            out.writeBooleanField(VALUE_BOOLEAN, (Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeSignedVarIntField(VALUE_INT, ((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeSignedVarLongField(VALUE_LONG, (Long) value);
+        } else if (value instanceof Float) {
+            out.writeFloatField(VALUE_FLOAT, (Float) value);
+        } else if (value instanceof Double) {
+            out.writeDoubleField(VALUE_DOUBLE, (Double) value);
+        } else if (value instanceof Map) {
+            out.writeMessageField(VALUE_MAP, entries -> writeValueEntries(entries, (Map<?, ?>) value));
+        } else if (value instanceof Collection) {
+            out.writeMessageField(VALUE_LIST, elements -> {
+                for (Object element : (Collection<?>) value) {
+                    if (element != null) {
+                        elements.writeMessageField(ENTRY, e -> writeValue(e, element));
+                    }
+                }
+            });
+        } else {
+            out.writeStringField(VALUE_STRING, String.valueOf(value));
+        }
+    }
+
+    private static Map<String, Object> readValueMap(BinaryReader in) throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            if (tag != ENTRY) {
+                in.skipField();
+                continue;
+            }
+            BinaryReader entry = in.readMessage();
+            String key = null;
+            Object value = null;
+            int field;
+            while ((field = entry.nextField()) != BinaryReader.END) {
+                if (field == ENTRY_KEY) {
+                    key = entry.readString();
+                } else if (field == ENTRY_VALUE) {
+                    value = readValue(entry.readMessage());
+                } else {
+                    entry.skipField();
+                }
+            }
+            if (key != null && value != null) {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    private static Object readValue(BinaryReader in) throws IOException {
+        Object value = null;
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case VALUE_BOOLEAN: value = in.readBoolean(); break;
+                case VALUE_INT: value = in.readSignedVarInt(); break;
+                case VALUE_LONG: value = in.readSignedVarLong(); break;
+                case VALUE_FLOAT: value = in.readFloat(); break;
+                case VALUE_DOUBLE: value = in.readDouble(); break;
+                case VALUE_STRING: value = in.readString(); break;
+                case VALUE_MAP: value = readValueMap(in.readMessage()); break;
+                case VALUE_LIST:
+                    BinaryReader elements = in.readMessage();
+                    List<Object> list = new ArrayList<>();
+                    while (elements.nextField() != BinaryReader.END) {
+                        Object element = readValue(elements.readMessage());
+                        if (element != null) {
+                            list.add(element);
+                        }
+                    }
+                    value = list;
+                    break;
+                default: in.skipField(); break;
+            }
+        }
+        return value;
+    }
+}
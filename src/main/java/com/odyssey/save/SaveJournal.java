@@ -0,0 +1,281 @@
+package com.odyssey.save;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of incremental save checkpoints.
+ *
+ * Each autosave appends one segment holding only the records that changed since the
+ * previous checkpoint. A record is keyed by its type and an id; replaying the base
+ * segment followed by every numbered segment in order and keeping the last record per
+ * key gives the current state. An empty payload is a tombstone. Once enough segments
+ * have piled up they are compacted into a new base segment.
+ *
+ * Segment layout: int magic, int record count, then per record byte type, UTF key,
+ * int payload length and the payload, followed by a long CRC32 of everything before it.
+ * Segments are written to a temporary file and moved into place, so a crash never
+ * leaves a half-written segment behind.
+ */
+public class SaveJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaveJournal.class);
+
+    private static final int SEGMENT_MAGIC = 0x4F534A31; // "OSJ1"
+    private static final String BASE_SEGMENT = "base.seg";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Kinds of state a journal record can hold
+     */
+    public enum EntryType {
+        PLAYER,
+        SHIP,
+        ACTIVE_SHIP,
+        QUEST,
+        FACTION;
+
+        private static final EntryType[] VALUES = values();
+
+        static EntryType fromOrdinal(int ordinal) throws IOException {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IOException("Unknown journal record type " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+
+    /**
+     * A single keyed journal entry
+     */
+    public static final class Entry {
+        private final EntryType type;
+        private final String key;
+        private final byte[] payload;
+
+        public Entry(EntryType type, String key, byte[] payload) {
+            this.type = type;
+            this.key = key;
+            this.payload = payload;
+        }
+
+        /**
+         * Creates a record marking the keyed entry as removed
+         */
+        public static Entry tombstone(EntryType type, String key) {
+            return new Entry(type, key, new byte[0]);
+        }
+
+        public EntryType getType() { return type; }
+        public String getKey() { return key; }
+        public byte[] getPayload() { return payload; }
+        public boolean isTombstone() { return payload.length == 0; }
+    }
+
+    private final Path directory;
+    private int nextSegment;
+
+    public SaveJournal(Path directory) throws IOException {
+        this.directory = directory;
+        List<Integer> segments = listSegments();
+        this.nextSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1;
+    }
+
+    /**
+     * Appends a segment holding the given records.
+     *
+     * @return the number of bytes written
+     */
+    public synchronized long appendSegment(Collection<Entry> records) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(segmentName(nextSegment));
+        long bytes = writeSegment(target, records);
+        nextSegment++;
+        return bytes;
+    }
+
+    /**
+     * Folds the base segment and every numbered segment into a new base segment and
+     * deletes the folded segments.
+     *
+     * @return the number of bytes written for the new base segment
+     */
+    public synchronized long compact() throws IOException {
+        List<Integer> segments = listSegments();
+        if (segments.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Entry> merged = replay();
+        long bytes = writeSegment(directory.resolve(BASE_SEGMENT), merged.values());
+        for (int segment : segments) {
+            Files.deleteIfExists(directory.resolve(segmentName(segment)));
+        }
+
+        LOGGER.debug("Compacted {} journal segments in {} into {} records ({} bytes)",
+                    segments.size(), directory, merged.size(), bytes);
+        return bytes;
+    }
+
+    /**
+     * Replays the journal and returns the latest record for every key, tombstones
+     * included, in the order they were last written. Replay stops at the first corrupt segment, since
+     * later segments may depend on the changes it held.
+     */
+    public synchronized Map<String, Entry> replay() throws IOException {
+        Map<String, Entry> state = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return state;
+        }
+
+        Path base = directory.resolve(BASE_SEGMENT);
+        if (Files.exists(base) && !readSegment(base, state)) {
+            return state;
+        }
+        for (int segment : listSegments()) {
+            if (!readSegment(directory.resolve(segmentName(segment)), state)) {
+                break;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Deletes every segment. Called once a full save has made the journal redundant.
+     */
+    public synchronized void clear() throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        nextSegment = 0;
+    }
+
+    /**
+     * Gets the number of numbered segments waiting to be compacted
+     */
+    public synchronized int getSegmentCount() throws IOException {
+        return listSegments().size();
+    }
+
+    public Path getDirectory() { return directory; }
+
+    private static String recordKey(Entry record) {
+        return record.getType().ordinal() + ":" + record.getKey();
+    }
+
+    private long writeSegment(Path target, Collection<Entry> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(records.size());
+            for (Entry record : records) {
+                out.writeByte(record.getType().ordinal());
+                out.writeUTF(record.getKey());
+                out.writeInt(record.getPayload().length);
+                out.write(record.getPayload());
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        byte[] body = bytes.toByteArray();
+        crc.update(body, 0, body.length);
+
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.write(body);
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return body.length + Long.BYTES;
+    }
+
+    /**
+     * Reads a segment into the state map. Returns false if the segment is corrupt.
+     */
+    private boolean readSegment(Path path, Map<String, Entry> state) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        if (data.length < Integer.BYTES * 2 + Long.BYTES) {
+            LOGGER.warn("Journal segment {} is truncated, ignoring it and any later segments", path);
+            return false;
+        }
+
+        int bodyLength = data.length - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, bodyLength);
+        if (crc.getValue() != ByteBuffer.wrap(data, bodyLength, Long.BYTES).getLong()) {
+            LOGGER.warn("Journal segment {} failed its checksum, ignoring it and any later segments", path);
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, bodyLength))) {
+            if (in.readInt() != SEGMENT_MAGIC) {
+                LOGGER.warn("Journal segment {} has a bad header, ignoring it and any later segments", path);
+                return false;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                EntryType type = EntryType.fromOrdinal(in.readUnsignedByte());
+                String key = in.readUTF();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+
+                Entry record = new Entry(type, key, payload);
+                String mapKey = recordKey(record);
+                // Re-insert so the map keeps last-writer order for compaction
+                state.remove(mapKey);
+                state.put(mapKey, record);
+            }
+        }
+        return true;
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    segments.add(Integer.parseInt(number));
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Ignoring unexpected file in save journal: {}", path);
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static String segmentName(int segment) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX);
+    }
+}
@@ -3,7 +3,12 @@ package com.odyssey.save;
 import com.odyssey.core.GameConfig;
 import com.odyssey.core.GameEngine;
 import com.odyssey.core.GameState;
+import com.odyssey.faction.FactionManager;
+import com.odyssey.faction.FactionType;
+import com.odyssey.quest.QuestManager;
 import com.odyssey.ship.Ship;
+import com.odyssey.ship.ShipManager;
+import com.odyssey.world.World;
 import com.odyssey.world.WorldManager;
 import com.odyssey.player.PlayerManager;
 import com.odyssey.player.Player;
@@ -11,6 +16,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -34,6 +41,8 @@ public class SaveManager {
     private static final String SAVE_EXTENSION = ".odyssey";
     private static final String BACKUP_EXTENSION = ".backup";
     private static final String TEMP_EXTENSION = ".tmp";
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 8;
     private static final int MAX_BACKUP_COUNT = 5;
     private static final String GAME_VERSION = "1.0.0"; // This should come from build info
     
@@ -53,12 +62,19 @@ public class SaveManager {
     private final Map<String, SaveData> saveCache;
     private List<SaveInfo> availableSaves;
     
+    // Incremental autosave
+    private final Map<String, SaveJournal> journals;
+    private final SaveMetrics metrics;
+    private volatile boolean fullSaveRequired;
+    
     /**
      * Constructor for SaveManager.
      */
     public SaveManager(GameConfig config) {
         this.config = config;
         this.saveCache = new HashMap<>();
+        this.journals = new HashMap<>();
+        this.metrics = new SaveMetrics();
         this.saveExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread thread = new Thread(r, "SaveManager");
             thread.setDaemon(true);
@@ -98,15 +114,37 @@ public class SaveManager {
     
     /**
      * Create a new save with the current game state.
+     * 
+     * The game state is captured, dirty chunks are queued and dirty tracking is reset on
+     * the calling (game) thread, as for {@link #autosave}, so an edit can't slip between
+     * being captured and being marked saved. The save thread runs in submission order, so
+     * the journal it clears only holds segments captured before this snapshot.
      */
     public CompletableFuture<Boolean> saveGame(String saveName) {
+        World world = worldManager != null ? worldManager.getCurrentWorld() : null;
+        if (world != null) {
+            try {
+                int queued = world.queueDirtyChunkSaves();
+                LOGGER.debug("Queued {} dirty chunks for save: {}", queued, saveName);
+            } catch (Exception e) {
+                LOGGER.error("Failed to queue dirty chunks for save: {}", saveName, e);
+            }
+        }
+        
+        long startTime = System.nanoTime();
+        SaveData saveData;
+        try {
+            LOGGER.info("Creating save: {}", saveName);
+            saveData = createSaveData(saveName);
+        } catch (Exception e) {
+            fullSaveRequired = true;
+            metrics.recordFailure();
+            LOGGER.error("Failed to capture save state: {}", saveName, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        
         return CompletableFuture.supplyAsync(() -> {
             try {
-                LOGGER.info("Creating save: {}", saveName);
-                
-                // Create save data
-                SaveData saveData = createSaveData(saveName);
-                
                 // Generate filename
                 String filename = generateSaveFilename(saveName);
                 Path savePath = saveDirectory.resolve(filename);
@@ -123,20 +161,104 @@ public class SaveManager {
                 // Atomic move to final location
                 Files.move(tempPath, savePath, StandardCopyOption.REPLACE_EXISTING);
                 
+                // The full save is the new checkpoint, so journaled changes are redundant
+                getJournal(saveName).clear();
+                fullSaveRequired = false;
+                
                 // Update cache
                 saveCache.put(saveName, saveData);
                 refreshSaveList();
                 
+                metrics.recordFullSave(Files.size(savePath), 0, System.nanoTime() - startTime);
                 LOGGER.info("Save created successfully: {}", saveName);
                 return true;
                 
             } catch (Exception e) {
+                // Dirty tracking was already reset, so only another full save can recover
+                fullSaveRequired = true;
+                metrics.recordFailure();
                 LOGGER.error("Failed to save game: {}", saveName, e);
                 return false;
             }
         }, saveExecutor);
     }
     
+    /**
+     * Write an incremental checkpoint of the current game state.
+     * 
+     * Only state that changed since the previous checkpoint is captured. Capturing runs on
+     * the calling (game) thread and is kept short; the journal segment and dirty chunks are
+     * written on the save thread. Falls back to a full save when no base save exists yet or
+     * a previous autosave failed and its changes could not be journaled.
+     */
+    public CompletableFuture<Boolean> autosave(String saveName) {
+        if (fullSaveRequired || !Files.exists(getSaveFilePath(saveName))) {
+            return saveGame(saveName);
+        }
+        
+        long pauseStart = System.nanoTime();
+        List<SaveJournal.Entry> records;
+        World world = worldManager != null ? worldManager.getCurrentWorld() : null;
+        long chunkBytesBefore = world != null ? world.getChunkStorage().getBytesWritten() : 0;
+        int chunksQueued;
+        try {
+            records = collectDirtyRecords();
+            chunksQueued = world != null ? world.queueDirtyChunkSaves() : 0;
+        } catch (IOException e) {
+            LOGGER.error("Failed to capture autosave state for: {}", saveName, e);
+            metrics.recordFailure();
+            fullSaveRequired = true;
+            return CompletableFuture.completedFuture(false);
+        }
+        long pauseNanos = System.nanoTime() - pauseStart;
+        
+        return CompletableFuture.supplyAsync(() -> {
+            long writeStart = System.nanoTime();
+            try {
+                long bytesWritten = 0;
+                if (world != null) {
+                    world.getChunkStorage().flush();
+                    bytesWritten += world.getChunkStorage().getBytesWritten() - chunkBytesBefore;
+                }
+                
+                SaveJournal journal = getJournal(saveName);
+                if (!records.isEmpty()) {
+                    bytesWritten += journal.appendSegment(records);
+                }
+                
+                boolean compacted = false;
+                if (journal.getSegmentCount() >= JOURNAL_COMPACTION_THRESHOLD) {
+                    bytesWritten += journal.compact();
+                    compacted = true;
+                }
+                
+                // A cached copy no longer reflects the journal
+                saveCache.remove(saveName);
+                
+                long writeNanos = System.nanoTime() - writeStart;
+                metrics.recordAutosave(records.size(), chunksQueued, bytesWritten, pauseNanos, writeNanos, compacted);
+                LOGGER.debug("Autosave '{}': {} records, {} chunks, {} bytes, paused {} us, wrote in {} ms",
+                            saveName, records.size(), chunksQueued, bytesWritten,
+                            pauseNanos / 1_000, writeNanos / 1_000_000);
+                return true;
+                
+            } catch (Exception e) {
+                // The captured changes are lost from the journal; the next save must be full
+                fullSaveRequired = true;
+                metrics.recordFailure();
+                LOGGER.error("Failed to write autosave: {}", saveName, e);
+                return false;
+            }
+        }, saveExecutor);
+    }
+    
+    /**
+     * Get save and autosave statistics.
+     */
+    public SaveMetrics getMetrics() {
+        return metrics;
+    }
+    
     /**
      * Load a game save.
      */
@@ -159,8 +281,9 @@ public class SaveManager {
                     throw new FileNotFoundException("Save file not found: " + saveName);
                 }
                 
-                // Load save data
+                // Load save data and roll it forward with any autosave checkpoints
                 SaveData saveData = readSaveData(savePath);
+                applyJournal(saveName, saveData);
                 
                 // Validate save
                 if (!validateSaveData(saveData)) {
@@ -190,6 +313,7 @@ public class SaveManager {
             
             if (Files.exists(savePath)) {
                 Files.delete(savePath);
+                deleteJournal(saveName);
                 saveCache.remove(saveName);
                 refreshSaveList();
                 LOGGER.info("Save deleted: {}", saveName);
@@ -247,45 +371,10 @@ public class SaveManager {
             // Set game state
             saveData.setGameState(gameEngine.getGameState());
             
-            // Create player data from PlayerManager
-            PlayerManager playerManager = PlayerManager.getInstance();
-            Player currentPlayer = playerManager.getCurrentPlayer();
+            // Everything captured from here on is the new checkpoint
+            resetDirtyTracking();
             
-            SaveData.PlayerSaveData playerData = new SaveData.PlayerSaveData();
-            if (currentPlayer != null) {
-                // Set actual player data
-                playerData.setPlayerName(currentPlayer.getPlayerName());
-                playerData.setPosition(currentPlayer.getPosition());
-                playerData.setRotation(currentPlayer.getRotation());
-                playerData.setVelocity(currentPlayer.getVelocity());
-                playerData.setHealth(currentPlayer.getHealth());
-                playerData.setMaxHealth(currentPlayer.getMaxHealth());
-                playerData.setLevel(currentPlayer.getLevel());
-                playerData.setExperience(currentPlayer.getExperience());
-                playerData.setInventory(currentPlayer.getInventory());
-                playerData.setPlayerStats(currentPlayer.getPlayerStats());
-                playerData.setOnShip(currentPlayer.isOnShip());
-                playerData.setShipId(currentPlayer.getShipId());
-                playerData.setSpawnPoint(currentPlayer.getSpawnPoint());
-                playerData.setGameTime(currentPlayer.getGameTime());
-            } else {
-                // Default player data if no current player
-                playerData.setPlayerName("Player");
-                playerData.setPosition(new org.joml.Vector3f(0, 64, 0));
-                playerData.setRotation(new org.joml.Vector3f(0, 0, 0));
-                playerData.setVelocity(new org.joml.Vector3f(0, 0, 0));
-                playerData.setHealth(100.0f);
-                playerData.setMaxHealth(100.0f);
-                playerData.setLevel(1);
-                playerData.setExperience(0);
-                playerData.setInventory(new HashMap<>());
-                playerData.setPlayerStats(new HashMap<>());
-                playerData.setOnShip(false);
-                playerData.setShipId(null);
-                playerData.setSpawnPoint(new org.joml.Vector3f(0, 64, 0));
-                playerData.setGameTime(0);
-            }
-            saveData.setPlayerData(playerData);
+            saveData.setPlayerData(createPlayerSaveData());
             
             // Create world data
             if (worldManager != null) {
@@ -371,6 +460,20 @@ public class SaveManager {
                 saveData.setQuestProgress(new HashMap<>());
             }
             
+            // Set faction reputations
+            try {
+                FactionManager factionManager = getFactionManager();
+                Map<String, Integer> factionReputations = new HashMap<>();
+                if (factionManager != null) {
+                    factionManager.getAllReputations().forEach((faction, reputation) ->
+                        factionReputations.put(faction.name(), reputation.getReputation()));
+                }
+                saveData.setFactionReputations(factionReputations);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to get faction reputations, using empty map", e);
+                saveData.setFactionReputations(new HashMap<>());
+            }
+            
             // Set achievements
             try {
                 Map<String, Boolean> achievements = gameEngine.getAchievements();
@@ -412,26 +515,79 @@ public class SaveManager {
     }
     
     /**
-     * Write save data to file with compression.
+     * Create player save data from the current player.
+     */
+    private SaveData.PlayerSaveData createPlayerSaveData() {
+        // Create player data from PlayerManager
+        PlayerManager playerManager = PlayerManager.getInstance();
+        Player currentPlayer = playerManager.getCurrentPlayer();
+        
+        SaveData.PlayerSaveData playerData = new SaveData.PlayerSaveData();
+        if (currentPlayer != null) {
+            // Set actual player data
+            playerData.setPlayerName(currentPlayer.getPlayerName());
+            playerData.setPosition(currentPlayer.getPosition());
+            playerData.setRotation(currentPlayer.getRotation());
+            playerData.setVelocity(currentPlayer.getVelocity());
+            playerData.setHealth(currentPlayer.getHealth());
+            playerData.setMaxHealth(currentPlayer.getMaxHealth());
+            playerData.setLevel(currentPlayer.getLevel());
+            playerData.setExperience(currentPlayer.getExperience());
+            playerData.setInventory(currentPlayer.getInventory());
+            playerData.setPlayerStats(currentPlayer.getPlayerStats());
+            playerData.setOnShip(currentPlayer.isOnShip());
+            playerData.setShipId(currentPlayer.getShipId());
+            playerData.setSpawnPoint(currentPlayer.getSpawnPoint());
+            playerData.setGameTime(currentPlayer.getGameTime());
+        } else {
+            // Default player data if no current player
+            playerData.setPlayerName("Player");
+            playerData.setPosition(new org.joml.Vector3f(0, 64, 0));
+            playerData.setRotation(new org.joml.Vector3f(0, 0, 0));
+            playerData.setVelocity(new org.joml.Vector3f(0, 0, 0));
+            playerData.setHealth(100.0f);
+            playerData.setMaxHealth(100.0f);
+            playerData.setLevel(1);
+            playerData.setExperience(0);
+            playerData.setInventory(new HashMap<>());
+            playerData.setPlayerStats(new HashMap<>());
+            playerData.setOnShip(false);
+            playerData.setShipId(null);
+            playerData.setSpawnPoint(new org.joml.Vector3f(0, 64, 0));
+            playerData.setGameTime(0);
+        }
+        return playerData;
+    }
+    
+    /**
+     * Write save data to file with compression, using the binary save codec.
      */
     private void writeSaveData(SaveData saveData, Path filePath) throws IOException {
+        byte[] encoded = SaveDataCodec.encode(saveData);
         try (FileOutputStream fos = new FileOutputStream(filePath.toFile());
-             GZIPOutputStream gzos = new GZIPOutputStream(fos);
-             ObjectOutputStream oos = new ObjectOutputStream(gzos)) {
+             GZIPOutputStream gzos = new GZIPOutputStream(fos, 64 * 1024)) {
             
-            oos.writeObject(saveData);
-            oos.flush();
+            gzos.write(encoded);
         }
     }
     
     /**
      * Read save data from file with decompression.
+     * Saves written before the binary codec was introduced are read with Java serialization.
      */
     private SaveData readSaveData(Path filePath) throws IOException, ClassNotFoundException {
+        byte[] data;
         try (FileInputStream fis = new FileInputStream(filePath.toFile());
-             GZIPInputStream gzis = new GZIPInputStream(fis);
-             ObjectInputStream ois = new ObjectInputStream(gzis)) {
+             GZIPInputStream gzis = new GZIPInputStream(fis, 64 * 1024)) {
             
+            data = gzis.readAllBytes();
+        }
+        
+        if (SaveDataCodec.isEncoded(data)) {
+            return SaveDataCodec.decode(data);
+        }
+        
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
             return (SaveData) ois.readObject();
         }
     }
@@ -529,50 +685,199 @@ public class SaveManager {
     }
     
     /**
-     * Serialize chunk data for saving.
+     * Get the current player's faction manager, if a player exists.
      */
-    private byte[] serializeChunkData(WorldManager worldManager) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             GZIPOutputStream gzos = new GZIPOutputStream(baos);
-             ObjectOutputStream oos = new ObjectOutputStream(gzos)) {
-            
-            // Get loaded chunks from world manager
-            Map<String, Object> chunkMap = new HashMap<>();
-            
-            if (worldManager.getCurrentWorld() != null) {
-                // Get chunk data from the world
-                // This is a placeholder - actual implementation would depend on World class structure
-                Map<String, Object> loadedChunks = worldManager.getCurrentWorld().getLoadedChunks();
-                if (loadedChunks != null) {
-                    chunkMap.putAll(loadedChunks);
-                }
+    private FactionManager getFactionManager() {
+        Player player = PlayerManager.getInstance().getCurrentPlayer();
+        return player != null ? player.getFactionManager() : null;
+    }
+    
+    /**
+     * Capture everything that changed since the last checkpoint as journal records.
+     * Dirty flags are cleared as state is captured, so changes made afterwards are picked
+     * up by the next checkpoint.
+     */
+    private List<SaveJournal.Entry> collectDirtyRecords() throws IOException {
+        List<SaveJournal.Entry> records = new ArrayList<>();
+        
+        // Player state changes nearly every frame and is small, so it is always written
+        records.add(new SaveJournal.Entry(SaveJournal.EntryType.PLAYER, "",
+                                          SaveDataCodec.encodePlayer(createPlayerSaveData())));
+        
+        ShipManager shipManager = gameEngine != null ? gameEngine.getShipManager() : null;
+        if (shipManager != null) {
+            for (String shipId : shipManager.drainRemovedPlayerShips()) {
+                records.add(SaveJournal.Entry.tombstone(SaveJournal.EntryType.SHIP, shipId));
             }
-            
-            // Write chunk count first
-            oos.writeInt(chunkMap.size());
-            
-            // Write each chunk
-            for (Map.Entry<String, Object> entry : chunkMap.entrySet()) {
-                oos.writeUTF(entry.getKey()); // Chunk coordinates as string
-                oos.writeObject(entry.getValue()); // Chunk data
+            for (Ship ship : shipManager.collectDirtyPlayerShips()) {
+                records.add(new SaveJournal.Entry(SaveJournal.EntryType.SHIP, ship.getName(), SaveDataCodec.encodeShip(ship)));
             }
-            
-            oos.flush();
-            gzos.finish();
-            
-            LOGGER.debug("Serialized {} chunks, compressed size: {} bytes", 
-                        chunkMap.size(), baos.size());
-            
-            return baos.toByteArray();
-            
+            if (shipManager.consumeActiveShipChange()) {
+                String activeShipId = shipManager.getActiveShipId();
+                records.add(activeShipId != null
+                    ? new SaveJournal.Entry(SaveJournal.EntryType.ACTIVE_SHIP, "", activeShipId.getBytes(StandardCharsets.UTF_8))
+                    : SaveJournal.Entry.tombstone(SaveJournal.EntryType.ACTIVE_SHIP, ""));
+            }
+        }
+        
+        QuestManager questManager = gameEngine != null ? gameEngine.getQuestManager() : null;
+        if (questManager != null) {
+            for (Map.Entry<String, Integer> entry : questManager.drainDirtyQuestProgress().entrySet()) {
+                records.add(entry.getValue() != null
+                    ? new SaveJournal.Entry(SaveJournal.EntryType.QUEST, entry.getKey(), encodeInt(entry.getValue()))
+                    : SaveJournal.Entry.tombstone(SaveJournal.EntryType.QUEST, entry.getKey()));
+            }
+        }
+        
+        FactionManager factionManager = getFactionManager();
+        if (factionManager != null) {
+            for (Map.Entry<FactionType, Integer> entry : factionManager.collectChangedReputations().entrySet()) {
+                records.add(new SaveJournal.Entry(SaveJournal.EntryType.FACTION, entry.getKey().name(),
+                                                   encodeInt(entry.getValue())));
+            }
+        }
+        
+        return records;
+    }
+    
+    /**
+     * Discard pending dirty state ahead of a full save, which captures everything anyway.
+     */
+    private void resetDirtyTracking() {
+        ShipManager shipManager = gameEngine.getShipManager();
+        if (shipManager != null) {
+            shipManager.drainRemovedPlayerShips();
+            shipManager.collectDirtyPlayerShips();
+            shipManager.consumeActiveShipChange();
+        }
+        
+        QuestManager questManager = gameEngine.getQuestManager();
+        if (questManager != null) {
+            questManager.drainDirtyQuestProgress();
+        }
+        
+        FactionManager factionManager = getFactionManager();
+        if (factionManager != null) {
+            factionManager.collectChangedReputations();
+        }
+    }
+    
+    /**
+     * Roll loaded save data forward with the records journaled by later autosaves.
+     */
+    private void applyJournal(String saveName, SaveData saveData) throws IOException {
+        Map<String, SaveJournal.Entry> records = getJournal(saveName).replay();
+        if (records.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Ship> ships = new LinkedHashMap<>();
+        if (saveData.getShips() != null) {
+            for (Ship ship : saveData.getShips()) {
+                ships.put(ship.getName(), ship);
+            }
+        }
+        Map<String, Integer> questProgress = saveData.getQuestProgress() != null
+            ? new HashMap<>(saveData.getQuestProgress()) : new HashMap<>();
+        Map<String, Integer> factionReputations = saveData.getFactionReputations() != null
+            ? new HashMap<>(saveData.getFactionReputations()) : new HashMap<>();
+        
+        for (SaveJournal.Entry record : records.values()) {
+            byte[] payload = record.getPayload();
+            switch (record.getType()) {
+                case PLAYER:
+                    if (!record.isTombstone()) {
+                        saveData.setPlayerData(SaveDataCodec.decodePlayer(payload));
+                    }
+                    break;
+                case SHIP:
+                    if (record.isTombstone()) {
+                        ships.remove(record.getKey());
+                    } else {
+                        Ship ship = SaveDataCodec.decodeShip(payload);
+                        if (ship != null) {
+                            ships.put(record.getKey(), ship);
+                        }
+                    }
+                    break;
+                case ACTIVE_SHIP:
+                    saveData.setActiveShipId(record.isTombstone() ? null : new String(payload, StandardCharsets.UTF_8));
+                    break;
+                case QUEST:
+                    if (record.isTombstone()) {
+                        questProgress.remove(record.getKey());
+                    } else {
+                        questProgress.put(record.getKey(), decodeInt(payload));
+                    }
+                    break;
+                case FACTION:
+                    factionReputations.put(record.getKey(), decodeInt(payload));
+                    break;
+            }
+        }
+        
+        saveData.setPlayerShips(new ArrayList<>(ships.values()));
+        saveData.setQuestProgress(questProgress);
+        saveData.setFactionReputations(factionReputations);
+        LOGGER.info("Applied {} journaled changes to save: {}", records.size(), saveName);
+    }
+    
+    /**
+     * Get the autosave journal that belongs to a save.
+     */
+    private synchronized SaveJournal getJournal(String saveName) throws IOException {
+        String filename = generateSaveFilename(saveName);
+        SaveJournal journal = journals.get(filename);
+        if (journal == null) {
+            journal = new SaveJournal(saveDirectory.resolve(filename + JOURNAL_EXTENSION));
+            journals.put(filename, journal);
+        }
+        return journal;
+    }
+    
+    /**
+     * Delete the autosave journal that belongs to a save.
+     */
+    private synchronized void deleteJournal(String saveName) throws IOException {
+        SaveJournal journal = getJournal(saveName);
+        journal.clear();
+        Files.deleteIfExists(journal.getDirectory());
+        journals.remove(generateSaveFilename(saveName));
+    }
+    
+    private static byte[] encodeInt(int value) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+    }
+    
+    private static int decodeInt(byte[] payload) {
+        return ByteBuffer.wrap(payload).getInt();
+    }
+    
+    /**
+     * Persist chunk data for saving.
+     * Chunks live in per-world region files, so this only waits for the chunk writes
+     * {@link #saveGame} queued on the game thread and returns an empty payload instead of
+     * copying the world into the save. Runs on the save thread, so it must not touch
+     * the chunks themselves.
+     */
+    private byte[] serializeChunkData(WorldManager worldManager) throws IOException {
+        if (worldManager.getCurrentWorld() == null) {
+            return new byte[0];
+        }
+        
+        try {
+            worldManager.getCurrentWorld().getChunkStorage().flush();
+            LOGGER.debug("Flushed queued chunk writes to region files");
+            return new byte[0];
         } catch (Exception e) {
-            LOGGER.error("Failed to serialize chunk data", e);
+            LOGGER.error("Failed to save chunk data", e);
             throw new IOException("Chunk serialization failed", e);
         }
     }
     
     /**
      * Deserialize chunk data for loading.
+     * Only used for saves written before chunks moved to region files.
      */
     private Map<String, Object> deserializeChunkData(byte[] chunkData) throws IOException, ClassNotFoundException {
         if (chunkData == null || chunkData.length == 0) {
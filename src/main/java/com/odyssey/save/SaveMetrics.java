@@ -0,0 +1,97 @@
+package com.odyssey.save;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running statistics for full saves and incremental autosaves.
+ *
+ * Pause time is the time the game thread spends capturing dirty state before the
+ * write is handed to the save thread; write time is everything after that.
+ */
+public class SaveMetrics {
+
+    private final AtomicLong autosaveCount = new AtomicLong();
+    private final AtomicLong fullSaveCount = new AtomicLong();
+    private final AtomicLong compactionCount = new AtomicLong();
+    private final AtomicLong failedSaveCount = new AtomicLong();
+
+    private final AtomicLong totalBytesWritten = new AtomicLong();
+    private final AtomicLong totalPauseNanos = new AtomicLong();
+    private final AtomicLong maxPauseNanos = new AtomicLong();
+
+    private volatile long lastBytesWritten;
+    private volatile long lastPauseNanos;
+    private volatile long lastWriteNanos;
+    private volatile int lastRecordCount;
+    private volatile int lastChunkCount;
+
+    /**
+     * Records a completed incremental autosave
+     */
+    public void recordAutosave(int records, int chunks, long bytesWritten, long pauseNanos,
+                               long writeNanos, boolean compacted) {
+        autosaveCount.incrementAndGet();
+        if (compacted) {
+            compactionCount.incrementAndGet();
+        }
+        lastRecordCount = records;
+        lastChunkCount = chunks;
+        recordWrite(bytesWritten, pauseNanos, writeNanos);
+    }
+
+    /**
+     * Records a completed full save
+     */
+    public void recordFullSave(long bytesWritten, long pauseNanos, long writeNanos) {
+        fullSaveCount.incrementAndGet();
+        recordWrite(bytesWritten, pauseNanos, writeNanos);
+    }
+
+    public void recordFailure() {
+        failedSaveCount.incrementAndGet();
+    }
+
+    private void recordWrite(long bytesWritten, long pauseNanos, long writeNanos) {
+        totalBytesWritten.addAndGet(bytesWritten);
+        totalPauseNanos.addAndGet(pauseNanos);
+        maxPauseNanos.accumulateAndGet(pauseNanos, Math::max);
+        lastBytesWritten = bytesWritten;
+        lastPauseNanos = pauseNanos;
+        lastWriteNanos = writeNanos;
+    }
+
+    public long getAutosaveCount() { return autosaveCount.get(); }
+    public long getFullSaveCount() { return fullSaveCount.get(); }
+    public long getCompactionCount() { return compactionCount.get(); }
+    public long getFailedSaveCount() { return failedSaveCount.get(); }
+    public long getTotalBytesWritten() { return totalBytesWritten.get(); }
+    public long getLastBytesWritten() { return lastBytesWritten; }
+    public long getLastPauseNanos() { return lastPauseNanos; }
+    public long getMaxPauseNanos() { return maxPauseNanos.get(); }
+    public long getLastWriteNanos() { return lastWriteNanos; }
+    public int getLastRecordCount() { return lastRecordCount; }
+    public int getLastChunkCount() { return lastChunkCount; }
+
+    /**
+     * Gets the statistics as a map for debug overlays and logging
+     */
+    public Map<String, Object> toMap() {
+        long saves = autosaveCount.get() + fullSaveCount.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("autosaves", autosaveCount.get());
+        stats.put("fullSaves", fullSaveCount.get());
+        stats.put("compactions", compactionCount.get());
+        stats.put("failedSaves", failedSaveCount.get());
+        stats.put("totalBytesWritten", totalBytesWritten.get());
+        stats.put("lastBytesWritten", lastBytesWritten);
+        stats.put("lastPauseMs", lastPauseNanos / 1_000_000.0);
+        stats.put("maxPauseMs", maxPauseNanos.get() / 1_000_000.0);
+        stats.put("averagePauseMs", saves == 0 ? 0.0 : totalPauseNanos.get() / 1_000_000.0 / saves);
+        stats.put("lastWriteMs", lastWriteNanos / 1_000_000.0);
+        stats.put("lastRecordCount", lastRecordCount);
+        stats.put("lastChunkCount", lastChunkCount);
+        return stats;
+    }
+}
@@ -76,6 +76,9 @@ public class Ship implements Serializable {
     // Ship physics handler
     private ShipPhysics shipPhysics;
     
+    // Save tracking - set whenever persisted state changes, cleared once an autosave captures it
+    private transient volatile boolean dirty = true;
+    
     public Ship(String name, ShipType shipType, Vector3f position) {
         this.name = name;
         this.shipType = shipType;
@@ -161,6 +164,11 @@ public class Ship implements Serializable {
         
         // Update transform matrix
         updateTransformMatrix();
+        
+        // A ship under way changes its persisted position every tick
+        if (velocity.lengthSquared() > 0.0f || angularVelocity.lengthSquared() > 0.0f) {
+            dirty = true;
+        }
     }
     
     /**
@@ -194,6 +202,7 @@ public class Ship implements Serializable {
         // Update ship stats based on component
         updateShipStats();
         needsMeshUpdate = true;
+        dirty = true;
         
         Logger.world("Added {} component to ship '{}'", type, name);
     }
@@ -206,6 +215,7 @@ public class Ship implements Serializable {
         if (components.get(type).remove(component)) {
             updateShipStats();
             needsMeshUpdate = true;
+            dirty = true;
             Logger.world("Removed {} component from ship '{}'", type, name);
         }
     }
@@ -261,6 +271,7 @@ public class Ship implements Serializable {
         }
         
         needsMeshUpdate = true;
+        dirty = true;
         Logger.world("Ship '{}' took {} {} damage at {}", name, damage, damageType, localPosition);
     }
     
@@ -286,6 +297,7 @@ public class Ship implements Serializable {
         waterLevel = Math.max(0, waterLevel);
         
         needsMeshUpdate = true;
+        dirty = true;
         Logger.world("Repaired ship '{}' by {}", name, repairAmount);
     }
     
@@ -1104,6 +1116,7 @@ public class Ship implements Serializable {
     public void setPosition(Vector3f newPosition) {
         this.position.set(newPosition);
         updateTransformMatrix();
+        dirty = true;
     }
     
     /**
@@ -1119,6 +1132,7 @@ public class Ship implements Serializable {
     public void setOrientation(Quaternionf newOrientation) {
         this.rotation.set(newOrientation);
         updateTransformMatrix();
+        dirty = true;
     }
     
     /**
@@ -1126,6 +1140,31 @@ public class Ship implements Serializable {
      */
     public void setVelocity(Vector3f newVelocity) {
         this.velocity.set(newVelocity);
+        dirty = true;
+    }
+    
+    /**
+     * Restores hull health and flooding from save data
+     */
+    public void restoreCondition(float health, float waterLevel) {
+        this.health = Math.max(0, Math.min(maxHealth, health));
+        this.waterLevel = Math.max(0, waterLevel);
+        needsMeshUpdate = true;
+        dirty = true;
+    }
+    
+    /**
+     * Checks if the ship has changed since it was last captured by a save
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Clears the dirty flag once the ship's state has been captured by a save
+     */
+    public void clearDirty() {
+        dirty = false;
     }
     
     /**
@@ -28,6 +28,12 @@ public class ShipManager {
     /** Maximum number of ships per player */
     private static final int MAX_PLAYER_SHIPS = 10;
     
+    /** Player ship IDs removed since the last save checkpoint */
+    private final Set<String> removedPlayerShips;
+    
+    /** Whether the active ship changed since the last save checkpoint */
+    private volatile boolean activeShipChanged;
+    
     /**
      * Creates a new ShipManager instance.
      */
@@ -35,6 +41,7 @@ public class ShipManager {
         this.allShips = new ConcurrentHashMap<>();
         this.playerShips = new ConcurrentHashMap<>();
         this.spawnLocations = new ArrayList<>();
+        this.removedPlayerShips = ConcurrentHashMap.newKeySet();
         this.activeShipId = null;
         
         // Initialize default spawn locations
@@ -86,6 +93,7 @@ public class ShipManager {
         
         String shipId = ship.getName();
         playerShips.put(shipId, ship);
+        removedPlayerShips.remove(shipId);
         
         // Set as active ship if it's the first one
         if (activeShipId == null) {
@@ -105,6 +113,7 @@ public class ShipManager {
     public boolean setActiveShip(String shipId) {
         if (shipId == null) {
             activeShipId = null;
+            activeShipChanged = true;
             LOGGER.info("Cleared active ship");
             return true;
         }
@@ -115,6 +124,7 @@ public class ShipManager {
         }
         
         activeShipId = shipId;
+        activeShipChanged = true;
         LOGGER.info("Set active ship to '{}'", shipId);
         return true;
     }
@@ -172,11 +182,14 @@ public class ShipManager {
         }
         
         // Remove from player ships if it was one
-        playerShips.remove(shipId);
+        if (playerShips.remove(shipId) != null) {
+            removedPlayerShips.add(shipId);
+        }
         
         // Clear active ship if this was it
         if (shipId.equals(activeShipId)) {
             activeShipId = null;
+            activeShipChanged = true;
             // Set another player ship as active if available
             if (!playerShips.isEmpty()) {
                 String newActiveId = playerShips.keySet().iterator().next();
@@ -247,12 +260,57 @@ public class ShipManager {
      * Clears all ships from the manager.
      */
     public void clear() {
+        removedPlayerShips.addAll(playerShips.keySet());
         allShips.clear();
         playerShips.clear();
         activeShipId = null;
+        activeShipChanged = true;
         LOGGER.info("Cleared all ships from manager");
     }
     
+    /**
+     * Collects player ships whose state changed since the last save checkpoint and
+     * clears their dirty flags.
+     * 
+     * @return The changed player ships
+     */
+    public List<Ship> collectDirtyPlayerShips() {
+        List<Ship> dirtyShips = new ArrayList<>();
+        for (Ship ship : playerShips.values()) {
+            if (ship.isDirty()) {
+                // Clear before the caller captures the state so later changes re-mark the ship
+                ship.clearDirty();
+                dirtyShips.add(ship);
+            }
+        }
+        return dirtyShips;
+    }
+    
+    /**
+     * Returns and forgets the player ship IDs removed since the last save checkpoint.
+     * 
+     * @return The removed ship IDs
+     */
+    public Set<String> drainRemovedPlayerShips() {
+        Set<String> removed = new HashSet<>();
+        for (Iterator<String> it = removedPlayerShips.iterator(); it.hasNext(); ) {
+            removed.add(it.next());
+            it.remove();
+        }
+        return removed;
+    }
+    
+    /**
+     * Checks whether the active ship changed since the last save checkpoint and resets the flag.
+     * 
+     * @return true if the active ship changed
+     */
+    public boolean consumeActiveShipChange() {
+        boolean changed = activeShipChanged;
+        activeShipChanged = false;
+        return changed;
+    }
+    
     /**
      * Get the total number of ships built by the player
      */
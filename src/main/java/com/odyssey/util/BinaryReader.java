@@ -0,0 +1,234 @@
+package com.odyssey.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads data produced by {@link BinaryWriter}.
+ *
+ * Tagged messages are read in a loop over {@link #nextField()}, switching on the tag
+ * and calling {@link #skipField()} for anything unrecognised. Malformed input surfaces
+ * as an {@link IOException} rather than a runtime exception.
+ */
+public final class BinaryReader {
+
+    /** Returned by {@link #nextField()} once the message has no more fields */
+    public static final int END = -1;
+
+    private final ByteBuffer buffer;
+    private int wireType;
+
+    public BinaryReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public BinaryReader(byte[] data, int offset, int length) {
+        this(ByteBuffer.wrap(data, offset, length).slice());
+    }
+
+    private BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Raw values
+
+    public int readByte() throws IOException {
+        require(1);
+        return buffer.get() & 0xFF;
+    }
+
+    public int readVarInt() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varlong");
+    }
+
+    public int readSignedVarInt() throws IOException {
+        int raw = readVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readInt() throws IOException {
+        require(4);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(8);
+        return buffer.getLong();
+    }
+
+    public float readFloat() throws IOException {
+        require(4);
+        return buffer.getFloat();
+    }
+
+    public double readDouble() throws IOException {
+        require(8);
+        return buffer.getDouble();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readVarInt() != 0;
+    }
+
+    public String readString() throws IOException {
+        int length = readLength();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                                  StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    public byte[] readBytes() throws IOException {
+        byte[] bytes = new byte[readLength()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public long[] readLongArray() throws IOException {
+        int count = readVarInt();
+        require((long) count * Long.BYTES);
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+
+    public int[] readIntArray() throws IOException {
+        int count = readVarInt();
+        require((long) count * Integer.BYTES);
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    public float[] readFloatArray() throws IOException {
+        int count = readVarInt();
+        require((long) count * Float.BYTES);
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + count * Float.BYTES);
+        return values;
+    }
+
+    // Tagged fields
+
+    /**
+     * Advances to the next field and returns its tag, or {@link #END} when the message
+     * is exhausted
+     */
+    public int nextField() throws IOException {
+        if (!buffer.hasRemaining()) {
+            return END;
+        }
+        int key = readVarInt();
+        wireType = key & 0x7;
+        return key >>> 3;
+    }
+
+    public int getWireType() {
+        return wireType;
+    }
+
+    /**
+     * Reads the value of a length-delimited long array field
+     */
+    public long[] readLongArrayField() throws IOException {
+        int length = readLength();
+        if (length % Long.BYTES != 0) {
+            throw new IOException("Long array field length " + length + " is not a multiple of 8");
+        }
+        long[] values = new long[length / Long.BYTES];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + length);
+        return values;
+    }
+
+    /**
+     * Returns a reader over the nested message at the current field and skips past it
+     */
+    public BinaryReader readMessage() throws IOException {
+        int length = readLength();
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        return new BinaryReader(slice);
+    }
+
+    /**
+     * Skips the value of the current field
+     */
+    public void skipField() throws IOException {
+        switch (wireType) {
+            case BinaryWriter.WIRE_VARINT:
+                readVarLong();
+                break;
+            case BinaryWriter.WIRE_FIXED64:
+                skip(8);
+                break;
+            case BinaryWriter.WIRE_LENGTH:
+                skip(readLength());
+                break;
+            case BinaryWriter.WIRE_FIXED32:
+                skip(4);
+                break;
+            default:
+                throw new IOException("Unknown wire type " + wireType);
+        }
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    private int readLength() throws IOException {
+        int length = readVarInt();
+        if (length < 0) {
+            throw new IOException("Negative length " + length);
+        }
+        require(length);
+        return length;
+    }
+
+    private void skip(int count) throws IOException {
+        require(count);
+        buffer.position(buffer.position() + count);
+    }
+
+    private void require(long count) throws IOException {
+        if (buffer.remaining() < count) {
+            throw new IOException("Unexpected end of data: needed " + count + " bytes, " + buffer.remaining() + " left");
+        }
+    }
+}
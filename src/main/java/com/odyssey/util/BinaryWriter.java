@@ -0,0 +1,281 @@
+package com.odyssey.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable little-endian buffer for the tagged binary formats used by saves, chunk
+ * payloads and the network layer.
+ *
+ * Every field is written as a varint key of {@code (tag << 3) | wireType} followed by
+ * its value, so readers can skip fields they do not know and older data keeps loading
+ * after fields are added. Integers are varints (zigzag for signed values), floats are
+ * fixed width, and strings, primitive arrays and nested messages are length-prefixed.
+ * Primitive arrays are copied in bulk through {@link ByteBuffer} views rather than one
+ * element at a time.
+ */
+public final class BinaryWriter {
+
+    public static final int WIRE_VARINT = 0;
+    public static final int WIRE_FIXED64 = 1;
+    public static final int WIRE_LENGTH = 2;
+    public static final int WIRE_FIXED32 = 5;
+
+    private ByteBuffer buffer;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, initialCapacity)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Raw values
+
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public BinaryWriter writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public BinaryWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public BinaryWriter writeSignedVarInt(int value) {
+        return writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public BinaryWriter writeSignedVarLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public BinaryWriter writeInt(int value) {
+        ensureCapacity(4);
+        buffer.putInt(value);
+        return this;
+    }
+
+    public BinaryWriter writeLong(long value) {
+        ensureCapacity(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+    public BinaryWriter writeFloat(float value) {
+        ensureCapacity(4);
+        buffer.putFloat(value);
+        return this;
+    }
+
+    public BinaryWriter writeDouble(double value) {
+        ensureCapacity(8);
+        buffer.putDouble(value);
+        return this;
+    }
+
+    public BinaryWriter writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        return writeRawBytes(bytes, 0, bytes.length);
+    }
+
+    public BinaryWriter writeBytes(byte[] bytes) {
+        writeVarInt(bytes.length);
+        return writeRawBytes(bytes, 0, bytes.length);
+    }
+
+    public BinaryWriter writeRawBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        buffer.put(bytes, offset, length);
+        return this;
+    }
+
+    /**
+     * Writes an element count followed by the array contents in one bulk copy
+     */
+    public BinaryWriter writeLongArray(long[] values) {
+        writeVarInt(values.length);
+        ensureCapacity(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+        return this;
+    }
+
+    public BinaryWriter writeIntArray(int[] values, int length) {
+        writeVarInt(length);
+        ensureCapacity(length * Integer.BYTES);
+        buffer.asIntBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return this;
+    }
+
+    public BinaryWriter writeFloatArray(float[] values, int length) {
+        writeVarInt(length);
+        ensureCapacity(length * Float.BYTES);
+        buffer.asFloatBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        return this;
+    }
+
+    // Tagged fields
+
+    public BinaryWriter writeKey(int tag, int wireType) {
+        return writeVarInt((tag << 3) | wireType);
+    }
+
+    public BinaryWriter writeVarIntField(int tag, int value) {
+        return writeKey(tag, WIRE_VARINT).writeVarInt(value);
+    }
+
+    public BinaryWriter writeSignedVarIntField(int tag, int value) {
+        return writeKey(tag, WIRE_VARINT).writeSignedVarInt(value);
+    }
+
+    public BinaryWriter writeSignedVarLongField(int tag, long value) {
+        return writeKey(tag, WIRE_VARINT).writeSignedVarLong(value);
+    }
+
+    public BinaryWriter writeBooleanField(int tag, boolean value) {
+        return writeKey(tag, WIRE_VARINT).writeByte(value ? 1 : 0);
+    }
+
+    public BinaryWriter writeLongField(int tag, long value) {
+        return writeKey(tag, WIRE_FIXED64).writeLong(value);
+    }
+
+    public BinaryWriter writeFloatField(int tag, float value) {
+        return writeKey(tag, WIRE_FIXED32).writeFloat(value);
+    }
+
+    public BinaryWriter writeDoubleField(int tag, double value) {
+        return writeKey(tag, WIRE_FIXED64).writeDouble(value);
+    }
+
+    /**
+     * Writes a string field; null values are skipped so readers see the field as absent
+     */
+    public BinaryWriter writeStringField(int tag, String value) {
+        if (value != null) {
+            writeKey(tag, WIRE_LENGTH).writeString(value);
+        }
+        return this;
+    }
+
+    public BinaryWriter writeBytesField(int tag, byte[] value) {
+        if (value != null) {
+            writeKey(tag, WIRE_LENGTH).writeBytes(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a long array field as a length-delimited block of fixed-width values
+     */
+    public BinaryWriter writeLongArrayField(int tag, long[] values) {
+        writeKey(tag, WIRE_LENGTH);
+        writeVarInt(values.length * Long.BYTES);
+        ensureCapacity(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Long.BYTES);
+        return this;
+    }
+
+    /**
+     * Writes a nested message. The body is encoded in place and the length prefix is
+     * patched afterwards, shifting the body only when the length needs more than the
+     * single reserved byte.
+     */
+    public BinaryWriter writeMessageField(int tag, MessageEncoder encoder) {
+        writeKey(tag, WIRE_LENGTH);
+        ensureCapacity(1);
+        int lengthPosition = buffer.position();
+        buffer.put((byte) 0);
+
+        encoder.encode(this);
+
+        int bodyStart = lengthPosition + 1;
+        int bodyLength = buffer.position() - bodyStart;
+        int lengthBytes = varIntSize(bodyLength);
+        if (lengthBytes > 1) {
+            ensureCapacity(lengthBytes - 1);
+            byte[] array = buffer.array();
+            System.arraycopy(array, bodyStart, array, bodyStart + lengthBytes - 1, bodyLength);
+        }
+
+        int end = bodyStart + lengthBytes - 1 + bodyLength;
+        buffer.position(lengthPosition);
+        writeVarInt(bodyLength);
+        buffer.position(end);
+        return this;
+    }
+
+    // Buffer access
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public void reset() {
+        buffer.clear();
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Gets the backing array; valid bytes run from 0 to {@link #size()}
+     */
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    public static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (buffer.remaining() >= extra) {
+            return;
+        }
+        int required = buffer.position() + extra;
+        int capacity = Math.max(required, buffer.capacity() * 2);
+        ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * Writes the body of a nested message
+     */
+    @FunctionalInterface
+    public interface MessageEncoder {
+        void encode(BinaryWriter writer);
+    }
+}
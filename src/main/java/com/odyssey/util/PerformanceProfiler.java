@@ -21,6 +21,7 @@ public class PerformanceProfiler {
     // Performance tracking
     private final Map<String, ProfileData> profiles = new ConcurrentHashMap<>();
     private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, Double> gauges = new ConcurrentHashMap<>();
     
     // Frame timing
     private long frameStartTime;
@@ -110,6 +111,45 @@ public class PerformanceProfiler {
         }
     }
     
+    /**
+     * Record a duration measured elsewhere, e.g. a latency spanning several frames
+     * @param name The name of the operation
+     * @param durationNanos The duration in nanoseconds
+     */
+    public void recordTime(String name, long durationNanos) {
+        if (!profilingEnabled) return;
+        
+        updateProfile(name, durationNanos);
+    }
+    
+    /**
+     * Set the current value of a gauge such as a queue depth
+     * @param name The gauge name
+     * @param value The current value
+     */
+    public void setGauge(String name, double value) {
+        if (!profilingEnabled) return;
+        
+        gauges.put(name, value);
+    }
+    
+    /**
+     * Get the last value set for a gauge
+     * @param name The gauge name
+     * @return The gauge value, or 0 if it was never set
+     */
+    public double getGauge(String name) {
+        return gauges.getOrDefault(name, 0.0);
+    }
+    
+    /**
+     * Get all gauge values
+     * @return Map of gauge names to their last values
+     */
+    public Map<String, Double> getAllGauges() {
+        return new HashMap<>(gauges);
+    }
+    
     /**
      * Start frame timing
      */
@@ -241,6 +281,7 @@ public class PerformanceProfiler {
     public void reset() {
         profiles.clear();
         startTimes.clear();
+        gauges.clear();
         frameCount = 0;
         totalFrameTime = 0;
         currentFPS = 0.0f;
@@ -261,6 +302,7 @@ public class PerformanceProfiler {
         if (!enabled) {
             profiles.clear();
             startTimes.clear();
+            gauges.clear();
         }
     }
     
@@ -331,6 +373,13 @@ public class PerformanceProfiler {
                                       data.getCallCount()));
         }
         
+        if (!gauges.isEmpty()) {
+            report.append("\n=== Gauges ===\n");
+            for (Map.Entry<String, Double> entry : gauges.entrySet()) {
+                report.append(String.format("%s: %.2f\n", entry.getKey(), entry.getValue()));
+            }
+        }
+        
         return report.toString();
     }
     
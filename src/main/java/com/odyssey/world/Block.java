@@ -60,11 +60,22 @@ public class Block {
         public float getHardness() { return hardness; }
         public Vector3f getColor() { return new Vector3f(color); }
         
-        public static BlockType fromId(int id) {
+        // Indexed by id so lookups neither scan nor clone values()
+        private static final BlockType[] BY_ID;
+        static {
+            int maxId = 0;
+            for (BlockType type : values()) {
+                maxId = Math.max(maxId, type.id);
+            }
+            BY_ID = new BlockType[maxId + 1];
             for (BlockType type : values()) {
-                if (type.id == id) return type;
+                BY_ID[type.id] = type;
             }
-            return AIR;
+        }
+        
+        public static BlockType fromId(int id) {
+            if (id < 0 || id >= BY_ID.length || BY_ID[id] == null) return AIR;
+            return BY_ID[id];
         }
         
         public boolean isTransparent() { return !opaque; }
@@ -3,12 +3,11 @@ package com.odyssey.world;
 import com.odyssey.util.Logger;
 import com.odyssey.rendering.Mesh;
 import com.odyssey.rendering.RenderCommand;
-import org.joml.Vector3f;
+import com.odyssey.rendering.RenderCommandArena;
 import org.joml.Vector3i;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a chunk of the world - a 16x16x256 section of blocks.
@@ -19,24 +18,41 @@ public class Chunk {
     public static final int CHUNK_SIZE = 16;
     public static final int CHUNK_HEIGHT = 256;
     public static final int BLOCKS_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE * CHUNK_HEIGHT;
+    public static final int SECTION_COUNT = CHUNK_HEIGHT / ChunkSection.SIZE;
     
     // Chunk coordinates (in chunk space, not world space)
     private final int chunkX;
     private final int chunkZ;
     
-    // Block storage - using short array for memory efficiency
-    private final short[] blocks;
-    private final byte[] metadata;
+    // Block, metadata and light storage - one palette-compressed section per 16 blocks
+    // of height. A null section is all air with the light value in elidedSectionLight.
+    private final ChunkSection[] sections = new ChunkSection[SECTION_COUNT];
+    private final byte[] elidedSectionLight = new byte[SECTION_COUNT];
+    
+    // Per column, one above the highest non-air block (0 for an empty column). Everything
+    // at or above it sees the full sky, so sky light only needs walking below it.
+    private final short[] heightmap = new short[CHUNK_SIZE * CHUNK_SIZE];
+    
+    // Face connectivity of each section for occlusion culling, recomputed on first use
+    // after an edit. Bit i of staleVisibility marks section i as out of date.
+    private final long[] sectionVisibility = new long[SECTION_COUNT];
+    private final AtomicInteger staleVisibility = new AtomicInteger((1 << SECTION_COUNT) - 1);
     
     // Mesh data for rendering
     private Mesh solidMesh;
     private Mesh transparentMesh;
     private Mesh waterMesh;
+    // Shared buffers the meshes go into instead, when the renderer supports them
+    private ChunkGeometryArena geometryArena;
     
     // State tracking
     private final AtomicBoolean needsRebuild = new AtomicBoolean(true);
     private final AtomicBoolean isGenerating = new AtomicBoolean(false);
     private final AtomicBoolean isBuilding = new AtomicBoolean(false);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile boolean loaded = false;
+    private volatile boolean lit = false;
+    private volatile ChunkStage stage = ChunkStage.EMPTY;
     private boolean isEmpty = false;
     private boolean hasTransparency = false;
     private boolean hasWater = false;
@@ -44,9 +60,6 @@ public class Chunk {
     // Neighbor chunks for mesh generation
     private Chunk northChunk, southChunk, eastChunk, westChunk;
     
-    // Lighting data
-    private final byte[] lightLevels;
-    
     // Statistics
     private int solidBlockCount = 0;
     private int transparentBlockCount = 0;
@@ -55,93 +68,10 @@ public class Chunk {
     public Chunk(int chunkX, int chunkZ) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
-        this.blocks = new short[BLOCKS_PER_CHUNK];
-        this.metadata = new byte[BLOCKS_PER_CHUNK];
-        this.lightLevels = new byte[BLOCKS_PER_CHUNK];
-        
-        // Initialize with air blocks
-        for (int i = 0; i < BLOCKS_PER_CHUNK; i++) {
-            blocks[i] = (short) Block.BlockType.AIR.getId();
-        }
         
         Logger.world("Created chunk at ({}, {})", chunkX, chunkZ);
     }
     
-    /**
-     * Propagates block light from light sources throughout the chunk
-     */
-    private void propagateBlockLight() {
-        // Use a simple flood-fill algorithm to propagate light
-        boolean changed = true;
-        int iterations = 0;
-        final int MAX_ITERATIONS = 20; // Prevent infinite loops
-        
-        while (changed && iterations < MAX_ITERATIONS) {
-            changed = false;
-            iterations++;
-            
-            // Iterate through all blocks in the chunk
-            for (int x = 0; x < CHUNK_SIZE; x++) {
-                for (int y = 0; y < CHUNK_HEIGHT; y++) {
-                    for (int z = 0; z < CHUNK_SIZE; z++) {
-                        Block.BlockType block = getBlock(x, y, z);
-                        
-                        // Skip solid blocks that don't emit light
-                        if (block.isOpaque() && block.getLightLevel() == 0) {
-                            continue;
-                        }
-                        
-                        int currentBlockLight = getBlocklight(x, y, z);
-                        int maxNeighborLight = 0;
-                        
-                        // Check all 6 neighbors
-                        int[] dx = {-1, 1, 0, 0, 0, 0};
-                        int[] dy = {0, 0, -1, 1, 0, 0};
-                        int[] dz = {0, 0, 0, 0, -1, 1};
-                        
-                        for (int i = 0; i < 6; i++) {
-                            int nx = x + dx[i];
-                            int ny = y + dy[i];
-                            int nz = z + dz[i];
-                            
-                            // Check bounds
-                            if (nx < 0 || nx >= CHUNK_SIZE || 
-                                ny < 0 || ny >= CHUNK_HEIGHT || 
-                                nz < 0 || nz >= CHUNK_SIZE) {
-                                continue;
-                            }
-                            
-                            Block.BlockType neighborBlock = getBlock(nx, ny, nz);
-                            int neighborLight = getBlocklight(nx, ny, nz);
-                            
-                            // Calculate light reduction based on block opacity
-                            int lightReduction = Math.max(1, neighborBlock.getLightAbsorption());
-                            int propagatedLight = Math.max(0, neighborLight - lightReduction);
-                            
-                            maxNeighborLight = Math.max(maxNeighborLight, propagatedLight);
-                        }
-                        
-                        // Update light level if we found a brighter neighbor
-                        int newLight = Math.max(currentBlockLight, maxNeighborLight);
-                        
-                        // Also consider if this block emits light
-                        newLight = Math.max(newLight, block.getLightLevel());
-                        
-                        if (newLight != currentBlockLight) {
-                            setBlocklight(x, y, z, newLight);
-                            changed = true;
-                        }
-                    }
-                }
-            }
-        }
-        
-        if (iterations >= MAX_ITERATIONS) {
-            Logger.world("Block light propagation reached maximum iterations for chunk ({}, {})", 
-                        chunkX, chunkZ);
-        }
-    }
-
     /**
      * Gets the block at the specified local coordinates (0-15, 0-255, 0-15)
      */
@@ -150,8 +80,11 @@ public class Chunk {
             return Block.BlockType.AIR;
         }
         
-        int index = getBlockIndex(x, y, z);
-        return Block.BlockType.fromId(blocks[index]);
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            return Block.BlockType.AIR;
+        }
+        return Block.BlockType.fromId(section.getBlockId(getBlockIndex(x, y, z)));
     }
     
     /**
@@ -162,25 +95,43 @@ public class Chunk {
     }
     
     /**
-     * Sets the block at the specified local coordinates with metadata
+     * Sets the block at the specified local coordinates with metadata. Holds the chunk's
+     * lock, so the write can't land in a section that {@link #optimizeStorage()} is
+     * compacting or dropping on a worker.
      */
-    public void setBlock(int x, int y, int z, Block.BlockType blockType, byte meta) {
+    public synchronized void setBlock(int x, int y, int z, Block.BlockType blockType, byte meta) {
         if (!isValidLocalCoordinate(x, y, z)) {
             return;
         }
         
-        int index = getBlockIndex(x, y, z);
-        Block.BlockType oldType = Block.BlockType.fromId(blocks[index]);
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            if (blockType == Block.BlockType.AIR && meta == 0) {
+                return;
+            }
+            section = getOrCreateSection(y >> 4);
+        }
         
         // Update block data
-        blocks[index] = (short) blockType.getId();
-        metadata[index] = meta;
+        int index = getBlockIndex(x, y, z);
+        Block.BlockType oldType = Block.BlockType.fromId(section.setBlockId(index, blockType.getId()));
+        section.setMetadata(index, meta);
+        staleVisibility.getAndAccumulate(1 << (y >> 4), (stale, bit) -> stale | bit);
         
         // Update statistics
         updateBlockCounts(oldType, blockType);
         
-        // Mark for rebuild
+        // Keep the heightmap and, once the chunk has been lit, its sky light column current
+        int oldHeight = heightmap[x + z * CHUNK_SIZE];
+        updateHeightmap(x, y, z, blockType);
+        if (lit && (oldType.getLightAbsorption() != blockType.getLightAbsorption() 
+                    || oldType.getLightLevel() != blockType.getLightLevel())) {
+            relightSkyColumn(x, y, z, oldType, blockType, oldHeight);
+        }
+        
+        // Mark for rebuild and for saving
         markForRebuild();
+        dirty.set(true);
         
         // Update neighboring chunks if on edge
         if (x == 0 && westChunk != null) westChunk.markForRebuild();
@@ -189,6 +140,98 @@ public class Chunk {
         if (z == CHUNK_SIZE - 1 && southChunk != null) southChunk.markForRebuild();
     }
     
+    /**
+     * Gets one above the highest non-air block in a column, or 0 if the whole column is
+     * open to the sky
+     */
+    public int getHeight(int x, int z) {
+        return heightmap[x + z * CHUNK_SIZE];
+    }
+    
+    /**
+     * Raises the column height when a block is placed above it, or scans down for the
+     * next block when its top block is cleared
+     */
+    private void updateHeightmap(int x, int y, int z, Block.BlockType blockType) {
+        int column = x + z * CHUNK_SIZE;
+        int height = heightmap[column];
+        if (blockType != Block.BlockType.AIR) {
+            if (y >= height) {
+                heightmap[column] = (short) (y + 1);
+            }
+        } else if (y == height - 1) {
+            heightmap[column] = (short) findHeight(x, z, y - 1);
+        }
+    }
+    
+    /**
+     * Scans a column down from fromY for the highest non-air block, skipping air sections
+     */
+    private int findHeight(int x, int z, int fromY) {
+        for (int y = fromY; y >= 0; y--) {
+            if (isSectionEmpty(y >> 4)) {
+                y &= ~15;
+                continue;
+            }
+            if (getBlock(x, y, z) != Block.BlockType.AIR) {
+                return y + 1;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Recomputes the sky light below a changed block. The column is walked with the old
+     * and new block side by side and stops as soon as both give the same light, so only
+     * the span the change actually shadows or uncovers is rewritten.
+     */
+    private void relightSkyColumn(int x, int y, int z, Block.BlockType oldType, Block.BlockType newType, int oldHeight) {
+        // Sky light arriving at y; there are no blocks above the column height
+        int level = 15;
+        for (int above = Math.max(oldHeight, heightmap[x + z * CHUNK_SIZE]) - 1; above > y && level > 0; above--) {
+            level = Math.max(0, level - getBlock(x, above, z).getLightAbsorption());
+        }
+        
+        int oldLevel = level;
+        int newLevel = level;
+        for (int yy = y; yy >= 0; yy--) {
+            Block.BlockType block = yy == y ? newType : getBlock(x, yy, z);
+            Block.BlockType before = yy == y ? oldType : block;
+            oldLevel = Math.max(0, oldLevel - before.getLightAbsorption());
+            newLevel = Math.max(0, newLevel - block.getLightAbsorption());
+            setLightLevel(x, yy, z, Math.max(newLevel, block.getLightLevel()));
+            if (oldLevel == newLevel) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a 16-block section holds nothing but air, so traversals can skip it.
+     * Sections outside the chunk's height are empty.
+     */
+    public boolean isSectionEmpty(int sectionIndex) {
+        if (sectionIndex < 0 || sectionIndex >= SECTION_COUNT) {
+            return true;
+        }
+        ChunkSection section = sections[sectionIndex];
+        return section == null || section.isEmpty();
+    }
+
+    /**
+     * Gets which faces of a section see each other through non-opaque blocks, as packed
+     * by {@link SectionVisibility}. Cached until a block in the section changes.
+     */
+    public long getSectionVisibility(int sectionIndex) {
+        int bit = 1 << sectionIndex;
+        if ((staleVisibility.get() & bit) != 0) {
+            // Clear first, so an edit landing during the scan marks the section stale again
+            staleVisibility.getAndAccumulate(~bit, (stale, mask) -> stale & mask);
+            sectionVisibility[sectionIndex] = SectionVisibility.compute(sections[sectionIndex]);
+        }
+        return sectionVisibility[sectionIndex];
+    }
+
     /**
      * Gets the metadata for the block at the specified coordinates
      */
@@ -196,7 +239,8 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return 0;
         }
-        return metadata[getBlockIndex(x, y, z)];
+        ChunkSection section = sections[y >> 4];
+        return section == null ? 0 : section.getMetadata(getBlockIndex(x, y, z));
     }
     
     /**
@@ -206,7 +250,7 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return 15; // Full light outside chunk
         }
-        return lightLevels[getBlockIndex(x, y, z)] & 0xFF;
+        return getLightByte(x, y, z) & 0xFF;
     }
     
     /**
@@ -216,7 +260,7 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return;
         }
-        lightLevels[getBlockIndex(x, y, z)] = (byte) Math.max(0, Math.min(15, level));
+        setLightByte(x, y, z, (byte) Math.max(0, Math.min(15, level)));
     }
     
     /**
@@ -226,8 +270,8 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return 0;
         }
-        // For now, sunlight is stored in the upper 4 bits of lightLevels
-        return (lightLevels[getBlockIndex(x, y, z)] >> 4) & 0xF;
+        // For now, sunlight is stored in the upper 4 bits of the light byte
+        return (getLightByte(x, y, z) >> 4) & 0xF;
     }
     
     /**
@@ -237,9 +281,8 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return;
         }
-        int index = getBlockIndex(x, y, z);
-        int blocklight = lightLevels[index] & 0xF; // Preserve blocklight
-        lightLevels[index] = (byte) ((Math.max(0, Math.min(15, level)) << 4) | blocklight);
+        int blocklight = getLightByte(x, y, z) & 0xF; // Preserve blocklight
+        setLightByte(x, y, z, (byte) ((Math.max(0, Math.min(15, level)) << 4) | blocklight));
     }
     
     /**
@@ -249,8 +292,8 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return 0;
         }
-        // Block light is stored in the lower 4 bits of lightLevels
-        return lightLevels[getBlockIndex(x, y, z)] & 0xF;
+        // Block light is stored in the lower 4 bits of the light byte
+        return getLightByte(x, y, z) & 0xF;
     }
     
     /**
@@ -260,16 +303,54 @@ public class Chunk {
         if (!isValidLocalCoordinate(x, y, z)) {
             return;
         }
-        int index = getBlockIndex(x, y, z);
-        int sunlight = (lightLevels[index] >> 4) & 0xF; // Preserve sunlight
-        lightLevels[index] = (byte) ((sunlight << 4) | Math.max(0, Math.min(15, level)));
+        int sunlight = (getLightByte(x, y, z) >> 4) & 0xF; // Preserve sunlight
+        setLightByte(x, y, z, (byte) ((sunlight << 4) | Math.max(0, Math.min(15, level))));
     }
     
     /**
-     * Converts local coordinates to array index
+     * Reads the packed light byte, falling back to the uniform value of elided sections
+     */
+    private byte getLightByte(int x, int y, int z) {
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            return elidedSectionLight[y >> 4];
+        }
+        return section.getLight(getBlockIndex(x, y, z));
+    }
+    
+    /**
+     * Writes the packed light byte, materializing an elided section only when the
+     * value differs from its uniform light. Locked like {@link #setBlock}, since
+     * lighting of a neighbour may write here from another worker.
+     */
+    private synchronized void setLightByte(int x, int y, int z, byte value) {
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            if (elidedSectionLight[y >> 4] == value) {
+                return;
+            }
+            section = getOrCreateSection(y >> 4);
+        }
+        section.setLight(getBlockIndex(x, y, z), value);
+    }
+    
+    /**
+     * Gets the section at the given index, creating an all-air one if it was elided
+     */
+    private synchronized ChunkSection getOrCreateSection(int sectionIndex) {
+        ChunkSection section = sections[sectionIndex];
+        if (section == null) {
+            section = new ChunkSection(elidedSectionLight[sectionIndex]);
+            sections[sectionIndex] = section;
+        }
+        return section;
+    }
+    
+    /**
+     * Converts local coordinates to an index within the block's section
      */
     private int getBlockIndex(int x, int y, int z) {
-        return y * CHUNK_SIZE * CHUNK_SIZE + z * CHUNK_SIZE + x;
+        return ChunkSection.index(x, y & 15, z);
     }
     
     /**
@@ -316,83 +397,81 @@ public class Chunk {
     }
     
     /**
-     * Builds the chunk mesh for rendering
+     * Builds and uploads the chunk mesh; must run on the GL thread
      */
     public void buildMesh() {
         if (!needsRebuild.get() || isBuilding.get()) {
             return;
         }
         
-        isBuilding.set(true);
-        
         try {
-            // Clear existing meshes
-            if (solidMesh != null) solidMesh.cleanup();
-            if (transparentMesh != null) transparentMesh.cleanup();
-            if (waterMesh != null) waterMesh.cleanup();
-            
-            // Generate new meshes
-            ChunkMeshBuilder builder = new ChunkMeshBuilder(this);
-            ChunkMeshBuilder.MeshData meshData = builder.generateMesh();
-            
-            solidMesh = meshData.solidMesh;
-            transparentMesh = meshData.transparentMesh;
-            waterMesh = meshData.waterMesh;
-            
-            needsRebuild.set(false);
-            
-            Logger.logInfo("Built mesh for chunk ({}, {}) - Solid: {}, Transparent: {}, Water: {}", 
-                       chunkX, chunkZ, 
-                       solidMesh != null ? solidMesh.getVertexCount() : 0,
-                       transparentMesh != null ? transparentMesh.getVertexCount() : 0,
-                       waterMesh != null ? waterMesh.getVertexCount() : 0);
-            
+            uploadMesh(buildGeometry());
         } catch (Exception e) {
             Logger.logError("Failed to build mesh for chunk ({}, {}): {}", chunkX, chunkZ, e.getMessage());
+        }
+    }
+    
+    /**
+     * Builds mesh geometry without touching OpenGL, so it can run on a worker thread.
+     * The rebuild flag is cleared first; an edit made while building flags the chunk again.
+     */
+    public ChunkMeshBuilder.GeometryData buildGeometry() {
+        isBuilding.set(true);
+        try {
+            needsRebuild.set(false);
+            return new ChunkMeshBuilder(this).buildGeometry();
         } finally {
             isBuilding.set(false);
         }
     }
     
     /**
-     * Gets render commands for this chunk
+     * Replaces the chunk's meshes with freshly built geometry; must run on the GL thread
      */
-    public List<RenderCommand> getRenderCommands() {
-        List<RenderCommand> commands = new ArrayList<>();
-        
-        Vector3f chunkWorldPos = new Vector3f(chunkX * CHUNK_SIZE, 0, chunkZ * CHUNK_SIZE);
-        
-        // Solid geometry
-        if (solidMesh != null && solidMesh.getVertexCount() > 0) {
-            RenderCommand solidCommand = new RenderCommand.Builder()
-                .mesh(solidMesh)
-                .position(chunkWorldPos)
-                .queue(RenderCommand.RenderQueue.OPAQUE)
-                .build();
-            commands.add(solidCommand);
+    public void uploadMesh(ChunkMeshBuilder.GeometryData geometry) {
+        if (geometryArena != null) {
+            geometryArena.upload(this, geometry);
+            // Meshes left from before the arena was attached are drawn no more
+            solidMesh = ChunkMeshBuilder.upload(solidMesh, null);
+            transparentMesh = ChunkMeshBuilder.upload(transparentMesh, null);
+            waterMesh = ChunkMeshBuilder.upload(waterMesh, null);
+            Logger.world("Uploaded geometry for chunk ({}, {}) into the shared arena", chunkX, chunkZ);
+            return;
         }
         
-        // Transparent geometry
-        if (transparentMesh != null && transparentMesh.getVertexCount() > 0) {
-            RenderCommand transparentCommand = new RenderCommand.Builder()
-                .mesh(transparentMesh)
-                .position(chunkWorldPos)
-                .queue(RenderCommand.RenderQueue.TRANSPARENT)
-                .build();
-            commands.add(transparentCommand);
-        }
+        // Existing meshes keep their GL objects and just take the new data
+        solidMesh = ChunkMeshBuilder.upload(solidMesh, geometry.solid);
+        transparentMesh = ChunkMeshBuilder.upload(transparentMesh, geometry.transparent);
+        waterMesh = ChunkMeshBuilder.upload(waterMesh, geometry.water);
         
-        // Water geometry
-        if (waterMesh != null && waterMesh.getVertexCount() > 0) {
-            RenderCommand waterCommand = new RenderCommand.Builder()
-                .mesh(waterMesh)
-                .position(chunkWorldPos)
-                .queue(RenderCommand.RenderQueue.TRANSPARENT)
-                .build();
-            commands.add(waterCommand);
-        }
+        Logger.world("Uploaded mesh for chunk ({}, {}) - Solid: {}, Transparent: {}, Water: {}", 
+                   chunkX, chunkZ, 
+                   solidMesh != null ? solidMesh.getVertexCount() : 0,
+                   transparentMesh != null ? transparentMesh.getVertexCount() : 0,
+                   waterMesh != null ? waterMesh.getVertexCount() : 0);
+    }
+    
+    /**
+     * Adds this chunk's render commands to the frame's command arena, one per non-empty
+     * mesh layer
+     */
+    public void addRenderCommands(RenderCommandArena arena) {
+        float worldX = chunkX * CHUNK_SIZE;
+        float worldZ = chunkZ * CHUNK_SIZE;
         
-        return commands;
+        addRenderCommand(arena, solidMesh, RenderCommand.RenderQueue.OPAQUE, worldX, worldZ);
+        addRenderCommand(arena, transparentMesh, RenderCommand.RenderQueue.TRANSPARENT, worldX, worldZ);
+        addRenderCommand(arena, waterMesh, RenderCommand.RenderQueue.TRANSPARENT, worldX, worldZ);
+    }
+    
+    private static void addRenderCommand(RenderCommandArena arena, Mesh mesh, RenderCommand.RenderQueue queue,
+                                         float worldX, float worldZ) {
+        if (mesh != null && mesh.getVertexCount() > 0) {
+            arena.acquire()
+                .setMesh(mesh)
+                .setWorldPosition(worldX, 0, worldZ)
+                .setRenderQueue(queue);
+        }
     }
     
     /**
@@ -435,33 +514,191 @@ public class Chunk {
      */
     public void calculateLighting() {
         // Reset lighting
-        for (int i = 0; i < lightLevels.length; i++) {
-            lightLevels[i] = 0;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            elidedSectionLight[i] = 0;
+            if (sections[i] != null) {
+                sections[i].fillLight((byte) 0);
+            }
         }
         
-        // Calculate sunlight (top-down)
+        // Sections entirely above the tallest column are open sky
+        int maxHeight = 0;
+        for (short height : heightmap) {
+            maxHeight = Math.max(maxHeight, height);
+        }
+        int openFrom = (maxHeight + 15) >> 4;
+        for (int i = openFrom; i < SECTION_COUNT; i++) {
+            if (sections[i] == null) {
+                elidedSectionLight[i] = 15;
+            } else {
+                sections[i].fillLight((byte) 15);
+            }
+        }
+        int openY = openFrom * ChunkSection.SIZE;
+        
+        // Calculate sunlight (top-down), reading blocks only below each column's height
         for (int x = 0; x < CHUNK_SIZE; x++) {
             for (int z = 0; z < CHUNK_SIZE; z++) {
+                int height = heightmap[x + z * CHUNK_SIZE];
                 int lightLevel = 15; // Full sunlight at top
                 
-                for (int y = CHUNK_HEIGHT - 1; y >= 0; y--) {
+                for (int y = openY - 1; y >= height; y--) {
+                    setLightLevel(x, y, z, lightLevel);
+                }
+                for (int y = height - 1; y >= 0; y--) {
                     Block.BlockType block = getBlock(x, y, z);
-                    
-                    if (block == Block.BlockType.AIR) {
-                        setLightLevel(x, y, z, lightLevel);
-                    } else {
-                        lightLevel = Math.max(0, lightLevel - block.getLightAbsorption());
-                        setLightLevel(x, y, z, Math.max(lightLevel, block.getLightLevel()));
+                    lightLevel = Math.max(0, lightLevel - block.getLightAbsorption());
+                    int light = Math.max(lightLevel, block.getLightLevel());
+                    if (light > 0) {
+                        setLightLevel(x, y, z, light);
                     }
                 }
             }
         }
         
-        // Implement block light propagation
-        propagateBlockLight();
+        // Spread light sideways into overhangs and caves and out from light sources
+        LightPropagator.propagateWithin(this, LightingEngine.BLOCKLIGHT, openY);
+        lit = true;
+        markForRebuild();
+    }
+    
+    /**
+     * Checks whether sky and block light have been calculated. Chunks generated outside
+     * the render distance stay unlit until they come into view.
+     */
+    public boolean isLit() {
+        return lit;
+    }
+    
+    /**
+     * Compacts section palettes and drops sections that hold only air with uniform
+     * light. Called once generation and lighting have settled. Block and light writes
+     * wait on the same lock, so edits made meanwhile from the game thread are kept.
+     */
+    public synchronized void optimizeStorage() {
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            ChunkSection section = sections[i];
+            if (section == null) {
+                continue;
+            }
+            section.compact();
+            if (section.isElidable()) {
+                elidedSectionLight[i] = section.getUniformLight();
+                sections[i] = null;
+            }
+        }
+    }
+    
+    /**
+     * Replaces all block storage with sections read from disk. Null entries are elided
+     * sections whose uniform light is taken from the matching elidedLight entry. A chunk
+     * saved before it was lit comes back unlit and goes through lighting again.
+     */
+    public synchronized void loadSections(ChunkSection[] loadedSections, byte[] elidedLight, boolean lit) {
+        if (loadedSections.length != SECTION_COUNT || elidedLight.length != SECTION_COUNT) {
+            throw new IllegalArgumentException("Expected " + SECTION_COUNT + " sections");
+        }
+        
+        System.arraycopy(loadedSections, 0, sections, 0, SECTION_COUNT);
+        System.arraycopy(elidedLight, 0, elidedSectionLight, 0, SECTION_COUNT);
+        staleVisibility.set((1 << SECTION_COUNT) - 1);
+        
+        // Rebuild block statistics from the new contents
+        solidBlockCount = 0;
+        transparentBlockCount = 0;
+        waterBlockCount = 0;
+        for (ChunkSection section : sections) {
+            if (section == null || section.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i < ChunkSection.VOLUME; i++) {
+                updateBlockCounts(Block.BlockType.AIR, Block.BlockType.fromId(section.getBlockId(i)));
+            }
+        }
+        updateBlockCounts(Block.BlockType.AIR, Block.BlockType.AIR); // Refresh flags for empty chunks
+        
+        // Lit chunks carry their light; only the heightmap needs rebuilding
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                heightmap[x + z * CHUNK_SIZE] = (short) findHeight(x, z, CHUNK_HEIGHT - 1);
+            }
+        }
+        this.lit = lit;
+        
+        dirty.set(false);
         markForRebuild();
     }
     
+    /**
+     * Gets the uniform light value stored for an elided section
+     */
+    public byte getElidedSectionLight(int sectionIndex) {
+        return elidedSectionLight[sectionIndex];
+    }
+    
+    /**
+     * Gets the section at the given index (0-15), or null if it is elided
+     */
+    public ChunkSection getSection(int sectionIndex) {
+        return sections[sectionIndex];
+    }
+    
+    /**
+     * Reports how much memory this chunk's block, metadata and light storage uses
+     */
+    public MemoryReport getMemoryReport() {
+        int allocated = 0;
+        int lightArrays = 0;
+        int metadataArrays = 0;
+        long bytes = 16L + 16L + SECTION_COUNT * 4L + 16L + SECTION_COUNT; // Section and light arrays
+        for (ChunkSection section : sections) {
+            if (section == null) {
+                continue;
+            }
+            allocated++;
+            if (section.hasLightArray()) lightArrays++;
+            if (section.hasMetadataArray()) metadataArrays++;
+            bytes += section.getMemoryFootprint();
+        }
+        return new MemoryReport(allocated, SECTION_COUNT - allocated, lightArrays, metadataArrays, bytes);
+    }
+    
+    /**
+     * Snapshot of a chunk's storage footprint
+     */
+    public static class MemoryReport {
+        /** Bytes the previous flat short/byte/byte arrays used for every chunk */
+        public static final long FLAT_STORAGE_BYTES = BLOCKS_PER_CHUNK * 4L;
+        
+        public final int allocatedSections;
+        public final int elidedSections;
+        public final int lightArrays;
+        public final int metadataArrays;
+        public final long totalBytes;
+        
+        public MemoryReport(int allocatedSections, int elidedSections, int lightArrays,
+                            int metadataArrays, long totalBytes) {
+            this.allocatedSections = allocatedSections;
+            this.elidedSections = elidedSections;
+            this.lightArrays = lightArrays;
+            this.metadataArrays = metadataArrays;
+            this.totalBytes = totalBytes;
+        }
+        
+        /**
+         * Ratio of the flat layout size to this chunk's actual size
+         */
+        public float getCompressionRatio() {
+            return totalBytes == 0 ? 0.0f : (float) FLAT_STORAGE_BYTES / totalBytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("MemoryReport{sections=%d, elided=%d, lightArrays=%d, metadataArrays=%d, bytes=%d, ratio=%.1fx}",
+                               allocatedSections, elidedSections, lightArrays, metadataArrays, totalBytes, getCompressionRatio());
+        }
+    }
+    
     /**
      * Cleanup resources
      */
@@ -478,6 +715,9 @@ public class Chunk {
             waterMesh.cleanup();
             waterMesh = null;
         }
+        if (geometryArena != null) {
+            geometryArena.release(this);
+        }
         
         Logger.world("Cleaned up chunk ({}, {})", chunkX, chunkZ);
     }
@@ -490,18 +730,58 @@ public class Chunk {
     public boolean hasWater() { return hasWater; }
     public boolean isGenerating() { return isGenerating.get(); }
     public boolean isBuilding() { return isBuilding.get(); }
+    public void setGenerating(boolean generating) { isGenerating.set(generating); }
+    
+    /**
+     * Gets how far the world's chunk pipeline has taken this chunk
+     */
+    public ChunkStage getStage() { return stage; }
+    void setStage(ChunkStage stage) { this.stage = stage; }
+    
+    /**
+     * Checks if the chunk is currently held by the world's chunk index
+     */
+    public boolean isLoaded() { return loaded; }
+    void setLoaded(boolean loaded) { this.loaded = loaded; }
+    
+    /**
+     * Checks if blocks changed since the chunk was last loaded or saved
+     */
+    public boolean isDirty() { return dirty.get(); }
+    
+    /**
+     * Clears the dirty flag after the chunk has been handed to storage
+     */
+    public void markSaved() { dirty.set(false); }
     
     public int getSolidBlockCount() { return solidBlockCount; }
     public int getTransparentBlockCount() { return transparentBlockCount; }
     public int getWaterBlockCount() { return waterBlockCount; }
     
     /**
-     * Gets the solid mesh for rendering
+     * Gets the solid mesh for rendering; null once the chunk's geometry lives in a
+     * {@link ChunkGeometryArena}
      */
     public Mesh getMesh() {
         return solidMesh;
     }
     
+    /**
+     * Sends this chunk's future uploads to shared arena buffers instead of its own meshes,
+     * or back to its own meshes for null. Geometry already uploaded stays where it is
+     * until the next upload; must run on the GL thread.
+     */
+    public void setGeometryArena(ChunkGeometryArena arena) {
+        if (geometryArena != null && geometryArena != arena) {
+            geometryArena.release(this);
+        }
+        geometryArena = arena;
+    }
+    
+    public ChunkGeometryArena getGeometryArena() {
+        return geometryArena;
+    }
+    
     /**
      * Gets the model matrix for this chunk's world position
      */
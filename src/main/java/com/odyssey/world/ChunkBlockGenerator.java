@@ -0,0 +1,243 @@
+package com.odyssey.world;
+
+import org.joml.Vector2f;
+
+import java.util.Random;
+
+/**
+ * Turns a generator {@link WorldChunk} into blocks: terrain columns first, then islands
+ * and vegetation. Random choices are seeded per chunk, so a chunk comes out the same
+ * whichever thread builds it and in whatever order, both while streaming and when
+ * pre-generating a world.
+ */
+final class ChunkBlockGenerator {
+    
+    private final long seed;
+    
+    ChunkBlockGenerator(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Converts WorldChunk terrain and biome data to Chunk block format
+     */
+    void generateTerrain(WorldChunk worldChunk, Chunk chunk) {
+        int chunkSize = worldChunk.getChunkSize();
+        
+        // Convert terrain data to blocks
+        for (int x = 0; x < chunkSize && x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < chunkSize && z < Chunk.CHUNK_SIZE; z++) {
+                float height = worldChunk.getHeightAt(x, z);
+                BiomeType biome = worldChunk.getBiomeAt(x, z);
+                
+                // Generate terrain column
+                generateTerrainColumn(chunk, x, z, height, biome);
+            }
+        }
+    }
+    
+    /**
+     * Places islands and vegetation on generated terrain
+     */
+    void populate(Chunk chunk, WorldChunk worldChunk) {
+        int seaLevel = 64; // Standard sea level
+        int chunkSize = worldChunk.getChunkSize();
+        Random random = new Random(chunkSeed(seed, chunk.getChunkX(), chunk.getChunkZ()));
+        
+        // Vegetation on land above the sea
+        for (int x = 0; x < chunkSize && x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < chunkSize && z < Chunk.CHUNK_SIZE; z++) {
+                int terrainHeight = (int) Math.floor(worldChunk.getHeightAt(x, z));
+                if (terrainHeight > seaLevel && terrainHeight + 1 < Chunk.CHUNK_HEIGHT) {
+                    generateVegetation(chunk, x, terrainHeight + 1, z, worldChunk.getBiomeAt(x, z), random);
+                }
+            }
+        }
+        
+        // Add islands from WorldChunk
+        for (Island island : worldChunk.getIslands()) {
+            generateIslandBlocks(chunk, island, worldChunk, random);
+        }
+    }
+    
+    /**
+     * Generates a terrain column based on height and biome
+     */
+    private void generateTerrainColumn(Chunk chunk, int x, int z, float height, BiomeType biome) {
+        int terrainHeight = (int) Math.floor(height);
+        int seaLevel = 64; // Standard sea level
+        
+        // Generate bedrock layer
+        chunk.setBlock(x, 0, z, Block.BlockType.STONE);
+        
+        // Generate stone layers
+        for (int y = 1; y < Math.max(terrainHeight - 3, 1); y++) {
+            chunk.setBlock(x, y, z, Block.BlockType.STONE);
+        }
+        
+        // Generate subsurface layers based on biome
+        Block.BlockType subsurfaceBlock = getSubsurfaceBlockForBiome(biome);
+        for (int y = Math.max(terrainHeight - 3, 1); y < terrainHeight; y++) {
+            if (y > 0 && y < Chunk.CHUNK_HEIGHT) {
+                chunk.setBlock(x, y, z, subsurfaceBlock);
+            }
+        }
+        
+        // Generate surface block
+        if (terrainHeight > 0 && terrainHeight < Chunk.CHUNK_HEIGHT) {
+            Block.BlockType surfaceBlock = getSurfaceBlockForBiome(biome, terrainHeight, seaLevel);
+            chunk.setBlock(x, terrainHeight, z, surfaceBlock);
+        }
+        
+        // Fill with water if below sea level
+        for (int y = terrainHeight + 1; y <= seaLevel && y < Chunk.CHUNK_HEIGHT; y++) {
+            chunk.setBlock(x, y, z, Block.BlockType.WATER);
+        }
+    }
+    
+    /**
+     * Gets the appropriate surface block for a biome
+     */
+    private Block.BlockType getSurfaceBlockForBiome(BiomeType biome, int height, int seaLevel) {
+        switch (biome) {
+            case DESERT:
+                return Block.BlockType.SAND;
+            case TROPICAL_FOREST:
+            case JUNGLE:
+            case FOREST:
+                return Block.BlockType.GRASS;
+            case OCEAN:
+                return height <= seaLevel ? Block.BlockType.SAND : Block.BlockType.GRASS;
+            case TUNDRA:
+                return Block.BlockType.STONE;
+            case PLAINS:
+            case GRASSLAND:
+            case SAVANNA:
+            default:
+                return Block.BlockType.GRASS;
+        }
+    }
+    
+    /**
+     * Gets the appropriate subsurface block for a biome
+     */
+    private Block.BlockType getSubsurfaceBlockForBiome(BiomeType biome) {
+        switch (biome) {
+            case DESERT:
+                return Block.BlockType.SAND;
+            case OCEAN:
+                return Block.BlockType.SAND;
+            default:
+                return Block.BlockType.DIRT;
+        }
+    }
+    
+    /**
+     * Generates vegetation based on biome
+     */
+    private void generateVegetation(Chunk chunk, int x, int y, int z, BiomeType biome, Random random) {
+        if (y >= Chunk.CHUNK_HEIGHT) return;
+        
+        // Simple vegetation generation based on biome
+        switch (biome) {
+            case TROPICAL_FOREST:
+            case JUNGLE:
+                if (random.nextDouble() < 0.1) { // 10% chance for palm trees
+                    chunk.setBlock(x, y, z, Block.BlockType.PALM_WOOD);
+                    if (y + 1 < Chunk.CHUNK_HEIGHT) {
+                        chunk.setBlock(x, y + 1, z, Block.BlockType.PALM_LEAVES);
+                    }
+                }
+                break;
+            case FOREST:
+                if (random.nextDouble() < 0.05) { // 5% chance for regular trees
+                    chunk.setBlock(x, y, z, Block.BlockType.WOOD);
+                    if (y + 1 < Chunk.CHUNK_HEIGHT) {
+                        chunk.setBlock(x, y + 1, z, Block.BlockType.LEAVES);
+                    }
+                }
+                break;
+            case PLAINS:
+            case GRASSLAND:
+                // No additional vegetation for now
+                break;
+        }
+    }
+    
+    /**
+     * Generates blocks for islands within the chunk
+     */
+    private void generateIslandBlocks(Chunk chunk, Island island, WorldChunk worldChunk, Random random) {
+        // Convert island world coordinates to local chunk coordinates
+        Vector2f islandCenter = new Vector2f(island.getCenterX(), island.getCenterZ());
+        Vector2f chunkWorldPos = worldChunk.localToWorld(0, 0);
+        
+        float localX = islandCenter.x - chunkWorldPos.x;
+        float localZ = islandCenter.y - chunkWorldPos.y;
+        
+        // Only generate if island center is within this chunk
+        if (localX >= 0 && localX < worldChunk.getChunkSize() && 
+            localZ >= 0 && localZ < worldChunk.getChunkSize()) {
+            
+            int centerX = (int) Math.floor(localX);
+            int centerZ = (int) Math.floor(localZ);
+            float radius = island.getSize();
+            
+            // Generate island terrain in a circular pattern
+            for (int x = Math.max(0, centerX - (int)radius); 
+                 x <= Math.min(Chunk.CHUNK_SIZE - 1, centerX + (int)radius); x++) {
+                for (int z = Math.max(0, centerZ - (int)radius); 
+                     z <= Math.min(Chunk.CHUNK_SIZE - 1, centerZ + (int)radius); z++) {
+                    
+                    float distance = (float) Math.sqrt((x - centerX) * (x - centerX) + (z - centerZ) * (z - centerZ));
+                    
+                    if (distance <= radius) {
+                        float worldX = worldChunk.localToWorld(x, z).x;
+                        float worldZ = worldChunk.localToWorld(x, z).y;
+                        
+                        // Get height and biome from island
+                        float baseHeight = island.getHeightAt(worldX, worldZ);
+                        BiomeType biome = island.getBiomeAt(worldX, worldZ);
+                        
+                        // Generate island terrain
+                        generateIslandTerrain(chunk, x, z, (int)baseHeight, biome, random);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Generates terrain for a specific island location
+     */
+    private void generateIslandTerrain(Chunk chunk, int x, int z, int height, BiomeType biome, Random random) {
+        int seaLevel = 64;
+        int baseHeight = Math.max(seaLevel, height);
+        
+        // Generate island blocks from sea level up
+        for (int y = seaLevel; y <= baseHeight && y < Chunk.CHUNK_HEIGHT; y++) {
+            if (y == baseHeight) {
+                // Surface block
+                chunk.setBlock(x, y, z, getSurfaceBlockForBiome(biome, y, seaLevel));
+            } else if (y >= baseHeight - 2) {
+                // Subsurface
+                chunk.setBlock(x, y, z, getSubsurfaceBlockForBiome(biome));
+            } else {
+                // Core
+                chunk.setBlock(x, y, z, Block.BlockType.STONE);
+            }
+        }
+        
+        // Add vegetation on top
+        if (baseHeight + 1 < Chunk.CHUNK_HEIGHT) {
+            generateVegetation(chunk, x, baseHeight + 1, z, biome, random);
+        }
+    }
+    
+    /**
+     * Seed for the random choices made inside one chunk
+     */
+    static long chunkSeed(long worldSeed, int chunkX, int chunkZ) {
+        return worldSeed ^ (chunkX * 341873128712L + chunkZ * 132897987541L);
+    }
+}
@@ -0,0 +1,328 @@
+package com.odyssey.world;
+
+import com.odyssey.rendering.Camera;
+import com.odyssey.rendering.Frustum;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks the chunks worth submitting for rendering: in range, inside the view frustum,
+ * and not hidden behind terrain.
+ *
+ * Visibility is found with a breadth-first walk over 16-block sections, starting at
+ * the camera's section. The walk enters a neighboring section only if
+ * - that section's box passes the frustum test,
+ * - the face it leaves by is connected to the face it came in through
+ *   ({@link Chunk#getSectionVisibility}), and
+ * - it doesn't turn back toward the camera along any axis it has already moved on.
+ * Sections behind a solid hillside or island are never reached, so their chunks are
+ * skipped even when they sit squarely in view. A chunk is drawn whole once any of its
+ * sections is reached.
+ *
+ * If the camera's chunk isn't loaded or is out of range there is nowhere to start, so
+ * only the frustum is checked. Each call fills {@link #getStats()} with the counts for
+ * that frame. Not thread-safe; meant to be called from the render thread.
+ */
+public final class ChunkCuller {
+
+    private static final int NO_FACE = 7;
+    // Extra columns around the render distance, for a camera a little off the range center
+    private static final int WINDOW_MARGIN = 2;
+
+    private final Frustum frustum = new Frustum();
+    private final Matrix4f viewProjection = new Matrix4f();
+    private final Vector3f cameraPosition = new Vector3f();
+    private final Stats stats = new Stats();
+    private final List<Chunk> loaded = new ArrayList<>();
+    private boolean occlusionCulling = true;
+
+    // Columns around the camera chunk; each slot holds the frame it was last touched
+    private int windowRadius = -1;
+    private int windowSize;
+    private int windowMinX;
+    private int windowMinZ;
+    private Chunk[] columnChunks = new Chunk[0];
+    private int[] columnFrame = new int[0];
+    private boolean[] columnVisible = new boolean[0];
+    private int[] sectionFrame = new int[0];
+    private int[] queue = new int[256];
+    private int frame;
+
+    /**
+     * Culls against the camera's current view, keeping chunks whose centers are within
+     * renderDistance chunks of rangeCenter horizontally
+     *
+     * @return out, with every visible non-empty chunk added
+     */
+    public List<Chunk> cull(ChunkIndex chunks, Camera camera, Vector3f rangeCenter, int renderDistance,
+                            List<Chunk> out) {
+        camera.getViewProjectionMatrix(viewProjection);
+        return cull(chunks, viewProjection, camera.getPosition(cameraPosition), rangeCenter, renderDistance, out);
+    }
+
+    /**
+     * Culls against an explicit view-projection matrix, e.g. a synthetic camera in tests
+     *
+     * @return out, with every visible non-empty chunk added
+     */
+    public List<Chunk> cull(ChunkIndex chunks, Matrix4f viewProjectionMatrix, Vector3f cameraPosition,
+                            Vector3f rangeCenter, int renderDistance, List<Chunk> out) {
+        long start = System.nanoTime();
+        stats.reset();
+        frustum.update(viewProjectionMatrix);
+        nextFrame(renderDistance);
+
+        int cameraChunkX = Math.floorDiv((int) Math.floor(cameraPosition.x), Chunk.CHUNK_SIZE);
+        int cameraChunkZ = Math.floorDiv((int) Math.floor(cameraPosition.z), Chunk.CHUNK_SIZE);
+        windowMinX = cameraChunkX - windowRadius;
+        windowMinZ = cameraChunkZ - windowRadius;
+        float rangeSquared = (float) renderDistance * Chunk.CHUNK_SIZE * renderDistance * Chunk.CHUNK_SIZE;
+
+        Chunk startChunk = column(chunks, cameraChunkX, cameraChunkZ, rangeCenter, rangeSquared);
+        if (occlusionCulling && startChunk != null) {
+            // Above or below the world the walk starts from the nearest section in the column
+            int sectionY = Math.max(0, Math.min(Chunk.SECTION_COUNT - 1,
+                                                (int) Math.floor(cameraPosition.y) >> 4));
+            walk(chunks, cameraChunkX, sectionY, cameraChunkZ, rangeCenter, rangeSquared);
+        }
+
+        chunks.values(loaded);
+        for (int i = 0; i < loaded.size(); i++) {
+            Chunk chunk = loaded.get(i);
+            if (chunk.isEmpty() || !inRange(chunk.getChunkX(), chunk.getChunkZ(), rangeCenter, rangeSquared)) {
+                continue;
+            }
+            stats.chunksInRange++;
+
+            boolean visible;
+            if (!frustum.testAab(chunk.getChunkX() * Chunk.CHUNK_SIZE, 0, chunk.getChunkZ() * Chunk.CHUNK_SIZE,
+                                 (chunk.getChunkX() + 1) * Chunk.CHUNK_SIZE, Chunk.CHUNK_HEIGHT,
+                                 (chunk.getChunkZ() + 1) * Chunk.CHUNK_SIZE)) {
+                stats.frustumCulled++;
+                visible = false;
+            } else if (occlusionCulling && startChunk != null) {
+                visible = wasReached(chunk);
+                if (!visible) {
+                    stats.occlusionCulled++;
+                }
+            } else {
+                visible = true;
+            }
+
+            if (visible) {
+                stats.chunksVisible++;
+                out.add(chunk);
+            }
+        }
+
+        // Don't keep unloaded chunks reachable between frames
+        loaded.clear();
+        stats.cullNanos = System.nanoTime() - start;
+        return out;
+    }
+
+    /**
+     * Breadth-first walk over sections from the camera's. Queue entries pack the window
+     * column, the section height, the face entered through and the axes moved along.
+     */
+    private void walk(ChunkIndex chunks, int startX, int startY, int startZ, Vector3f rangeCenter, float rangeSquared) {
+        int head = 0;
+        int tail = 0;
+        int startColumn = (startX - windowMinX) + (startZ - windowMinZ) * windowSize;
+        sectionFrame[startColumn * Chunk.SECTION_COUNT + startY] = frame;
+        queue[tail++] = pack(startColumn, startY, NO_FACE, 0);
+
+        while (head < tail) {
+            int node = queue[head++];
+            int columnIndex = node >>> 16;
+            int sectionY = (node >>> 12) & 15;
+            int entry = (node >>> 9) & 7;
+            int directions = (node >>> 3) & 63;
+            int chunkX = windowMinX + columnIndex % windowSize;
+            int chunkZ = windowMinZ + columnIndex / windowSize;
+
+            Chunk chunk = columnChunks[columnIndex];
+            columnVisible[columnIndex] = true;
+            stats.sectionsVisible++;
+            long visibility = chunk.getSectionVisibility(sectionY);
+
+            for (int face = 0; face < SectionVisibility.FACES; face++) {
+                // Never step back against a direction already taken
+                if ((directions & (1 << SectionVisibility.opposite(face))) != 0) {
+                    continue;
+                }
+                if (entry != NO_FACE && !SectionVisibility.connects(visibility, entry, face)) {
+                    continue;
+                }
+
+                int nextY = sectionY + SectionVisibility.offsetY(face);
+                int nextX = chunkX + SectionVisibility.offsetX(face);
+                int nextZ = chunkZ + SectionVisibility.offsetZ(face);
+                if (nextY < 0 || nextY >= Chunk.SECTION_COUNT) {
+                    continue;
+                }
+                int nextColumn = columnIndex;
+                if (nextX != chunkX || nextZ != chunkZ) {
+                    if (column(chunks, nextX, nextZ, rangeCenter, rangeSquared) == null) {
+                        continue;
+                    }
+                    nextColumn = (nextX - windowMinX) + (nextZ - windowMinZ) * windowSize;
+                }
+
+                int slot = nextColumn * Chunk.SECTION_COUNT + nextY;
+                if (sectionFrame[slot] == frame) {
+                    continue;
+                }
+                sectionFrame[slot] = frame;
+
+                stats.sectionsTested++;
+                float minX = nextX * Chunk.CHUNK_SIZE;
+                float minY = nextY * ChunkSection.SIZE;
+                float minZ = nextZ * Chunk.CHUNK_SIZE;
+                if (!frustum.testAab(minX, minY, minZ, minX + Chunk.CHUNK_SIZE, minY + ChunkSection.SIZE,
+                                     minZ + Chunk.CHUNK_SIZE)) {
+                    continue;
+                }
+
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, queue.length * 2);
+                }
+                queue[tail++] = pack(nextColumn, nextY, SectionVisibility.opposite(face), directions | (1 << face));
+            }
+        }
+    }
+
+    /**
+     * Gets the loaded chunk of a column inside the window and in range, or null. Looked
+     * up once per frame and remembered.
+     */
+    private Chunk column(ChunkIndex chunks, int chunkX, int chunkZ, Vector3f rangeCenter, float rangeSquared) {
+        int x = chunkX - windowMinX;
+        int z = chunkZ - windowMinZ;
+        if (x < 0 || z < 0 || x >= windowSize || z >= windowSize) {
+            return null;
+        }
+        int columnIndex = x + z * windowSize;
+        if (columnFrame[columnIndex] != frame) {
+            columnFrame[columnIndex] = frame;
+            columnVisible[columnIndex] = false;
+            columnChunks[columnIndex] = inRange(chunkX, chunkZ, rangeCenter, rangeSquared)
+                ? chunks.get(chunkX, chunkZ) : null;
+        }
+        return columnChunks[columnIndex];
+    }
+
+    private boolean wasReached(Chunk chunk) {
+        int x = chunk.getChunkX() - windowMinX;
+        int z = chunk.getChunkZ() - windowMinZ;
+        if (x < 0 || z < 0 || x >= windowSize || z >= windowSize) {
+            return false;
+        }
+        int columnIndex = x + z * windowSize;
+        return columnFrame[columnIndex] == frame && columnVisible[columnIndex]
+            && columnChunks[columnIndex] == chunk;
+    }
+
+    /**
+     * Same test World used before culling: the chunk's center against a horizontal radius
+     */
+    private static boolean inRange(int chunkX, int chunkZ, Vector3f rangeCenter, float rangeSquared) {
+        float dx = chunkX * Chunk.CHUNK_SIZE + Chunk.CHUNK_SIZE / 2.0f - rangeCenter.x;
+        float dz = chunkZ * Chunk.CHUNK_SIZE + Chunk.CHUNK_SIZE / 2.0f - rangeCenter.z;
+        return dx * dx + dz * dz <= rangeSquared;
+    }
+
+    private static int pack(int columnIndex, int sectionY, int entry, int directions) {
+        return columnIndex << 16 | sectionY << 12 | entry << 9 | directions << 3;
+    }
+
+    /**
+     * Advances the frame stamp, resizing the window if the render distance grew
+     */
+    private void nextFrame(int renderDistance) {
+        int radius = renderDistance + WINDOW_MARGIN;
+        if (radius != windowRadius) {
+            windowRadius = radius;
+            windowSize = 2 * radius + 1;
+            int columns = windowSize * windowSize;
+            if (columns > 0xFFFF) {
+                throw new IllegalArgumentException("Render distance too large to cull: " + renderDistance);
+            }
+            columnChunks = new Chunk[columns];
+            columnFrame = new int[columns];
+            columnVisible = new boolean[columns];
+            sectionFrame = new int[columns * Chunk.SECTION_COUNT];
+            frame = 0;
+        }
+        frame++;
+        if (frame == Integer.MAX_VALUE) {
+            Arrays.fill(columnFrame, 0);
+            Arrays.fill(sectionFrame, 0);
+            frame = 1;
+        }
+        // Don't keep unloaded chunks reachable between frames
+        Arrays.fill(columnChunks, null);
+    }
+
+    /**
+     * Whether sections hidden behind terrain are culled; when off only range and frustum apply
+     */
+    public void setOcclusionCulling(boolean occlusionCulling) {
+        this.occlusionCulling = occlusionCulling;
+    }
+
+    public boolean isOcclusionCulling() {
+        return occlusionCulling;
+    }
+
+    /**
+     * Gets the counts from the last call to cull
+     */
+    public Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * Per-frame culling counts. Chunks in range are either visible, outside the frustum,
+     * or hidden behind terrain.
+     */
+    public static final class Stats {
+        int chunksInRange;
+        int chunksVisible;
+        int frustumCulled;
+        int occlusionCulled;
+        int sectionsTested;
+        int sectionsVisible;
+        long cullNanos;
+
+        void reset() {
+            chunksInRange = 0;
+            chunksVisible = 0;
+            frustumCulled = 0;
+            occlusionCulled = 0;
+            sectionsTested = 0;
+            sectionsVisible = 0;
+            cullNanos = 0;
+        }
+
+        public int getChunksInRange() { return chunksInRange; }
+        public int getChunksVisible() { return chunksVisible; }
+        public int getFrustumCulled() { return frustumCulled; }
+        public int getOcclusionCulled() { return occlusionCulled; }
+        public int getSectionsTested() { return sectionsTested; }
+        public int getSectionsVisible() { return sectionsVisible; }
+        public long getCullNanos() { return cullNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{inRange=%d, visible=%d, frustumCulled=%d, occlusionCulled=%d, " +
+                               "sectionsTested=%d, sectionsVisible=%d, micros=%.1f}",
+                               chunksInRange, chunksVisible, frustumCulled, occlusionCulled,
+                               sectionsTested, sectionsVisible, cullNanos / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.odyssey.world;
+
+import com.odyssey.rendering.GeometryArena;
+import com.odyssey.rendering.IndirectDrawBuilder;
+import com.odyssey.util.Logger;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL33.*;
+import static org.lwjgl.opengl.GL40.*;
+import static org.lwjgl.opengl.GL43.*;
+
+/**
+ * Chunk geometry for every loaded chunk in a few shared buffers, drawn with one
+ * glMultiDrawElementsIndirect call per layer instead of one draw per chunk mesh.
+ *
+ * Each layer (solid, transparent, water) has one vertex buffer and one index buffer,
+ * sub-allocated per chunk through a {@link GeometryArena}, and one VAO over both. Chunk
+ * vertices stay chunk-local; the draw's chunk origin comes from a per-instance attribute
+ * at {@link #CHUNK_ORIGIN_LOCATION}, picked by the draw's base instance, so shaders
+ * drawing from the arena add it instead of reading a model matrix.
+ *
+ * When a chunk doesn't fit, the buffer is compacted into a new one, and doubled as well if
+ * compacting alone would leave it more than three quarters full. Needs OpenGL 4.3 and
+ * must only be used from the GL thread.
+ */
+public final class ChunkGeometryArena {
+
+    /** Attribute location of the per-draw chunk origin; 0 to 3 hold the vertex layout */
+    public static final int CHUNK_ORIGIN_LOCATION = 4;
+
+    private static final int VERTEX_BYTES = ChunkMeshBuilder.FLOATS_PER_VERTEX * Float.BYTES;
+    private static final int INITIAL_VERTICES = 1 << 16;
+    private static final int INITIAL_INDICES = 3 << 16;
+
+    public enum Layer {
+        SOLID, TRANSPARENT, WATER
+    }
+
+    private final LayerBuffers[] layers = new LayerBuffers[Layer.values().length];
+    private final IndirectDrawBuilder draws = new IndirectDrawBuilder();
+    private IntBuffer commandStaging = BufferUtils.createIntBuffer(IndirectDrawBuilder.INTS_PER_COMMAND * 256);
+    private FloatBuffer originStaging = BufferUtils.createFloatBuffer(IndirectDrawBuilder.FLOATS_PER_ORIGIN * 256);
+    private int indirectBuffer;
+    private int originBuffer;
+
+    public ChunkGeometryArena() {
+        indirectBuffer = glGenBuffers();
+        originBuffer = glGenBuffers();
+        for (Layer layer : Layer.values()) {
+            layers[layer.ordinal()] = new LayerBuffers();
+        }
+        Logger.world("Created chunk geometry arena: {} vertices, {} indices per layer",
+                     INITIAL_VERTICES, INITIAL_INDICES);
+    }
+
+    /**
+     * Replaces a chunk's geometry in every layer; layers without geometry are released
+     */
+    public void upload(Chunk chunk, ChunkMeshBuilder.GeometryData geometry) {
+        layers[Layer.SOLID.ordinal()].upload(chunk, geometry.solid);
+        layers[Layer.TRANSPARENT.ordinal()].upload(chunk, geometry.transparent);
+        layers[Layer.WATER.ordinal()].upload(chunk, geometry.water);
+    }
+
+    /**
+     * Frees a chunk's ranges in every layer
+     */
+    public void release(Chunk chunk) {
+        for (LayerBuffers layer : layers) {
+            layer.release(chunk);
+        }
+    }
+
+    public boolean contains(Chunk chunk) {
+        for (LayerBuffers layer : layers) {
+            if (layer.slots.containsKey(chunk)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws one layer of the given chunks, in list order, with a single indirect call. The
+     * shader has to be bound and read the chunk origin at {@link #CHUNK_ORIGIN_LOCATION}.
+     *
+     * @return the number of chunks drawn
+     */
+    public int draw(Layer layer, List<Chunk> chunks) {
+        LayerBuffers buffers = layers[layer.ordinal()];
+        draws.clear();
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            Slot slot = buffers.slots.get(chunk);
+            if (slot != null) {
+                draws.add(slot.indexCount, buffers.indices.getOffset(slot.indexHandle),
+                          buffers.vertices.getOffset(slot.vertexHandle),
+                          chunk.getChunkX() * Chunk.CHUNK_SIZE, 0, chunk.getChunkZ() * Chunk.CHUNK_SIZE);
+            }
+        }
+        if (draws.isEmpty()) {
+            return 0;
+        }
+
+        int drawCount = draws.getDrawCount();
+        int commandInts = drawCount * IndirectDrawBuilder.INTS_PER_COMMAND;
+        int originFloats = drawCount * IndirectDrawBuilder.FLOATS_PER_ORIGIN;
+        if (commandStaging.capacity() < commandInts) {
+            commandStaging = BufferUtils.createIntBuffer(Integer.highestOneBit(commandInts) << 1);
+            originStaging = BufferUtils.createFloatBuffer(Integer.highestOneBit(originFloats) << 1);
+        }
+        commandStaging.clear();
+        commandStaging.put(draws.getCommands(), 0, commandInts).flip();
+        originStaging.clear();
+        originStaging.put(draws.getOrigins(), 0, originFloats).flip();
+
+        // Orphaned every draw, so the driver doesn't wait on the previous one
+        glBindBuffer(GL_ARRAY_BUFFER, originBuffer);
+        glBufferData(GL_ARRAY_BUFFER, (long) originFloats * Float.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, originStaging);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        glBindBuffer(GL_DRAW_INDIRECT_BUFFER, indirectBuffer);
+        glBufferData(GL_DRAW_INDIRECT_BUFFER, (long) commandInts * Integer.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(GL_DRAW_INDIRECT_BUFFER, 0, commandStaging);
+
+        glBindVertexArray(buffers.vao);
+        glMultiDrawElementsIndirect(GL_TRIANGLES, GL_UNSIGNED_INT, 0L, drawCount, 0);
+        glBindVertexArray(0);
+        glBindBuffer(GL_DRAW_INDIRECT_BUFFER, 0);
+        return drawCount;
+    }
+
+    /**
+     * Gets the vertex allocator of a layer, e.g. for its fragmentation
+     */
+    public GeometryArena getVertexArena(Layer layer) {
+        return layers[layer.ordinal()].vertices;
+    }
+
+    public GeometryArena getIndexArena(Layer layer) {
+        return layers[layer.ordinal()].indices;
+    }
+
+    public void cleanup() {
+        for (LayerBuffers layer : layers) {
+            layer.cleanup();
+        }
+        glDeleteBuffers(indirectBuffer);
+        glDeleteBuffers(originBuffer);
+        indirectBuffer = 0;
+        originBuffer = 0;
+    }
+
+    /** A chunk's ranges in one layer */
+    private static final class Slot {
+        int vertexHandle;
+        int indexHandle;
+        int indexCount;
+    }
+
+    /**
+     * Vertex and index buffers of one layer with their allocators
+     */
+    private final class LayerBuffers {
+        private final Map<Chunk, Slot> slots = new IdentityHashMap<>();
+        private final GeometryArena vertices = new GeometryArena(INITIAL_VERTICES);
+        private final GeometryArena indices = new GeometryArena(INITIAL_INDICES);
+        private int vertexBuffer = createBuffer((long) INITIAL_VERTICES * VERTEX_BYTES);
+        private int indexBuffer = createBuffer((long) INITIAL_INDICES * Integer.BYTES);
+        private final int vao = glGenVertexArrays();
+
+        LayerBuffers() {
+            bindAttributes();
+        }
+
+        void upload(Chunk chunk, ChunkMeshBuilder.MeshGeometry geometry) {
+            release(chunk);
+            if (geometry == null || geometry.indices.length == 0) {
+                return;
+            }
+
+            Slot slot = new Slot();
+            slot.vertexHandle = allocate(vertices, geometry.getVertexCount(), VERTEX_BYTES, false);
+            slot.indexHandle = allocate(indices, geometry.indices.length, Integer.BYTES, true);
+            slot.indexCount = geometry.indices.length;
+
+            glBindBuffer(GL_COPY_WRITE_BUFFER, vertexBuffer);
+            glBufferSubData(GL_COPY_WRITE_BUFFER, (long) vertices.getOffset(slot.vertexHandle) * VERTEX_BYTES,
+                            geometry.vertices);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, indexBuffer);
+            glBufferSubData(GL_COPY_WRITE_BUFFER, (long) indices.getOffset(slot.indexHandle) * Integer.BYTES,
+                            geometry.indices);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+            slots.put(chunk, slot);
+        }
+
+        void release(Chunk chunk) {
+            Slot slot = slots.remove(chunk);
+            if (slot != null) {
+                vertices.free(slot.vertexHandle);
+                indices.free(slot.indexHandle);
+            }
+        }
+
+        /**
+         * Allocates from one of the layer's arenas, compacting or growing its buffer if
+         * nothing fits
+         */
+        private int allocate(GeometryArena arena, int size, int elementBytes, boolean indexArena) {
+            int handle = arena.allocate(size);
+            if (handle != GeometryArena.NONE) {
+                return handle;
+            }
+
+            int capacity = arena.getCapacity();
+            int required = arena.getUsed() + size;
+            while (required > capacity - capacity / 4) {
+                capacity *= 2;
+            }
+            int target = createBuffer((long) capacity * elementBytes);
+            int source = indexArena ? indexBuffer : vertexBuffer;
+            glBindBuffer(GL_COPY_READ_BUFFER, source);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, target);
+            int moved = arena.defragment((h, from, to, length) ->
+                glCopyBufferSubData(GL_COPY_READ_BUFFER, GL_COPY_WRITE_BUFFER,
+                                    (long) from * elementBytes, (long) to * elementBytes, (long) length * elementBytes));
+            glBindBuffer(GL_COPY_READ_BUFFER, 0);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+            glDeleteBuffers(source);
+            arena.grow(capacity);
+
+            if (indexArena) {
+                indexBuffer = target;
+            } else {
+                vertexBuffer = target;
+            }
+            bindAttributes();
+            Logger.world("Compacted chunk {} buffer: moved {} ranges, capacity {}",
+                         indexArena ? "index" : "vertex", moved, capacity);
+            return arena.allocate(size);
+        }
+
+        /**
+         * Points the VAO at the current buffers; needed again whenever one is replaced
+         */
+        private void bindAttributes() {
+            glBindVertexArray(vao);
+            glBindBuffer(GL_ARRAY_BUFFER, vertexBuffer);
+            glEnableVertexAttribArray(0);
+            glVertexAttribPointer(0, 3, GL_FLOAT, false, VERTEX_BYTES, 0L);
+            glEnableVertexAttribArray(1);
+            glVertexAttribPointer(1, 3, GL_FLOAT, false, VERTEX_BYTES, 3L * Float.BYTES);
+            glEnableVertexAttribArray(2);
+            glVertexAttribPointer(2, 2, GL_FLOAT, false, VERTEX_BYTES, 6L * Float.BYTES);
+            glEnableVertexAttribArray(3);
+            glVertexAttribPointer(3, 3, GL_FLOAT, false, VERTEX_BYTES, 8L * Float.BYTES);
+
+            glBindBuffer(GL_ARRAY_BUFFER, originBuffer);
+            glEnableVertexAttribArray(CHUNK_ORIGIN_LOCATION);
+            glVertexAttribPointer(CHUNK_ORIGIN_LOCATION, 3, GL_FLOAT, false, 0, 0L);
+            glVertexAttribDivisor(CHUNK_ORIGIN_LOCATION, 1);
+
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+            glBindVertexArray(0);
+            glBindBuffer(GL_ARRAY_BUFFER, 0);
+        }
+
+        void cleanup() {
+            slots.clear();
+            glDeleteVertexArrays(vao);
+            glDeleteBuffers(vertexBuffer);
+            glDeleteBuffers(indexBuffer);
+        }
+    }
+
+    private static int createBuffer(long bytes) {
+        int buffer = glGenBuffers();
+        glBindBuffer(GL_COPY_WRITE_BUFFER, buffer);
+        glBufferData(GL_COPY_WRITE_BUFFER, bytes, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+        return buffer;
+    }
+}
@@ -0,0 +1,307 @@
+package com.odyssey.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Index of loaded chunks keyed by chunk coordinates packed into a {@code long}.
+ *
+ * Lookups probe an open-addressing table of primitive keys, so finding a chunk neither
+ * allocates a key object nor boxes anything. Reads are optimistic: they run without
+ * locking and only retry under a read lock if a load or unload happened at the same
+ * time. The most recently found chunk is cached, so runs of nearby block reads from
+ * raycasts, lighting or physics usually skip the table entirely.
+ *
+ * Loads and unloads take the write lock; they happen a few times a frame at most.
+ */
+public final class ChunkIndex {
+
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(Chunk.CHUNK_SIZE);
+    private static final int CHUNK_MASK = Chunk.CHUNK_SIZE - 1;
+    private static final int MIN_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile Chunk lastChunk;
+    private int size;
+
+    /**
+     * Packs chunk coordinates into an index key
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Gets the loaded chunk at the given chunk coordinates, or null if it is not loaded
+     */
+    public Chunk get(int chunkX, int chunkZ) {
+        Chunk last = lastChunk;
+        if (last != null && last.getChunkX() == chunkX && last.getChunkZ() == chunkZ && last.isLoaded()) {
+            return last;
+        }
+
+        Chunk chunk = lookup(key(chunkX, chunkZ));
+        if (chunk != null) {
+            lastChunk = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the loaded chunk containing the given world block coordinates
+     */
+    public Chunk getAtBlock(int x, int z) {
+        return get(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+    }
+
+    /**
+     * Gets the block at world coordinates without allocating; unloaded chunks read as air
+     */
+    public Block.BlockType getBlock(int x, int y, int z) {
+        Chunk chunk = get(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        if (chunk == null) {
+            return Block.BlockType.AIR;
+        }
+        return chunk.getBlock(x & CHUNK_MASK, y, z & CHUNK_MASK);
+    }
+
+    /**
+     * Sets the block at world coordinates; writes to unloaded chunks are ignored
+     *
+     * @return true if the chunk was loaded and the block was set
+     */
+    public boolean setBlock(int x, int y, int z, Block.BlockType blockType) {
+        Chunk chunk = get(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        if (chunk == null) {
+            return false;
+        }
+        chunk.setBlock(x & CHUNK_MASK, y, z & CHUNK_MASK, blockType);
+        return true;
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return lookup(key(chunkX, chunkZ)) != null;
+    }
+
+    /**
+     * Adds a chunk under its own coordinates, replacing any chunk already there
+     *
+     * @return the replaced chunk, or null
+     */
+    public Chunk put(Chunk chunk) {
+        long key = key(chunk.getChunkX(), chunk.getChunkZ());
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int mask = t.mask();
+            int slot = mix(key) & mask;
+            while (t.chunks[slot] != null) {
+                if (t.keys[slot] == key) {
+                    Chunk previous = t.chunks[slot];
+                    t.chunks[slot] = chunk;
+                    previous.setLoaded(false);
+                    chunk.setLoaded(true);
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            t.keys[slot] = key;
+            t.chunks[slot] = chunk;
+            chunk.setLoaded(true);
+            if (++size > t.chunks.length / 2) {
+                table = t.resize(t.chunks.length * 2);
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the chunk at the given chunk coordinates
+     *
+     * @return the removed chunk, or null if none was loaded there
+     */
+    public Chunk remove(int chunkX, int chunkZ) {
+        long key = key(chunkX, chunkZ);
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int mask = t.mask();
+            int slot = mix(key) & mask;
+            while (t.chunks[slot] != null && t.keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            Chunk removed = t.chunks[slot];
+            if (removed == null) {
+                return null;
+            }
+
+            // Backward-shift deletion keeps every probe sequence unbroken without tombstones
+            int last = slot;
+            int next = (slot + 1) & mask;
+            while (t.chunks[next] != null) {
+                int home = mix(t.keys[next]) & mask;
+                if (last <= next ? (last >= home || home > next) : (last >= home && home > next)) {
+                    t.keys[last] = t.keys[next];
+                    t.chunks[last] = t.chunks[next];
+                    last = next;
+                }
+                next = (next + 1) & mask;
+            }
+            t.chunks[last] = null;
+
+            size--;
+            removed.setLoaded(false);
+            if (lastChunk == removed) {
+                lastChunk = null;
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets a snapshot of every loaded chunk
+     */
+    public List<Chunk> values() {
+        return values(new ArrayList<>());
+    }
+
+    /**
+     * Replaces the contents of dest with a snapshot of every loaded chunk, so per-frame
+     * callers can reuse one list
+     *
+     * @return dest
+     */
+    public List<Chunk> values(List<Chunk> dest) {
+        dest.clear();
+        long stamp = lock.readLock();
+        try {
+            Chunk[] chunks = table.chunks;
+            for (int i = 0; i < chunks.length; i++) {
+                if (chunks[i] != null) {
+                    dest.add(chunks[i]);
+                }
+            }
+            return dest;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            for (Chunk chunk : table.chunks) {
+                if (chunk != null) {
+                    chunk.setLoaded(false);
+                }
+            }
+            table = new Table(MIN_CAPACITY);
+            size = 0;
+            lastChunk = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Chunk lookup(long key) {
+        long stamp = lock.tryOptimisticRead();
+        Chunk chunk = probe(table, key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                chunk = probe(table, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Probes for a key. Bounded by the table length so a torn optimistic read can never
+     * loop forever; such results are thrown away by the caller's validation.
+     */
+    private static Chunk probe(Table t, long key) {
+        int mask = t.mask();
+        int slot = mix(key) & mask;
+        for (int i = 0; i <= mask; i++) {
+            Chunk chunk = t.chunks[slot];
+            if (chunk == null) {
+                return null;
+            }
+            if (t.keys[slot] == key) {
+                return chunk;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Parallel key and chunk arrays, replaced as a unit when the index grows so readers
+     * never see arrays of different lengths
+     */
+    private static final class Table {
+        final long[] keys;
+        final Chunk[] chunks;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            chunks = new Chunk[capacity];
+        }
+
+        int mask() {
+            return chunks.length - 1;
+        }
+
+        Table resize(int capacity) {
+            Table grown = new Table(capacity);
+            int mask = grown.mask();
+            for (int i = 0; i < chunks.length; i++) {
+                if (chunks[i] != null) {
+                    int slot = mix(keys[i]) & mask;
+                    while (grown.chunks[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.keys[slot] = keys[i];
+                    grown.chunks[slot] = chunks[i];
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.odyssey.world;
 
 import com.odyssey.rendering.Mesh;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.joml.Vector3f;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Builds optimized meshes for chunk rendering using greedy meshing algorithms.
@@ -12,6 +13,14 @@ import java.util.List;
  */
 public class ChunkMeshBuilder {
     
+    /** Position (3), normal (3), UV (2), color (3) */
+    public static final int FLOATS_PER_VERTEX = 11;
+    
+    // Chunk width plus one column of each horizontal neighbor on either side
+    private static final int PADDED_SIZE = Chunk.CHUNK_SIZE + 2;
+    
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+    
     private final Chunk chunk;
     
     // Face directions
@@ -24,16 +33,6 @@ public class ChunkMeshBuilder {
         {-1, 0, 0}  // WEST
     };
     
-    // Face normals
-    private static final Vector3f[] FACE_NORMALS = {
-        new Vector3f(0, 1, 0),   // TOP
-        new Vector3f(0, -1, 0),  // BOTTOM
-        new Vector3f(0, 0, 1),   // NORTH
-        new Vector3f(0, 0, -1),  // SOUTH
-        new Vector3f(1, 0, 0),   // EAST
-        new Vector3f(-1, 0, 0)   // WEST
-    };
-    
     // UV coordinates for each face
     private static final float[][] FACE_UVS = {
         // TOP
@@ -50,6 +49,33 @@ public class ChunkMeshBuilder {
         {0.0f, 1.0f, 1.0f, 1.0f, 1.0f, 0.0f, 0.0f, 0.0f}
     };
     
+    // Per-type lookup tables indexed by block id, so the inner loops never touch enums
+    private static final int TYPE_COUNT;
+    private static final boolean[] VISIBLE_FACES;
+    private static final boolean[] TRANSPARENT;
+    private static final float[] COLORS;
+    static {
+        int maxId = 0;
+        for (Block.BlockType type : Block.BlockType.values()) {
+            maxId = Math.max(maxId, type.getId());
+        }
+        TYPE_COUNT = maxId + 1;
+        VISIBLE_FACES = new boolean[TYPE_COUNT * TYPE_COUNT];
+        TRANSPARENT = new boolean[TYPE_COUNT];
+        COLORS = new float[TYPE_COUNT * 3];
+        for (int id = 0; id < TYPE_COUNT; id++) {
+            Block.BlockType type = Block.BlockType.fromId(id);
+            for (int neighbor = 0; neighbor < TYPE_COUNT; neighbor++) {
+                VISIBLE_FACES[id * TYPE_COUNT + neighbor] = isFaceVisible(type, Block.BlockType.fromId(neighbor));
+            }
+            TRANSPARENT[id] = type.isTransparent();
+            Vector3f color = type.getColor();
+            COLORS[id * 3] = color.x;
+            COLORS[id * 3 + 1] = color.y;
+            COLORS[id * 3 + 2] = color.z;
+        }
+    }
+    
     public ChunkMeshBuilder(Chunk chunk) {
         this.chunk = chunk;
     }
@@ -70,204 +96,326 @@ public class ChunkMeshBuilder {
     }
     
     /**
-     * Generates meshes for the chunk
+     * Vertex and index arrays for one render layer, ready to upload
      */
-    public MeshData generateMesh() {
-        List<Float> solidVertices = new ArrayList<>();
-        List<Integer> solidIndices = new ArrayList<>();
-        
-        List<Float> transparentVertices = new ArrayList<>();
-        List<Integer> transparentIndices = new ArrayList<>();
-        
-        List<Float> waterVertices = new ArrayList<>();
-        List<Integer> waterIndices = new ArrayList<>();
+    public static class MeshGeometry {
+        public final float[] vertices;
+        public final int[] indices;
         
-        // Generate faces for each block
-        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
-            for (int y = 0; y < Chunk.CHUNK_HEIGHT; y++) {
-                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                    Block.BlockType blockType = chunk.getBlock(x, y, z);
-                    
-                    if (blockType == Block.BlockType.AIR) {
-                        continue;
-                    }
-                    
-                    // Generate faces for each direction
-                    for (int face = 0; face < 6; face++) {
-                        if (shouldRenderFace(x, y, z, face, blockType)) {
-                            if (blockType == Block.BlockType.WATER) {
-                                addFace(waterVertices, waterIndices, x, y, z, face, blockType);
-                            } else if (blockType.isTransparent()) {
-                                addFace(transparentVertices, transparentIndices, x, y, z, face, blockType);
-                            } else {
-                                addFace(solidVertices, solidIndices, x, y, z, face, blockType);
-                            }
-                        }
-                    }
-                }
-            }
+        public MeshGeometry(float[] vertices, int[] indices) {
+            this.vertices = vertices;
+            this.indices = indices;
         }
         
-        // Create meshes
-        Mesh solidMesh = createMesh(solidVertices, solidIndices);
-        Mesh transparentMesh = createMesh(transparentVertices, transparentIndices);
-        Mesh waterMesh = createMesh(waterVertices, waterIndices);
-        
-        return new MeshData(solidMesh, transparentMesh, waterMesh);
+        public int getVertexCount() {
+            return vertices.length / FLOATS_PER_VERTEX;
+        }
     }
     
     /**
-     * Determines if a face should be rendered
+     * CPU-side result of meshing a chunk; layers without any faces are null
      */
-    private boolean shouldRenderFace(int x, int y, int z, int face, Block.BlockType blockType) {
-        int[] dir = FACE_DIRECTIONS[face];
-        int nx = x + dir[0];
-        int ny = y + dir[1];
-        int nz = z + dir[2];
-        
-        Block.BlockType neighborType = chunk.getNeighborBlock(nx, ny, nz);
-        
-        // Always render faces against air
-        if (neighborType == Block.BlockType.AIR) {
-            return true;
+    public static class GeometryData {
+        public final MeshGeometry solid;
+        public final MeshGeometry transparent;
+        public final MeshGeometry water;
+        
+        public GeometryData(MeshGeometry solid, MeshGeometry transparent, MeshGeometry water) {
+            this.solid = solid;
+            this.transparent = transparent;
+            this.water = water;
         }
-        
-        // Water rendering rules
-        if (blockType == Block.BlockType.WATER) {
-            return neighborType != Block.BlockType.WATER;
+    }
+    
+    /**
+     * Generates meshes for the chunk and uploads them
+     */
+    public MeshData generateMesh() {
+        return upload(buildGeometry());
+    }
+    
+    /**
+     * Uploads geometry built by {@link #buildGeometry()}; must run on the GL thread
+     */
+    public static MeshData upload(GeometryData geometry) {
+        return new MeshData(createMesh(geometry.solid), createMesh(geometry.transparent), createMesh(geometry.water));
+    }
+    
+    /**
+     * Uploads one layer into the mesh that already holds it, orphaning its buffers instead of
+     * creating new GL objects; must run on the GL thread
+     *
+     * @return the mesh now holding the layer, or null if the layer is empty
+     */
+    public static Mesh upload(Mesh existing, MeshGeometry geometry) {
+        if (geometry == null) {
+            if (existing != null) {
+                existing.cleanup();
+            }
+            return null;
         }
-        
-        // Transparent block rendering rules
-        if (blockType.isTransparent()) {
-            return neighborType != blockType && !neighborType.isOpaque();
+        if (existing == null) {
+            return createMesh(geometry);
         }
-        
-        // Solid block rendering rules
-        return neighborType.isTransparent();
+        existing.reupload(geometry.vertices, geometry.indices);
+        return existing;
     }
     
     /**
-     * Adds a face to the vertex and index lists
+     * Greedy-meshes the chunk into vertex and index arrays without touching OpenGL.
+     *
+     * Visible faces are collected one slice at a time into a mask per face direction, and
+     * each run of identical faces (same block, same light) is merged into a single quad.
+     * Vertices are written straight into reusable primitive buffers, so apart from the
+     * returned arrays nothing is allocated per chunk.
      */
-    private void addFace(List<Float> vertices, List<Integer> indices, 
-                        int x, int y, int z, int face, Block.BlockType blockType) {
-        
-        Vector3f normal = FACE_NORMALS[face];
-        Vector3f color = blockType.getColor();
-        float[] uvs = FACE_UVS[face];
-        
-        // Get light level for this position
-        float lightLevel = chunk.getLightLevel(x, y, z) / 15.0f;
+    public GeometryData buildGeometry() {
+        Workspace ws = WORKSPACE.get();
+        ws.reset();
+        
+        // Only the height range that actually holds blocks needs meshing
+        int minSection = -1, maxSection = -1;
+        for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+            if (!chunk.isSectionEmpty(s)) {
+                if (minSection < 0) minSection = s;
+                maxSection = s;
+            }
+        }
+        if (minSection < 0) {
+            return new GeometryData(null, null, null);
+        }
+        int minY = minSection * ChunkSection.SIZE;
+        int maxY = maxSection * ChunkSection.SIZE + ChunkSection.SIZE - 1;
         
-        // Face vertices (4 vertices per face)
-        Vector3f[] faceVertices = getFaceVertices(x, y, z, face);
+        snapshotBlocks(ws.blocks, minY, maxY);
         
-        int baseIndex = vertices.size() / 9; // 9 floats per vertex (pos + normal + uv + color)
+        for (int face = 0; face < 6; face++) {
+            meshFace(ws, face, minY, maxY);
+        }
         
-        // Add vertices
-        for (int i = 0; i < 4; i++) {
-            Vector3f vertex = faceVertices[i];
-            
-            // Position
-            vertices.add(vertex.x);
-            vertices.add(vertex.y);
-            vertices.add(vertex.z);
-            
-            // Normal
-            vertices.add(normal.x);
-            vertices.add(normal.y);
-            vertices.add(normal.z);
-            
-            // UV coordinates
-            vertices.add(uvs[i * 2]);
-            vertices.add(uvs[i * 2 + 1]);
+        return new GeometryData(ws.solid.toGeometry(), ws.transparent.toGeometry(), ws.water.toGeometry());
+    }
+    
+    /**
+     * Copies block ids into a padded array that includes the neighboring chunks' border
+     * columns, so face checks never branch on chunk edges
+     */
+    private void snapshotBlocks(byte[] blocks, int minY, int maxY) {
+        for (int y = minY - 1; y <= maxY + 1; y++) {
+            int row = (y + 1) * PADDED_SIZE * PADDED_SIZE;
+            if (y < 0 || y >= Chunk.CHUNK_HEIGHT || chunk.isSectionEmpty(y >> 4)) {
+                Arrays.fill(blocks, row, row + PADDED_SIZE * PADDED_SIZE, (byte) 0);
+                continue;
+            }
+            for (int z = -1; z <= Chunk.CHUNK_SIZE; z++) {
+                for (int x = -1; x <= Chunk.CHUNK_SIZE; x++) {
+                    Block.BlockType type = x >= 0 && x < Chunk.CHUNK_SIZE && z >= 0 && z < Chunk.CHUNK_SIZE
+                        ? chunk.getBlock(x, y, z)
+                        : chunk.getNeighborBlock(x, y, z);
+                    blocks[row + (z + 1) * PADDED_SIZE + x + 1] = (byte) type.getId();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Builds and merges the face masks for one face direction, slice by slice.
+     * TOP/BOTTOM slices run along y with the mask over (x, z); NORTH/SOUTH slices run
+     * along z over (x, y); EAST/WEST slices run along x over (z, y).
+     */
+    private void meshFace(Workspace ws, int face, int minY, int maxY) {
+        byte[] blocks = ws.blocks;
+        int[] mask = ws.mask;
+        int[] dir = FACE_DIRECTIONS[face];
+        int neighborOffset = dir[0] + dir[2] * PADDED_SIZE + dir[1] * PADDED_SIZE * PADDED_SIZE;
+        boolean horizontal = face <= 1;
+        int sliceCount = horizontal ? maxY - minY + 1 : Chunk.CHUNK_SIZE;
+        int height = horizontal ? Chunk.CHUNK_SIZE : maxY - minY + 1;
+        int width = Chunk.CHUNK_SIZE;
+        
+        for (int slice = 0; slice < sliceCount; slice++) {
+            if (horizontal && chunk.isSectionEmpty((minY + slice) >> 4)) {
+                continue;
+            }
             
-            // Color with lighting
-            vertices.add(color.x * lightLevel);
-            vertices.add(color.y * lightLevel);
-            vertices.add(color.z * lightLevel);
+            boolean any = false;
+            for (int v = 0; v < height; v++) {
+                for (int u = 0; u < width; u++) {
+                    int x, y, z;
+                    if (horizontal) {
+                        x = u; y = minY + slice; z = v;
+                    } else if (face <= 3) {
+                        x = u; y = minY + v; z = slice;
+                    } else {
+                        x = slice; y = minY + v; z = u;
+                    }
+                    int index = (y + 1) * PADDED_SIZE * PADDED_SIZE + (z + 1) * PADDED_SIZE + x + 1;
+                    int id = blocks[index];
+                    int key = 0;
+                    if (id != 0 && VISIBLE_FACES[id * TYPE_COUNT + blocks[index + neighborOffset]]) {
+                        key = id | (chunk.getLightLevel(x, y, z) << 8);
+                        any = true;
+                    }
+                    mask[u + v * width] = key;
+                }
+            }
+            if (any) {
+                mergeMask(ws, face, slice, width, height, minY);
+            }
         }
-        
-        // Add indices (two triangles per face)
-        indices.add(baseIndex);
-        indices.add(baseIndex + 1);
-        indices.add(baseIndex + 2);
-        
-        indices.add(baseIndex);
-        indices.add(baseIndex + 2);
-        indices.add(baseIndex + 3);
     }
     
     /**
-     * Gets the vertices for a face
+     * Greedily covers the mask with the fewest rectangles of equal keys and emits a quad
+     * for each
      */
-    private Vector3f[] getFaceVertices(int x, int y, int z, int face) {
-        Vector3f[] vertices = new Vector3f[4];
-        
+    private void mergeMask(Workspace ws, int face, int slice, int width, int height, int minY) {
+        int[] mask = ws.mask;
+        for (int v = 0; v < height; v++) {
+            for (int u = 0; u < width; ) {
+                int key = mask[u + v * width];
+                if (key == 0) {
+                    u++;
+                    continue;
+                }
+                
+                int w = 1;
+                while (u + w < width && mask[u + w + v * width] == key) {
+                    w++;
+                }
+                int h = 1;
+                grow:
+                while (v + h < height) {
+                    int row = (v + h) * width;
+                    for (int k = 0; k < w; k++) {
+                        if (mask[u + k + row] != key) {
+                            break grow;
+                        }
+                    }
+                    h++;
+                }
+                
+                for (int dv = 0; dv < h; dv++) {
+                    Arrays.fill(mask, u + (v + dv) * width, u + w + (v + dv) * width, 0);
+                }
+                
+                int x, y, z;
+                if (face <= 1) {
+                    x = u; y = minY + slice; z = v;
+                } else if (face <= 3) {
+                    x = u; y = minY + v; z = slice;
+                } else {
+                    x = slice; y = minY + v; z = u;
+                }
+                int id = key & 0xFF;
+                LayerBuffer layer = id == Block.BlockType.WATER.getId() ? ws.water
+                    : TRANSPARENT[id] ? ws.transparent : ws.solid;
+                addQuad(layer, face, x, y, z, w, h, id, (key >>> 8) / 15.0f);
+                u += w;
+            }
+        }
+    }
+    
+    /**
+     * Adds a w-by-h quad whose minimum corner block is (x, y, z). The corner order per
+     * face matches the single-block faces this mesher has always produced; UVs are scaled
+     * by the quad size so textures repeat instead of stretching.
+     */
+    private void addQuad(LayerBuffer layer, int face, int x, int y, int z, int w, int h, int id, float light) {
+        int base = layer.vertexCount();
         switch (face) {
             case 0: // TOP
-                vertices[0] = new Vector3f(x, y + 1, z);
-                vertices[1] = new Vector3f(x + 1, y + 1, z);
-                vertices[2] = new Vector3f(x + 1, y + 1, z + 1);
-                vertices[3] = new Vector3f(x, y + 1, z + 1);
+                layer.vertex(x, y + 1, z, face, 0, w, h, id, light);
+                layer.vertex(x + w, y + 1, z, face, 1, w, h, id, light);
+                layer.vertex(x + w, y + 1, z + h, face, 2, w, h, id, light);
+                layer.vertex(x, y + 1, z + h, face, 3, w, h, id, light);
                 break;
             case 1: // BOTTOM
-                vertices[0] = new Vector3f(x, y, z + 1);
-                vertices[1] = new Vector3f(x + 1, y, z + 1);
-                vertices[2] = new Vector3f(x + 1, y, z);
-                vertices[3] = new Vector3f(x, y, z);
+                layer.vertex(x, y, z + h, face, 0, w, h, id, light);
+                layer.vertex(x + w, y, z + h, face, 1, w, h, id, light);
+                layer.vertex(x + w, y, z, face, 2, w, h, id, light);
+                layer.vertex(x, y, z, face, 3, w, h, id, light);
                 break;
             case 2: // NORTH
-                vertices[0] = new Vector3f(x + 1, y + 1, z + 1);
-                vertices[1] = new Vector3f(x, y + 1, z + 1);
-                vertices[2] = new Vector3f(x, y, z + 1);
-                vertices[3] = new Vector3f(x + 1, y, z + 1);
+                layer.vertex(x + w, y + h, z + 1, face, 0, w, h, id, light);
+                layer.vertex(x, y + h, z + 1, face, 1, w, h, id, light);
+                layer.vertex(x, y, z + 1, face, 2, w, h, id, light);
+                layer.vertex(x + w, y, z + 1, face, 3, w, h, id, light);
                 break;
             case 3: // SOUTH
-                vertices[0] = new Vector3f(x, y + 1, z);
-                vertices[1] = new Vector3f(x + 1, y + 1, z);
-                vertices[2] = new Vector3f(x + 1, y, z);
-                vertices[3] = new Vector3f(x, y, z);
+                layer.vertex(x, y + h, z, face, 0, w, h, id, light);
+                layer.vertex(x + w, y + h, z, face, 1, w, h, id, light);
+                layer.vertex(x + w, y, z, face, 2, w, h, id, light);
+                layer.vertex(x, y, z, face, 3, w, h, id, light);
                 break;
             case 4: // EAST
-                vertices[0] = new Vector3f(x + 1, y + 1, z);
-                vertices[1] = new Vector3f(x + 1, y + 1, z + 1);
-                vertices[2] = new Vector3f(x + 1, y, z + 1);
-                vertices[3] = new Vector3f(x + 1, y, z);
+                layer.vertex(x + 1, y + h, z, face, 0, w, h, id, light);
+                layer.vertex(x + 1, y + h, z + w, face, 1, w, h, id, light);
+                layer.vertex(x + 1, y, z + w, face, 2, w, h, id, light);
+                layer.vertex(x + 1, y, z, face, 3, w, h, id, light);
                 break;
             case 5: // WEST
-                vertices[0] = new Vector3f(x, y + 1, z + 1);
-                vertices[1] = new Vector3f(x, y + 1, z);
-                vertices[2] = new Vector3f(x, y, z);
-                vertices[3] = new Vector3f(x, y, z + 1);
+                layer.vertex(x, y + h, z + w, face, 0, w, h, id, light);
+                layer.vertex(x, y + h, z, face, 1, w, h, id, light);
+                layer.vertex(x, y, z, face, 2, w, h, id, light);
+                layer.vertex(x, y, z + w, face, 3, w, h, id, light);
                 break;
         }
         
-        return vertices;
+        // Two counter-clockwise triangles per quad. The top and bottom corners run the
+        // other way around, so their triangles are flipped to survive back-face culling.
+        IntArrayList indices = layer.indices;
+        if (face <= 1) {
+            indices.add(base);
+            indices.add(base + 2);
+            indices.add(base + 1);
+            indices.add(base);
+            indices.add(base + 3);
+            indices.add(base + 2);
+        } else {
+            indices.add(base);
+            indices.add(base + 1);
+            indices.add(base + 2);
+            indices.add(base);
+            indices.add(base + 2);
+            indices.add(base + 3);
+        }
     }
     
     /**
-     * Creates a mesh from vertex and index data
+     * Determines if a face of blockType should be rendered against neighborType
      */
-    private Mesh createMesh(List<Float> vertices, List<Integer> indices) {
-        if (vertices.isEmpty() || indices.isEmpty()) {
-            return null;
+    private static boolean isFaceVisible(Block.BlockType blockType, Block.BlockType neighborType) {
+        // Always render faces against air
+        if (neighborType == Block.BlockType.AIR) {
+            return true;
         }
         
-        // Convert lists to arrays
-        float[] vertexArray = new float[vertices.size()];
-        for (int i = 0; i < vertices.size(); i++) {
-            vertexArray[i] = vertices.get(i);
+        // Water rendering rules
+        if (blockType == Block.BlockType.WATER) {
+            return neighborType != Block.BlockType.WATER;
         }
         
-        int[] indexArray = new int[indices.size()];
-        for (int i = 0; i < indices.size(); i++) {
-            indexArray[i] = indices.get(i);
+        // Transparent block rendering rules
+        if (blockType.isTransparent()) {
+            return neighborType != blockType && !neighborType.isOpaque();
+        }
+        
+        // Solid block rendering rules
+        return neighborType.isTransparent();
+    }
+    
+    /**
+     * Creates and uploads a mesh from generated geometry
+     */
+    private static Mesh createMesh(MeshGeometry geometry) {
+        if (geometry == null) {
+            return null;
         }
         
         // Create mesh with vertex attributes:
         // Position (3), Normal (3), UV (2), Color (3) = 11 floats per vertex
-        Mesh mesh = new Mesh("ChunkMesh", vertexArray, indexArray);
+        Mesh mesh = new Mesh("ChunkMesh", geometry.vertices, geometry.indices);
         mesh.addAttribute(Mesh.VertexAttribute.position(0, 0));
         mesh.addAttribute(Mesh.VertexAttribute.normal(1, 3 * Float.BYTES));
         mesh.addAttribute(Mesh.VertexAttribute.texCoord(2, 6 * Float.BYTES));
@@ -277,212 +425,66 @@ public class ChunkMeshBuilder {
     }
     
     /**
-     * Optimized mesh generation using greedy meshing algorithm
-     * TODO: Implement for better performance
+     * Optimized mesh generation; {@link #generateMesh()} already merges faces greedily
      */
     public MeshData generateOptimizedMesh() {
-        // For now, use the basic mesh generation
-        // Future optimization: implement greedy meshing to reduce face count
         return generateMesh();
     }
     
     /**
-     * Generates ambient occlusion values for vertices
+     * Growable primitive vertex and index storage for one render layer
      */
-    private float calculateAmbientOcclusion(int x, int y, int z, int face, int vertex) {
-        // Get the face direction and vertex offset
-        int[] faceDir = FACE_DIRECTIONS[face];
-        Vector3f[] faceVertices = getFaceVertices(x, y, z, face);
-        Vector3f vertexPos = faceVertices[vertex];
-        
-        // Calculate the three neighboring positions for this vertex
-        Vector3f[] neighbors = getVertexNeighbors(vertexPos, faceDir);
-        
-        // Check occlusion from the three neighboring blocks
-        int occludedCount = 0;
-        boolean[] occluded = new boolean[3];
-        
-        for (int i = 0; i < 3; i++) {
-            Vector3f neighbor = neighbors[i];
-            int nx = (int) Math.floor(neighbor.x);
-            int ny = (int) Math.floor(neighbor.y);
-            int nz = (int) Math.floor(neighbor.z);
-            
-            Block.BlockType neighborType = chunk.getNeighborBlock(nx, ny, nz);
-            if (neighborType != Block.BlockType.AIR && neighborType.isOpaque()) {
-                occluded[i] = true;
-                occludedCount++;
-            }
-        }
+    private static final class LayerBuffer {
+        final FloatArrayList vertices = new FloatArrayList(16 * 1024);
+        final IntArrayList indices = new IntArrayList(4 * 1024);
         
-        // Calculate ambient occlusion based on neighboring blocks
-        float aoValue = 1.0f;
-        
-        if (occludedCount == 0) {
-            // No occlusion
-            aoValue = 1.0f;
-        } else if (occludedCount == 1) {
-            // Light occlusion
-            aoValue = 0.8f;
-        } else if (occludedCount == 2) {
-            // Medium occlusion
-            aoValue = 0.6f;
-        } else {
-            // Heavy occlusion (corner case)
-            aoValue = 0.4f;
+        int vertexCount() {
+            return vertices.size() / FLOATS_PER_VERTEX;
         }
         
-        // Additional corner darkening for more realistic AO
-        if (occluded[0] && occluded[1] && occluded[2]) {
-            aoValue = 0.2f; // Very dark corners
-        } else if ((occluded[0] && occluded[1]) || (occluded[1] && occluded[2]) || (occluded[0] && occluded[2])) {
-            aoValue = Math.min(aoValue, 0.5f); // Darker edges
+        void vertex(float px, float py, float pz, int face, int corner, int w, int h, int id, float light) {
+            int[] normal = FACE_DIRECTIONS[face];
+            float[] uvs = FACE_UVS[face];
+            vertices.add(px);
+            vertices.add(py);
+            vertices.add(pz);
+            vertices.add(normal[0]);
+            vertices.add(normal[1]);
+            vertices.add(normal[2]);
+            vertices.add(uvs[corner * 2] * w);
+            vertices.add(uvs[corner * 2 + 1] * h);
+            vertices.add(COLORS[id * 3] * light);
+            vertices.add(COLORS[id * 3 + 1] * light);
+            vertices.add(COLORS[id * 3 + 2] * light);
         }
         
-        return aoValue;
-    }
-    
-    /**
-     * Gets the three neighboring block positions for a vertex based on face direction
-     */
-    private Vector3f[] getVertexNeighbors(Vector3f vertexPos, int[] faceDir) {
-        Vector3f[] neighbors = new Vector3f[3];
-        
-        // The three neighbors are along the face normal and the two perpendicular directions
-        Vector3f normal = new Vector3f(faceDir[0], faceDir[1], faceDir[2]);
-        
-        // Get two perpendicular directions to the face normal
-        Vector3f perp1, perp2;
-        if (Math.abs(normal.x) < 0.9f) {
-            perp1 = new Vector3f(1, 0, 0).cross(normal).normalize();
-        } else {
-            perp1 = new Vector3f(0, 1, 0).cross(normal).normalize();
+        MeshGeometry toGeometry() {
+            if (indices.isEmpty()) {
+                return null;
+            }
+            return new MeshGeometry(vertices.toFloatArray(), indices.toIntArray());
         }
-        perp2 = new Vector3f(normal).cross(perp1).normalize();
-        
-        // Calculate neighbor positions
-        neighbors[0] = new Vector3f(vertexPos).add(normal);
-        neighbors[1] = new Vector3f(vertexPos).add(perp1);
-        neighbors[2] = new Vector3f(vertexPos).add(perp2);
         
-        return neighbors;
-    }
-    
-    /**
-     * Gets texture coordinates for a block type and face
-     */
-    private float[] getTextureCoords(Block.BlockType blockType, int face) {
-        // Get the texture atlas from the advanced rendering manager
-        // For now, we'll use a simple mapping system based on block type
-        
-        String textureName = getTextureNameForBlock(blockType, face);
-        
-        // Try to get UV coordinates from texture atlas
-        // If no atlas is available, fall back to default coordinates
-        try {
-            // This would typically get the texture atlas from a renderer or resource manager
-            // For now, we'll implement a basic texture coordinate mapping
-            return getBlockTextureUVs(blockType, face);
-        } catch (Exception e) {
-            // Fall back to default UV coordinates if texture atlas fails
-            return FACE_UVS[face];
+        void clear() {
+            vertices.clear();
+            indices.clear();
         }
     }
     
     /**
-     * Gets the texture name for a specific block type and face
-     */
-    private String getTextureNameForBlock(Block.BlockType blockType, int face) {
-        switch (blockType) {
-            case STONE:
-                return "stone";
-            case DIRT:
-                return "dirt";
-            case GRASS:
-                // Grass has different textures for different faces
-                if (face == 0) return "grass_top";      // Top face
-                if (face == 1) return "dirt";           // Bottom face
-                return "grass_side";                    // Side faces
-            case SAND:
-                return "sand";
-            case WOOD:
-                // Wood has different textures for different faces
-                if (face == 0 || face == 1) return "wood_top";  // Top/bottom faces
-                return "wood_side";                              // Side faces
-            case LEAVES:
-                return "leaves";
-            case WATER:
-                return "water";
-            case IRON_ORE:
-                return "iron_ore";
-            case COAL_ORE:
-                return "coal_ore";
-            case GOLD_ORE:
-                return "gold_ore";
-            case PLANKS:
-                return "planks";
-            case COBBLESTONE:
-                return "cobblestone";
-            case GLOWSTONE:
-                return "glowstone";
-            default:
-                return "stone"; // Default fallback
-        }
-    }
-    
-    /**
-     * Gets UV coordinates for a block type and face using texture atlas mapping
-     */
-    private float[] getBlockTextureUVs(Block.BlockType blockType, int face) {
-        // This is a simplified texture atlas mapping
-        // In a real implementation, this would query the TextureAtlas
-        
-        // Calculate texture coordinates based on a 16x16 texture atlas grid
-        int textureIndex = getTextureIndex(blockType, face);
-        int atlasSize = 16; // 16x16 grid of textures
-        float textureSize = 1.0f / atlasSize;
-        
-        int u = textureIndex % atlasSize;
-        int v = textureIndex / atlasSize;
-        
-        float minU = u * textureSize;
-        float minV = v * textureSize;
-        float maxU = minU + textureSize;
-        float maxV = minV + textureSize;
-        
-        // Return UV coordinates for the four corners of the face
-        return new float[] {
-            minU, minV,  // Bottom-left
-            maxU, minV,  // Bottom-right
-            maxU, maxV,  // Top-right
-            minU, maxV   // Top-left
-        };
-    }
-    
-    /**
-     * Gets the texture index in the atlas for a block type and face
+     * Per-thread scratch space, reused across chunks by the mesh building threads
      */
-    private int getTextureIndex(Block.BlockType blockType, int face) {
-        switch (blockType) {
-            case STONE: return 0;
-            case DIRT: return 1;
-            case GRASS:
-                if (face == 0) return 2;      // Grass top
-                if (face == 1) return 1;      // Dirt bottom
-                return 3;                     // Grass side
-            case SAND: return 4;
-            case WOOD:
-                if (face == 0 || face == 1) return 5;  // Wood top/bottom
-                return 6;                               // Wood side
-            case LEAVES: return 7;
-            case WATER: return 8;
-            case IRON_ORE: return 9;
-            case COAL_ORE: return 10;
-            case GOLD_ORE: return 11;
-            case PLANKS: return 12;
-            case COBBLESTONE: return 13;
-            case GLOWSTONE: return 14;
-            default: return 0; // Default to stone
+    private static final class Workspace {
+        final byte[] blocks = new byte[PADDED_SIZE * PADDED_SIZE * (Chunk.CHUNK_HEIGHT + 2)];
+        final int[] mask = new int[Chunk.CHUNK_SIZE * Chunk.CHUNK_HEIGHT];
+        final LayerBuffer solid = new LayerBuffer();
+        final LayerBuffer transparent = new LayerBuffer();
+        final LayerBuffer water = new LayerBuffer();
+        
+        void reset() {
+            solid.clear();
+            transparent.clear();
+            water.clear();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,451 @@
+package com.odyssey.world;
+
+import com.odyssey.util.Logger;
+import com.odyssey.util.PerformanceProfiler;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Moves loaded chunks through {@link ChunkStage}: generate, populate, light, mesh, upload.
+ *
+ * Every chunk has a target stage. Chunks within render distance aim for UPLOADED; the
+ * rest only go as far as a visible neighbour needs them to, so the ring outside the view
+ * is generated and populated but never lit or meshed. Before a chunk may enter a stage
+ * its eight neighbours must have reached that stage's requirement; a neighbour that is
+ * behind gets its target raised and is queued, so dependencies pull each other along.
+ *
+ * Pending work sits in a queue ordered by distance to the player's chunk, which is
+ * reordered whenever the player crosses into another chunk. Only a bounded number of
+ * tasks are handed to the worker pool at a time, so work for chunks that leave range is
+ * dropped from the queue before it ever runs.
+ *
+ * Everything except the stage tasks themselves runs on the main thread through
+ * {@link #tick(long)}, which is also where meshes are uploaded, within a time budget
+ * per frame through a {@link MeshUploadQueue}.
+ */
+final class ChunkPipeline {
+
+    /** Hooks into the world for the stages that depend on the generator and storage */
+    interface Stages {
+        /**
+         * Loads the chunk from disk or generates its base terrain
+         *
+         * @return the generator's chunk, to be populated next, or null if the chunk came
+         *         from disk already populated, and lit unless it was saved before lighting
+         */
+        WorldChunk generate(Chunk chunk);
+
+        void populate(Chunk chunk, WorldChunk worldChunk);
+
+        /** Links a freshly generated chunk with its loaded neighbours */
+        void linkNeighbors(Chunk chunk);
+
+        /** Saves and frees a chunk whose unload had to wait for its running task */
+        void dispose(Chunk chunk);
+    }
+
+    /** Failed uploads in a row after which a chunk is left unmeshed */
+    static final int MAX_UPLOAD_ATTEMPTS = 3;
+
+    private final Stages stages;
+    private final ExecutorService workers;
+    private final int maxInFlight;
+
+    private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> Long.compare(a.priority, b.priority));
+    private final MeshUploadQueue uploads;
+    private final List<Entry> blocked = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Entry> completed = new ConcurrentLinkedQueue<>();
+
+    private int centerX;
+    private int centerZ;
+    private final int renderDistance;
+    private int inFlight;
+
+    ChunkPipeline(Stages stages, ExecutorService workers, int maxInFlight, int renderDistance,
+                  PerformanceProfiler profiler) {
+        this.stages = stages;
+        this.workers = workers;
+        this.maxInFlight = maxInFlight;
+        this.renderDistance = renderDistance;
+        this.uploads = new MeshUploadQueue(new MeshUploadQueue.Listener() {
+            @Override
+            public void uploaded(Chunk chunk) {
+                ChunkPipeline.this.uploaded(chunk);
+            }
+
+            @Override
+            public void uploadFailed(Chunk chunk) {
+                ChunkPipeline.this.uploadFailed(chunk);
+            }
+        }, profiler);
+    }
+
+    /**
+     * Starts a newly loaded chunk down the pipeline
+     */
+    void add(Chunk chunk) {
+        long key = ChunkIndex.key(chunk.getChunkX(), chunk.getChunkZ());
+        if (entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(chunk);
+        entry.target = targetFor(entry);
+        entry.priority = priority(chunk);
+        entries.put(key, entry);
+        chunk.setStage(ChunkStage.EMPTY);
+        enqueue(entry);
+    }
+
+    /**
+     * Drops a chunk that left range. Queued work is forgotten and a task that hasn't
+     * started is cancelled. Mesh building only reads the chunk, so it may keep running.
+     *
+     * @return true if the chunk can be disposed right away, false if a task is still
+     *         writing to it and {@link Stages#dispose(Chunk)} will be called once it ends
+     */
+    boolean remove(int chunkX, int chunkZ) {
+        Entry entry = entries.remove(ChunkIndex.key(chunkX, chunkZ));
+        if (entry == null) {
+            return true;
+        }
+        entry.removed = true;
+        entry.geometry = null;
+        if (entry.stage == ChunkStage.MESHED) {
+            uploads.remove(entry.chunk);
+        }
+        if (!entry.inFlight) {
+            return true;
+        }
+        if (entry.task.cancel(false)) {
+            entry.inFlight = false;
+            entry.chunk.setGenerating(false);
+            inFlight--;
+            return true;
+        }
+        if (entry.running == ChunkStage.MESHED) {
+            entry.disposed = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Re-centres the pipeline on the player's chunk: visible chunks aim for UPLOADED
+     * again and the queue is reordered by the new distances
+     */
+    void setCenter(int chunkX, int chunkZ) {
+        centerX = chunkX;
+        centerZ = chunkZ;
+
+        queue.clear();
+        for (Entry entry : entries.values()) {
+            entry.priority = priority(entry.chunk);
+            // A target a neighbour raised outside the view is kept
+            if (isVisible(entry.chunk) || entry.target == ChunkStage.UPLOADED) {
+                entry.target = targetFor(entry);
+            }
+            entry.queued = false;
+            enqueue(entry);
+        }
+        uploads.reprioritize(this::priority);
+    }
+
+    /**
+     * Sends a chunk whose blocks changed back to be meshed again
+     */
+    void requestRemesh(int chunkX, int chunkZ) {
+        Entry entry = entries.get(ChunkIndex.key(chunkX, chunkZ));
+        if (entry == null || !entry.stage.isAtLeast(ChunkStage.MESHED)) {
+            // Not meshed yet; the first mesh will include the change
+            return;
+        }
+        if (entry.stage == ChunkStage.MESHED) {
+            // Geometry waiting for upload is already stale
+            uploads.remove(entry.chunk);
+        }
+        setStage(entry, ChunkStage.LIT);
+        enqueue(entry);
+    }
+
+    /**
+     * Collects finished tasks, uploads meshes nearest first for up to uploadBudgetNanos
+     * and hands ready work to the worker pool. Must run on the GL thread.
+     *
+     * @return the number of meshes uploaded
+     */
+    int tick(long uploadBudgetNanos) {
+        Entry done;
+        while ((done = completed.poll()) != null) {
+            complete(done);
+        }
+
+        int uploaded = uploads.process(uploadBudgetNanos);
+        dispatch();
+        return uploaded;
+    }
+
+    private void complete(Entry entry) {
+        entry.inFlight = false;
+        entry.task = null;
+        inFlight--;
+
+        if (entry.removed) {
+            if (!entry.disposed) {
+                stages.dispose(entry.chunk);
+            }
+            return;
+        }
+        if (entry.reached == null) {
+            // The failure was logged by the worker; don't retry in a loop
+            return;
+        }
+
+        ChunkStage from = entry.stage;
+        setStage(entry, entry.reached);
+        if (from == ChunkStage.EMPTY) {
+            stages.linkNeighbors(entry.chunk);
+        }
+        if (entry.stage == ChunkStage.MESHED) {
+            uploads.offer(entry.chunk, entry.geometry, entry.priority);
+            entry.geometry = null;
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    private void uploaded(Chunk chunk) {
+        Entry entry = entries.get(ChunkIndex.key(chunk.getChunkX(), chunk.getChunkZ()));
+        if (entry == null || entry.chunk != chunk) {
+            return;
+        }
+        setStage(entry, ChunkStage.UPLOADED);
+        entry.uploadFailures = 0;
+
+        // Edited while its mesh was being built
+        if (chunk.needsRebuild()) {
+            setStage(entry, ChunkStage.LIT);
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Sends a chunk whose upload failed back to LIT so it is meshed again, giving up after
+     * {@link #MAX_UPLOAD_ATTEMPTS} failures in a row
+     */
+    private void uploadFailed(Chunk chunk) {
+        Entry entry = entries.get(ChunkIndex.key(chunk.getChunkX(), chunk.getChunkZ()));
+        if (entry == null || entry.chunk != chunk) {
+            return;
+        }
+        setStage(entry, ChunkStage.LIT);
+        if (++entry.uploadFailures >= MAX_UPLOAD_ATTEMPTS) {
+            Logger.logError("Giving up on meshing chunk ({}, {}) after {} failed uploads",
+                       chunk.getChunkX(), chunk.getChunkZ(), entry.uploadFailures);
+            return;
+        }
+        enqueue(entry);
+    }
+
+    private void dispatch() {
+        while (inFlight < maxInFlight && !queue.isEmpty()) {
+            Entry entry = queue.poll();
+            entry.queued = false;
+            if (entry.removed || entry.inFlight || entry.stage.isAtLeast(entry.target)) {
+                continue;
+            }
+
+            ChunkStage next = entry.stage.next();
+            if (next == ChunkStage.UPLOADED) {
+                // Uploads happen in tick(), never on a worker
+                continue;
+            }
+            if (!neighborsReady(entry, next.getNeighborRequirement())) {
+                blocked.add(entry);
+                continue;
+            }
+            submit(entry, next);
+        }
+
+        for (Entry entry : blocked) {
+            enqueue(entry);
+        }
+        blocked.clear();
+    }
+
+    /**
+     * Checks the eight neighbours against a stage requirement, pulling any that are
+     * behind towards it
+     */
+    private boolean neighborsReady(Entry entry, ChunkStage requirement) {
+        if (requirement == null) {
+            return true;
+        }
+        int chunkX = entry.chunk.getChunkX();
+        int chunkZ = entry.chunk.getChunkZ();
+        boolean ready = true;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (dx == 0 && dz == 0) {
+                    continue;
+                }
+                Entry neighbor = entries.get(ChunkIndex.key(chunkX + dx, chunkZ + dz));
+                if (neighbor == null) {
+                    // Outside the loaded area; waits until the player comes closer
+                    ready = false;
+                } else if (!neighbor.stage.isAtLeast(requirement)) {
+                    ready = false;
+                    if (!neighbor.target.isAtLeast(requirement)) {
+                        neighbor.target = requirement;
+                    }
+                    enqueue(neighbor);
+                }
+            }
+        }
+        return ready;
+    }
+
+    private void submit(Entry entry, ChunkStage stage) {
+        entry.inFlight = true;
+        entry.running = stage;
+        entry.reached = null;
+        entry.chunk.setGenerating(stage != ChunkStage.MESHED);
+        inFlight++;
+        entry.task = workers.submit(() -> run(entry, stage));
+    }
+
+    /**
+     * Runs one stage on a worker thread
+     */
+    private void run(Entry entry, ChunkStage stage) {
+        Chunk chunk = entry.chunk;
+        try {
+            switch (stage) {
+                case GENERATED: {
+                    WorldChunk worldChunk = stages.generate(chunk);
+                    entry.worldChunk = worldChunk;
+                    // Chunks read from disk are populated, and lit unless saved before lighting
+                    entry.reached = worldChunk != null ? ChunkStage.GENERATED
+                        : chunk.isLit() ? ChunkStage.LIT : ChunkStage.POPULATED;
+                    break;
+                }
+                case POPULATED:
+                    stages.populate(chunk, entry.worldChunk);
+                    entry.worldChunk = null;
+                    entry.reached = ChunkStage.POPULATED;
+                    break;
+                case LIT:
+                    chunk.calculateLighting();
+                    // Drop all-air sections and shrink palettes now that the chunk is settled
+                    chunk.optimizeStorage();
+                    entry.reached = ChunkStage.LIT;
+                    break;
+                case MESHED:
+                    entry.geometry = chunk.buildGeometry();
+                    entry.reached = ChunkStage.MESHED;
+                    break;
+                default:
+                    throw new IllegalStateException("Stage " + stage + " does not run on a worker");
+            }
+        } catch (Exception e) {
+            Logger.logError("Chunk ({}, {}) failed to reach {}: {}",
+                       chunk.getChunkX(), chunk.getChunkZ(), stage, e.getMessage());
+        } finally {
+            chunk.setGenerating(false);
+            completed.add(entry);
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        if (!entry.queued && !entry.inFlight && !entry.removed && !entry.stage.isAtLeast(entry.target)) {
+            entry.queued = true;
+            queue.add(entry);
+        }
+    }
+
+    private void setStage(Entry entry, ChunkStage stage) {
+        entry.stage = stage;
+        entry.chunk.setStage(stage);
+    }
+
+    /**
+     * The stage a chunk aims for on its own account: UPLOADED within the view, otherwise
+     * POPULATED or wherever it already got to. Anything more out of view is only built
+     * if a neighbour pulls it.
+     */
+    private ChunkStage targetFor(Entry entry) {
+        if (isVisible(entry.chunk)) {
+            return ChunkStage.UPLOADED;
+        }
+        return entry.stage.isAtLeast(ChunkStage.POPULATED) ? entry.stage : ChunkStage.POPULATED;
+    }
+
+    private boolean isVisible(Chunk chunk) {
+        long dx = chunk.getChunkX() - centerX;
+        long dz = chunk.getChunkZ() - centerZ;
+        return dx * dx + dz * dz <= (long) renderDistance * renderDistance;
+    }
+
+    private long priority(Chunk chunk) {
+        long dx = chunk.getChunkX() - centerX;
+        long dz = chunk.getChunkZ() - centerZ;
+        return dx * dx + dz * dz;
+    }
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    int getInFlightCount() {
+        return inFlight;
+    }
+
+    int getAwaitingUploadCount() {
+        return uploads.size();
+    }
+
+    /**
+     * Counts tracked chunks per stage
+     */
+    int[] getStageCounts() {
+        int[] counts = new int[ChunkStage.values().length];
+        for (Entry entry : entries.values()) {
+            counts[entry.stage.ordinal()]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Pipeline state for one chunk. Fields are owned by the main thread, except that a
+     * worker writes the results of its task before handing the entry back through
+     * {@link #completed}.
+     */
+    private static final class Entry {
+        final Chunk chunk;
+        ChunkStage stage = ChunkStage.EMPTY;
+        ChunkStage target;
+        long priority;
+        boolean queued;
+        boolean inFlight;
+        boolean removed;
+        boolean disposed;
+        int uploadFailures;
+        Future<?> task;
+        ChunkStage running;
+
+        // Task results
+        ChunkStage reached;
+        WorldChunk worldChunk;
+        ChunkMeshBuilder.GeometryData geometry;
+
+        Entry(Chunk chunk) {
+            this.chunk = chunk;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.odyssey.world;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A 16x16x16 slice of a chunk column.
+ *
+ * Block ids live in a {@link PalettedContainer}; metadata and light are plain byte
+ * arrays that are only allocated once a value differs from the section-wide default.
+ * Sections that contain nothing but air and uniform light are not kept at all by
+ * {@link Chunk}, which is what makes open ocean and sky cheap to hold in memory.
+ */
+public class ChunkSection {
+
+    public static final int SIZE = 16;
+    public static final int VOLUME = SIZE * SIZE * SIZE;
+
+    private static final int AIR_ID = Block.BlockType.AIR.getId();
+
+    // Serialized field tags
+    private static final int TAG_BLOCKS = 1;
+    private static final int TAG_METADATA = 2;
+    private static final int TAG_LIGHT = 3;
+    private static final int TAG_UNIFORM_LIGHT = 4;
+
+    private final PalettedContainer blocks;
+    private byte[] metadata;   // null while every entry is 0
+    private byte[] light;      // null while every entry equals uniformLight
+    private byte uniformLight;
+    private int nonAirCount;
+
+    /**
+     * Creates an all-air section with the given uniform light value
+     */
+    public ChunkSection(byte uniformLight) {
+        this.blocks = new PalettedContainer(AIR_ID);
+        this.uniformLight = uniformLight;
+    }
+
+    private ChunkSection(PalettedContainer blocks, byte[] metadata, byte[] light, byte uniformLight) {
+        this.blocks = blocks;
+        this.metadata = metadata;
+        this.light = light;
+        this.uniformLight = uniformLight;
+
+        // Recount non-air blocks from the loaded palette
+        if (blocks.isSingleValued()) {
+            this.nonAirCount = blocks.get(0) == AIR_ID ? 0 : VOLUME;
+        } else {
+            for (int i = 0; i < VOLUME; i++) {
+                if (blocks.get(i) != AIR_ID) {
+                    nonAirCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts section-local coordinates (0-15 each) to an entry index
+     */
+    public static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    public int getBlockId(int index) {
+        return blocks.get(index);
+    }
+
+    /**
+     * Sets the block id at the given index and returns the previous id
+     */
+    public int setBlockId(int index, int id) {
+        int previous = blocks.set(index, id);
+        if (previous == AIR_ID && id != AIR_ID) {
+            nonAirCount++;
+        } else if (previous != AIR_ID && id == AIR_ID) {
+            nonAirCount--;
+        }
+        return previous;
+    }
+
+    public byte getMetadata(int index) {
+        byte[] current = metadata;
+        return current == null ? 0 : current[index];
+    }
+
+    public void setMetadata(int index, byte meta) {
+        if (metadata == null) {
+            if (meta == 0) {
+                return;
+            }
+            metadata = new byte[VOLUME];
+        }
+        metadata[index] = meta;
+    }
+
+    public byte getLight(int index) {
+        byte[] current = light;
+        return current == null ? uniformLight : current[index];
+    }
+
+    public void setLight(int index, byte value) {
+        if (light == null) {
+            if (value == uniformLight) {
+                return;
+            }
+            byte[] expanded = new byte[VOLUME];
+            Arrays.fill(expanded, uniformLight);
+            light = expanded;
+        }
+        light[index] = value;
+    }
+
+    /**
+     * Resets the whole section to a single light value, releasing the light array
+     */
+    public void fillLight(byte value) {
+        light = null;
+        uniformLight = value;
+    }
+
+    /**
+     * Shrinks the block palette and releases light and metadata arrays whose contents
+     * have become uniform again.
+     */
+    public void compact() {
+        blocks.compact();
+
+        byte[] currentLight = light;
+        if (currentLight != null && isUniform(currentLight)) {
+            uniformLight = currentLight[0];
+            light = null;
+        }
+
+        byte[] currentMeta = metadata;
+        if (currentMeta != null && currentMeta[0] == 0 && isUniform(currentMeta)) {
+            metadata = null;
+        }
+    }
+
+    /**
+     * Checks if this section holds only air with uniform light and no metadata, in
+     * which case the owning chunk can drop it.
+     */
+    public boolean isElidable() {
+        return nonAirCount == 0 && light == null && metadata == null;
+    }
+
+    public boolean isEmpty() { return nonAirCount == 0; }
+    public int getNonAirCount() { return nonAirCount; }
+    public byte getUniformLight() { return uniformLight; }
+    public boolean hasLightArray() { return light != null; }
+    public boolean hasMetadataArray() { return metadata != null; }
+    public PalettedContainer getBlockContainer() { return blocks; }
+
+    /**
+     * Approximate heap footprint of this section in bytes
+     */
+    public long getMemoryFootprint() {
+        long bytes = 32 + blocks.getMemoryFootprint();
+        if (metadata != null) bytes += 16 + VOLUME;
+        if (light != null) bytes += 16 + VOLUME;
+        return bytes;
+    }
+
+    /**
+     * Writes blocks, metadata and light as tagged fields. Metadata is omitted while it
+     * is all zero, and light is written either as the full array or the uniform value.
+     */
+    public void write(BinaryWriter out) {
+        out.writeMessageField(TAG_BLOCKS, blocks::write);
+
+        byte[] currentMeta = metadata;
+        if (currentMeta != null) {
+            out.writeBytesField(TAG_METADATA, currentMeta);
+        }
+
+        byte[] currentLight = light;
+        if (currentLight != null) {
+            out.writeBytesField(TAG_LIGHT, currentLight);
+        } else {
+            out.writeVarIntField(TAG_UNIFORM_LIGHT, uniformLight & 0xFF);
+        }
+    }
+
+    /**
+     * Reads a section previously written with {@link #write(BinaryWriter)}
+     */
+    public static ChunkSection read(BinaryReader in) throws IOException {
+        PalettedContainer blocks = null;
+        byte[] metadata = null;
+        byte[] light = null;
+        byte uniformLight = 0;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case TAG_BLOCKS:
+                    blocks = PalettedContainer.read(in.readMessage());
+                    break;
+                case TAG_METADATA:
+                    metadata = readVolume(in, "metadata");
+                    break;
+                case TAG_LIGHT:
+                    light = readVolume(in, "light");
+                    break;
+                case TAG_UNIFORM_LIGHT:
+                    uniformLight = (byte) in.readVarInt();
+                    break;
+                default:
+                    in.skipField();
+                    break;
+            }
+        }
+
+        if (blocks == null) {
+            throw new IOException("Chunk section has no block data");
+        }
+        return new ChunkSection(blocks, metadata, light, uniformLight);
+    }
+
+    /**
+     * Reads a section in the fixed layout of chunk format version 1: the blocks, then
+     * metadata and light each behind a presence flag, with the uniform light byte in
+     * place of absent light
+     */
+    public static ChunkSection readVersion1(DataInput in) throws IOException {
+        PalettedContainer blocks = PalettedContainer.readVersion1(in);
+
+        byte[] metadata = null;
+        if (in.readBoolean()) {
+            metadata = new byte[VOLUME];
+            in.readFully(metadata);
+        }
+
+        byte[] light = null;
+        byte uniformLight = 0;
+        if (in.readBoolean()) {
+            light = new byte[VOLUME];
+            in.readFully(light);
+        } else {
+            uniformLight = in.readByte();
+        }
+
+        return new ChunkSection(blocks, metadata, light, uniformLight);
+    }
+
+    private static byte[] readVolume(BinaryReader in, String name) throws IOException {
+        byte[] values = in.readBytes();
+        if (values.length != VOLUME) {
+            throw new IOException("Section " + name + " has " + values.length + " entries, expected " + VOLUME);
+        }
+        return values;
+    }
+
+    private static boolean isUniform(byte[] values) {
+        byte first = values[0];
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.odyssey.world;
+
+/**
+ * Steps a chunk goes through between being requested and being drawn, in order.
+ * A chunk only moves on to a stage once its eight neighbours have reached
+ * {@link #getNeighborRequirement()}, so work that looks across chunk borders
+ * never sees a half-built neighbour.
+ */
+public enum ChunkStage {
+    /** Requested, nothing generated yet */
+    EMPTY,
+    /** Base terrain and sea filled in */
+    GENERATED,
+    /** Islands and vegetation placed */
+    POPULATED,
+    /** Skylight and block light settled */
+    LIT,
+    /** Mesh geometry built on a worker, waiting for the GL thread */
+    MESHED,
+    /** Mesh uploaded and drawable */
+    UPLOADED;
+
+    private static final ChunkStage[] VALUES = values();
+
+    /**
+     * Gets the stage after this one, or null for the last stage
+     */
+    public ChunkStage next() {
+        int next = ordinal() + 1;
+        return next < VALUES.length ? VALUES[next] : null;
+    }
+
+    /**
+     * Gets the stage every neighbouring chunk must have reached before a chunk may enter
+     * this one, or null if the stage doesn't depend on neighbours
+     */
+    public ChunkStage getNeighborRequirement() {
+        switch (this) {
+            case POPULATED:
+                // Features may read neighbouring terrain
+                return GENERATED;
+            case LIT:
+            case MESHED:
+                // Light and face culling read neighbouring blocks, which must be final
+                return POPULATED;
+            default:
+                return null;
+        }
+    }
+
+    public boolean isAtLeast(ChunkStage stage) {
+        return ordinal() >= stage.ordinal();
+    }
+}
@@ -9,6 +9,7 @@ import org.joml.Vector2f;
 import org.joml.Vector3f;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Island generator - creates procedural islands with varied terrain, biomes, and structures
@@ -26,7 +27,11 @@ public class IslandGenerator {
     
     // Island configuration
     private final IslandConfig config;
-    private final Random random;
+    private final long seed;
+    
+    // Each island is generated from its own seed, so islands come out the same
+    // whichever thread builds them and in whatever order
+    private final ThreadLocal<Random> random = ThreadLocal.withInitial(Random::new);
     
     // Generation cache
     private final Map<Vector2f, Island> islandCache;
@@ -35,9 +40,9 @@ public class IslandGenerator {
     public IslandGenerator(long seed, IslandConfig config) {
         this.logger = Logger.getLogger(IslandGenerator.class);
         this.config = config;
-        this.random = new Random(seed);
-        this.islandCache = new HashMap<>();
-        this.islandDataCache = new HashMap<>();
+        this.seed = seed;
+        this.islandCache = new ConcurrentHashMap<>();
+        this.islandDataCache = new ConcurrentHashMap<>();
         
         // Initialize noise generators with different seeds
         this.heightNoise = new NoiseGenerator(seed);
@@ -55,13 +60,17 @@ public class IslandGenerator {
         Vector2f key = new Vector2f(worldX, worldZ);
         
         // Check cache first
-        if (islandCache.containsKey(key)) {
-            return islandCache.get(key);
+        Island cached = islandCache.get(key);
+        if (cached != null) {
+            return cached;
         }
         
-        // Generate new island
+        // Generate new island; a racing thread builds an identical one
         Island island = createIsland(worldX, worldZ, type);
-        islandCache.put(key, island);
+        cached = islandCache.putIfAbsent(key, island);
+        if (cached != null) {
+            return cached;
+        }
         
         logger.debug(Logger.WORLD, "Generated {} island at ({}, {})", type.getDisplayName(), worldX, worldZ);
         
@@ -74,14 +83,14 @@ public class IslandGenerator {
     public IslandData getIslandData(float worldX, float worldZ) {
         Vector2f key = new Vector2f(worldX, worldZ);
         
-        if (islandDataCache.containsKey(key)) {
-            return islandDataCache.get(key);
+        IslandData cached = islandDataCache.get(key);
+        if (cached != null) {
+            return cached;
         }
         
         IslandData data = generateIslandData(worldX, worldZ);
-        islandDataCache.put(key, data);
-        
-        return data;
+        cached = islandDataCache.putIfAbsent(key, data);
+        return cached != null ? cached : data;
     }
     
     /**
@@ -129,6 +138,8 @@ public class IslandGenerator {
     }
     
     private Island createIsland(float worldX, float worldZ, IslandType type) {
+        random.get().setSeed(seed ^ (Float.floatToIntBits(worldX) * 341873128712L
+                                     + Float.floatToIntBits(worldZ) * 132897987541L));
         Island island = new Island(worldX, worldZ, type);
         
         // Generate island shape and heightmap
@@ -360,8 +371,8 @@ public class IslandGenerator {
                     float caveChance = caveNoise.sample(worldX * 0.02f, worldZ * 0.02f);
                     
                     if (caveChance > 0.7f) {
-                        int depth = (int)(random.nextFloat() * 10 + 5);
-                        int roomCount = (int)(random.nextFloat() * 5 + 3);
+                        int depth = (int)(random.get().nextFloat() * 10 + 5);
+                        int roomCount = (int)(random.get().nextFloat() * 5 + 3);
                         CaveFeature cave = new CaveFeature(worldX, height - 5, worldZ, depth, roomCount);
                         features.add(cave);
                     }
@@ -377,16 +388,16 @@ public class IslandGenerator {
         List<OreType> availableOres = getAvailableOres(type);
         
         for (OreType oreType : availableOres) {
-            int depositCount = random.nextInt(oreType.getMaxDeposits()) + 1;
+            int depositCount = random.get().nextInt(oreType.getMaxDeposits()) + 1;
             
             for (int i = 0; i < depositCount; i++) {
-                float x = island.getCenterX() + (random.nextFloat() - 0.5f) * type.getRadius();
-                float z = island.getCenterZ() + (random.nextFloat() - 0.5f) * type.getRadius();
-                float y = getHeightAt(island, x, z) - random.nextFloat() * 20;
+                float x = island.getCenterX() + (random.get().nextFloat() - 0.5f) * type.getRadius();
+                float z = island.getCenterZ() + (random.get().nextFloat() - 0.5f) * type.getRadius();
+                float y = getHeightAt(island, x, z) - random.get().nextFloat() * 20;
                 
                 if (y > -10) { // Don't place ores too deep underwater
                     OreDeposit.DepositType depositType = OreDeposit.DepositType.SHALLOW_VEIN;
-                    if (random.nextFloat() < 0.3f) {
+                    if (random.get().nextFloat() < 0.3f) {
                         depositType = OreDeposit.DepositType.DEEP_VEIN;
                     }
                     OreDeposit deposit = new OreDeposit(x, y, z, depositType, oreType);
@@ -413,7 +424,7 @@ public class IslandGenerator {
                         float worldZ = island.getCenterZ() - island.getType().getRadius() + z;
                         
                         SpringFeature.SpringType springType = SpringFeature.SpringType.NATURAL;
-                        if (random.nextFloat() < 0.2f) {
+                        if (random.get().nextFloat() < 0.2f) {
                             springType = SpringFeature.SpringType.HOT_SPRING;
                         }
                         SpringFeature spring = new SpringFeature(worldX, height, worldZ, springType);
@@ -447,23 +458,23 @@ public class IslandGenerator {
             island.getType().getRadius() * 0.1f,
             10.0f
         );
-        crater.setActivityLevel(random.nextFloat() < 0.3f ? 
+        crater.setActivityLevel(random.get().nextFloat() < 0.3f ? 
             VolcanicCrater.ActivityLevel.ACTIVE : VolcanicCrater.ActivityLevel.DORMANT);
         features.add(crater);
         
         // Lava tubes
-        int tubeCount = random.nextInt(3) + 1;
+        int tubeCount = random.get().nextInt(3) + 1;
         for (int i = 0; i < tubeCount; i++) {
-            float angle = random.nextFloat() * (float) Math.PI * 2;
-            float distance = random.nextFloat() * island.getType().getRadius() * 0.5f;
+            float angle = random.get().nextFloat() * (float) Math.PI * 2;
+            float distance = random.get().nextFloat() * island.getType().getRadius() * 0.5f;
             
             float x = island.getCenterX() + (float) Math.cos(angle) * distance;
             float z = island.getCenterZ() + (float) Math.sin(angle) * distance;
             float y = getHeightAt(island, x, z);
             
-            float length = random.nextFloat() * 50 + 20;
-            float width = random.nextFloat() * 3 + 2;
-            float height = random.nextFloat() * 2 + 1.5f;
+            float length = random.get().nextFloat() * 50 + 20;
+            float width = random.get().nextFloat() * 3 + 2;
+            float height = random.get().nextFloat() * 2 + 1.5f;
             LavaTube tube = new LavaTube(x, y, z, length, width, height);
             features.add(tube);
         }
@@ -476,16 +487,16 @@ public class IslandGenerator {
         int reefPoints = 20;
         for (int i = 0; i < reefPoints; i++) {
             float angle = (float) i / reefPoints * (float) Math.PI * 2;
-            float reefRadius = radius * (0.7f + random.nextFloat() * 0.2f);
+            float reefRadius = radius * (0.7f + random.get().nextFloat() * 0.2f);
             
             float x = island.getCenterX() + (float) Math.cos(angle) * reefRadius;
             float z = island.getCenterZ() + (float) Math.sin(angle) * reefRadius;
             
             CoralReef.ReefType reefType = CoralReef.ReefType.BARRIER_REEF;
-            if (random.nextFloat() < 0.3f) {
+            if (random.get().nextFloat() < 0.3f) {
                 reefType = CoralReef.ReefType.ATOLL_REEF;
             }
-            float depth = random.nextFloat() * 5 + 2;
+            float depth = random.get().nextFloat() * 5 + 2;
             CoralReef reef = new CoralReef(x, -1, z, reefType, depth);
             features.add(reef);
         }
@@ -515,12 +526,12 @@ public class IslandGenerator {
         // Larger islands more likely to have ruins
         float ruinChance = type.getRadius() / 100.0f;
         
-        if (random.nextFloat() < ruinChance) {
+        if (random.get().nextFloat() < ruinChance) {
             // Find suitable location (flat area above sea level)
             Vector3f location = findSuitableStructureLocation(island, 10.0f, 0.5f);
             
             if (location != null) {
-                StructureType ruinType = random.nextBoolean() ? 
+                StructureType ruinType = random.get().nextBoolean() ? 
                     StructureType.TEMPLE : StructureType.ANCIENT_RUINS;
                 
                 Structure ruin;
@@ -536,7 +547,7 @@ public class IslandGenerator {
     
     private void generatePirateHideouts(Island island, List<Structure> structures) {
         // Small chance for pirate hideout
-        if (random.nextFloat() < 0.15f) {
+        if (random.get().nextFloat() < 0.15f) {
             Vector3f location = findSuitableStructureLocation(island, 5.0f, 0.3f);
             
             if (location != null) {
@@ -548,10 +559,10 @@ public class IslandGenerator {
     
     private void generateTreasureLocations(Island island, List<Structure> structures) {
         // Multiple possible treasure locations per island
-        int treasureCount = random.nextInt(3) + 1;
+        int treasureCount = random.get().nextInt(3) + 1;
         
         for (int i = 0; i < treasureCount; i++) {
-            if (random.nextFloat() < 0.3f) { // 30% chance per location
+            if (random.get().nextFloat() < 0.3f) { // 30% chance per location
                 Vector3f location = findRandomLocation(island);
                 
                 if (location != null) {
@@ -566,7 +577,7 @@ public class IslandGenerator {
         IslandType type = island.getType();
         
         // Generate lighthouse on coastal areas
-        if (type.getRadius() > 50 && random.nextFloat() < 0.4f) {
+        if (type.getRadius() > 50 && random.get().nextFloat() < 0.4f) {
             Vector3f coastalLocation = findCoastalLocation(island);
             
             if (coastalLocation != null) {
@@ -576,7 +587,7 @@ public class IslandGenerator {
         }
         
         // Generate watchtower on high points
-        if (type.getMaxHeight() > 30 && random.nextFloat() < 0.3f) {
+        if (type.getMaxHeight() > 30 && random.get().nextFloat() < 0.3f) {
             Vector3f highLocation = findHighestLocation(island);
             
             if (highLocation != null) {
@@ -714,8 +725,8 @@ public class IslandGenerator {
         int size = island.getSize();
         
         for (int attempt = 0; attempt < 50; attempt++) {
-            int x = random.nextInt(size - 20) + 10;
-            int z = random.nextInt(size - 20) + 10;
+            int x = random.get().nextInt(size - 20) + 10;
+            int z = random.get().nextInt(size - 20) + 10;
             
             float height = heightmap[x][z];
             
@@ -735,8 +746,8 @@ public class IslandGenerator {
     }
     
     private Vector3f findRandomLocation(Island island) {
-        float angle = random.nextFloat() * (float) Math.PI * 2;
-        float distance = random.nextFloat() * island.getType().getRadius() * 0.8f;
+        float angle = random.get().nextFloat() * (float) Math.PI * 2;
+        float distance = random.get().nextFloat() * island.getType().getRadius() * 0.8f;
         
         float x = island.getCenterX() + (float) Math.cos(angle) * distance;
         float z = island.getCenterZ() + (float) Math.sin(angle) * distance;
@@ -753,8 +764,8 @@ public class IslandGenerator {
         float radius = island.getType().getRadius();
         
         for (int attempt = 0; attempt < 20; attempt++) {
-            float angle = random.nextFloat() * (float) Math.PI * 2;
-            float distance = radius * (0.8f + random.nextFloat() * 0.15f);
+            float angle = random.get().nextFloat() * (float) Math.PI * 2;
+            float distance = radius * (0.8f + random.get().nextFloat() * 0.15f);
             
             float x = island.getCenterX() + (float) Math.cos(angle) * distance;
             float z = island.getCenterZ() + (float) Math.sin(angle) * distance;
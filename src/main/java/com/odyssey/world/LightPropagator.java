@@ -0,0 +1,306 @@
+package com.odyssey.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Flood-fills one light channel across loaded chunks, one chunk column at a time.
+ *
+ * Pending entries are bucketed by the chunk they land in. Each round drains every
+ * non-empty bucket in parallel, and a drain only ever reads and writes its own chunk:
+ * light that crosses a chunk border is parked in the region's outbox instead. Between
+ * rounds the outboxes are exchanged into the neighbouring buckets on the calling
+ * thread. Light fades out within 15 blocks, so even a fresh 17x17 chunk area settles in
+ * a handful of rounds.
+ *
+ * Not thread-safe; one propagation runs at a time. {@link #propagateWithin} lights a
+ * single chunk without an instance and may run on any number of workers at once.
+ */
+final class LightPropagator {
+
+    private static final int[] DX = {-1, 1, 0, 0, 0, 0};
+    private static final int[] DY = {0, 0, -1, 1, 0, 0};
+    private static final int[] DZ = {0, 0, 0, 0, -1, 1};
+
+    /** Regions with fewer pending entries than this are not worth forking for */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private static final int[] OPACITY;
+    static {
+        Block.BlockType[] types = Block.BlockType.values();
+        int maxId = 0;
+        for (Block.BlockType type : types) {
+            maxId = Math.max(maxId, type.getId());
+        }
+        OPACITY = new int[maxId + 1];
+        for (Block.BlockType type : types) {
+            // Every step costs at least one level, even through air
+            OPACITY[type.getId()] = Math.max(1, LightingEngine.getBlockOpacity(type));
+        }
+    }
+
+    private final ChunkIndex chunks;
+    private final ForkJoinPool pool;
+    private final Long2ObjectOpenHashMap<Region> regions = new Long2ObjectOpenHashMap<>();
+    private final List<Region> active = new ArrayList<>();
+
+    LightPropagator(ChunkIndex chunks, ForkJoinPool pool) {
+        this.chunks = chunks;
+        this.pool = pool;
+    }
+
+    /**
+     * Queues light arriving at a block with the given level before the block's own
+     * opacity is applied. Entries for unloaded chunks are dropped.
+     */
+    void enqueue(int x, int y, int z, int level) {
+        if (y < 0 || y >= Chunk.CHUNK_HEIGHT || level <= 1) {
+            return;
+        }
+        Region region = regionFor(x >> 4, z >> 4);
+        if (region != null) {
+            region.queue.offer(LightQueue.pack(x, y, z, level));
+        }
+    }
+
+    /**
+     * Queues the six neighbours of a lit block, spreading its level outward
+     */
+    void spread(int x, int y, int z, int level) {
+        for (int i = 0; i < 6; i++) {
+            enqueue(x + DX[i], y + DY[i], z + DZ[i], level);
+        }
+    }
+
+    /**
+     * Runs rounds until no light is left to move
+     *
+     * @return the number of rounds it took
+     */
+    int propagate(int channel) {
+        int rounds = 0;
+        while (true) {
+            active.clear();
+            int pending = 0;
+            for (Region region : regions.values()) {
+                if (!region.queue.isEmpty()) {
+                    active.add(region);
+                    pending += region.queue.size();
+                }
+            }
+            if (active.isEmpty()) {
+                break;
+            }
+
+            rounds++;
+            if (active.size() == 1 || pending < PARALLEL_THRESHOLD) {
+                for (Region region : active) {
+                    region.drain(channel);
+                }
+            } else {
+                forEach(active, region -> region.drain(channel));
+            }
+
+            // Border exchange
+            for (Region region : active) {
+                LightQueue outbox = region.outbox;
+                while (!outbox.isEmpty()) {
+                    long entry = outbox.poll();
+                    enqueue(LightQueue.x(entry), LightQueue.y(entry), LightQueue.z(entry), LightQueue.level(entry));
+                }
+            }
+        }
+        regions.clear();
+        return rounds;
+    }
+
+    /**
+     * Runs an action for every item on the pool, splitting the list in halves
+     */
+    <T> void forEach(List<T> items, Consumer<T> action) {
+        if (items.size() <= 1) {
+            items.forEach(action);
+            return;
+        }
+        pool.invoke(new ForEachTask<>(items, 0, items.size(), action));
+    }
+
+    private Region regionFor(int chunkX, int chunkZ) {
+        long key = ChunkIndex.key(chunkX, chunkZ);
+        Region region = regions.get(key);
+        if (region == null) {
+            Chunk chunk = chunks.get(chunkX, chunkZ);
+            if (chunk == null) {
+                return null;
+            }
+            region = new Region(chunk, new LightQueue(64));
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    /**
+     * Spreads the light already set in one chunk through the rest of that chunk, for the
+     * pipeline's LIT stage. Every block brighter than an open neighbour by more than one
+     * level is a source. Light stops at the chunk's edge, since the neighbouring chunks
+     * may be in another stage on other workers.
+     *
+     * @param topY the height from which the chunk is uniformly lit and needs no sources
+     */
+    static void propagateWithin(Chunk chunk, int channel, int topY) {
+        Region region = new Region(chunk, null);
+        int baseX = chunk.getChunkX() << 4;
+        int baseZ = chunk.getChunkZ() << 4;
+        // The lowest uniformly lit row still lights the blocks beneath it
+        int maxY = Math.min(topY, Chunk.CHUNK_HEIGHT - 1);
+
+        for (int y = 0; y <= maxY; y++) {
+            int section = y >> 4;
+            if (chunk.getSection(section) == null && chunk.getElidedSectionLight(section) == 0) {
+                y |= 15;
+                continue;
+            }
+            for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    int level = getLight(chunk, channel, x, y, z);
+                    if (level > 1 && hasDarkerNeighbor(chunk, channel, x, y, z, level - 1)) {
+                        region.spread(baseX + x, y, baseZ + z, level);
+                    }
+                }
+            }
+        }
+        region.drain(channel);
+    }
+
+    /**
+     * Checks whether a neighbour inside the chunk that light can enter is below the given level
+     */
+    private static boolean hasDarkerNeighbor(Chunk chunk, int channel, int x, int y, int z, int level) {
+        for (int i = 0; i < 6; i++) {
+            int nx = x + DX[i];
+            int ny = y + DY[i];
+            int nz = z + DZ[i];
+            if (nx < 0 || nx >= Chunk.CHUNK_SIZE || ny < 0 || ny >= Chunk.CHUNK_HEIGHT
+                    || nz < 0 || nz >= Chunk.CHUNK_SIZE) {
+                continue;
+            }
+            if (OPACITY[chunk.getBlock(nx, ny, nz).getId()] < LightingEngine.MAX_LIGHT_LEVEL
+                    && getLight(chunk, channel, nx, ny, nz) < level) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int getLight(Chunk chunk, int channel, int x, int y, int z) {
+        return channel == LightingEngine.SUNLIGHT ? chunk.getSunlight(x, y, z) : chunk.getBlocklight(x, y, z);
+    }
+
+    static void setLight(Chunk chunk, int channel, int x, int y, int z, int level) {
+        if (channel == LightingEngine.SUNLIGHT) {
+            chunk.setSunlight(x, y, z, level);
+        } else {
+            chunk.setBlocklight(x, y, z, level);
+        }
+    }
+
+    /**
+     * Pending light for one chunk column. Only the thread draining it touches the chunk.
+     * Without an outbox, light leaving the chunk is dropped.
+     */
+    private static final class Region {
+        final Chunk chunk;
+        final LightQueue queue = new LightQueue(256);
+        final LightQueue outbox;
+
+        Region(Chunk chunk, LightQueue outbox) {
+            this.chunk = chunk;
+            this.outbox = outbox;
+        }
+
+        /**
+         * Queues the neighbours of a lit block that lie in this chunk
+         */
+        void spread(int x, int y, int z, int level) {
+            int chunkX = chunk.getChunkX();
+            int chunkZ = chunk.getChunkZ();
+            for (int i = 0; i < 6; i++) {
+                int nx = x + DX[i];
+                int ny = y + DY[i];
+                int nz = z + DZ[i];
+                if (ny >= 0 && ny < Chunk.CHUNK_HEIGHT && (nx >> 4) == chunkX && (nz >> 4) == chunkZ) {
+                    queue.offer(LightQueue.pack(nx, ny, nz, level));
+                }
+            }
+        }
+
+        void drain(int channel) {
+            int chunkX = chunk.getChunkX();
+            int chunkZ = chunk.getChunkZ();
+            int baseX = chunkX << 4;
+            int baseZ = chunkZ << 4;
+
+            while (!queue.isEmpty()) {
+                long entry = queue.poll();
+                int x = LightQueue.x(entry);
+                int y = LightQueue.y(entry);
+                int z = LightQueue.z(entry);
+                int localX = x - baseX;
+                int localZ = z - baseZ;
+
+                int level = LightQueue.level(entry) - OPACITY[chunk.getBlock(localX, y, localZ).getId()];
+                if (level <= getLight(chunk, channel, localX, y, localZ)) {
+                    continue;
+                }
+                setLight(chunk, channel, localX, y, localZ, level);
+                if (level <= 1) {
+                    continue;
+                }
+
+                for (int i = 0; i < 6; i++) {
+                    int nx = x + DX[i];
+                    int ny = y + DY[i];
+                    int nz = z + DZ[i];
+                    if (ny < 0 || ny >= Chunk.CHUNK_HEIGHT) {
+                        continue;
+                    }
+                    long next = LightQueue.pack(nx, ny, nz, level);
+                    if ((nx >> 4) == chunkX && (nz >> 4) == chunkZ) {
+                        queue.offer(next);
+                    } else if (outbox != null) {
+                        outbox.offer(next);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class ForEachTask<T> extends RecursiveAction {
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final Consumer<T> action;
+
+        ForEachTask(List<T> items, int from, int to, Consumer<T> action) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(items.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachTask<>(items, from, mid, action), new ForEachTask<>(items, mid, to, action));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.odyssey.world;
+
+/**
+ * FIFO ring buffer of light propagation entries, each packed into a single {@code long}.
+ *
+ * An entry holds world block coordinates and a light level:
+ * x in the top 26 bits, z in the next 26, then 8 bits of y and 4 bits of level.
+ * That covers every y in a chunk column and x/z up to 33 million blocks from the origin,
+ * and lets a flood fill of a whole chunk area run without allocating a node per step.
+ */
+final class LightQueue {
+
+    private long[] entries;
+    private int head;
+    private int size;
+
+    LightQueue(int initialCapacity) {
+        entries = new long[Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1)];
+    }
+
+    static long pack(int x, int y, int z, int level) {
+        return ((long) x << 38) | (((long) z & 0x3FFFFFFL) << 12) | ((y & 0xFF) << 4) | (level & 0xF);
+    }
+
+    static int x(long entry) {
+        return (int) (entry >> 38);
+    }
+
+    static int z(long entry) {
+        return (int) ((entry << 26) >> 38);
+    }
+
+    static int y(long entry) {
+        return (int) (entry >>> 4) & 0xFF;
+    }
+
+    static int level(long entry) {
+        return (int) entry & 0xF;
+    }
+
+    void offer(long entry) {
+        if (size == entries.length) {
+            grow();
+        }
+        entries[(head + size) & (entries.length - 1)] = entry;
+        size++;
+    }
+
+    long poll() {
+        long entry = entries[head];
+        head = (head + 1) & (entries.length - 1);
+        size--;
+        return entry;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        long[] grown = new long[entries.length * 2];
+        int firstPart = Math.min(size, entries.length - head);
+        System.arraycopy(entries, head, grown, 0, firstPart);
+        System.arraycopy(entries, 0, grown, firstPart, size - firstPart);
+        entries = grown;
+        head = 0;
+    }
+}
@@ -3,21 +3,32 @@ package com.odyssey.world;
 import com.odyssey.util.Logger;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Handles dynamic lighting calculations for the voxel world.
  * Manages sunlight propagation, block light sources, and underwater lighting effects.
+ *
+ * Block light spreads through a {@link LightPropagator}, which floods each chunk column
+ * on its own fork-join worker and hands light that crosses chunk borders to the
+ * neighbouring column between rounds. Queue entries are packed longs, so lighting a
+ * freshly loaded area allocates per chunk rather than per block.
  */
 public class LightingEngine {
     
     private final World world;
     private final Logger logger; // Added logger instance
     private final ConcurrentMap<ChunkCoordinate, LightUpdateTask> pendingUpdates;
-    private final Queue<LightNode> lightQueue;
-    private final Queue<LightNode> removalQueue;
+    private final ForkJoinPool lightingPool;
+    private final LightPropagator blockLight;
+    private final LightQueue removalQueue;
     
     // Light levels (0-15, where 15 is brightest)
     public static final int MAX_LIGHT_LEVEL = 15;
@@ -35,8 +46,9 @@ public class LightingEngine {
         this.world = world;
         this.logger = Logger.getLogger(LightingEngine.class); // Initialize logger
         this.pendingUpdates = new ConcurrentHashMap<>();
-        this.lightQueue = new ArrayDeque<>();
-        this.removalQueue = new ArrayDeque<>();
+        this.lightingPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        this.blockLight = new LightPropagator(world.getChunkIndex(), lightingPool);
+        this.removalQueue = new LightQueue(256);
         
         logger.debug(Logger.WORLD, "Initialized lighting engine");
     }
@@ -53,11 +65,9 @@ public class LightingEngine {
         }
         pendingUpdates.clear();
         
-        // Process light propagation queue
-        processLightQueue();
-        
-        // Process light removal queue
+        // Darken first, then relight from whatever light is left at the edges
         processRemovalQueue();
+        blockLight.propagate(BLOCKLIGHT);
     }
     
     /**
@@ -67,16 +77,55 @@ public class LightingEngine {
         logger.debug(Logger.WORLD, "Calculating initial lighting for chunk ({}, {})", 
                     chunk.getChunkX(), chunk.getChunkZ());
         
-        // Calculate sunlight from top down
-        calculateSunlight(chunk);
-        
-        // Calculate block light from light sources
-        calculateBlockLight(chunk);
+        calculateInitialLighting(Collections.singletonList(chunk));
         
         // Propagate light to neighboring chunks if needed
         scheduleNeighborUpdates(chunk);
     }
     
+    /**
+     * Calculates initial lighting for a batch of freshly loaded chunks, such as the area
+     * around the player on spawn. Sunlight columns and light source scans run per chunk
+     * in parallel, then block light floods across all of them at once.
+     */
+    public void calculateInitialLighting(Collection<Chunk> chunks) {
+        long start = System.nanoTime();
+        List<Chunk> batch = new ArrayList<>(chunks);
+        List<LightQueue> sources = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            sources.add(new LightQueue(64));
+        }
+        
+        List<Integer> indices = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            indices.add(i);
+        }
+        blockLight.forEach(indices, i -> {
+            Chunk chunk = batch.get(i);
+            calculateSunlight(chunk);
+            findLightSources(chunk, sources.get(i));
+        });
+        
+        for (LightQueue queue : sources) {
+            while (!queue.isEmpty()) {
+                long source = queue.poll();
+                blockLight.spread(LightQueue.x(source), LightQueue.y(source), LightQueue.z(source),
+                                  LightQueue.level(source));
+            }
+        }
+        int rounds = blockLight.propagate(BLOCKLIGHT);
+        
+        logger.debug(Logger.WORLD, "Lit {} chunks in {} rounds ({} ms)", batch.size(), rounds,
+                    (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Shuts down the lighting worker threads
+     */
+    public void shutdown() {
+        lightingPool.shutdown();
+    }
+    
     /**
      * Schedules a light update for when a block changes
      */
@@ -185,211 +234,124 @@ public class LightingEngine {
     }
     
     /**
-     * Calculates sunlight for a single column
+     * Calculates sunlight for a single column. Everything from the column height up sees
+     * the sky unobstructed, so blocks are only read below it.
      */
     private void calculateSunlightColumn(Chunk chunk, int x, int z) {
         int lightLevel = currentSunlightLevel;
+        int height = chunk.getHeight(x, z);
         
-        // Start from top and work down
-        for (int y = Chunk.CHUNK_HEIGHT - 1; y >= 0; y--) {
-            Block.BlockType block = chunk.getBlock(x, y, z);
-            
-            // Set current light level
+        for (int y = Chunk.CHUNK_HEIGHT - 1; y >= height; y--) {
             chunk.setSunlight(x, y, z, lightLevel);
-            
-            // Reduce light based on block opacity
-            if (block != Block.BlockType.AIR) {
-                int opacity = getBlockOpacity(block);
-                lightLevel = Math.max(0, lightLevel - opacity);
-                
-                // Special case for water - reduces light gradually
-                if (block == Block.BlockType.WATER) {
-                    lightLevel = Math.max(0, lightLevel - 1);
-                }
-            }
+        }
+        
+        // Work down from the highest block
+        for (int y = height - 1; y >= 0; y--) {
+            chunk.setSunlight(x, y, z, lightLevel);
+            lightLevel = attenuateSunlight(lightLevel, chunk.getBlock(x, y, z));
         }
     }
     
     /**
-     * Calculates block light from light sources
+     * Updates the sunlight below a changed block. The old and new column are walked side
+     * by side from the change down, and the walk ends as soon as they agree again, so
+     * only the span the change shadows or uncovers is rewritten.
      */
-    private void calculateBlockLight(Chunk chunk) {
-        // First pass: find all light sources
-        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
-            for (int y = 0; y < Chunk.CHUNK_HEIGHT; y++) {
+    private void updateSunlightColumn(Chunk chunk, int x, int y, int z, Block.BlockType oldBlock, Block.BlockType newBlock) {
+        int arriving = chunk.getSunlight(x, y, z);
+        int oldLevel = attenuateSunlight(arriving, oldBlock);
+        int newLevel = attenuateSunlight(arriving, newBlock);
+        
+        for (int below = y - 1; below >= 0 && oldLevel != newLevel; below--) {
+            chunk.setSunlight(x, below, z, newLevel);
+            Block.BlockType block = chunk.getBlock(x, below, z);
+            oldLevel = attenuateSunlight(oldLevel, block);
+            newLevel = attenuateSunlight(newLevel, block);
+        }
+    }
+    
+    /**
+     * Reduces sunlight passing down through a block
+     */
+    private static int attenuateSunlight(int lightLevel, Block.BlockType block) {
+        if (block == Block.BlockType.AIR) {
+            return lightLevel;
+        }
+        lightLevel = Math.max(0, lightLevel - getBlockOpacity(block));
+        
+        // Special case for water - reduces light gradually
+        if (block == Block.BlockType.WATER) {
+            lightLevel = Math.max(0, lightLevel - 1);
+        }
+        return lightLevel;
+    }
+    
+    /**
+     * Sets block light at every light source in a chunk and collects the sources for
+     * propagation. Touches only the given chunk, so chunks can be scanned in parallel.
+     */
+    private void findLightSources(Chunk chunk, LightQueue sources) {
+        int baseX = chunk.getChunkX() * Chunk.CHUNK_SIZE;
+        int baseZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE;
+        for (int y = 0; y < Chunk.CHUNK_HEIGHT; y++) {
+            if (chunk.isSectionEmpty(y >> 4)) {
+                y |= 15;
+                continue;
+            }
+            for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
                 for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                    Block.BlockType block = chunk.getBlock(x, y, z);
-                    int lightEmission = getBlockLightEmission(block);
-                    
+                    int lightEmission = getBlockLightEmission(chunk.getBlock(x, y, z));
                     if (lightEmission > 0) {
                         chunk.setBlocklight(x, y, z, lightEmission);
-                        
-                        // Add to propagation queue
-                        int worldX = chunk.getChunkX() * Chunk.CHUNK_SIZE + x;
-                        int worldZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE + z;
-                        lightQueue.offer(new LightNode(worldX, y, worldZ, lightEmission, BLOCKLIGHT));
+                        sources.offer(LightQueue.pack(baseX + x, y, baseZ + z, lightEmission));
                     }
                 }
             }
         }
-        
-        // Second pass: propagate light
-        propagateBlockLight();
     }
     
     /**
-     * Propagates block light from sources
+     * Processes the light removal queue. Each entry is a block whose light was just
+     * cleared, with the level it used to have. Dimmer neighbours were lit by it and are
+     * cleared in turn; brighter or equal ones have another source and are relit from.
      */
-    private void propagateBlockLight() {
+    private void processRemovalQueue() {
         int[] dx = {-1, 1, 0, 0, 0, 0};
         int[] dy = {0, 0, -1, 1, 0, 0};
         int[] dz = {0, 0, 0, 0, -1, 1};
+        ChunkIndex chunks = world.getChunkIndex();
         
-        while (!lightQueue.isEmpty()) {
-            LightNode node = lightQueue.poll();
-            
-            if (node.lightLevel <= 1) {
-                continue;
-            }
+        while (!removalQueue.isEmpty()) {
+            long node = removalQueue.poll();
+            int x = LightQueue.x(node);
+            int y = LightQueue.y(node);
+            int z = LightQueue.z(node);
+            int lightLevel = LightQueue.level(node);
             
-            // Propagate to all 6 neighbors
             for (int i = 0; i < 6; i++) {
-                int nx = node.x + dx[i];
-                int ny = node.y + dy[i];
-                int nz = node.z + dz[i];
+                int nx = x + dx[i];
+                int ny = y + dy[i];
+                int nz = z + dz[i];
                 
-                // Check bounds
                 if (ny < 0 || ny >= Chunk.CHUNK_HEIGHT) {
                     continue;
                 }
                 
-                Chunk neighborChunk = world.getChunk(nx >> 4, nz >> 4);
-                if (neighborChunk == null) {
+                Chunk chunk = chunks.get(nx >> 4, nz >> 4);
+                if (chunk == null) {
                     continue;
                 }
                 
                 int localX = nx & 15;
                 int localZ = nz & 15;
+                int currentLight = chunk.getBlocklight(localX, ny, localZ);
                 
-                Block.BlockType neighborBlock = neighborChunk.getBlock(localX, ny, localZ);
-                int opacity = getBlockOpacity(neighborBlock);
-                int newLightLevel = node.lightLevel - Math.max(1, opacity);
-                
-                if (newLightLevel > 0) {
-                    int currentLight = neighborChunk.getBlocklight(localX, ny, localZ);
-                    if (newLightLevel > currentLight) {
-                        neighborChunk.setBlocklight(localX, ny, localZ, newLightLevel);
-                        lightQueue.offer(new LightNode(nx, ny, nz, newLightLevel, BLOCKLIGHT));
-                    }
-                }
-            }
-        }
-    }
-    
-    /**
-     * Processes the light update queue
-     */
-    private void processLightQueue() {
-        while (!lightQueue.isEmpty()) {
-            LightNode node = lightQueue.poll();
-            propagateLightFromNode(node);
-        }
-    }
-    
-    /**
-     * Processes the light removal queue
-     */
-    private void processRemovalQueue() {
-        while (!removalQueue.isEmpty()) {
-            LightNode node = removalQueue.poll();
-            removeLightFromNode(node);
-        }
-    }
-    
-    /**
-     * Propagates light from a specific node
-     */
-    private void propagateLightFromNode(LightNode node) {
-        int[] dx = {-1, 1, 0, 0, 0, 0};
-        int[] dy = {0, 0, -1, 1, 0, 0};
-        int[] dz = {0, 0, 0, 0, -1, 1};
-        
-        for (int i = 0; i < 6; i++) {
-            int nx = node.x + dx[i];
-            int ny = node.y + dy[i];
-            int nz = node.z + dz[i];
-            
-            if (ny < 0 || ny >= Chunk.CHUNK_HEIGHT) {
-                continue;
-            }
-            
-            Chunk chunk = world.getChunk(nx >> 4, nz >> 4);
-            if (chunk == null) {
-                continue;
-            }
-            
-            int localX = nx & 15;
-            int localZ = nz & 15;
-            
-            Block.BlockType block = chunk.getBlock(localX, ny, localZ);
-            int opacity = getBlockOpacity(block);
-            int newLightLevel = node.lightLevel - Math.max(1, opacity);
-            
-            if (newLightLevel > 0) {
-                int currentLight = node.lightType == SUNLIGHT ? 
-                    chunk.getSunlight(localX, ny, localZ) : 
-                    chunk.getBlocklight(localX, ny, localZ);
-                
-                if (newLightLevel > currentLight) {
-                    if (node.lightType == SUNLIGHT) {
-                        chunk.setSunlight(localX, ny, localZ, newLightLevel);
-                    } else {
-                        chunk.setBlocklight(localX, ny, localZ, newLightLevel);
-                    }
-                    
-                    lightQueue.offer(new LightNode(nx, ny, nz, newLightLevel, node.lightType));
-                }
-            }
-        }
-    }
-    
-    /**
-     * Removes light from a specific node
-     */
-    private void removeLightFromNode(LightNode node) {
-        int[] dx = {-1, 1, 0, 0, 0, 0};
-        int[] dy = {0, 0, -1, 1, 0, 0};
-        int[] dz = {0, 0, 0, 0, -1, 1};
-        
-        for (int i = 0; i < 6; i++) {
-            int nx = node.x + dx[i];
-            int ny = node.y + dy[i];
-            int nz = node.z + dz[i];
-            
-            if (ny < 0 || ny >= Chunk.CHUNK_HEIGHT) {
-                continue;
-            }
-            
-            Chunk chunk = world.getChunk(nx >> 4, nz >> 4);
-            if (chunk == null) {
-                continue;
-            }
-            
-            int localX = nx & 15;
-            int localZ = nz & 15;
-            
-            int currentLight = node.lightType == SUNLIGHT ? 
-                chunk.getSunlight(localX, ny, localZ) : 
-                chunk.getBlocklight(localX, ny, localZ);
-            
-            if (currentLight > 0 && currentLight < node.lightLevel) {
-                if (node.lightType == SUNLIGHT) {
-                    chunk.setSunlight(localX, ny, localZ, 0);
-                } else {
+                if (currentLight > 0 && currentLight < lightLevel) {
                     chunk.setBlocklight(localX, ny, localZ, 0);
+                    removalQueue.offer(LightQueue.pack(nx, ny, nz, currentLight));
+                } else if (currentLight >= lightLevel) {
+                    blockLight.spread(nx, ny, nz, currentLight);
                 }
-                
-                removalQueue.offer(new LightNode(nx, ny, nz, currentLight, node.lightType));
             }
         }
     }
@@ -419,23 +381,36 @@ public class LightingEngine {
         int oldEmission = getBlockLightEmission(change.oldBlock);
         int newEmission = getBlockLightEmission(change.newBlock);
         
-        if (oldEmission > 0) {
-            // Remove old light
-            removalQueue.offer(new LightNode(worldX, change.y, worldZ, oldEmission, BLOCKLIGHT));
+        int oldOpacity = getBlockOpacity(change.oldBlock);
+        int newOpacity = getBlockOpacity(change.newBlock);
+        int currentLight = chunk.getBlocklight(change.x, change.y, change.z);
+        
+        if (currentLight > 0 && (oldEmission > 0 || newOpacity > oldOpacity)) {
+            // Remove old light, whether it came from this block or passed through it
+            chunk.setBlocklight(change.x, change.y, change.z, 0);
+            removalQueue.offer(LightQueue.pack(worldX, change.y, worldZ, currentLight));
         }
         
         if (newEmission > 0) {
             // Add new light
             chunk.setBlocklight(change.x, change.y, change.z, newEmission);
-            lightQueue.offer(new LightNode(worldX, change.y, worldZ, newEmission, BLOCKLIGHT));
+            blockLight.spread(worldX, change.y, worldZ, newEmission);
+        } else if (newOpacity < oldOpacity) {
+            // Let light from the neighbours flow into the opened space
+            int[] dx = {-1, 1, 0, 0, 0, 0};
+            int[] dy = {0, 0, -1, 1, 0, 0};
+            int[] dz = {0, 0, 0, 0, -1, 1};
+            for (int i = 0; i < 6; i++) {
+                int neighborLight = getBlocklight(worldX + dx[i], change.y + dy[i], worldZ + dz[i]);
+                if (neighborLight > 1) {
+                    blockLight.enqueue(worldX, change.y, worldZ, neighborLight);
+                }
+            }
         }
         
-        // Recalculate sunlight column if opacity changed
-        int oldOpacity = getBlockOpacity(change.oldBlock);
-        int newOpacity = getBlockOpacity(change.newBlock);
-        
+        // Re-light only the part of the column below the change that it affects
         if (oldOpacity != newOpacity) {
-            calculateSunlightColumn(chunk, change.x, change.z);
+            updateSunlightColumn(chunk, change.x, change.y, change.z, change.oldBlock, change.newBlock);
         }
     }
     
@@ -463,7 +438,7 @@ public class LightingEngine {
     /**
      * Gets the light emission level of a block
      */
-    private int getBlockLightEmission(Block.BlockType block) {
+    static int getBlockLightEmission(Block.BlockType block) {
         switch (block) {
             case TORCH: return 14;
             case LANTERN: return 15;
@@ -477,7 +452,7 @@ public class LightingEngine {
     /**
      * Gets the opacity (light blocking) level of a block
      */
-    private int getBlockOpacity(Block.BlockType block) {
+    static int getBlockOpacity(Block.BlockType block) {
         switch (block) {
             case AIR: return 0;
             case WATER: return 2;
@@ -546,21 +521,4 @@ public class LightingEngine {
             this.newBlock = newBlock;
         }
     }
-    
-    /**
-     * Represents a light node for propagation
-     */
-    private static class LightNode {
-        final int x, y, z;
-        final int lightLevel;
-        final int lightType;
-        
-        LightNode(int x, int y, int z, int lightLevel, int lightType) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-            this.lightLevel = lightLevel;
-            this.lightType = lightType;
-        }
-    }
 }
\ No newline at end of file
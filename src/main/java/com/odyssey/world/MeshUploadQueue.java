@@ -0,0 +1,139 @@
+package com.odyssey.world;
+
+import com.odyssey.util.Logger;
+import com.odyssey.util.PerformanceProfiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chunk meshes built on worker threads, waiting for the GL thread to upload them.
+ *
+ * Each frame {@link #process(long)} uploads nearest first until its time budget is
+ * spent, so a burst of finished meshes is spread over several frames instead of
+ * stretching one. Queue depth and upload timings go to {@link PerformanceProfiler}
+ * as the "ChunkUploadQueueDepth" gauge, "ChunkUpload" (GL time per mesh) and
+ * "ChunkUploadLatency" (time from queueing to upload).
+ *
+ * Only used from the GL thread.
+ */
+final class MeshUploadQueue {
+
+    static final String DEPTH_GAUGE = "ChunkUploadQueueDepth";
+    static final String UPLOAD_PROFILE = "ChunkUpload";
+    static final String LATENCY_PROFILE = "ChunkUploadLatency";
+
+    /** Called on the GL thread after a chunk's mesh went up, or failed to */
+    interface Listener {
+        void uploaded(Chunk chunk);
+
+        void uploadFailed(Chunk chunk);
+    }
+
+    private final PriorityQueue<Upload> pending = new PriorityQueue<>((a, b) -> {
+        int order = Long.compare(a.priority, b.priority);
+        return order != 0 ? order : Long.compare(a.sequence, b.sequence);
+    });
+    private final Listener listener;
+    private final PerformanceProfiler profiler;
+    private long sequence;
+
+    MeshUploadQueue(Listener listener, PerformanceProfiler profiler) {
+        this.listener = listener;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Queues built geometry; lower priorities upload first
+     */
+    void offer(Chunk chunk, ChunkMeshBuilder.GeometryData geometry, long priority) {
+        pending.add(new Upload(chunk, geometry, priority, sequence++, System.nanoTime()));
+    }
+
+    /**
+     * Drops the pending upload for a chunk, if any
+     *
+     * @return true if one was pending
+     */
+    boolean remove(Chunk chunk) {
+        return pending.removeIf(upload -> upload.chunk == chunk);
+    }
+
+    /**
+     * Recomputes every pending upload's priority, e.g. after the player moved
+     */
+    void reprioritize(ToLongFunction<Chunk> priority) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Upload> uploads = new ArrayList<>(pending);
+        pending.clear();
+        for (Upload upload : uploads) {
+            upload.priority = priority.applyAsLong(upload.chunk);
+        }
+        pending.addAll(uploads);
+    }
+
+    /**
+     * Uploads pending meshes until the budget is used up. At least one mesh goes up
+     * per call, so the queue drains even if a single upload exceeds the budget.
+     *
+     * @return the number of meshes uploaded
+     */
+    int process(long budgetNanos) {
+        long start = System.nanoTime();
+        int uploaded = 0;
+
+        while (!pending.isEmpty()) {
+            long now = System.nanoTime();
+            if (uploaded > 0 && now - start >= budgetNanos) {
+                break;
+            }
+
+            Upload upload = pending.poll();
+            try {
+                upload.chunk.uploadMesh(upload.geometry);
+            } catch (Exception e) {
+                Logger.logError("Failed to upload mesh for chunk ({}, {}): {}",
+                           upload.chunk.getChunkX(), upload.chunk.getChunkZ(), e.getMessage());
+                listener.uploadFailed(upload.chunk);
+                continue;
+            }
+            long end = System.nanoTime();
+            uploaded++;
+
+            profiler.recordTime(UPLOAD_PROFILE, end - now);
+            profiler.recordTime(LATENCY_PROFILE, end - upload.queuedAt);
+            listener.uploaded(upload.chunk);
+        }
+
+        profiler.setGauge(DEPTH_GAUGE, pending.size());
+        return uploaded;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    void clear() {
+        pending.clear();
+    }
+
+    private static final class Upload {
+        final Chunk chunk;
+        final ChunkMeshBuilder.GeometryData geometry;
+        final long sequence;
+        final long queuedAt;
+        long priority;
+
+        Upload(Chunk chunk, ChunkMeshBuilder.GeometryData geometry, long priority, long sequence, long queuedAt) {
+            this.chunk = chunk;
+            this.geometry = geometry;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.odyssey.world;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Palette-indexed storage for the 4096 block ids of a single chunk section.
+ *
+ * Values are mapped to a small local palette and the palette indices are bit-packed
+ * into a long array. The number of bits per entry grows with the palette: a section
+ * holding a single block type needs no index data at all, two types need 1 bit, up to
+ * 256 types need 8 bits. Beyond that the container switches to direct storage where
+ * the raw 16-bit block id is packed instead of a palette index.
+ *
+ * Entries never straddle two longs, so every read is a single array access plus a
+ * shift and a mask.
+ */
+public class PalettedContainer {
+
+    public static final int SIZE = ChunkSection.VOLUME;
+
+    private static final int MAX_PALETTE_BITS = 8;
+    private static final int DIRECT_BITS = 16;
+
+    // Serialized field tags
+    private static final int TAG_BITS = 1;
+    private static final int TAG_VALUE = 2;
+    private static final int TAG_PALETTE = 3;
+    private static final int TAG_DATA = 4;
+
+    /**
+     * Immutable layout of the container. Swapped as a whole on resize so readers on
+     * other threads always see a palette large enough for the indices in the data.
+     */
+    private static final class Layout {
+        final int bits;
+        final int entriesPerLong;
+        final long mask;
+        final int[] palette; // null in direct mode
+        final long[] data;   // null when bits == 0
+
+        Layout(int bits, int[] palette) {
+            this.bits = bits;
+            this.palette = palette;
+            if (bits == 0) {
+                this.entriesPerLong = 0;
+                this.mask = 0L;
+                this.data = null;
+            } else {
+                this.entriesPerLong = 64 / bits;
+                this.mask = (1L << bits) - 1L;
+                this.data = new long[(SIZE + entriesPerLong - 1) / entriesPerLong];
+            }
+        }
+
+        int read(int index) {
+            int longIndex = index / entriesPerLong;
+            int shift = (index - longIndex * entriesPerLong) * bits;
+            return (int) ((data[longIndex] >>> shift) & mask);
+        }
+
+        void write(int index, int value) {
+            int longIndex = index / entriesPerLong;
+            int shift = (index - longIndex * entriesPerLong) * bits;
+            data[longIndex] = (data[longIndex] & ~(mask << shift)) | (((long) value & mask) << shift);
+        }
+    }
+
+    private volatile Layout layout;
+    private int paletteSize;
+
+    /**
+     * Creates a container where every entry holds the given value.
+     */
+    public PalettedContainer(int initialValue) {
+        this.layout = new Layout(0, new int[] { initialValue });
+        this.paletteSize = 1;
+    }
+
+    private PalettedContainer(Layout layout, int paletteSize) {
+        this.layout = layout;
+        this.paletteSize = paletteSize;
+    }
+
+    /**
+     * Gets the value stored at the given section index (0-4095)
+     */
+    public int get(int index) {
+        Layout current = layout;
+        if (current.bits == 0) {
+            return current.palette[0];
+        }
+        int stored = current.read(index);
+        return current.palette == null ? stored : current.palette[stored];
+    }
+
+    /**
+     * Sets the value at the given section index and returns the previous value
+     */
+    public synchronized int set(int index, int value) {
+        int previous = get(index);
+        if (previous == value) {
+            return previous;
+        }
+
+        Layout current = layout;
+        if (current.palette == null) {
+            current.write(index, value);
+            return previous;
+        }
+
+        int paletteIndex = indexOf(current, value);
+        if (paletteIndex < 0) {
+            if (paletteSize >= current.palette.length) {
+                current = resize(bitsFor(paletteSize + 1));
+            }
+            if (current.palette == null) {
+                current.write(index, value);
+                return previous;
+            }
+            paletteIndex = paletteSize++;
+            current.palette[paletteIndex] = value;
+        }
+
+        current.write(index, paletteIndex);
+        return previous;
+    }
+
+    /**
+     * Fills the whole container with a single value, dropping all index data
+     */
+    public synchronized void fill(int value) {
+        layout = new Layout(0, new int[] { value });
+        paletteSize = 1;
+    }
+
+    /**
+     * Rebuilds the palette from the values actually in use, shrinking the bits per
+     * entry when block types have been replaced since the palette last grew.
+     */
+    public synchronized void compact() {
+        Layout current = layout;
+        if (current.bits == 0) {
+            return;
+        }
+
+        int[] values = new int[SIZE];
+        int[] used = new int[1 << MAX_PALETTE_BITS];
+        int usedCount = 0;
+        for (int i = 0; i < SIZE; i++) {
+            int value = get(i);
+            values[i] = value;
+            if (indexOf(used, usedCount, value) < 0) {
+                if (usedCount == used.length) {
+                    return; // Too many distinct values for a palette
+                }
+                used[usedCount++] = value;
+            }
+        }
+
+        int bits = bitsFor(usedCount);
+        if (bits >= current.bits && current.palette != null) {
+            return;
+        }
+
+        int[] palette = new int[1 << bits];
+        System.arraycopy(used, 0, palette, 0, usedCount);
+        Layout compacted = new Layout(bits, palette);
+        if (bits > 0) {
+            for (int i = 0; i < SIZE; i++) {
+                compacted.write(i, indexOf(palette, usedCount, values[i]));
+            }
+        }
+        paletteSize = usedCount;
+        layout = compacted;
+    }
+
+    /**
+     * Gets the number of bits used per entry (0 for single-valued containers)
+     */
+    public int getBitsPerEntry() {
+        return layout.bits;
+    }
+
+    /**
+     * Gets the number of palette entries, or 0 in direct mode
+     */
+    public int getPaletteSize() {
+        return layout.palette == null ? 0 : paletteSize;
+    }
+
+    /**
+     * Checks if every entry in this container holds the same value
+     */
+    public boolean isSingleValued() {
+        return layout.bits == 0;
+    }
+
+    /**
+     * Approximate heap footprint of the palette and index data in bytes
+     */
+    public long getMemoryFootprint() {
+        Layout current = layout;
+        long bytes = 32; // Container and layout object headers
+        if (current.palette != null) {
+            bytes += 16 + current.palette.length * 4L;
+        }
+        if (current.data != null) {
+            bytes += 16 + current.data.length * 8L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the container as tagged fields: the bits per entry, then either the single
+     * value (bits 0), or the palette as varints followed by the packed longs, which are
+     * copied in one block. Direct mode has no palette field.
+     */
+    public synchronized void write(BinaryWriter out) {
+        Layout current = layout;
+        out.writeVarIntField(TAG_BITS, current.bits);
+        if (current.bits == 0) {
+            out.writeVarIntField(TAG_VALUE, current.palette[0]);
+            return;
+        }
+        if (current.palette != null) {
+            int[] palette = current.palette;
+            int size = paletteSize;
+            out.writeMessageField(TAG_PALETTE, entries -> {
+                for (int i = 0; i < size; i++) {
+                    entries.writeVarInt(palette[i]);
+                }
+            });
+        }
+        out.writeLongArrayField(TAG_DATA, current.data);
+    }
+
+    /**
+     * Reads a container previously written with {@link #write(BinaryWriter)}
+     */
+    public static PalettedContainer read(BinaryReader in) throws IOException {
+        int bits = 0;
+        int value = 0;
+        int[] entries = null;
+        int size = 0;
+        long[] data = null;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case TAG_BITS:
+                    bits = in.readVarInt();
+                    break;
+                case TAG_VALUE:
+                    value = in.readVarInt();
+                    break;
+                case TAG_PALETTE:
+                    BinaryReader paletteReader = in.readMessage();
+                    entries = new int[1 << MAX_PALETTE_BITS];
+                    while (paletteReader.hasRemaining()) {
+                        if (size == entries.length) {
+                            throw new IOException("Palette exceeds " + entries.length + " entries");
+                        }
+                        entries[size++] = paletteReader.readVarInt();
+                    }
+                    break;
+                case TAG_DATA:
+                    data = in.readLongArrayField();
+                    break;
+                default:
+                    in.skipField();
+                    break;
+            }
+        }
+
+        if (bits == 0) {
+            return new PalettedContainer(value);
+        }
+        if (bits != DIRECT_BITS && bits > MAX_PALETTE_BITS) {
+            throw new IOException("Invalid bits per entry: " + bits);
+        }
+
+        int[] palette = null;
+        if (bits != DIRECT_BITS) {
+            if (entries == null || size > (1 << bits)) {
+                throw new IOException("Palette of " + size + " entries does not fit " + bits + " bits");
+            }
+            palette = new int[1 << bits];
+            System.arraycopy(entries, 0, palette, 0, size);
+        }
+
+        Layout layout = new Layout(bits, palette);
+        if (data == null || data.length != layout.data.length) {
+            throw new IOException("Expected " + layout.data.length + " packed longs for " + bits + " bits");
+        }
+        System.arraycopy(data, 0, layout.data, 0, data.length);
+        return new PalettedContainer(layout, size);
+    }
+
+    /**
+     * Reads a container in the fixed layout of chunk format version 1: the bits per
+     * entry as a byte, then the single value as an int (bits 0), or the palette size as
+     * a short, the palette as ints and the packed longs, all big-endian
+     */
+    public static PalettedContainer readVersion1(DataInput in) throws IOException {
+        int bits = in.readUnsignedByte();
+        if (bits == 0) {
+            return new PalettedContainer(in.readInt());
+        }
+        if (bits != DIRECT_BITS && bits > MAX_PALETTE_BITS) {
+            throw new IOException("Invalid bits per entry: " + bits);
+        }
+
+        int[] palette = null;
+        int size = 0;
+        if (bits != DIRECT_BITS) {
+            size = in.readUnsignedShort();
+            if (size > (1 << bits)) {
+                throw new IOException("Palette of " + size + " entries does not fit " + bits + " bits");
+            }
+            palette = new int[1 << bits];
+            for (int i = 0; i < size; i++) {
+                palette[i] = in.readInt();
+            }
+        }
+
+        Layout layout = new Layout(bits, palette);
+        for (int i = 0; i < layout.data.length; i++) {
+            layout.data[i] = in.readLong();
+        }
+        return new PalettedContainer(layout, size);
+    }
+
+    /**
+     * Repacks all entries into a layout with the given bits per entry.
+     */
+    private Layout resize(int newBits) {
+        Layout old = layout;
+        Layout resized;
+
+        if (newBits > MAX_PALETTE_BITS) {
+            // Switch to direct storage of raw block ids
+            resized = new Layout(DIRECT_BITS, null);
+            for (int i = 0; i < SIZE; i++) {
+                resized.write(i, decode(old, i));
+            }
+        } else {
+            int[] palette = new int[1 << newBits];
+            System.arraycopy(old.palette, 0, palette, 0, paletteSize);
+            resized = new Layout(newBits, palette);
+            if (old.bits > 0) {
+                for (int i = 0; i < SIZE; i++) {
+                    resized.write(i, old.read(i));
+                }
+            }
+        }
+
+        layout = resized;
+        return resized;
+    }
+
+    private static int decode(Layout layout, int index) {
+        if (layout.bits == 0) {
+            return layout.palette[0];
+        }
+        int stored = layout.read(index);
+        return layout.palette == null ? stored : layout.palette[stored];
+    }
+
+    private int indexOf(Layout layout, int value) {
+        return indexOf(layout.palette, paletteSize, value);
+    }
+
+    private static int indexOf(int[] palette, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (palette[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Minimum bits needed to index a palette with the given number of entries
+     */
+    private static int bitsFor(int entries) {
+        return entries <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(entries - 1);
+    }
+}
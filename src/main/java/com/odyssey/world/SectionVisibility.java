@@ -0,0 +1,165 @@
+package com.odyssey.world;
+
+/**
+ * Which faces of a 16x16x16 section can see each other through the section, for
+ * culling sections hidden behind terrain.
+ *
+ * Two faces are connected when a path of non-opaque blocks inside the section links
+ * them. The result is packed into a long with bit {@code a * 6 + b} set for every
+ * connected pair, both ways round. An empty section connects everything, a solid one
+ * nothing. Found by flood-filling each open region of the section once and noting the
+ * faces it touches, so the cost is one pass over the blocks.
+ */
+public final class SectionVisibility {
+
+    public static final int WEST = 0;   // -x
+    public static final int EAST = 1;   // +x
+    public static final int DOWN = 2;   // -y
+    public static final int UP = 3;     // +y
+    public static final int NORTH = 4;  // -z
+    public static final int SOUTH = 5;  // +z
+    public static final int FACES = 6;
+
+    /** Every face sees every other */
+    public static final long ALL = (1L << (FACES * FACES)) - 1;
+    /** No face sees any other */
+    public static final long NONE = 0L;
+
+    private static final int SIZE = ChunkSection.SIZE;
+    private static final boolean[] OPAQUE = buildOpaqueTable();
+
+    private SectionVisibility() {
+    }
+
+    /**
+     * Gets the face opposite the given one; faces come in -/+ pairs
+     */
+    public static int opposite(int face) {
+        return face ^ 1;
+    }
+
+    public static int offsetX(int face) {
+        return face == WEST ? -1 : face == EAST ? 1 : 0;
+    }
+
+    public static int offsetY(int face) {
+        return face == DOWN ? -1 : face == UP ? 1 : 0;
+    }
+
+    public static int offsetZ(int face) {
+        return face == NORTH ? -1 : face == SOUTH ? 1 : 0;
+    }
+
+    public static boolean connects(long visibility, int from, int to) {
+        return (visibility & (1L << (from * FACES + to))) != 0;
+    }
+
+    /**
+     * Computes the face connectivity of a section; null is an elided all-air section
+     */
+    public static long compute(ChunkSection section) {
+        if (section == null || section.isEmpty()) {
+            return ALL;
+        }
+        PalettedContainer blocks = section.getBlockContainer();
+        if (blocks.isSingleValued()) {
+            return isOpaque(blocks.get(0)) ? NONE : ALL;
+        }
+
+        // Opaque blocks start out visited so the fill never enters them
+        long[] visited = new long[ChunkSection.VOLUME / 64];
+        for (int i = 0; i < ChunkSection.VOLUME; i++) {
+            if (isOpaque(blocks.get(i))) {
+                visited[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long visibility = NONE;
+        int[] stack = new int[ChunkSection.VOLUME];
+        for (int start = 0; start < ChunkSection.VOLUME; start++) {
+            if ((visited[start >>> 6] & (1L << start)) != 0) {
+                continue;
+            }
+            visited[start >>> 6] |= 1L << start;
+            stack[0] = start;
+            int top = 1;
+            int faces = 0;
+
+            while (top > 0) {
+                int index = stack[--top];
+                // ChunkSection.index packs y << 8 | z << 4 | x
+                int x = index & 15;
+                int z = (index >>> 4) & 15;
+                int y = index >>> 8;
+                faces |= touchedFaces(x, y, z);
+
+                if (x > 0) top = push(visited, stack, top, index - 1);
+                if (x < SIZE - 1) top = push(visited, stack, top, index + 1);
+                if (z > 0) top = push(visited, stack, top, index - SIZE);
+                if (z < SIZE - 1) top = push(visited, stack, top, index + SIZE);
+                if (y > 0) top = push(visited, stack, top, index - SIZE * SIZE);
+                if (y < SIZE - 1) top = push(visited, stack, top, index + SIZE * SIZE);
+            }
+            visibility |= pairs(faces);
+            if (visibility == ALL) {
+                break;
+            }
+        }
+        return visibility;
+    }
+
+    private static int push(long[] visited, int[] stack, int top, int index) {
+        long bit = 1L << index;
+        if ((visited[index >>> 6] & bit) != 0) {
+            return top;
+        }
+        visited[index >>> 6] |= bit;
+        stack[top] = index;
+        return top + 1;
+    }
+
+    private static int touchedFaces(int x, int y, int z) {
+        int faces = 0;
+        if (x == 0) faces |= 1 << WEST;
+        if (x == SIZE - 1) faces |= 1 << EAST;
+        if (y == 0) faces |= 1 << DOWN;
+        if (y == SIZE - 1) faces |= 1 << UP;
+        if (z == 0) faces |= 1 << NORTH;
+        if (z == SIZE - 1) faces |= 1 << SOUTH;
+        return faces;
+    }
+
+    /**
+     * Sets the bit of every ordered pair of faces in a face mask
+     */
+    private static long pairs(int faces) {
+        long result = 0L;
+        for (int a = 0; a < FACES; a++) {
+            if ((faces & (1 << a)) == 0) {
+                continue;
+            }
+            for (int b = 0; b < FACES; b++) {
+                if ((faces & (1 << b)) != 0) {
+                    result |= 1L << (a * FACES + b);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isOpaque(int blockId) {
+        return blockId >= 0 && blockId < OPAQUE.length && OPAQUE[blockId];
+    }
+
+    private static boolean[] buildOpaqueTable() {
+        int maxId = 0;
+        for (Block.BlockType type : Block.BlockType.values()) {
+            maxId = Math.max(maxId, type.getId());
+        }
+        boolean[] table = new boolean[maxId + 1];
+        for (Block.BlockType type : Block.BlockType.values()) {
+            table[type.getId()] = type.isOpaque();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,390 @@
+package com.odyssey.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Uniform grid over the XZ plane for objects with a position and a radius, such as
+ * islands, hazards and storms.
+ *
+ * Each object is filed under the cell holding its center, so it is stored exactly once
+ * and moving it touches at most two cells. Queries widen their search by the largest
+ * radius ever added, so an object whose edge reaches into the query area is found even
+ * when its center cell lies outside it. With the cell size a few times the typical query
+ * radius, a query visits a handful of cells no matter how many objects the world holds.
+ *
+ * Objects are identified by reference. The index keeps its own copy of each position, so
+ * an object that moves must be passed to {@link #update} again. All methods are
+ * thread-safe; queries share a read lock and changes take the write lock.
+ */
+public final class SpatialIndex<T> {
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final StampedLock lock = new StampedLock();
+    private final Long2ObjectOpenHashMap<Cell<T>> cells = new Long2ObjectOpenHashMap<>();
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+
+    // Never shrinks; an outdated maximum only widens queries slightly
+    private float maxRadius;
+
+    // Range of cell coordinates that have ever held an object, bounding nearest-neighbor searches
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellZ = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellZ = Integer.MIN_VALUE;
+
+    public SpatialIndex(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+    }
+
+    /**
+     * Adds an object, or moves it if it is already indexed
+     */
+    public void add(T value, float x, float z, float radius) {
+        update(value, x, z, radius);
+    }
+
+    /**
+     * Sets the position and radius of an object, adding it if it is not indexed yet
+     */
+    public void update(T value, float x, float z, float radius) {
+        int cellX = cellOf(x);
+        int cellZ = cellOf(z);
+        long stamp = lock.writeLock();
+        try {
+            Entry<T> entry = entries.get(value);
+            if (entry == null) {
+                entry = new Entry<>(value);
+                entries.put(value, entry);
+            } else if (entry.cellX != cellX || entry.cellZ != cellZ) {
+                unlink(entry);
+            }
+
+            entry.x = x;
+            entry.z = z;
+            entry.radius = radius;
+            if (entry.cell == null) {
+                link(entry, cellX, cellZ);
+            }
+            maxRadius = Math.max(maxRadius, radius);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an object
+     *
+     * @return true if the object was indexed
+     */
+    public boolean remove(T value) {
+        long stamp = lock.writeLock();
+        try {
+            Entry<T> entry = entries.remove(value);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean contains(T value) {
+        long stamp = lock.readLock();
+        try {
+            return entries.containsKey(value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Collects every object whose circle overlaps the circle of the given radius around
+     * a point, i.e. whose center is no further than radius plus its own radius away
+     *
+     * @return out
+     */
+    public List<T> queryRadius(float x, float z, float radius, List<T> out) {
+        long stamp = lock.readLock();
+        try {
+            float reach = radius + maxRadius;
+            int fromX = cellOf(x - reach);
+            int toX = cellOf(x + reach);
+            int fromZ = cellOf(z - reach);
+            int toZ = cellOf(z + reach);
+
+            for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                for (int cellX = fromX; cellX <= toX; cellX++) {
+                    Cell<T> cell = cells.get(ChunkIndex.key(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        Entry<T> entry = cell.entries[i];
+                        float dx = entry.x - x;
+                        float dz = entry.z - z;
+                        float limit = radius + entry.radius;
+                        if (dx * dx + dz * dz <= limit * limit) {
+                            out.add(entry.value);
+                        }
+                    }
+                }
+            }
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Collects every object whose circle overlaps the given rectangle
+     *
+     * @return out
+     */
+    public List<T> queryRect(float minX, float minZ, float maxX, float maxZ, List<T> out) {
+        long stamp = lock.readLock();
+        try {
+            int fromX = cellOf(minX - maxRadius);
+            int toX = cellOf(maxX + maxRadius);
+            int fromZ = cellOf(minZ - maxRadius);
+            int toZ = cellOf(maxZ + maxRadius);
+
+            for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+                for (int cellX = fromX; cellX <= toX; cellX++) {
+                    Cell<T> cell = cells.get(ChunkIndex.key(cellX, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        Entry<T> entry = cell.entries[i];
+                        // Distance from the center to the closest point of the rectangle
+                        float dx = entry.x - Math.max(minX, Math.min(entry.x, maxX));
+                        float dz = entry.z - Math.max(minZ, Math.min(entry.z, maxZ));
+                        if (dx * dx + dz * dz <= entry.radius * entry.radius) {
+                            out.add(entry.value);
+                        }
+                    }
+                }
+            }
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the object whose center is closest to a point, or null if the index is empty
+     */
+    public T nearest(float x, float z) {
+        Object[] found = new Object[1];
+        return collectNearest(x, z, 1, found) > 0 ? cast(found[0]) : null;
+    }
+
+    /**
+     * Collects the k objects whose centers are closest to a point, nearest first
+     *
+     * @return out
+     */
+    public List<T> nearest(float x, float z, int k, List<T> out) {
+        Object[] found = new Object[k];
+        int count = collectNearest(x, z, k, found);
+        for (int i = 0; i < count; i++) {
+            out.add(cast(found[i]));
+        }
+        return out;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            cells.clear();
+            entries.clear();
+            maxRadius = 0;
+            minCellX = Integer.MAX_VALUE;
+            minCellZ = Integer.MAX_VALUE;
+            maxCellX = Integer.MIN_VALUE;
+            maxCellZ = Integer.MIN_VALUE;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Searches rings of cells outward from the point's cell, keeping the best k centers
+     * sorted by distance. Every cell of ring r + 1 is at least r cells away from the
+     * point, so the search stops once the k-th best is closer than that or every cell
+     * that ever held an object has been visited.
+     *
+     * @return the number of objects written to found
+     */
+    private int collectNearest(float x, float z, int k, Object[] found) {
+        if (k <= 0) {
+            return 0;
+        }
+        float[] distances = new float[k];
+        int count = 0;
+
+        long stamp = lock.readLock();
+        try {
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            int centerX = cellOf(x);
+            int centerZ = cellOf(z);
+            int lastRing = Math.max(Math.max(centerX - minCellX, maxCellX - centerX),
+                                    Math.max(centerZ - minCellZ, maxCellZ - centerZ));
+
+            for (int ring = 0; ring <= lastRing; ring++) {
+                if (count == k) {
+                    float bound = (ring - 1) * cellSize;
+                    if (ring > 0 && distances[k - 1] <= bound * bound) {
+                        break;
+                    }
+                }
+
+                for (int cellZ = centerZ - ring; cellZ <= centerZ + ring; cellZ++) {
+                    // Inner rows only contribute the two cells on the ring's edges
+                    boolean edgeRow = cellZ == centerZ - ring || cellZ == centerZ + ring;
+                    int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                    for (int cellX = centerX - ring; cellX <= centerX + ring; cellX += step) {
+                        Cell<T> cell = cells.get(ChunkIndex.key(cellX, cellZ));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size; i++) {
+                            Entry<T> entry = cell.entries[i];
+                            float dx = entry.x - x;
+                            float dz = entry.z - z;
+                            float distance = dx * dx + dz * dz;
+                            if (count == k && distance >= distances[k - 1]) {
+                                continue;
+                            }
+
+                            // Insertion into the short sorted list
+                            int slot = count < k ? count++ : k - 1;
+                            while (slot > 0 && distances[slot - 1] > distance) {
+                                distances[slot] = distances[slot - 1];
+                                found[slot] = found[slot - 1];
+                                slot--;
+                            }
+                            distances[slot] = distance;
+                            found[slot] = entry.value;
+                        }
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    /**
+     * Files an entry under a cell. Callers must hold the write lock.
+     */
+    private void link(Entry<T> entry, int cellX, int cellZ) {
+        long key = ChunkIndex.key(cellX, cellZ);
+        Cell<T> cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell<>();
+            cells.put(key, cell);
+        }
+        cell.add(entry);
+        entry.cellX = cellX;
+        entry.cellZ = cellZ;
+
+        minCellX = Math.min(minCellX, cellX);
+        minCellZ = Math.min(minCellZ, cellZ);
+        maxCellX = Math.max(maxCellX, cellX);
+        maxCellZ = Math.max(maxCellZ, cellZ);
+    }
+
+    /**
+     * Takes an entry out of its cell, dropping the cell once empty. Callers must hold the
+     * write lock.
+     */
+    private void unlink(Entry<T> entry) {
+        Cell<T> cell = entry.cell;
+        cell.remove(entry);
+        if (cell.size == 0) {
+            cells.remove(ChunkIndex.key(entry.cellX, entry.cellZ));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /**
+     * Indexed copy of an object's position
+     */
+    private static final class Entry<T> {
+        final T value;
+        float x;
+        float z;
+        float radius;
+        Cell<T> cell;
+        int cellX;
+        int cellZ;
+        int slot;
+
+        Entry(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Entries filed under one cell, unordered
+     */
+    private static final class Cell<T> {
+        @SuppressWarnings("unchecked")
+        Entry<T>[] entries = new Entry[4];
+        int size;
+
+        void add(Entry<T> entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entry.cell = this;
+            entry.slot = size;
+            entries[size++] = entry;
+        }
+
+        /**
+         * Swaps the last entry into the removed one's slot
+         */
+        void remove(Entry<T> entry) {
+            Entry<T> last = entries[--size];
+            entries[entry.slot] = last;
+            last.slot = entry.slot;
+            entries[size] = null;
+            entry.cell = null;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.odyssey.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import org.joml.Vector2f;
+
+/**
+ * Tiled cache of terrain height, biome and ocean current samples for point queries.
+ *
+ * Samples sit on grids at three resolutions: every block ({@link #FINE}), every 4 blocks
+ * ({@link #MEDIUM}) and every 16 blocks ({@link #COARSE}). Each level is split into tiles
+ * of 16x16 cells. A tile also stores the samples along its far edges, so a bilinear lookup
+ * never has to reach into a second tile. Once a tile is cached, a query costs one hash
+ * lookup and four array reads instead of a pass over the noise stack and the island list.
+ *
+ * Tiles are filled in bulk by a {@link Source} and evicted least recently used, per level.
+ * All methods are thread-safe.
+ */
+final class TerrainSampleCache {
+
+    static final int FINE = 0;
+    static final int MEDIUM = 1;
+    static final int COARSE = 2;
+    static final int LEVELS = 3;
+
+    /** Cells along one side of a tile */
+    static final int TILE_CELLS = 16;
+    /** Samples along one side of a tile, including the shared far edge */
+    static final int TILE_SAMPLES = TILE_CELLS + 1;
+
+    private static final int[] SPACING_SHIFT = {0, 2, 4};
+    private static final BiomeType[] BIOMES = BiomeType.values();
+
+    /** Computes the samples of one tile */
+    interface Source {
+        /**
+         * Fills every sample of a tile. Sample (i, j) lies at world position
+         * (originX + i * spacing, originZ + j * spacing) and is stored at index i + j * TILE_SAMPLES.
+         */
+        void fill(int originX, int originZ, int spacing, Tile tile);
+    }
+
+    private final Source source;
+    private final int maxTilesPerLevel;
+    @SuppressWarnings("unchecked")
+    private final Long2ObjectLinkedOpenHashMap<Tile>[] levels = new Long2ObjectLinkedOpenHashMap[LEVELS];
+
+    // Bumped by every invalidation, so a tile that was being filled while the source
+    // changed is used once but never cached
+    private long epoch;
+
+    private long hits;
+    private long misses;
+
+    TerrainSampleCache(Source source, int maxTilesPerLevel) {
+        this.source = source;
+        this.maxTilesPerLevel = maxTilesPerLevel;
+        for (int i = 0; i < LEVELS; i++) {
+            levels[i] = new Long2ObjectLinkedOpenHashMap<>();
+        }
+    }
+
+    /**
+     * Samples terrain height with bilinear interpolation
+     */
+    float getHeight(float worldX, float worldZ, int level) {
+        int shift = SPACING_SHIFT[level];
+        float gx = worldX / (1 << shift);
+        float gz = worldZ / (1 << shift);
+        int cellX = (int) Math.floor(gx);
+        int cellZ = (int) Math.floor(gz);
+        float fx = gx - cellX;
+        float fz = gz - cellZ;
+
+        Tile tile = tileFor(cellX, cellZ, level);
+        int i = (cellX & (TILE_CELLS - 1)) + (cellZ & (TILE_CELLS - 1)) * TILE_SAMPLES;
+        return bilinear(tile.height, i, fx, fz);
+    }
+
+    /**
+     * Gets the biome of the sample at or before the given position on each axis
+     */
+    BiomeType getBiome(float worldX, float worldZ, int level) {
+        int shift = SPACING_SHIFT[level];
+        int cellX = (int) Math.floor(worldX / (1 << shift));
+        int cellZ = (int) Math.floor(worldZ / (1 << shift));
+
+        Tile tile = tileFor(cellX, cellZ, level);
+        return BIOMES[tile.biome[(cellX & (TILE_CELLS - 1)) + (cellZ & (TILE_CELLS - 1)) * TILE_SAMPLES]];
+    }
+
+    /**
+     * Samples the ocean current with bilinear interpolation
+     *
+     * @return dest, holding the current velocity
+     */
+    Vector2f getCurrent(float worldX, float worldZ, int level, Vector2f dest) {
+        int shift = SPACING_SHIFT[level];
+        float gx = worldX / (1 << shift);
+        float gz = worldZ / (1 << shift);
+        int cellX = (int) Math.floor(gx);
+        int cellZ = (int) Math.floor(gz);
+        float fx = gx - cellX;
+        float fz = gz - cellZ;
+
+        Tile tile = tileFor(cellX, cellZ, level);
+        int i = (cellX & (TILE_CELLS - 1)) + (cellZ & (TILE_CELLS - 1)) * TILE_SAMPLES;
+        return dest.set(bilinear(tile.currentX, i, fx, fz), bilinear(tile.currentZ, i, fx, fz));
+    }
+
+    /**
+     * Makes sure every tile of a level overlapping the given square is cached
+     *
+     * @return the number of tiles that had to be filled
+     */
+    int prefetch(float centerX, float centerZ, float radius, int level) {
+        int tileShift = SPACING_SHIFT[level] + 4;
+        int minTileX = (int) Math.floor(centerX - radius) >> tileShift;
+        int maxTileX = (int) Math.floor(centerX + radius) >> tileShift;
+        int minTileZ = (int) Math.floor(centerZ - radius) >> tileShift;
+        int maxTileZ = (int) Math.floor(centerZ + radius) >> tileShift;
+
+        int filled = 0;
+        for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+            for (int tileZ = minTileZ; tileZ <= maxTileZ; tileZ++) {
+                if (!isCached(tileX, tileZ, level)) {
+                    load(tileX, tileZ, level);
+                    filled++;
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Drops every cached tile that overlaps the given square, e.g. after an island
+     * that changes the currents there was discovered
+     */
+    synchronized void invalidate(float minX, float minZ, float maxX, float maxZ) {
+        epoch++;
+        for (int level = 0; level < LEVELS; level++) {
+            int tileSize = TILE_CELLS << SPACING_SHIFT[level];
+            var iterator = levels[level].long2ObjectEntrySet().fastIterator();
+            while (iterator.hasNext()) {
+                Tile tile = iterator.next().getValue();
+                if (tile.originX <= maxX && tile.originX + tileSize >= minX
+                    && tile.originZ <= maxZ && tile.originZ + tileSize >= minZ) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    synchronized void clear() {
+        epoch++;
+        for (Long2ObjectLinkedOpenHashMap<Tile> tiles : levels) {
+            tiles.clear();
+        }
+    }
+
+    synchronized int size() {
+        int size = 0;
+        for (Long2ObjectLinkedOpenHashMap<Tile> tiles : levels) {
+            size += tiles.size();
+        }
+        return size;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    private Tile tileFor(int cellX, int cellZ, int level) {
+        int tileX = cellX >> 4;
+        int tileZ = cellZ >> 4;
+        synchronized (this) {
+            Tile tile = levels[level].getAndMoveToLast(ChunkIndex.key(tileX, tileZ));
+            if (tile != null) {
+                hits++;
+                return tile;
+            }
+            misses++;
+        }
+        return load(tileX, tileZ, level);
+    }
+
+    private synchronized boolean isCached(int tileX, int tileZ, int level) {
+        return levels[level].containsKey(ChunkIndex.key(tileX, tileZ));
+    }
+
+    private Tile load(int tileX, int tileZ, int level) {
+        long startEpoch;
+        synchronized (this) {
+            startEpoch = epoch;
+        }
+
+        // Fill outside the lock; the source may be slow and takes its own locks
+        int shift = SPACING_SHIFT[level];
+        Tile tile = new Tile((tileX * TILE_CELLS) << shift, (tileZ * TILE_CELLS) << shift);
+        source.fill(tile.originX, tile.originZ, 1 << shift, tile);
+
+        synchronized (this) {
+            if (epoch != startEpoch) {
+                return tile;
+            }
+            Long2ObjectLinkedOpenHashMap<Tile> tiles = levels[level];
+            Tile existing = tiles.putAndMoveToLast(ChunkIndex.key(tileX, tileZ), tile);
+            if (existing != null) {
+                // Another thread filled it meanwhile; both hold the same samples
+                return tile;
+            }
+            while (tiles.size() > maxTilesPerLevel) {
+                tiles.removeFirst();
+            }
+            return tile;
+        }
+    }
+
+    private static float bilinear(float[] samples, int i, float fx, float fz) {
+        float top = samples[i] + (samples[i + 1] - samples[i]) * fx;
+        float bottom = samples[i + TILE_SAMPLES] + (samples[i + TILE_SAMPLES + 1] - samples[i + TILE_SAMPLES]) * fx;
+        return top + (bottom - top) * fz;
+    }
+
+    /**
+     * Samples of one tile, row-major by z
+     */
+    static final class Tile {
+        final int originX;
+        final int originZ;
+        final float[] height = new float[TILE_SAMPLES * TILE_SAMPLES];
+        final byte[] biome = new byte[TILE_SAMPLES * TILE_SAMPLES];
+        final float[] currentX = new float[TILE_SAMPLES * TILE_SAMPLES];
+        final float[] currentZ = new float[TILE_SAMPLES * TILE_SAMPLES];
+
+        Tile(int originX, int originZ) {
+            this.originX = originX;
+            this.originZ = originZ;
+        }
+
+        void set(int index, float height, BiomeType biome, float currentX, float currentZ) {
+            this.height[index] = height;
+            this.biome[index] = (byte) biome.ordinal();
+            this.currentX[index] = currentX;
+            this.currentZ[index] = currentZ;
+        }
+    }
+}
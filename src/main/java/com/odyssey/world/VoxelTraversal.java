@@ -0,0 +1,152 @@
+package com.odyssey.world;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+
+/**
+ * Amanatides-Woo voxel traversal over the loaded chunks.
+ *
+ * The ray visits every block it passes through exactly once, in order, so thin corners
+ * can't be tunnelled through and each block costs a single lookup. Sections that hold only
+ * air, and chunks that aren't loaded, are crossed in one step to the section boundary
+ * instead of block by block, which makes long rays over open sea nearly free.
+ */
+final class VoxelTraversal {
+
+    private static final int SECTION_SIZE = ChunkSection.SIZE;
+    private static final int SECTION_MASK = ~(SECTION_SIZE - 1);
+
+    private VoxelTraversal() {
+    }
+
+    /**
+     * Casts a ray and returns the first solid block hit within maxDistance
+     */
+    static World.RaycastResult cast(ChunkIndex chunks, Vector3f origin, Vector3f direction, float maxDistance) {
+        float length = direction.length();
+        if (length == 0.0f || Float.isNaN(length)) {
+            return World.RaycastResult.miss(origin, maxDistance);
+        }
+        float ox = origin.x, oy = origin.y, oz = origin.z;
+        float dx = direction.x / length, dy = direction.y / length, dz = direction.z / length;
+
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+        int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+        float tDeltaX = stepX != 0 ? Math.abs(1.0f / dx) : Float.POSITIVE_INFINITY;
+        float tDeltaY = stepY != 0 ? Math.abs(1.0f / dy) : Float.POSITIVE_INFINITY;
+        float tDeltaZ = stepZ != 0 ? Math.abs(1.0f / dz) : Float.POSITIVE_INFINITY;
+        float tMaxX = boundary(x, ox, dx, stepX);
+        float tMaxY = boundary(y, oy, dy, stepY);
+        float tMaxZ = boundary(z, oz, dz, stepZ);
+
+        float t = 0.0f;
+        int axis = -1;
+        Chunk chunk = null;
+        int chunkX = 0, chunkZ = 0;
+
+        while (t <= maxDistance) {
+            // Nothing above or below the world can be hit once the ray is heading away from it
+            if ((y < 0 && stepY <= 0) || (y >= Chunk.CHUNK_HEIGHT && stepY >= 0)) {
+                break;
+            }
+
+            int cx = x >> 4, cz = z >> 4;
+            if (chunk == null || cx != chunkX || cz != chunkZ) {
+                chunk = chunks.get(cx, cz);
+                chunkX = cx;
+                chunkZ = cz;
+            }
+
+            if (chunk == null || chunk.isSectionEmpty(y >> 4)) {
+                // Jump straight to where the ray leaves this 16x16x16 cell
+                int cellX = x & SECTION_MASK, cellY = y & SECTION_MASK, cellZ = z & SECTION_MASK;
+                float exitX = exit(cellX, ox, dx, stepX);
+                float exitY = exit(cellY, oy, dy, stepY);
+                float exitZ = exit(cellZ, oz, dz, stepZ);
+
+                if (exitX <= exitY && exitX <= exitZ) {
+                    t = exitX;
+                    axis = 0;
+                    x = stepX > 0 ? cellX + SECTION_SIZE : cellX - 1;
+                    y = clamp((int) Math.floor(oy + dy * t), cellY);
+                    z = clamp((int) Math.floor(oz + dz * t), cellZ);
+                } else if (exitY <= exitZ) {
+                    t = exitY;
+                    axis = 1;
+                    x = clamp((int) Math.floor(ox + dx * t), cellX);
+                    y = stepY > 0 ? cellY + SECTION_SIZE : cellY - 1;
+                    z = clamp((int) Math.floor(oz + dz * t), cellZ);
+                } else {
+                    t = exitZ;
+                    axis = 2;
+                    x = clamp((int) Math.floor(ox + dx * t), cellX);
+                    y = clamp((int) Math.floor(oy + dy * t), cellY);
+                    z = stepZ > 0 ? cellZ + SECTION_SIZE : cellZ - 1;
+                }
+                tMaxX = boundary(x, ox, dx, stepX);
+                tMaxY = boundary(y, oy, dy, stepY);
+                tMaxZ = boundary(z, oz, dz, stepZ);
+                continue;
+            }
+
+            Block.BlockType block = chunk.getBlock(x & 15, y, z & 15);
+            if (block.isSolid()) {
+                Vector3i normal = new Vector3i();
+                if (axis == 0) normal.x = -stepX;
+                else if (axis == 1) normal.y = -stepY;
+                else if (axis == 2) normal.z = -stepZ;
+                Vector3f hitPosition = new Vector3f(ox + dx * t, oy + dy * t, oz + dz * t);
+                return new World.RaycastResult(true, new Vector3i(x, y, z), block, t, hitPosition, normal);
+            }
+
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX;
+                t = tMaxX;
+                tMaxX += tDeltaX;
+                axis = 0;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                t = tMaxY;
+                tMaxY += tDeltaY;
+                axis = 1;
+            } else {
+                z += stepZ;
+                t = tMaxZ;
+                tMaxZ += tDeltaZ;
+                axis = 2;
+            }
+        }
+
+        return World.RaycastResult.miss(new Vector3f(ox + dx * maxDistance, oy + dy * maxDistance,
+                                                      oz + dz * maxDistance), maxDistance);
+    }
+
+    /**
+     * Distance along the ray to the far face of the given block on one axis
+     */
+    private static float boundary(int block, float origin, float direction, int step) {
+        if (step > 0) return (block + 1 - origin) / direction;
+        if (step < 0) return (block - origin) / direction;
+        return Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Distance along the ray to the far face of the section cell starting at cellStart on one axis
+     */
+    private static float exit(int cellStart, float origin, float direction, int step) {
+        if (step > 0) return (cellStart + SECTION_SIZE - origin) / direction;
+        if (step < 0) return (cellStart - origin) / direction;
+        return Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Keeps a block coordinate inside its section cell despite rounding at the exit point
+     */
+    private static int clamp(int value, int cellStart) {
+        return Math.max(cellStart, Math.min(cellStart + SECTION_SIZE - 1, value));
+    }
+}
@@ -2,15 +2,21 @@ package com.odyssey.world;
 
 import com.odyssey.core.GameConfig;
 import com.odyssey.util.Logger;
+import com.odyssey.util.PerformanceProfiler;
 import com.odyssey.rendering.Camera;
 import com.odyssey.rendering.RenderCommand;
+import com.odyssey.rendering.RenderCommandArena;
 import com.odyssey.player.PlayerManager;
 import com.odyssey.player.Player;
+import com.odyssey.world.storage.ChunkSerializer;
+import com.odyssey.world.storage.ChunkStorage;
 import org.joml.Vector2i;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -20,27 +26,29 @@ import java.util.concurrent.*;
  */
 public class World {
     
-    private final Map<Vector2i, Chunk> loadedChunks = new ConcurrentHashMap<>();
-    private final Set<Vector2i> chunksToLoad = ConcurrentHashMap.newKeySet();
-    private final Set<Vector2i> chunksToUnload = ConcurrentHashMap.newKeySet();
-    private final Set<Vector2i> chunksToRebuild = ConcurrentHashMap.newKeySet();
+    private final ChunkIndex loadedChunks = new ChunkIndex();
     
     // World generation
     private final WorldGenerator worldGenerator;
+    private final ChunkBlockGenerator blockGenerator;
     
-    // Threading
-    private final ExecutorService chunkLoadingExecutor;
-    private final ExecutorService meshBuildingExecutor;
+    // Region-file persistence for generated and modified chunks
+    private final ChunkStorage chunkStorage;
+    
+    // Threading - one worker pool runs every pipeline stage
+    private final ExecutorService chunkWorkers;
+    private final ChunkPipeline pipeline;
     
     // World settings
     private final int renderDistance;
     private final int loadDistance;
-    private final int maxChunksPerFrame;
+    private final long meshUploadBudgetNanos;
+    private final float terrainPrefetchRadius;
     
     // Player tracking
     private Vector3f playerPosition = new Vector3f(0, 64, 0);
     private Vector2i currentChunk = new Vector2i(0, 0);
-    private Vector2i lastChunk = new Vector2i(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    private boolean streamingStarted = false;
     
     // Statistics
     private int totalChunksLoaded = 0;
@@ -48,6 +56,13 @@ public class World {
     private int chunksUnloadedThisFrame = 0;
     private int meshesBuiltThisFrame = 0;
     
+    // Render submission, only touched from the render thread; reused every frame
+    private final ChunkCuller chunkCuller = new ChunkCuller();
+    private final List<Chunk> visibleChunks = new ArrayList<>();
+    private final RenderCommandArena renderCommands = new RenderCommandArena();
+    private final Vector3f renderReferencePos = new Vector3f();
+    private ChunkGeometryArena geometryArena;
+    
     // World properties
     private final String worldName;
     private final long worldSeed;
@@ -59,18 +74,28 @@ public class World {
         // Load settings from config
         GameConfig config = GameConfig.getInstance();
         this.renderDistance = config.getInt("world.render_distance", 8);
-        this.loadDistance = renderDistance + 2;
-        this.maxChunksPerFrame = config.getInt("world.max_chunks_per_frame", 4);
+        // Visible chunks need their neighbours populated, which in turn need theirs
+        // generated, so two full rings (a diagonal reach of 2 * sqrt(2)) are kept past the view
+        this.loadDistance = renderDistance + 3;
+        // Time the render thread may spend uploading chunk meshes each frame
+        this.meshUploadBudgetNanos = (long) (config.getFloat("world.mesh_upload_budget_ms", 2.0f) * 1_000_000L);
+        // Blocks around the player with full-resolution terrain samples ready for physics and AI
+        this.terrainPrefetchRadius = config.getFloat("world.terrain_prefetch_radius", 64.0f);
         
         // Initialize world generator
         this.worldGenerator = new WorldGenerator(worldSeed);
+        this.blockGenerator = new ChunkBlockGenerator(worldSeed);
+        
+        // Chunks persist to saves/<world>/region so unloaded chunks are not regenerated
+        this.chunkStorage = new ChunkStorage(
+            Paths.get(config.getString("world.save_directory", "saves"), worldName, "region"));
         
         // Initialize thread pools
         int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
-        this.chunkLoadingExecutor = Executors.newFixedThreadPool(threadCount, 
-            r -> new Thread(r, "ChunkLoader-" + Thread.currentThread().threadId()));
-        this.meshBuildingExecutor = Executors.newFixedThreadPool(threadCount,
-            r -> new Thread(r, "MeshBuilder-" + Thread.currentThread().threadId()));
+        this.chunkWorkers = Executors.newFixedThreadPool(threadCount, 
+            r -> new Thread(r, "ChunkWorker-" + Thread.currentThread().threadId()));
+        this.pipeline = new ChunkPipeline(new PipelineStages(), chunkWorkers, threadCount * 2, renderDistance,
+                                          PerformanceProfiler.getInstance());
         
         Logger.world("Created world '{}' with seed {} (render distance: {}, threads: {})", 
                    worldName, worldSeed, renderDistance, threadCount);
@@ -99,171 +124,210 @@ public class World {
             Math.floorDiv((int) playerPosition.z, Chunk.CHUNK_SIZE)
         );
         
-        // Check if player moved to a different chunk
-        if (!newChunk.equals(currentChunk)) {
-            currentChunk.set(newChunk);
-            updateChunkLoading();
-        }
-        
         // Reset frame counters
         chunksLoadedThisFrame = 0;
         chunksUnloadedThisFrame = 0;
-        meshesBuiltThisFrame = 0;
         
-        // Process chunk operations
-        processChunkUnloading();
-        processChunkLoading();
-        processMeshBuilding();
+        // Re-centre streaming when the player moves to a different chunk, and on the first frame
+        if (!newChunk.equals(currentChunk) || !streamingStarted) {
+            currentChunk.set(newChunk);
+            streamingStarted = true;
+            pipeline.setCenter(currentChunk.x, currentChunk.y);
+            updateChunkLoading();
+            prefetchTerrainSamples();
+        }
+        
+        // Collect finished stages, upload meshes and schedule the next batch of work
+        meshesBuiltThisFrame = pipeline.tick(meshUploadBudgetNanos);
         
         // Update statistics
         totalChunksLoaded = loadedChunks.size();
     }
     
     /**
-     * Updates which chunks should be loaded/unloaded
+     * Loads chunks that came into range and unloads the ones that left it. Loading only
+     * registers the chunk with the pipeline; the work itself is scheduled nearest first.
      */
     private void updateChunkLoading() {
-        Set<Vector2i> shouldBeLoaded = new HashSet<>();
+        long loadDistanceSquared = (long) loadDistance * loadDistance;
         
-        // Calculate chunks that should be loaded
-        for (int x = currentChunk.x - loadDistance; x <= currentChunk.x + loadDistance; x++) {
-            for (int z = currentChunk.y - loadDistance; z <= currentChunk.y + loadDistance; z++) {
-                Vector2i chunkPos = new Vector2i(x, z);
-                double distance = chunkPos.distance(currentChunk);
-                
-                if (distance <= loadDistance) {
-                    shouldBeLoaded.add(new Vector2i(chunkPos));
-                }
+        // Unload chunks that left range, dropping any work still queued for them
+        List<Chunk> outOfRange = new ArrayList<>();
+        for (Chunk chunk : loadedChunks.values()) {
+            long dx = chunk.getChunkX() - currentChunk.x;
+            long dz = chunk.getChunkZ() - currentChunk.y;
+            if (dx * dx + dz * dz > loadDistanceSquared) {
+                outOfRange.add(chunk);
             }
         }
+        for (Chunk chunk : outOfRange) {
+            unloadChunk(chunk.getChunkX(), chunk.getChunkZ());
+            chunksUnloadedThisFrame++;
+        }
         
-        // Find chunks to load
-        chunksToLoad.clear();
-        for (Vector2i chunkPos : shouldBeLoaded) {
-            if (!loadedChunks.containsKey(chunkPos)) {
-                chunksToLoad.add(chunkPos);
+        // Load chunks that came into range
+        for (int x = currentChunk.x - loadDistance; x <= currentChunk.x + loadDistance; x++) {
+            for (int z = currentChunk.y - loadDistance; z <= currentChunk.y + loadDistance; z++) {
+                long dx = x - currentChunk.x;
+                long dz = z - currentChunk.y;
+                if (dx * dx + dz * dz <= loadDistanceSquared && !loadedChunks.contains(x, z)) {
+                    loadChunk(x, z);
+                    chunksLoadedThisFrame++;
+                }
             }
         }
         
-        // Find chunks to unload
-        chunksToUnload.clear();
-        for (Vector2i chunkPos : loadedChunks.keySet()) {
-            if (!shouldBeLoaded.contains(chunkPos)) {
-                chunksToUnload.add(chunkPos);
+        Logger.world("Chunk update: {} loaded, {} unloaded, {} in range", 
+                   chunksLoadedThisFrame, chunksUnloadedThisFrame, loadedChunks.size());
+    }
+    
+    /**
+     * Fills the generator's sample cache around the player in the background
+     */
+    private void prefetchTerrainSamples() {
+        float x = playerPosition.x;
+        float z = playerPosition.z;
+        chunkWorkers.submit(() -> {
+            try {
+                worldGenerator.prefetchAround(x, z, terrainPrefetchRadius);
+            } catch (Exception e) {
+                Logger.logError("Failed to prefetch terrain samples around ({}, {}): {}", x, z, e.getMessage());
             }
+        });
+    }
+    
+    /**
+     * Loads a chunk at the specified position
+     */
+    public void loadChunk(Vector2i chunkPos) {
+        loadChunk(chunkPos.x, chunkPos.y);
+    }
+    
+    private void loadChunk(int chunkX, int chunkZ) {
+        if (loadedChunks.contains(chunkX, chunkZ)) {
+            return;
         }
         
-        Logger.world("Chunk update: {} to load, {} to unload, {} loaded", 
-                   chunksToLoad.size(), chunksToUnload.size(), loadedChunks.size());
+        Chunk chunk = new Chunk(chunkX, chunkZ);
+        chunk.setGeometryArena(geometryArena);
+        loadedChunks.put(chunk);
+        pipeline.add(chunk);
     }
     
     /**
-     * Processes chunk loading
+     * Loads a chunk from its region file or generates its base terrain. Runs on a worker.
+     *
+     * @return the generator's chunk for the populate stage, or null if the chunk was read
+     *         from disk, which already holds features and, if it was lit, light
      */
-    private void processChunkLoading() {
-        if (chunksToLoad.isEmpty() || chunksLoadedThisFrame >= maxChunksPerFrame) {
-            return;
+    private WorldChunk generateChunk(Chunk chunk) {
+        if (loadChunkFromStorage(chunk)) {
+            Logger.world("Loaded chunk ({}, {}) from region file", chunk.getChunkX(), chunk.getChunkZ());
+            return null;
         }
         
-        // Sort chunks by distance to player
-        List<Vector2i> sortedChunks = new ArrayList<>(chunksToLoad);
-        sortedChunks.sort((a, b) -> {
-            double distA = a.distance(currentChunk);
-            double distB = b.distance(currentChunk);
-            return Double.compare(distA, distB);
-        });
+        // Get the world chunk from the generator and lay down its terrain
+        WorldChunk worldChunk = worldGenerator.getChunk(chunk.getChunkX(), chunk.getChunkZ());
+        blockGenerator.generateTerrain(worldChunk, chunk);
         
-        // Load closest chunks first
-        for (Vector2i chunkPos : sortedChunks) {
-            if (chunksLoadedThisFrame >= maxChunksPerFrame) {
-                break;
+        Logger.world("Generated chunk ({}, {})", chunk.getChunkX(), chunk.getChunkZ());
+        return worldChunk;
+    }
+    
+    /**
+     * Streams a previously saved chunk from its region file
+     * 
+     * @return true if the chunk was found on disk and loaded
+     */
+    private boolean loadChunkFromStorage(Chunk chunk) {
+        try {
+            byte[] data = chunkStorage.readChunk(chunk.getChunkX(), chunk.getChunkZ());
+            if (data == null) {
+                return false;
             }
-            
-            loadChunk(chunkPos);
-            chunksToLoad.remove(chunkPos);
-            chunksLoadedThisFrame++;
+            ChunkSerializer.deserialize(data, chunk);
+            return true;
+        } catch (IOException e) {
+            Logger.logError("Failed to read chunk ({}, {}) from disk, regenerating: {}", 
+                       chunk.getChunkX(), chunk.getChunkZ(), e.getMessage());
+            return false;
         }
     }
     
     /**
-     * Processes chunk unloading
+     * Queues a dirty chunk for writing to its region file
+     * 
+     * @return true if the chunk was queued
      */
-    private void processChunkUnloading() {
-        for (Vector2i chunkPos : chunksToUnload) {
-            unloadChunk(chunkPos);
-            chunksUnloadedThisFrame++;
+    private boolean saveChunk(Chunk chunk) {
+        // Chunks without their features yet are simply regenerated next time
+        if (!chunk.isDirty() || chunk.isGenerating() || !chunk.getStage().isAtLeast(ChunkStage.POPULATED)) {
+            return false;
         }
-        chunksToUnload.clear();
+        
+        // Unlit chunks are saved as they are and lit once they come into view again
+        byte[] data = ChunkSerializer.serialize(chunk);
+        chunk.markSaved();
+        chunkStorage.writeChunkAsync(chunk.getChunkX(), chunk.getChunkZ(), data);
+        return true;
     }
     
     /**
-     * Processes mesh building for chunks that need it
+     * Serializes every dirty loaded chunk and queues it for the storage I/O thread
+     * without waiting for the writes
+     * 
+     * @return the number of chunks queued
      */
-    private void processMeshBuilding() {
+    public int queueDirtyChunkSaves() {
+        int queued = 0;
         for (Chunk chunk : loadedChunks.values()) {
-            if (chunk.needsRebuild() && !chunk.isBuilding() && meshesBuiltThisFrame < maxChunksPerFrame) {
-                buildChunkMesh(chunk);
-                meshesBuiltThisFrame++;
+            if (saveChunk(chunk)) {
+                queued++;
             }
         }
+        return queued;
     }
     
     /**
-     * Loads a chunk at the specified position
+     * Persists every dirty loaded chunk and waits for the writes to reach disk
+     * 
+     * @return the number of chunks written
      */
-    public void loadChunk(Vector2i chunkPos) {
-        if (loadedChunks.containsKey(chunkPos)) {
-            return;
-        }
+    public int saveDirtyChunks() {
+        int saved = queueDirtyChunkSaves();
         
-        Chunk chunk = new Chunk(chunkPos.x, chunkPos.y);
-        loadedChunks.put(new Vector2i(chunkPos), chunk);
+        try {
+            chunkStorage.flush();
+        } catch (IOException e) {
+            Logger.logError("Failed to flush chunk storage for world '{}': {}", worldName, e.getMessage());
+        }
         
-        // Generate chunk data asynchronously
-        chunkLoadingExecutor.submit(() -> {
-            try {
-                // Get the world chunk from the generator
-                WorldChunk worldChunk = worldGenerator.getChunk(chunkPos.x, chunkPos.y);
-                
-                // Convert WorldChunk data to Chunk format
-                convertWorldChunkToChunk(worldChunk, chunk);
-                
-                // Calculate lighting on the generated chunk
-                chunk.calculateLighting();
-                
-                // Set up neighbors
-                updateChunkNeighbors(chunk);
-                
-                Logger.world("Generated chunk ({}, {})", chunkPos.x, chunkPos.y);
-            } catch (Exception e) {
-                Logger.logError("Failed to generate chunk ({}, {}): {}", chunkPos.x, chunkPos.y, e.getMessage());
-            }
-        });
+        Logger.world("Saved {} dirty chunks for world '{}'", saved, worldName);
+        return saved;
     }
     
     /**
      * Unloads a chunk at the specified position
      */
     public void unloadChunk(Vector2i chunkPos) {
-        Chunk chunk = loadedChunks.remove(chunkPos);
-        if (chunk != null) {
-            chunk.cleanup();
-            Logger.world("Unloaded chunk ({}, {})", chunkPos.x, chunkPos.y);
+        unloadChunk(chunkPos.x, chunkPos.y);
+    }
+    
+    private void unloadChunk(int chunkX, int chunkZ) {
+        Chunk chunk = loadedChunks.remove(chunkX, chunkZ);
+        if (chunk != null && pipeline.remove(chunkX, chunkZ)) {
+            disposeChunk(chunk);
         }
     }
     
     /**
-     * Builds mesh for a chunk asynchronously
+     * Persists and frees a chunk that is no longer indexed
      */
-    private void buildChunkMesh(Chunk chunk) {
-        meshBuildingExecutor.submit(() -> {
-            try {
-                chunk.buildMesh();
-            } catch (Exception e) {
-                Logger.logError("Failed to build mesh for chunk ({}, {}): {}", 
-                           chunk.getChunkX(), chunk.getChunkZ(), e.getMessage());
-            }
-        });
+    private void disposeChunk(Chunk chunk) {
+        // Persist modifications before the chunk is dropped
+        saveChunk(chunk);
+        chunk.cleanup();
+        Logger.world("Unloaded chunk ({}, {})", chunk.getChunkX(), chunk.getChunkZ());
     }
     
     /**
@@ -273,44 +337,44 @@ public class World {
         int x = chunk.getChunkX();
         int z = chunk.getChunkZ();
         
-        Chunk north = loadedChunks.get(new Vector2i(x, z - 1));
-        Chunk south = loadedChunks.get(new Vector2i(x, z + 1));
-        Chunk east = loadedChunks.get(new Vector2i(x + 1, z));
-        Chunk west = loadedChunks.get(new Vector2i(x - 1, z));
+        Chunk north = loadedChunks.get(x, z - 1);
+        Chunk south = loadedChunks.get(x, z + 1);
+        Chunk east = loadedChunks.get(x + 1, z);
+        Chunk west = loadedChunks.get(x - 1, z);
         
         chunk.setNeighbors(north, south, east, west);
         
         // Update neighbors to reference this chunk
         if (north != null) {
             north.setNeighbors(
-                loadedChunks.get(new Vector2i(x, z - 2)),
+                loadedChunks.get(x, z - 2),
                 chunk,
-                loadedChunks.get(new Vector2i(x + 1, z - 1)),
-                loadedChunks.get(new Vector2i(x - 1, z - 1))
+                loadedChunks.get(x + 1, z - 1),
+                loadedChunks.get(x - 1, z - 1)
             );
         }
         if (south != null) {
             south.setNeighbors(
                 chunk,
-                loadedChunks.get(new Vector2i(x, z + 2)),
-                loadedChunks.get(new Vector2i(x + 1, z + 1)),
-                loadedChunks.get(new Vector2i(x - 1, z + 1))
+                loadedChunks.get(x, z + 2),
+                loadedChunks.get(x + 1, z + 1),
+                loadedChunks.get(x - 1, z + 1)
             );
         }
         if (east != null) {
             east.setNeighbors(
-                loadedChunks.get(new Vector2i(x + 1, z - 1)),
-                loadedChunks.get(new Vector2i(x + 1, z + 1)),
-                loadedChunks.get(new Vector2i(x + 2, z)),
+                loadedChunks.get(x + 1, z - 1),
+                loadedChunks.get(x + 1, z + 1),
+                loadedChunks.get(x + 2, z),
                 chunk
             );
         }
         if (west != null) {
             west.setNeighbors(
-                loadedChunks.get(new Vector2i(x - 1, z - 1)),
-                loadedChunks.get(new Vector2i(x - 1, z + 1)),
+                loadedChunks.get(x - 1, z - 1),
+                loadedChunks.get(x - 1, z + 1),
                 chunk,
-                loadedChunks.get(new Vector2i(x - 2, z))
+                loadedChunks.get(x - 2, z)
             );
         }
     }
@@ -319,122 +383,180 @@ public class World {
      * Gets a block at world coordinates
      */
     public Block.BlockType getBlock(int x, int y, int z) {
-        Vector2i chunkPos = new Vector2i(
-            Math.floorDiv(x, Chunk.CHUNK_SIZE),
-            Math.floorDiv(z, Chunk.CHUNK_SIZE)
-        );
-        
-        Chunk chunk = loadedChunks.get(chunkPos);
-        if (chunk == null) {
-            return Block.BlockType.AIR;
-        }
-        
-        int localX = x - chunkPos.x * Chunk.CHUNK_SIZE;
-        int localZ = z - chunkPos.y * Chunk.CHUNK_SIZE;
-        
-        return chunk.getBlock(localX, y, localZ);
+        return loadedChunks.getBlock(x, y, z);
     }
     
     /**
      * Sets a block at world coordinates
      */
     public void setBlock(int x, int y, int z, Block.BlockType blockType) {
-        Vector2i chunkPos = new Vector2i(
-            Math.floorDiv(x, Chunk.CHUNK_SIZE),
-            Math.floorDiv(z, Chunk.CHUNK_SIZE)
-        );
+        loadedChunks.setBlock(x, y, z, blockType);
+        
+        // Remesh the chunk, and the neighbour sharing the face if the block is on an edge
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        int localX = x & 15;
+        int localZ = z & 15;
+        pipeline.requestRemesh(chunkX, chunkZ);
+        if (localX == 0) pipeline.requestRemesh(chunkX - 1, chunkZ);
+        if (localX == Chunk.CHUNK_SIZE - 1) pipeline.requestRemesh(chunkX + 1, chunkZ);
+        if (localZ == 0) pipeline.requestRemesh(chunkX, chunkZ - 1);
+        if (localZ == Chunk.CHUNK_SIZE - 1) pipeline.requestRemesh(chunkX, chunkZ + 1);
+    }
+    
+    /**
+     * Gets render commands for all visible chunks: in render distance of the player,
+     * inside the camera's frustum and not hidden behind terrain.
+     * 
+     * The commands come from a per-frame arena and the returned list is the same view
+     * every call, so both are only valid until the next call; a steady-state frame
+     * allocates nothing here.
+     */
+    public List<RenderCommand> getRenderCommands(Camera camera) {
+        getVisibleChunks(camera);
         
-        Chunk chunk = loadedChunks.get(chunkPos);
-        if (chunk == null) {
-            return;
+        renderCommands.reset();
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            visibleChunks.get(i).addRenderCommands(renderCommands);
         }
         
-        int localX = x - chunkPos.x * Chunk.CHUNK_SIZE;
-        int localZ = z - chunkPos.y * Chunk.CHUNK_SIZE;
-        
-        chunk.setBlock(localX, y, localZ, blockType);
+        return renderCommands.getCommands();
     }
     
     /**
-     * Gets render commands for all visible chunks
+     * Gets the chunks in render distance of the player that pass frustum and occlusion
+     * culling. The returned list is reused, so it is only valid until the next call here
+     * or to {@link #getRenderCommands}.
      */
-    public List<RenderCommand> getRenderCommands(Camera camera) {
-        List<RenderCommand> commands = new ArrayList<>();
-        
+    public List<Chunk> getVisibleChunks(Camera camera) {
         // Use player position for distance calculations if available, otherwise camera
-        Vector3f referencePos;
         PlayerManager playerManager = PlayerManager.getInstance();
         Player player = playerManager.getCurrentPlayer();
         
         if (player != null) {
-            referencePos = player.getPosition();
+            player.getPosition(renderReferencePos);
         } else {
-            referencePos = camera.getPosition();
+            camera.getPosition(renderReferencePos);
         }
         
-        float renderDistanceSquared = renderDistance * Chunk.CHUNK_SIZE * renderDistance * Chunk.CHUNK_SIZE;
-        
+        visibleChunks.clear();
+        return chunkCuller.cull(loadedChunks, camera, renderReferencePos, renderDistance, visibleChunks);
+    }
+    
+    /**
+     * Gets the chunks that passed culling in the last call to getVisibleChunks or
+     * getRenderCommands, without culling again. Valid until the next of those calls.
+     */
+    public List<Chunk> getLastVisibleChunks() {
+        return visibleChunks;
+    }
+    
+    /**
+     * Moves chunk geometry into shared arena buffers, or back into per-chunk meshes for
+     * null. Loaded chunks are remeshed so their geometry moves over; until then they keep
+     * drawing from where they are. Must run on the GL thread.
+     */
+    public void setGeometryArena(ChunkGeometryArena arena) {
+        if (arena == geometryArena) {
+            return;
+        }
+        geometryArena = arena;
         for (Chunk chunk : loadedChunks.values()) {
-            if (chunk.isEmpty()) {
-                continue;
-            }
-            
-            // Distance culling
-            Vector3i chunkWorldPos = chunk.getWorldPosition();
-            float distanceSquared = referencePos.distanceSquared(
-                chunkWorldPos.x + Chunk.CHUNK_SIZE / 2.0f,
-                referencePos.y,
-                chunkWorldPos.z + Chunk.CHUNK_SIZE / 2.0f
-            );
-            
-            if (distanceSquared <= renderDistanceSquared) {
-                commands.addAll(chunk.getRenderCommands());
-            }
+            chunk.setGeometryArena(arena);
+            pipeline.requestRemesh(chunk.getChunkX(), chunk.getChunkZ());
         }
-        
-        return commands;
+        Logger.world("World '{}' now draws chunks from {}", worldName,
+                     arena != null ? "a shared geometry arena" : "per-chunk meshes");
+    }
+    
+    public ChunkGeometryArena getGeometryArena() {
+        return geometryArena;
+    }
+    
+    /**
+     * Gets the culling counts from the last call to getVisibleChunks or getRenderCommands
+     */
+    public ChunkCuller.Stats getCullingStats() {
+        return chunkCuller.getStats();
+    }
+    
+    public void setOcclusionCulling(boolean enabled) {
+        chunkCuller.setOcclusionCulling(enabled);
     }
     
     /**
-     * Performs raycast to find the first solid block hit
+     * Performs raycast to find the first solid block hit, visiting each block on the
+     * ray once and skipping empty sections
      */
     public RaycastResult raycast(Vector3f origin, Vector3f direction, float maxDistance) {
-        Vector3f current = new Vector3f(origin);
-        Vector3f step = new Vector3f(direction).normalize().mul(0.1f);
-        
-        for (float distance = 0; distance < maxDistance; distance += 0.1f) {
-            int x = (int) Math.floor(current.x);
-            int y = (int) Math.floor(current.y);
-            int z = (int) Math.floor(current.z);
-            
-            Block.BlockType block = getBlock(x, y, z);
-            if (block.isSolid()) {
-                return new RaycastResult(true, new Vector3i(x, y, z), block, distance, current);
-            }
-            
-            current.add(step);
+        return VoxelTraversal.cast(loadedChunks, origin, direction, maxDistance);
+    }
+    
+    /**
+     * Casts many rays at once, e.g. for cannon aiming or AI line-of-sight checks.
+     * Rays run back to back so nearby rays reuse the chunk lookups of the previous one.
+     *
+     * @return one result per ray, in the order given
+     */
+    public RaycastResult[] raycast(Vector3f[] origins, Vector3f[] directions, float maxDistance) {
+        if (origins.length != directions.length) {
+            throw new IllegalArgumentException("Expected one direction per origin, got " 
+                                               + origins.length + " origins and " + directions.length + " directions");
         }
-        
-        return new RaycastResult(false, null, null, maxDistance, current);
+        RaycastResult[] results = new RaycastResult[origins.length];
+        for (int i = 0; i < origins.length; i++) {
+            results[i] = VoxelTraversal.cast(loadedChunks, origins[i], directions[i], maxDistance);
+        }
+        return results;
+    }
+    
+    /**
+     * Checks whether no solid block lies between two points
+     */
+    public boolean hasLineOfSight(Vector3f from, Vector3f to) {
+        Vector3f direction = new Vector3f(to).sub(from);
+        float distance = direction.length();
+        return distance == 0.0f || !VoxelTraversal.cast(loadedChunks, from, direction, distance).hit;
     }
     
     /**
      * Result of a raycast operation
      */
     public static class RaycastResult {
+        private static final Vector3i NO_FACE = new Vector3i();
+        
         public final boolean hit;
         public final Vector3i blockPosition;
         public final Block.BlockType blockType;
         public final float distance;
         public final Vector3f hitPosition;
+        /** Outward normal of the face the ray entered through; zero if the ray started inside the block */
+        public final Vector3i faceNormal;
         
         public RaycastResult(boolean hit, Vector3i blockPosition, Block.BlockType blockType, 
                            float distance, Vector3f hitPosition) {
+            this(hit, blockPosition, blockType, distance, hitPosition, new Vector3i(NO_FACE));
+        }
+        
+        public RaycastResult(boolean hit, Vector3i blockPosition, Block.BlockType blockType, 
+                           float distance, Vector3f hitPosition, Vector3i faceNormal) {
             this.hit = hit;
             this.blockPosition = blockPosition;
             this.blockType = blockType;
             this.distance = distance;
             this.hitPosition = new Vector3f(hitPosition);
+            this.faceNormal = faceNormal;
+        }
+        
+        static RaycastResult miss(Vector3f endPosition, float maxDistance) {
+            return new RaycastResult(false, null, null, maxDistance, endPosition);
+        }
+        
+        /**
+         * Gets the position of the empty block in front of the hit face, where a placed block would go
+         */
+        public Vector3i getAdjacentPosition() {
+            return hit ? new Vector3i(blockPosition).add(faceNormal) : null;
         }
     }
     
@@ -445,27 +567,29 @@ public class World {
         Logger.world("Shutting down world '{}'...", worldName);
         
         // Shutdown executors
-        chunkLoadingExecutor.shutdown();
-        meshBuildingExecutor.shutdown();
+        chunkWorkers.shutdown();
         
         try {
-            if (!chunkLoadingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                chunkLoadingExecutor.shutdownNow();
-            }
-            if (!meshBuildingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                meshBuildingExecutor.shutdownNow();
+            if (!chunkWorkers.awaitTermination(5, TimeUnit.SECONDS)) {
+                chunkWorkers.shutdownNow();
             }
         } catch (InterruptedException e) {
-            chunkLoadingExecutor.shutdownNow();
-            meshBuildingExecutor.shutdownNow();
+            chunkWorkers.shutdownNow();
         }
         
-        // Cleanup all chunks
+        // Persist and cleanup all chunks
         for (Chunk chunk : loadedChunks.values()) {
+            saveChunk(chunk);
             chunk.cleanup();
         }
         loadedChunks.clear();
         
+        try {
+            chunkStorage.close();
+        } catch (IOException e) {
+            Logger.logError("Failed to close chunk storage for world '{}': {}", worldName, e.getMessage());
+        }
+        
         Logger.world("World '{}' shut down successfully", worldName);
     }
     
@@ -479,13 +603,20 @@ public class World {
     public Vector3f getPlayerPosition() { return new Vector3f(playerPosition); }
     public Vector2i getCurrentChunk() { return new Vector2i(currentChunk); }
     public int getRenderDistance() { return renderDistance; }
+    public ChunkStorage getChunkStorage() { return chunkStorage; }
     
     /**
      * Gets a chunk by its coordinates
      */
     public Chunk getChunk(int chunkX, int chunkZ) {
-        Vector2i chunkPos = new Vector2i(chunkX, chunkZ);
-        return loadedChunks.get(chunkPos);
+        return loadedChunks.get(chunkX, chunkZ);
+    }
+    
+    /**
+     * Gets the index of loaded chunks for allocation-free lookups
+     */
+    public ChunkIndex getChunkIndex() {
+        return loadedChunks;
     }
     
     /**
@@ -493,10 +624,8 @@ public class World {
      */
     public Map<String, Object> getLoadedChunks() {
         Map<String, Object> chunkData = new HashMap<>();
-        for (Map.Entry<Vector2i, Chunk> entry : loadedChunks.entrySet()) {
-            Vector2i pos = entry.getKey();
-            Chunk chunk = entry.getValue();
-            String key = pos.x + "," + pos.y;
+        for (Chunk chunk : loadedChunks.values()) {
+            String key = chunk.getChunkX() + "," + chunk.getChunkZ();
             chunkData.put(key, chunk);
         }
         return chunkData;
@@ -517,215 +646,62 @@ public class World {
         stats.put("worldName", worldName);
         stats.put("worldSeed", worldSeed);
         stats.put("chunksLoaded", totalChunksLoaded);
-        stats.put("chunksToLoad", chunksToLoad.size());
-        stats.put("chunksToUnload", chunksToUnload.size());
-        stats.put("renderDistance", renderDistance);
-        stats.put("playerChunk", currentChunk.toString());
-        return stats;
-    }
-    
-    /**
-     * Converts WorldChunk terrain and biome data to Chunk block format
-     */
-    private void convertWorldChunkToChunk(WorldChunk worldChunk, Chunk chunk) {
-        int chunkSize = worldChunk.getChunkSize();
-        
-        // Convert terrain data to blocks
-        for (int x = 0; x < chunkSize && x < Chunk.CHUNK_SIZE; x++) {
-            for (int z = 0; z < chunkSize && z < Chunk.CHUNK_SIZE; z++) {
-                float height = worldChunk.getHeightAt(x, z);
-                BiomeType biome = worldChunk.getBiomeAt(x, z);
-                
-                // Generate terrain column
-                generateTerrainColumn(chunk, x, z, height, biome);
-            }
-        }
         
-        // Add islands from WorldChunk
-        for (Island island : worldChunk.getIslands()) {
-            generateIslandBlocks(chunk, island, worldChunk);
+        // Chunk pipeline
+        int[] stageCounts = pipeline.getStageCounts();
+        Map<String, Integer> chunksByStage = new LinkedHashMap<>();
+        for (ChunkStage stage : ChunkStage.values()) {
+            chunksByStage.put(stage.name(), stageCounts[stage.ordinal()]);
         }
+        stats.put("chunksByStage", chunksByStage);
+        stats.put("pipelineQueued", pipeline.getQueuedCount());
+        stats.put("pipelineInFlight", pipeline.getInFlightCount());
+        stats.put("pipelineAwaitingUpload", pipeline.getAwaitingUploadCount());
+        stats.put("renderDistance", renderDistance);
+        stats.put("culling", chunkCuller.getStats().toString());
+        stats.put("playerChunk", currentChunk.toString());
         
-        Logger.world("Converted WorldChunk to Chunk format for chunk ({}, {})", 
-                    worldChunk.getChunkX(), worldChunk.getChunkZ());
+        // Per-chunk storage footprint
+        Map<String, Chunk.MemoryReport> chunkMemory = new HashMap<>();
+        long chunkMemoryBytes = 0;
+        for (Chunk chunk : loadedChunks.values()) {
+            Chunk.MemoryReport report = chunk.getMemoryReport();
+            chunkMemory.put(chunk.getChunkX() + "," + chunk.getChunkZ(), report);
+            chunkMemoryBytes += report.totalBytes;
+        }
+        stats.put("chunkMemory", chunkMemory);
+        stats.put("chunkMemoryBytes", chunkMemoryBytes);
+        stats.put("chunkMemoryFlatBytes", chunkMemory.size() * Chunk.MemoryReport.FLAT_STORAGE_BYTES);
+        
+        // Region file I/O
+        stats.put("chunksReadFromDisk", chunkStorage.getChunksRead());
+        stats.put("chunksWrittenToDisk", chunkStorage.getChunksWritten());
+        stats.put("pendingChunkWrites", chunkStorage.getPendingWriteCount());
+        return stats;
     }
     
     /**
-     * Generates a terrain column based on height and biome
+     * Connects the chunk pipeline to generation, storage and neighbour bookkeeping
      */
-    private void generateTerrainColumn(Chunk chunk, int x, int z, float height, BiomeType biome) {
-        int terrainHeight = (int) Math.floor(height);
-        int seaLevel = 64; // Standard sea level
-        
-        // Generate bedrock layer
-        chunk.setBlock(x, 0, z, Block.BlockType.STONE);
-        
-        // Generate stone layers
-        for (int y = 1; y < Math.max(terrainHeight - 3, 1); y++) {
-            chunk.setBlock(x, y, z, Block.BlockType.STONE);
-        }
-        
-        // Generate subsurface layers based on biome
-        Block.BlockType subsurfaceBlock = getSubsurfaceBlockForBiome(biome);
-        for (int y = Math.max(terrainHeight - 3, 1); y < terrainHeight; y++) {
-            if (y > 0 && y < Chunk.CHUNK_HEIGHT) {
-                chunk.setBlock(x, y, z, subsurfaceBlock);
-            }
-        }
-        
-        // Generate surface block
-        if (terrainHeight > 0 && terrainHeight < Chunk.CHUNK_HEIGHT) {
-            Block.BlockType surfaceBlock = getSurfaceBlockForBiome(biome, terrainHeight, seaLevel);
-            chunk.setBlock(x, terrainHeight, z, surfaceBlock);
+    private final class PipelineStages implements ChunkPipeline.Stages {
+        @Override
+        public WorldChunk generate(Chunk chunk) {
+            return generateChunk(chunk);
         }
         
-        // Fill with water if below sea level
-        for (int y = terrainHeight + 1; y <= seaLevel && y < Chunk.CHUNK_HEIGHT; y++) {
-            chunk.setBlock(x, y, z, Block.BlockType.WATER);
+        @Override
+        public void populate(Chunk chunk, WorldChunk worldChunk) {
+            blockGenerator.populate(chunk, worldChunk);
         }
         
-        // Generate vegetation on surface
-        if (terrainHeight > seaLevel && terrainHeight + 1 < Chunk.CHUNK_HEIGHT) {
-            generateVegetation(chunk, x, terrainHeight + 1, z, biome);
-        }
-    }
-    
-    /**
-     * Gets the appropriate surface block for a biome
-     */
-    private Block.BlockType getSurfaceBlockForBiome(BiomeType biome, int height, int seaLevel) {
-        switch (biome) {
-            case DESERT:
-                return Block.BlockType.SAND;
-            case TROPICAL_FOREST:
-            case JUNGLE:
-            case FOREST:
-                return Block.BlockType.GRASS;
-            case OCEAN:
-                return height <= seaLevel ? Block.BlockType.SAND : Block.BlockType.GRASS;
-            case TUNDRA:
-                return Block.BlockType.STONE;
-            case PLAINS:
-            case GRASSLAND:
-            case SAVANNA:
-            default:
-                return Block.BlockType.GRASS;
-        }
-    }
-    
-    /**
-     * Gets the appropriate subsurface block for a biome
-     */
-    private Block.BlockType getSubsurfaceBlockForBiome(BiomeType biome) {
-        switch (biome) {
-            case DESERT:
-                return Block.BlockType.SAND;
-            case OCEAN:
-                return Block.BlockType.SAND;
-            default:
-                return Block.BlockType.DIRT;
-        }
-    }
-    
-    /**
-     * Generates vegetation based on biome
-     */
-    private void generateVegetation(Chunk chunk, int x, int y, int z, BiomeType biome) {
-        if (y >= Chunk.CHUNK_HEIGHT) return;
-        
-        // Simple vegetation generation based on biome
-        switch (biome) {
-            case TROPICAL_FOREST:
-            case JUNGLE:
-                if (Math.random() < 0.1) { // 10% chance for palm trees
-                    chunk.setBlock(x, y, z, Block.BlockType.PALM_WOOD);
-                    if (y + 1 < Chunk.CHUNK_HEIGHT) {
-                        chunk.setBlock(x, y + 1, z, Block.BlockType.PALM_LEAVES);
-                    }
-                }
-                break;
-            case FOREST:
-                if (Math.random() < 0.05) { // 5% chance for regular trees
-                    chunk.setBlock(x, y, z, Block.BlockType.WOOD);
-                    if (y + 1 < Chunk.CHUNK_HEIGHT) {
-                        chunk.setBlock(x, y + 1, z, Block.BlockType.LEAVES);
-                    }
-                }
-                break;
-            case PLAINS:
-            case GRASSLAND:
-                // No additional vegetation for now
-                break;
-        }
-    }
-    
-    /**
-     * Generates blocks for islands within the chunk
-     */
-    private void generateIslandBlocks(Chunk chunk, Island island, WorldChunk worldChunk) {
-        // Convert island world coordinates to local chunk coordinates
-        Vector2f islandCenter = new Vector2f(island.getCenterX(), island.getCenterZ());
-        Vector2f chunkWorldPos = worldChunk.localToWorld(0, 0);
-        
-        float localX = islandCenter.x - chunkWorldPos.x;
-        float localZ = islandCenter.y - chunkWorldPos.y;
-        
-        // Only generate if island center is within this chunk
-        if (localX >= 0 && localX < worldChunk.getChunkSize() && 
-            localZ >= 0 && localZ < worldChunk.getChunkSize()) {
-            
-            int centerX = (int) Math.floor(localX);
-            int centerZ = (int) Math.floor(localZ);
-            float radius = island.getSize();
-            
-            // Generate island terrain in a circular pattern
-            for (int x = Math.max(0, centerX - (int)radius); 
-                 x <= Math.min(Chunk.CHUNK_SIZE - 1, centerX + (int)radius); x++) {
-                for (int z = Math.max(0, centerZ - (int)radius); 
-                     z <= Math.min(Chunk.CHUNK_SIZE - 1, centerZ + (int)radius); z++) {
-                    
-                    float distance = (float) Math.sqrt((x - centerX) * (x - centerX) + (z - centerZ) * (z - centerZ));
-                    
-                    if (distance <= radius) {
-                        float worldX = worldChunk.localToWorld(x, z).x;
-                        float worldZ = worldChunk.localToWorld(x, z).y;
-                        
-                        // Get height and biome from island
-                        float baseHeight = island.getHeightAt(worldX, worldZ);
-                        BiomeType biome = island.getBiomeAt(worldX, worldZ);
-                        
-                        // Generate island terrain
-                        generateIslandTerrain(chunk, x, z, (int)baseHeight, biome);
-                    }
-                }
-            }
-        }
-    }
-    
-    /**
-     * Generates terrain for a specific island location
-     */
-    private void generateIslandTerrain(Chunk chunk, int x, int z, int height, BiomeType biome) {
-        int seaLevel = 64;
-        int baseHeight = Math.max(seaLevel, height);
-        
-        // Generate island blocks from sea level up
-        for (int y = seaLevel; y <= baseHeight && y < Chunk.CHUNK_HEIGHT; y++) {
-            if (y == baseHeight) {
-                // Surface block
-                chunk.setBlock(x, y, z, getSurfaceBlockForBiome(biome, y, seaLevel));
-            } else if (y >= baseHeight - 2) {
-                // Subsurface
-                chunk.setBlock(x, y, z, getSubsurfaceBlockForBiome(biome));
-            } else {
-                // Core
-                chunk.setBlock(x, y, z, Block.BlockType.STONE);
-            }
+        @Override
+        public void linkNeighbors(Chunk chunk) {
+            updateChunkNeighbors(chunk);
         }
         
-        // Add vegetation on top
-        if (baseHeight + 1 < Chunk.CHUNK_HEIGHT) {
-            generateVegetation(chunk, x, baseHeight + 1, z, biome);
+        @Override
+        public void dispose(Chunk chunk) {
+            disposeChunk(chunk);
         }
     }
-}
\ No newline at end of file
+}
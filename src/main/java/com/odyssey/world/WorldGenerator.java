@@ -12,6 +12,8 @@ import org.joml.Vector2f;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Main world generator - creates and manages the entire game world
@@ -45,9 +47,23 @@ public class WorldGenerator {
     private final List<TradeRoute> tradeRoutes;
     private final List<NavigationHazard> hazards;
     
+    // Islands and hazards by position, for range and nearest queries
+    private final SpatialIndex<Island> islandIndex;
+    private final SpatialIndex<NavigationHazard> hazardIndex;
+    private static final float SPATIAL_CELL_SIZE = 256.0f;
+    
     // Systems
     private final WeatherSystem weatherSystem;
     
+    // Precomputed height, biome and current grids for point queries
+    private final TerrainSampleCache sampleCache;
+    
+    /** Sample spacing for {@link #getHeightAt(float, float, int)}: 1, 4 or 16 blocks */
+    public static final int DETAIL_FINE = TerrainSampleCache.FINE;
+    public static final int DETAIL_MEDIUM = TerrainSampleCache.MEDIUM;
+    public static final int DETAIL_COARSE = TerrainSampleCache.COARSE;
+    private static final int SAMPLE_CACHE_TILES_PER_LEVEL = 256;
+    
     // Generation parameters
     private static final int SEA_LEVEL = 64;
     private static final int MAX_HEIGHT = 128;
@@ -65,9 +81,8 @@ public class WorldGenerator {
     private static final float HUMIDITY_DRY = -0.3f;
     private static final float HUMIDITY_WET = 0.3f;
     
-    // Generation state
-    private boolean isGenerating;
-    private final Object generationLock = new Object();
+    // Generation state; chunks generate concurrently on any number of threads
+    private final AtomicInteger chunksGenerating = new AtomicInteger();
     
     public WorldGenerator(long seed) {
         this(seed, new WorldConfig());
@@ -97,10 +112,13 @@ public class WorldGenerator {
         this.loadedChunks = new ConcurrentHashMap<>();
         this.islands = new ConcurrentHashMap<>();
         this.tradeRoutes = new ArrayList<>();
-        this.hazards = new ArrayList<>();
+        this.hazards = new CopyOnWriteArrayList<>();
+        this.islandIndex = new SpatialIndex<>(SPATIAL_CELL_SIZE);
+        this.hazardIndex = new SpatialIndex<>(SPATIAL_CELL_SIZE);
         
         // Initialize systems
         this.weatherSystem = new WeatherSystem(seed + 8000, config.getWeatherConfig());
+        this.sampleCache = new TerrainSampleCache(this::fillSamples, SAMPLE_CACHE_TILES_PER_LEVEL);
         
         Logger.world("Initialized world generator with seed: {}", seed);
         
@@ -119,122 +137,157 @@ public class WorldGenerator {
             return loadedChunks.get(chunkKey);
         }
         
-        // Generate new chunk
-        synchronized (generationLock) {
-            // Double-check after acquiring lock
-            if (loadedChunks.containsKey(chunkKey)) {
-                return loadedChunks.get(chunkKey);
-            }
-            
-            WorldChunk chunk = generateWorldChunk(chunkX, chunkZ);
-            loadedChunks.put(chunkKey, chunk);
-            
-            Logger.world("Generated chunk ({}, {})", chunkX, chunkZ);
-            return chunk;
+        // Generate new chunk. Two threads racing for the same chunk produce identical
+        // data, so the loser simply adopts the winner's copy.
+        WorldChunk chunk = generateChunk(chunkX, chunkZ);
+        WorldChunk existing = loadedChunks.putIfAbsent(chunkKey, chunk);
+        if (existing != null) {
+            return existing;
         }
+        
+        Logger.world("Generated chunk ({}, {})", chunkX, chunkZ);
+        return chunk;
+    }
+    
+    /**
+     * Generates a world chunk without caching it. The result depends only on the seed
+     * and the coordinates, so chunks may be generated on any threads in any order.
+     * Islands and hazards found along the way are still registered with the generator.
+     */
+    public WorldChunk generateChunk(int chunkX, int chunkZ) {
+        return generateWorldChunk(chunkX, chunkZ);
     }
     
     /**
      * Gets the height at a specific world coordinate
      */
     public float getHeightAt(float worldX, float worldZ) {
-        // Find the chunk containing this coordinate
-        int chunkX = (int) Math.floor(worldX / config.getChunkSize());
-        int chunkZ = (int) Math.floor(worldZ / config.getChunkSize());
-        
-        WorldChunk chunk = getChunk(chunkX, chunkZ);
-        
-        // Get local coordinates within the chunk
-        float localX = worldX - (chunkX * config.getChunkSize());
-        float localZ = worldZ - (chunkZ * config.getChunkSize());
-        
-        return chunk.getHeightAt(localX, localZ);
+        return sampleCache.getHeight(worldX, worldZ, DETAIL_FINE);
+    }
+    
+    /**
+     * Gets the height at a specific world coordinate, interpolated from samples spaced by
+     * the given detail level. Coarser levels suit distant queries such as AI route planning.
+     */
+    public float getHeightAt(float worldX, float worldZ, int detail) {
+        return sampleCache.getHeight(worldX, worldZ, detail);
     }
     
     /**
      * Gets the biome at a specific world coordinate
      */
     public BiomeType getBiomeAt(float worldX, float worldZ) {
-        int chunkX = (int) Math.floor(worldX / config.getChunkSize());
-        int chunkZ = (int) Math.floor(worldZ / config.getChunkSize());
-        
-        WorldChunk chunk = getChunk(chunkX, chunkZ);
-        
-        float localX = worldX - (chunkX * config.getChunkSize());
-        float localZ = worldZ - (chunkZ * config.getChunkSize());
-        
-        return chunk.getBiomeAt(localX, localZ);
+        return sampleCache.getBiome(worldX, worldZ, DETAIL_FINE);
     }
     
     /**
      * Gets all islands within a specified radius of a point
      */
     public List<Island> getIslandsInRadius(float centerX, float centerZ, float radius) {
-        List<Island> nearbyIslands = new ArrayList<>();
-        
-        for (Island island : islands.values()) {
-            float distance = (float) Math.sqrt(
-                (island.getCenterX() - centerX) * (island.getCenterX() - centerX) +
-                (island.getCenterZ() - centerZ) * (island.getCenterZ() - centerZ)
-            );
-            
-            if (distance <= radius + island.getType().getRadius()) {
-                nearbyIslands.add(island);
-            }
-        }
-        
-        return nearbyIslands;
+        return islandIndex.queryRadius(centerX, centerZ, radius, new ArrayList<>());
     }
     
     /**
      * Gets the nearest island to a point
      */
     public Island getNearestIsland(float worldX, float worldZ) {
-        Island nearest = null;
-        float nearestDistance = Float.MAX_VALUE;
-        
-        for (Island island : islands.values()) {
-            float distance = (float) Math.sqrt(
-                (island.getCenterX() - worldX) * (island.getCenterX() - worldX) +
-                (island.getCenterZ() - worldZ) * (island.getCenterZ() - worldZ)
-            );
-            
-            if (distance < nearestDistance) {
-                nearestDistance = distance;
-                nearest = island;
-            }
-        }
-        
-        return nearest;
+        return islandIndex.nearest(worldX, worldZ);
+    }
+    
+    /**
+     * Gets the given number of islands nearest to a point, nearest first
+     */
+    public List<Island> getNearestIslands(float worldX, float worldZ, int count) {
+        return islandIndex.nearest(worldX, worldZ, count, new ArrayList<>(count));
     }
     
     /**
      * Gets ocean current velocity at a point
      */
     public Vector2f getOceanCurrentAt(float worldX, float worldZ) {
-        // Generate ocean currents using noise
-        float currentX = currentNoise.sample(worldX * 0.001f, worldZ * 0.001f) * config.getMaxCurrentSpeed();
-        float currentZ = currentNoise.sample(worldX * 0.001f + 1000, worldZ * 0.001f + 1000) * config.getMaxCurrentSpeed();
+        return sampleCache.getCurrent(worldX, worldZ, DETAIL_FINE, new Vector2f());
+    }
+    
+    /**
+     * Gets ocean current velocity at a point without allocating
+     * 
+     * @return dest, holding the current velocity
+     */
+    public Vector2f getOceanCurrentAt(float worldX, float worldZ, Vector2f dest) {
+        return sampleCache.getCurrent(worldX, worldZ, DETAIL_FINE, dest);
+    }
+    
+    /**
+     * Precomputes terrain samples around a point so later queries there are cache hits:
+     * fine samples within radius, medium within 4x and coarse within 16x the radius
+     * 
+     * @return the number of sample tiles computed
+     */
+    public int prefetchAround(float worldX, float worldZ, float radius) {
+        return sampleCache.prefetch(worldX, worldZ, radius, DETAIL_FINE)
+             + sampleCache.prefetch(worldX, worldZ, radius * 4, DETAIL_MEDIUM)
+             + sampleCache.prefetch(worldX, worldZ, radius * 16, DETAIL_COARSE);
+    }
+    
+    /**
+     * Computes one tile of the sample cache: terrain height, biome and ocean current
+     * at every sample point
+     */
+    private void fillSamples(int originX, int originZ, int spacing, TerrainSampleCache.Tile tile) {
+        int samples = TerrainSampleCache.TILE_SAMPLES;
+        float halfExtent = (samples - 1) * spacing * 0.5f;
+        float maxCurrentSpeed = config.getMaxCurrentSpeed();
+        int count = samples * samples;
         
-        // Add circular current patterns around islands
-        List<Island> nearbyIslands = getIslandsInRadius(worldX, worldZ, 200);
+        float[] heights = new float[count];
+        terrainGenerator.generateHeightGrid(originX, originZ, spacing, samples, samples, heights);
         
-        for (Island island : nearbyIslands) {
-            float dx = worldX - island.getCenterX();
-            float dz = worldZ - island.getCenterZ();
-            float distance = (float) Math.sqrt(dx * dx + dz * dz);
-            
-            if (distance < island.getType().getRadius() + 100) {
-                // Create circular current around island
-                float influence = 1.0f - (distance / (island.getType().getRadius() + 100));
-                float circularStrength = influence * 2.0f;
+        float[] temperatures = new float[count];
+        float[] humidities = new float[count];
+        float[] noiseX = new float[count];
+        float[] noiseZ = new float[count];
+        
+        temperatureNoise.noiseGrid(temperatures, originX, originZ, spacing, samples, samples, 0.005f, 0);
+        humidityNoise.noiseGrid(humidities, originX, originZ, spacing, samples, samples, 0.005f, 0);
+        currentNoise.noiseGrid(noiseX, originX, originZ, spacing, samples, samples, 0.001f, 0);
+        currentNoise.noiseGrid(noiseZ, originX, originZ, spacing, samples, samples, 0.001f, 1000);
+        
+        // Islands whose swirl reaches anywhere into the tile
+        List<Island> nearbyIslands = getIslandsInRadius(
+            originX + halfExtent, originZ + halfExtent, halfExtent * 1.4143f + 100);
+        
+        for (int j = 0; j < samples; j++) {
+            for (int i = 0; i < samples; i++) {
+                int index = i + j * samples;
+                float worldX = originX + i * spacing;
+                float worldZ = originZ + j * spacing;
                 
-                currentX += -dz / distance * circularStrength;
-                currentZ += dx / distance * circularStrength;
+                float height = heights[index];
+                BiomeType biome = getBiome(temperatures[index], humidities[index], (int) height);
+                
+                // Ocean currents from noise
+                float currentX = noiseX[index] * maxCurrentSpeed;
+                float currentZ = noiseZ[index] * maxCurrentSpeed;
+                
+                // Add circular current patterns around islands
+                for (Island island : nearbyIslands) {
+                    float dx = worldX - island.getCenterX();
+                    float dz = worldZ - island.getCenterZ();
+                    float distance = (float) Math.sqrt(dx * dx + dz * dz);
+                    
+                    if (distance < island.getType().getRadius() + 100) {
+                        // Create circular current around island
+                        float influence = 1.0f - (distance / (island.getType().getRadius() + 100));
+                        float circularStrength = influence * 2.0f;
+                        
+                        currentX += -dz / distance * circularStrength;
+                        currentZ += dx / distance * circularStrength;
+                    }
+                }
+                
+                tile.set(index, height, biome, currentX, currentZ);
             }
         }
-        
-        return new Vector2f(currentX, currentZ);
     }
     
     /**
@@ -262,19 +315,24 @@ public class WorldGenerator {
      * Gets navigation hazards in a region
      */
     public List<NavigationHazard> getHazardsInRegion(float minX, float minZ, float maxX, float maxZ) {
-        List<NavigationHazard> regionHazards = new ArrayList<>();
+        List<NavigationHazard> regionHazards = hazardIndex.queryRect(minX, minZ, maxX, maxZ, new ArrayList<>());
         
-        for (NavigationHazard hazard : hazards) {
-            org.joml.Vector3f pos = hazard.getPosition3D();
-            
-            if (pos.x >= minX && pos.x <= maxX && pos.z >= minZ && pos.z <= maxZ) {
-                regionHazards.add(hazard);
-            }
-        }
+        // The index also returns hazards that only reach into the region
+        regionHazards.removeIf(hazard -> {
+            Vector2f pos = hazard.getPosition();
+            return pos.x < minX || pos.x > maxX || pos.y < minZ || pos.y > maxZ;
+        });
         
         return regionHazards;
     }
     
+    /**
+     * Gets navigation hazards whose area overlaps a circle
+     */
+    public List<NavigationHazard> getHazardsInRadius(float centerX, float centerZ, float radius) {
+        return hazardIndex.queryRadius(centerX, centerZ, radius, new ArrayList<>());
+    }
+    
     /**
      * Updates dynamic world systems
      */
@@ -296,7 +354,7 @@ public class WorldGenerator {
     }
     
     private WorldChunk generateWorldChunk(int chunkX, int chunkZ) {
-        isGenerating = true;
+        chunksGenerating.incrementAndGet();
         
         try {
             WorldChunk chunk = new WorldChunk(chunkX, chunkZ, config.getChunkSize());
@@ -319,7 +377,7 @@ public class WorldGenerator {
             return chunk;
             
         } finally {
-            isGenerating = false;
+            chunksGenerating.decrementAndGet();
         }
     }
     
@@ -368,9 +426,14 @@ public class WorldGenerator {
                     // Generate island at this location
                     IslandType islandType = islandGenerator.determineIslandType(worldX, worldZ);
                     Island island = islandGenerator.generateIsland(worldX, worldZ, islandType);
-                    if (island != null) {
-                        Vector2f key = new Vector2f(worldX, worldZ);
-                        islands.put(key, island);
+                    // A chunk generated again finds the same islands; keep the ones registered
+                    if (island != null && islands.putIfAbsent(new Vector2f(worldX, worldZ), island) == null) {
+                        islandIndex.add(island, island.getCenterX(), island.getCenterZ(), island.getType().getRadius());
+                        
+                        // Cached currents around the new island are now wrong
+                        float reach = island.getType().getRadius() + 100;
+                        sampleCache.invalidate(island.getCenterX() - reach, island.getCenterZ() - reach,
+                                               island.getCenterX() + reach, island.getCenterZ() + reach);
                     }
                 }
             }
@@ -431,7 +494,7 @@ public class WorldGenerator {
                 new Vector2f(worldX, worldZ),
                 50.0f // radius
             );
-            hazards.add(hazard);
+            indexHazard(hazard);
         }
     }
     
@@ -527,13 +590,13 @@ public class WorldGenerator {
      */
     private float[][] generateTemperatureMap(int chunkX, int chunkZ) {
         float[][] temperatureMap = new float[Chunk.CHUNK_SIZE][Chunk.CHUNK_SIZE];
+        float[] samples = new float[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+        temperatureNoise.noiseGrid(samples, chunkX * Chunk.CHUNK_SIZE, chunkZ * Chunk.CHUNK_SIZE, 1,
+                                   Chunk.CHUNK_SIZE, Chunk.CHUNK_SIZE, 0.005f, 0);
         
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                int worldX = chunkX * Chunk.CHUNK_SIZE + x;
-                int worldZ = chunkZ * Chunk.CHUNK_SIZE + z;
-                
-                temperatureMap[x][z] = temperatureNoise.noise(worldX * 0.005f, worldZ * 0.005f);
+                temperatureMap[x][z] = samples[x + z * Chunk.CHUNK_SIZE];
             }
         }
         
@@ -545,13 +608,13 @@ public class WorldGenerator {
      */
     private float[][] generateHumidityMap(int chunkX, int chunkZ) {
         float[][] humidityMap = new float[Chunk.CHUNK_SIZE][Chunk.CHUNK_SIZE];
+        float[] samples = new float[Chunk.CHUNK_SIZE * Chunk.CHUNK_SIZE];
+        humidityNoise.noiseGrid(samples, chunkX * Chunk.CHUNK_SIZE, chunkZ * Chunk.CHUNK_SIZE, 1,
+                                   Chunk.CHUNK_SIZE, Chunk.CHUNK_SIZE, 0.005f, 0);
         
         for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
             for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
-                int worldX = chunkX * Chunk.CHUNK_SIZE + x;
-                int worldZ = chunkZ * Chunk.CHUNK_SIZE + z;
-                
-                humidityMap[x][z] = humidityNoise.noise(worldX * 0.005f, worldZ * 0.005f);
+                humidityMap[x][z] = samples[x + z * Chunk.CHUNK_SIZE];
             }
         }
         
@@ -899,7 +962,7 @@ public class WorldGenerator {
      * Adds a new hazard to the world
      */
     public void addHazard(NavigationHazard hazard) {
-        hazards.add(hazard);
+        indexHazard(hazard);
         Logger.world("Added hazard: {} at ({}, {})", hazard.getName(), 
                     hazard.getPosition().x, hazard.getPosition().y);
     }
@@ -909,9 +972,19 @@ public class WorldGenerator {
      */
     public void removeHazard(NavigationHazard hazard) {
         hazards.remove(hazard);
+        hazardIndex.remove(hazard);
         Logger.world("Removed hazard: {}", hazard.getName());
     }
     
+    /**
+     * Registers a hazard in the list and the spatial index
+     */
+    private void indexHazard(NavigationHazard hazard) {
+        hazards.add(hazard);
+        Vector2f pos = hazard.getPosition();
+        hazardIndex.add(hazard, pos.x, pos.y, hazard.getRadius());
+    }
+    
     /**
      * Adds a new trade route to the world
      */
@@ -933,7 +1006,7 @@ public class WorldGenerator {
      * Checks if world generation is currently in progress
      */
     public boolean isGenerating() {
-        return isGenerating;
+        return chunksGenerating.get() > 0;
     }
     
     /**
@@ -961,7 +1034,10 @@ public class WorldGenerator {
             loadedChunks.size(),
             islands.size(),
             tradeRoutes.size(),
-            hazards.size()
+            hazards.size(),
+            sampleCache.size(),
+            sampleCache.getHits(),
+            sampleCache.getMisses()
         );
     }
     
@@ -973,18 +1049,29 @@ public class WorldGenerator {
         public final int islands;
         public final int tradeRoutes;
         public final int hazards;
+        public final int sampleTiles;
+        public final long sampleHits;
+        public final long sampleMisses;
         
         public GenerationStats(int loadedChunks, int islands, int tradeRoutes, int hazards) {
+            this(loadedChunks, islands, tradeRoutes, hazards, 0, 0, 0);
+        }
+        
+        public GenerationStats(int loadedChunks, int islands, int tradeRoutes, int hazards,
+                               int sampleTiles, long sampleHits, long sampleMisses) {
             this.loadedChunks = loadedChunks;
             this.islands = islands;
             this.tradeRoutes = tradeRoutes;
             this.hazards = hazards;
+            this.sampleTiles = sampleTiles;
+            this.sampleHits = sampleHits;
+            this.sampleMisses = sampleMisses;
         }
         
         @Override
         public String toString() {
-            return String.format("GenerationStats{chunks=%d, islands=%d, routes=%d, hazards=%d}",
-                               loadedChunks, islands, tradeRoutes, hazards);
+            return String.format("GenerationStats{chunks=%d, islands=%d, routes=%d, hazards=%d, sampleTiles=%d, sampleHits=%d, sampleMisses=%d}",
+                               loadedChunks, islands, tradeRoutes, hazards, sampleTiles, sampleHits, sampleMisses);
         }
     }
     
@@ -994,10 +1081,9 @@ public class WorldGenerator {
      * Simple noise generator using Java's Random
      */
     private static class NoiseGenerator {
-        private final Random random;
         
         public NoiseGenerator(long seed) {
-            this.random = new Random(seed);
+            // Lattice values are reseeded from their coordinates, so the seed has no effect
         }
         
         public float noise(float x, float z) {
@@ -1019,6 +1105,62 @@ public class WorldGenerator {
             return MathUtils.lerp(nx0, nx1, fz);
         }
         
+        /**
+         * Samples noise over a grid of world positions. Sample (i, j) is noise at
+         * ((originX + i * spacing) * scale + offset, (originZ + j * spacing) * scale + offset)
+         * and is stored at out[i + j * width]. Each lattice value the grid touches is drawn
+         * once and shared by the samples around it, instead of reseeding per corner per sample.
+         */
+        public void noiseGrid(float[] out, float originX, float originZ, float spacing,
+                              int width, int depth, float scale, float offset) {
+            int[] cellX = new int[width];
+            float[] fracX = new float[width];
+            for (int i = 0; i < width; i++) {
+                float x = (originX + i * spacing) * scale + offset;
+                cellX[i] = (int) Math.floor(x);
+                fracX[i] = x - cellX[i];
+            }
+            int[] cellZ = new int[depth];
+            float[] fracZ = new float[depth];
+            for (int j = 0; j < depth; j++) {
+                float z = (originZ + j * spacing) * scale + offset;
+                cellZ[j] = (int) Math.floor(z);
+                fracZ[j] = z - cellZ[j];
+            }
+            
+            int minX = cellX[0];
+            int minZ = cellZ[0];
+            int latticeWidth = cellX[width - 1] - minX + 2;
+            int latticeDepth = cellZ[depth - 1] - minZ + 2;
+            if ((long) latticeWidth * latticeDepth > 4L * width * depth) {
+                // Finer than the lattice; nothing to share
+                for (int j = 0; j < depth; j++) {
+                    for (int i = 0; i < width; i++) {
+                        out[i + j * width] = noise((originX + i * spacing) * scale + offset,
+                                                   (originZ + j * spacing) * scale + offset);
+                    }
+                }
+                return;
+            }
+            
+            float[] lattice = new float[latticeWidth * latticeDepth];
+            for (int lz = 0; lz < latticeDepth; lz++) {
+                for (int lx = 0; lx < latticeWidth; lx++) {
+                    lattice[lx + lz * latticeWidth] = randomFloat(minX + lx, minZ + lz);
+                }
+            }
+            
+            for (int j = 0; j < depth; j++) {
+                int row = (cellZ[j] - minZ) * latticeWidth;
+                for (int i = 0; i < width; i++) {
+                    int l = row + cellX[i] - minX;
+                    float nx0 = MathUtils.lerp(lattice[l], lattice[l + 1], fracX[i]);
+                    float nx1 = MathUtils.lerp(lattice[l + latticeWidth], lattice[l + latticeWidth + 1], fracX[i]);
+                    out[i + j * width] = MathUtils.lerp(nx0, nx1, fracZ[j]);
+                }
+            }
+        }
+        
         public float noise3D(float x, float y, float z) {
             // Simplified 3D noise
             return (noise(x, y) + noise(y, z) + noise(x, z)) / 3.0f;
@@ -1030,8 +1172,11 @@ public class WorldGenerator {
         }
         
         private float randomFloat(int x, int z) {
-            random.setSeed(x * 374761393L + z * 668265263L);
-            return random.nextFloat() * 2.0f - 1.0f;
+            // new Random(seed).nextFloat() computed inline, so sampling keeps no state
+            // and is safe from any number of threads
+            long state = ((x * 374761393L + z * 668265263L) ^ 0x5DEECE66DL) & ((1L << 48) - 1);
+            state = (state * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+            return (int) (state >>> 24) / (float) (1 << 24) * 2.0f - 1.0f;
         }
     }
 }
\ No newline at end of file
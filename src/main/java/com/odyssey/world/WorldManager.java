@@ -258,11 +258,10 @@ public class WorldManager {
      */
     private void saveLoadedChunks() {
         LOGGER.debug("Saving loaded chunks");
-        // TODO: Implement chunk data saving
-        // This would iterate through all loaded chunks and save their voxel data
         if (currentWorld != null) {
-            int chunkCount = currentWorld.getChunks().size();
-            LOGGER.debug("Saving {} loaded chunks", chunkCount);
+            // Only dirty chunks are rewritten; each goes to its own region file slot
+            int saved = currentWorld.saveDirtyChunks();
+            LOGGER.debug("Saved {} of {} loaded chunks", saved, currentWorld.getChunks().size());
         }
     }
     
@@ -271,8 +270,11 @@ public class WorldManager {
      */
     private void loadWorldChunks(String worldName) {
         LOGGER.debug("Loading world chunks for '{}'", worldName);
-        // TODO: Implement chunk data loading
-        // This would load previously saved chunk data from the world directory
+        // Chunks are streamed from region files on demand as World.loadChunk requests them,
+        // so nothing needs to be read up front
+        if (currentWorld != null) {
+            LOGGER.debug("Chunk region directory: {}", currentWorld.getChunkStorage().getRegionDirectory());
+        }
     }
     
     /**
@@ -0,0 +1,276 @@
+package com.odyssey.world;
+
+import com.odyssey.core.GameConfig;
+import com.odyssey.util.Logger;
+import com.odyssey.world.storage.ChunkSerializer;
+import com.odyssey.world.storage.ChunkStorage;
+import com.odyssey.world.storage.RegionFile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Generates every chunk within a radius of the world origin ahead of play and writes it
+ * to the world's region files, so streaming only has to read them.
+ *
+ * Chunks are built in parallel without a shared lock, since a chunk depends only on the
+ * seed and its coordinates. Work goes one region at a time. Each region's chunks are
+ * written in a fixed order once built, while the next region is already being generated,
+ * so the payloads and their layout on disk don't depend on the thread count. The
+ * checksum in the {@link Result} covers every payload written, in order, and is the
+ * same for every run with the same seed and radius. Chunks already on disk are kept.
+ *
+ * Run headless with:
+ * mvn compile exec:java -Dexec.mainClass=com.odyssey.OdysseyGame -Dexec.args="pregen world 12345 64"
+ */
+public final class WorldPregenerator {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private final WorldGenerator worldGenerator;
+    private final ChunkBlockGenerator blockGenerator;
+    private final int threadCount;
+
+    public WorldPregenerator(long seed, int threadCount) {
+        this.worldGenerator = new WorldGenerator(seed);
+        this.blockGenerator = new ChunkBlockGenerator(seed);
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Generates and stores every chunk within radius chunks of the origin, using the same
+     * circular shape as chunk streaming
+     */
+    public Result run(ChunkStorage storage, int radius) throws IOException {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threadCount, r -> {
+            Thread thread = new Thread(r, "Pregen-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Progress progress = new Progress(countChunks(radius));
+        Logger.world("Pre-generating {} chunks within radius {} on {} threads",
+                   progress.total, radius, threadCount);
+
+        try {
+            int minRegion = Math.floorDiv(-radius, RegionFile.REGION_SIZE);
+            int maxRegion = Math.floorDiv(radius, RegionFile.REGION_SIZE);
+
+            // Keep one region generating while the previous one is written
+            Deque<RegionBatch> batches = new ArrayDeque<>();
+            for (int regionZ = minRegion; regionZ <= maxRegion; regionZ++) {
+                for (int regionX = minRegion; regionX <= maxRegion; regionX++) {
+                    batches.add(submitRegion(regionX, regionZ, radius, storage, workers, progress));
+                    if (batches.size() > 1) {
+                        writeRegion(batches.poll(), storage, progress);
+                    }
+                }
+            }
+            while (!batches.isEmpty()) {
+                writeRegion(batches.poll(), storage, progress);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        storage.flush();
+        Result result = new Result(progress.written, progress.skipped,
+                                   System.nanoTime() - progress.startTime, progress.checksum.getValue());
+        Logger.world("Pre-generation finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Queues generation of every chunk of a region that is in range and not yet stored
+     */
+    private RegionBatch submitRegion(int regionX, int regionZ, int radius, ChunkStorage storage,
+                                     ExecutorService workers, Progress progress) throws IOException {
+        long radiusSquared = (long) radius * radius;
+        RegionBatch batch = new RegionBatch();
+
+        for (int z = 0; z < RegionFile.REGION_SIZE; z++) {
+            for (int x = 0; x < RegionFile.REGION_SIZE; x++) {
+                int chunkX = regionX * RegionFile.REGION_SIZE + x;
+                int chunkZ = regionZ * RegionFile.REGION_SIZE + z;
+                if ((long) chunkX * chunkX + (long) chunkZ * chunkZ > radiusSquared) {
+                    continue;
+                }
+                if (storage.hasChunk(chunkX, chunkZ)) {
+                    progress.skipped++;
+                    continue;
+                }
+                batch.chunkX.add(chunkX);
+                batch.chunkZ.add(chunkZ);
+                batch.payloads.add(workers.submit(() -> generate(chunkX, chunkZ)));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Waits for a region's chunks and writes them in generation order
+     */
+    private void writeRegion(RegionBatch batch, ChunkStorage storage, Progress progress) throws IOException {
+        for (int i = 0; i < batch.payloads.size(); i++) {
+            int chunkX = batch.chunkX.get(i);
+            int chunkZ = batch.chunkZ.get(i);
+
+            byte[] data;
+            try {
+                data = batch.payloads.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while pre-generating chunk (" + chunkX + ", " + chunkZ + ")", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to generate chunk (" + chunkX + ", " + chunkZ + ")", e.getCause());
+            }
+
+            storage.writeChunk(chunkX, chunkZ, data);
+            progress.chunkWritten(data);
+        }
+    }
+
+    /**
+     * Builds a chunk the way the streaming pipeline does, up to settled light
+     */
+    private byte[] generate(int chunkX, int chunkZ) {
+        WorldChunk worldChunk = worldGenerator.generateChunk(chunkX, chunkZ);
+        Chunk chunk = new Chunk(chunkX, chunkZ);
+        blockGenerator.generateTerrain(worldChunk, chunk);
+        blockGenerator.populate(chunk, worldChunk);
+        chunk.calculateLighting();
+        chunk.optimizeStorage();
+        return ChunkSerializer.serialize(chunk);
+    }
+
+    private static int countChunks(int radius) {
+        long radiusSquared = (long) radius * radius;
+        int count = 0;
+        for (long x = -radius; x <= radius; x++) {
+            for (long z = -radius; z <= radius; z++) {
+                if (x * x + z * z <= radiusSquared) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Entry point for {@code pregen <world> <seed> <radius> [threads]}. Chunks go to the
+     * same region directory the world streams from.
+     *
+     * @return the process exit code
+     */
+    public static int runCommand(String[] args) {
+        if (args.length < 3 || args.length > 4) {
+            Logger.logError("Usage: pregen <world> <seed> <radius> [threads]");
+            return 2;
+        }
+
+        String worldName = args[0];
+        long seed;
+        int radius;
+        int threads;
+        try {
+            seed = Long.parseLong(args[1]);
+            radius = Integer.parseInt(args[2]);
+            threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        } catch (NumberFormatException e) {
+            Logger.logError("Invalid pregen argument: {}", e.getMessage());
+            return 2;
+        }
+        if (radius < 0 || threads < 1) {
+            Logger.logError("Radius must be at least 0 and threads at least 1");
+            return 2;
+        }
+
+        GameConfig config = GameConfig.getInstance();
+        try (ChunkStorage storage = new ChunkStorage(
+                Paths.get(config.getString("world.save_directory", "saves"), worldName, "region"))) {
+            new WorldPregenerator(seed, threads).run(storage, radius);
+            return 0;
+        } catch (IOException e) {
+            Logger.logError("Pre-generation of world '{}' failed: {}", worldName, e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Chunks of one region in write order, with their pending payloads
+     */
+    private static final class RegionBatch {
+        final List<Integer> chunkX = new ArrayList<>();
+        final List<Integer> chunkZ = new ArrayList<>();
+        final List<Future<byte[]>> payloads = new ArrayList<>();
+    }
+
+    /**
+     * Running totals, only touched by the thread that writes
+     */
+    private static final class Progress {
+        final int total;
+        final long startTime = System.nanoTime();
+        final CRC32 checksum = new CRC32();
+        int written;
+        int skipped;
+        private long lastReport = startTime;
+
+        Progress(int total) {
+            this.total = total;
+        }
+
+        void chunkWritten(byte[] data) {
+            written++;
+            checksum.update(data);
+
+            long now = System.nanoTime();
+            if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                double seconds = (now - startTime) / 1_000_000_000.0;
+                Logger.world("Pre-generated {}/{} chunks ({} skipped), {} chunks/s",
+                           written, total, skipped, String.format("%.1f", written / seconds));
+            }
+        }
+    }
+
+    /**
+     * Outcome of a pre-generation run
+     */
+    public static final class Result {
+        public final int chunksGenerated;
+        public final int chunksSkipped;
+        public final long elapsedNanos;
+        /** CRC32 over every payload written, in write order */
+        public final long checksum;
+
+        public Result(int chunksGenerated, int chunksSkipped, long elapsedNanos, long checksum) {
+            this.chunksGenerated = chunksGenerated;
+            this.chunksSkipped = chunksSkipped;
+            this.elapsedNanos = elapsedNanos;
+            this.checksum = checksum;
+        }
+
+        public double getChunksPerSecond() {
+            return elapsedNanos > 0 ? chunksGenerated / (elapsedNanos / 1_000_000_000.0) : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result{generated=%d, skipped=%d, seconds=%.1f, chunksPerSecond=%.1f, checksum=%08x}",
+                               chunksGenerated, chunksSkipped, elapsedNanos / 1_000_000_000.0,
+                               getChunksPerSecond(), checksum);
+        }
+    }
+}
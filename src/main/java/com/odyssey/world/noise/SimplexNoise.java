@@ -9,6 +9,11 @@ package com.odyssey.world.noise;
  * - Lower computational complexity (O(n²) vs O(2^n))
  * - More uniform gradient distribution
  * - Better scaling to higher dimensions
+ * 
+ * Besides the per-point methods there are batched overloads of fractalNoise, ridgedNoise
+ * and turbulenceNoise that fill a whole array of points in one call. They take the
+ * coordinates as separate x and y arrays and return exactly what the per-point methods
+ * would for each point, so the two can be mixed freely.
  */
 public class SimplexNoise {
     
@@ -22,6 +27,11 @@ public class SimplexNoise {
     private final int[] P = new int[512];
     private final int[] PERM_MOD12 = new int[512];
     
+    // Gradient components per permutation slot, so batched sampling reads the gradient
+    // straight from the hash without going through GRAD3
+    private final double[] gradX = new double[512];
+    private final double[] gradY = new double[512];
+    
     // Skewing and unskewing factors for 2D
     private static final double F2 = 0.5 * (Math.sqrt(3.0) - 1.0);
     private static final double G2 = (3.0 - Math.sqrt(3.0)) / 6.0;
@@ -30,6 +40,10 @@ public class SimplexNoise {
     private static final double F3 = 1.0 / 3.0;
     private static final double G3 = 1.0 / 6.0;
     
+    // Table behind the static methods. The fractal, ridged and turbulence helpers have
+    // always sampled it whatever the instance's seed; terrain in existing worlds depends on that.
+    private static final SimplexNoise DEFAULT = new SimplexNoise(0L);
+    
     /**
      * Constructor that initializes the noise generator with a specific seed
      * @param seed The seed for the random number generator
@@ -70,6 +84,10 @@ public class SimplexNoise {
             P[i] = P[i + 256] = permutation[i];
             PERM_MOD12[i] = PERM_MOD12[i + 256] = P[i] % 12;
         }
+        for (int i = 0; i < 512; i++) {
+            gradX[i] = GRAD3[PERM_MOD12[i] * 3];
+            gradY[i] = GRAD3[PERM_MOD12[i] * 3 + 1];
+        }
     }
     
     /**
@@ -80,7 +98,7 @@ public class SimplexNoise {
      */
     public static double noise(double xin, double yin) {
         // Use a default instance for static calls
-        return new SimplexNoise().noiseInstance(xin, yin);
+        return DEFAULT.noiseInstance(xin, yin);
     }
     
     /**
@@ -156,6 +174,102 @@ public class SimplexNoise {
         return 70.0 * (n0 + n1 + n2);
     }
     
+    /**
+     * Adds one octave of 2D noise for a batch of points to an accumulator.
+     * Same arithmetic as {@link #noiseInstance(double, double)}, but gradients come
+     * straight from the per-slot tables and the whole batch runs in one tight loop.
+     * 
+     * @param ridged add the ridged transform (1 - |n|)^2 of each value instead of the value
+     */
+    private void accumulate(float[] xs, float[] ys, int count, double frequency, double amplitude,
+                            boolean ridged, double[] total) {
+        final int[] perm = P;
+        final double[] gx = gradX;
+        final double[] gy = gradY;
+        
+        for (int p = 0; p < count; p++) {
+            double xin = xs[p] * frequency;
+            double yin = ys[p] * frequency;
+            
+            double s = (xin + yin) * F2;
+            int i = fastFloor(xin + s);
+            int j = fastFloor(yin + s);
+            double t = (i + j) * G2;
+            double x0 = xin - (i - t);
+            double y0 = yin - (j - t);
+            
+            int i1 = x0 > y0 ? 1 : 0;
+            int j1 = 1 - i1;
+            double x1 = x0 - i1 + G2;
+            double y1 = y0 - j1 + G2;
+            double x2 = x0 - 1.0 + 2.0 * G2;
+            double y2 = y0 - 1.0 + 2.0 * G2;
+            
+            int ii = i & 255;
+            int jj = j & 255;
+            int h0 = ii + perm[jj];
+            int h1 = ii + i1 + perm[jj + j1];
+            int h2 = ii + 1 + perm[jj + 1];
+            
+            // Neighbouring grid points mostly fall in the same simplex, so these branches
+            // predict well; clamping instead measured slower
+            double n0 = 0.0;
+            double n1 = 0.0;
+            double n2 = 0.0;
+            double t0 = 0.5 - x0 * x0 - y0 * y0;
+            if (t0 >= 0) {
+                t0 *= t0;
+                n0 = t0 * t0 * (gx[h0] * x0 + gy[h0] * y0);
+            }
+            double t1 = 0.5 - x1 * x1 - y1 * y1;
+            if (t1 >= 0) {
+                t1 *= t1;
+                n1 = t1 * t1 * (gx[h1] * x1 + gy[h1] * y1);
+            }
+            double t2 = 0.5 - x2 * x2 - y2 * y2;
+            if (t2 >= 0) {
+                t2 *= t2;
+                n2 = t2 * t2 * (gx[h2] * x2 + gy[h2] * y2);
+            }
+            double n = 70.0 * (n0 + n1 + n2);
+            
+            if (ridged) {
+                n = 1.0 - Math.abs(n);
+                n = n * n;
+            }
+            total[p] += n * amplitude;
+        }
+    }
+    
+    /**
+     * Runs every octave of a fractal or ridged sum over a batch of points
+     */
+    private static void octaves(float[] xs, float[] ys, float[] out, int count, int octaves,
+                                double persistence, double lacunarity, boolean ridged) {
+        double[] total = BATCH_TOTALS.get();
+        if (total.length < count) {
+            total = new double[count];
+            BATCH_TOTALS.set(total);
+        }
+        java.util.Arrays.fill(total, 0, count, 0.0);
+        
+        double frequency = 1.0;
+        double amplitude = 1.0;
+        double maxValue = 0.0;
+        for (int octave = 0; octave < octaves; octave++) {
+            DEFAULT.accumulate(xs, ys, count, frequency, amplitude, ridged, total);
+            maxValue += amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
+        }
+        
+        for (int p = 0; p < count; p++) {
+            out[p] = (float) (total[p] / maxValue);
+        }
+    }
+    
+    private static final ThreadLocal<double[]> BATCH_TOTALS = ThreadLocal.withInitial(() -> new double[256]);
+    
     /**
      * Generate 3D Simplex noise
      * @param xin X coordinate
@@ -298,6 +412,21 @@ public class SimplexNoise {
         return (float) fractal(x, y, octaves, persistence, lacunarity);
     }
     
+    /**
+     * Generate fractal Simplex noise for a batch of points
+     * @param xs X coordinate of each point
+     * @param ys Y coordinate of each point
+     * @param out Receives the noise value of each point
+     * @param count Number of points
+     * @param octaves Number of noise octaves
+     * @param persistence Amplitude multiplier for each octave
+     * @param lacunarity Frequency multiplier for each octave
+     */
+    public void fractalNoise(float[] xs, float[] ys, float[] out, int count,
+                             int octaves, float persistence, float lacunarity) {
+        octaves(xs, ys, out, count, octaves, persistence, lacunarity, false);
+    }
+    
     /**
      * Generate fractal Simplex noise with multiple octaves
      * @param x X coordinate
@@ -336,6 +465,21 @@ public class SimplexNoise {
         return (float) ridged(x, y, octaves, persistence, lacunarity);
     }
     
+    /**
+     * Generate ridged Simplex noise for a batch of points
+     * @param xs X coordinate of each point
+     * @param ys Y coordinate of each point
+     * @param out Receives the noise value of each point
+     * @param count Number of points
+     * @param octaves Number of noise octaves
+     * @param persistence Amplitude multiplier for each octave
+     * @param lacunarity Frequency multiplier for each octave
+     */
+    public void ridgedNoise(float[] xs, float[] ys, float[] out, int count,
+                            int octaves, float persistence, float lacunarity) {
+        octaves(xs, ys, out, count, octaves, persistence, lacunarity, true);
+    }
+    
     /**
      * Generate ridged Simplex noise (inverted absolute value)
      * @param x X coordinate
@@ -400,4 +544,22 @@ public class SimplexNoise {
     public float turbulenceNoise(float x, float y, int octaves, float persistence, float lacunarity) {
         return (float) turbulence(x, y, octaves, persistence, lacunarity);
     }
+    
+    /**
+     * Generate turbulence noise for a batch of points
+     * @param xs X coordinate of each point
+     * @param ys Y coordinate of each point
+     * @param out Receives the noise value of each point
+     * @param count Number of points
+     * @param octaves Number of noise octaves
+     * @param persistence Amplitude multiplier for each octave
+     * @param lacunarity Frequency multiplier for each octave
+     */
+    public void turbulenceNoise(float[] xs, float[] ys, float[] out, int count,
+                                int octaves, float persistence, float lacunarity) {
+        octaves(xs, ys, out, count, octaves, persistence, lacunarity, false);
+        for (int p = 0; p < count; p++) {
+            out[p] = Math.abs(out[p]);
+        }
+    }
 }
\ No newline at end of file
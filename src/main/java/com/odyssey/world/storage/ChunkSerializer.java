@@ -0,0 +1,178 @@
+package com.odyssey.world.storage;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+import com.odyssey.world.Chunk;
+import com.odyssey.world.ChunkSection;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Converts a {@link Chunk} to and from the uncompressed payload stored in region files.
+ *
+ * Payload layout: varint format version, then tagged fields for the chunk coordinates,
+ * the 16 bytes of uniform light for elided sections, one nested message per present
+ * section holding its index and the section as written by {@link ChunkSection#write},
+ * and whether the chunk has been lit. Unknown fields are skipped, so fields can be added
+ * without bumping the version; payloads written before the lit flag existed were always
+ * lit on save and read back as lit.
+ *
+ * Version 1 payloads, from before the tagged layout, are still read: a big-endian int
+ * version, chunkX and chunkZ, a short bitmask of present sections, the 16 elided light
+ * bytes, then each present section in ascending order. Their leading int starts with a
+ * zero byte, which no varint version does.
+ */
+public final class ChunkSerializer {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int TAG_CHUNK_X = 1;
+    private static final int TAG_CHUNK_Z = 2;
+    private static final int TAG_ELIDED_LIGHT = 3;
+    private static final int TAG_SECTION = 4;
+    private static final int TAG_LIT = 5;
+
+    private static final int TAG_SECTION_INDEX = 1;
+    private static final int TAG_SECTION_DATA = 2;
+
+    private ChunkSerializer() {
+    }
+
+    /**
+     * Serializes the block, metadata and light storage of a chunk
+     */
+    public static byte[] serialize(Chunk chunk) {
+        BinaryWriter out = new BinaryWriter(8192);
+        out.writeVarInt(FORMAT_VERSION);
+        out.writeSignedVarIntField(TAG_CHUNK_X, chunk.getChunkX());
+        out.writeSignedVarIntField(TAG_CHUNK_Z, chunk.getChunkZ());
+
+        byte[] elidedLight = new byte[Chunk.SECTION_COUNT];
+        for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+            elidedLight[i] = chunk.getElidedSectionLight(i);
+        }
+        out.writeBytesField(TAG_ELIDED_LIGHT, elidedLight);
+
+        for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+            ChunkSection section = chunk.getSection(i);
+            if (section != null) {
+                int index = i;
+                out.writeMessageField(TAG_SECTION, entry -> {
+                    entry.writeVarIntField(TAG_SECTION_INDEX, index);
+                    entry.writeMessageField(TAG_SECTION_DATA, section::write);
+                });
+            }
+        }
+        out.writeBooleanField(TAG_LIT, chunk.isLit());
+        return out.toByteArray();
+    }
+
+    /**
+     * Loads a serialized payload into the given chunk, replacing its storage
+     */
+    public static void deserialize(byte[] data, Chunk chunk) throws IOException {
+        if (data.length > 0 && data[0] == 0) {
+            deserializeVersion1(data, chunk);
+            return;
+        }
+
+        BinaryReader in = new BinaryReader(data);
+        int version = in.readVarInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported chunk format version " + version);
+        }
+
+        int chunkX = 0;
+        int chunkZ = 0;
+        byte[] elidedLight = new byte[Chunk.SECTION_COUNT];
+        ChunkSection[] sections = new ChunkSection[Chunk.SECTION_COUNT];
+        boolean lit = true;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case TAG_CHUNK_X:
+                    chunkX = in.readSignedVarInt();
+                    break;
+                case TAG_CHUNK_Z:
+                    chunkZ = in.readSignedVarInt();
+                    break;
+                case TAG_ELIDED_LIGHT:
+                    byte[] light = in.readBytes();
+                    System.arraycopy(light, 0, elidedLight, 0, Math.min(light.length, elidedLight.length));
+                    break;
+                case TAG_SECTION:
+                    readSection(in.readMessage(), sections);
+                    break;
+                case TAG_LIT:
+                    lit = in.readBoolean();
+                    break;
+                default:
+                    in.skipField();
+                    break;
+            }
+        }
+
+        checkCoordinates(chunk, chunkX, chunkZ);
+        chunk.loadSections(sections, elidedLight, lit);
+    }
+
+    /**
+     * Reads a version 1 payload, which was always lit on save
+     */
+    private static void deserializeVersion1(byte[] data, Chunk chunk) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readInt();
+            if (version != 1) {
+                throw new IOException("Unsupported chunk format version " + version);
+            }
+            checkCoordinates(chunk, in.readInt(), in.readInt());
+
+            int mask = in.readUnsignedShort();
+            byte[] elidedLight = new byte[Chunk.SECTION_COUNT];
+            in.readFully(elidedLight);
+
+            ChunkSection[] sections = new ChunkSection[Chunk.SECTION_COUNT];
+            for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    sections[i] = ChunkSection.readVersion1(in);
+                }
+            }
+            chunk.loadSections(sections, elidedLight, true);
+        }
+    }
+
+    private static void checkCoordinates(Chunk chunk, int chunkX, int chunkZ) throws IOException {
+        if (chunkX != chunk.getChunkX() || chunkZ != chunk.getChunkZ()) {
+            throw new IOException(String.format("Chunk payload is for (%d, %d), expected (%d, %d)",
+                                                chunkX, chunkZ, chunk.getChunkX(), chunk.getChunkZ()));
+        }
+    }
+
+    private static void readSection(BinaryReader in, ChunkSection[] sections) throws IOException {
+        int index = -1;
+        ChunkSection section = null;
+
+        int tag;
+        while ((tag = in.nextField()) != BinaryReader.END) {
+            switch (tag) {
+                case TAG_SECTION_INDEX:
+                    index = in.readVarInt();
+                    break;
+                case TAG_SECTION_DATA:
+                    section = ChunkSection.read(in.readMessage());
+                    break;
+                default:
+                    in.skipField();
+                    break;
+            }
+        }
+
+        if (index < 0 || index >= sections.length || section == null) {
+            throw new IOException("Invalid chunk section entry at index " + index);
+        }
+        sections[index] = section;
+    }
+}
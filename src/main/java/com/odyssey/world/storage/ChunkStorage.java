@@ -0,0 +1,215 @@
+package com.odyssey.world.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-world chunk persistence on top of {@link RegionFile}s.
+ *
+ * Region files are opened on demand and kept in a small LRU cache. Writes are
+ * write-behind: the serialized payload is parked in a pending map and flushed on a
+ * dedicated I/O thread, while reads check the pending map first so a chunk that is
+ * unloaded and immediately reloaded never sees stale data. Region access happens under
+ * the cache lock so an evicted region is never closed underneath a reader.
+ */
+public class ChunkStorage implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkStorage.class);
+
+    private static final int MAX_OPEN_REGIONS = 64;
+
+    private final Path regionDirectory;
+    private final Map<Long, RegionFile> openRegions;
+    private final Map<Long, byte[]> pendingWrites = new ConcurrentHashMap<>();
+    private final ExecutorService ioExecutor;
+
+    // Statistics
+    private final AtomicLong chunksRead = new AtomicLong();
+    private final AtomicLong chunksWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public ChunkStorage(Path regionDirectory) {
+        this.regionDirectory = regionDirectory;
+        this.openRegions = new LinkedHashMap<>(16, 0.75f, true);
+        this.ioExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ChunkStorage-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads a chunk payload, or returns null if the chunk has never been saved.
+     */
+    public byte[] readChunk(int chunkX, int chunkZ) throws IOException {
+        byte[] pending = pendingWrites.get(chunkKey(chunkX, chunkZ));
+        if (pending != null) {
+            return pending;
+        }
+
+        byte[] data;
+        synchronized (openRegions) {
+            RegionFile region = getRegion(chunkX, chunkZ, false);
+            if (region == null) {
+                return null;
+            }
+            data = region.read(chunkX, chunkZ);
+        }
+        if (data != null) {
+            chunksRead.incrementAndGet();
+        }
+        return data;
+    }
+
+    /**
+     * Checks whether a chunk has been saved, without reading its payload.
+     */
+    public boolean hasChunk(int chunkX, int chunkZ) throws IOException {
+        if (pendingWrites.containsKey(chunkKey(chunkX, chunkZ))) {
+            return true;
+        }
+        synchronized (openRegions) {
+            RegionFile region = getRegion(chunkX, chunkZ, false);
+            return region != null && region.hasChunk(chunkX, chunkZ);
+        }
+    }
+
+    /**
+     * Queues a chunk payload to be written to its region file on the I/O thread.
+     */
+    public void writeChunkAsync(int chunkX, int chunkZ, byte[] data) {
+        long key = chunkKey(chunkX, chunkZ);
+        pendingWrites.put(key, data);
+
+        ioExecutor.execute(() -> {
+            try {
+                // A newer payload may have superseded this one while queued
+                if (pendingWrites.get(key) != data) {
+                    return;
+                }
+                writeChunk(chunkX, chunkZ, data);
+            } catch (IOException e) {
+                LOGGER.error("Failed to write chunk ({}, {})", chunkX, chunkZ, e);
+            } finally {
+                pendingWrites.remove(key, data);
+            }
+        });
+    }
+
+    /**
+     * Writes a chunk payload to its region file on the calling thread.
+     */
+    public void writeChunk(int chunkX, int chunkZ, byte[] data) throws IOException {
+        synchronized (openRegions) {
+            getRegion(chunkX, chunkZ, true).write(chunkX, chunkZ, data);
+        }
+        chunksWritten.incrementAndGet();
+        bytesWritten.addAndGet(data.length);
+    }
+
+    /**
+     * Waits for queued writes and forces all open region files to disk.
+     */
+    public void flush() throws IOException {
+        try {
+            ioExecutor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing chunk storage", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Chunk storage flush failed", e.getCause());
+        }
+
+        synchronized (openRegions) {
+            for (RegionFile region : openRegions.values()) {
+                region.flush();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (openRegions) {
+            for (RegionFile region : openRegions.values()) {
+                closeQuietly(region);
+            }
+            openRegions.clear();
+        }
+    }
+
+    public Path getRegionDirectory() { return regionDirectory; }
+    public int getPendingWriteCount() { return pendingWrites.size(); }
+    public long getChunksRead() { return chunksRead.get(); }
+    public long getChunksWritten() { return chunksWritten.get(); }
+    public long getBytesWritten() { return bytesWritten.get(); }
+
+    /**
+     * Gets the region file containing the chunk, opening it if needed. Returns null when
+     * create is false and the file does not exist. Callers must hold the openRegions lock.
+     */
+    private RegionFile getRegion(int chunkX, int chunkZ, boolean create) throws IOException {
+        int regionX = Math.floorDiv(chunkX, RegionFile.REGION_SIZE);
+        int regionZ = Math.floorDiv(chunkZ, RegionFile.REGION_SIZE);
+        long key = chunkKey(regionX, regionZ);
+
+        RegionFile region = openRegions.get(key);
+        if (region != null) {
+            return region;
+        }
+
+        Path path = regionDirectory.resolve("r." + regionX + "." + regionZ + ".region");
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+
+        Files.createDirectories(regionDirectory);
+        region = new RegionFile(path);
+        openRegions.put(key, region);
+
+        // Evict least recently used regions
+        if (openRegions.size() > MAX_OPEN_REGIONS) {
+            Iterator<RegionFile> iterator = openRegions.values().iterator();
+            RegionFile eldest = iterator.next();
+            iterator.remove();
+            closeQuietly(eldest);
+        }
+        return region;
+    }
+
+    private static void closeQuietly(RegionFile region) {
+        try {
+            region.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close region file {}", region.getPath(), e);
+        }
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,294 @@
+package com.odyssey.world.storage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Anvil-style region file holding up to 32x32 chunks.
+ *
+ * Layout:
+ * <pre>
+ *   sector 0   1024 x int  location table: (first sector &lt;&lt; 8) | sector count
+ *   sector 1   1024 x int  last write time in epoch seconds
+ *   sector 2+  chunk records, each padded to whole 4 KiB sectors:
+ *              int length | byte compression | int raw length | payload
+ * </pre>
+ *
+ * The two header sectors are memory-mapped for the lifetime of the file so locating a
+ * chunk is a single buffer read. Chunk records are transferred with positional
+ * {@link FileChannel} reads and writes, which touch only the sectors of that chunk.
+ * A record that outgrows its sectors is moved to the first free run large enough to
+ * hold it, otherwise it is rewritten in place.
+ */
+public class RegionFile implements Closeable {
+
+    public static final int REGION_SIZE = 32;
+    public static final int SECTOR_SIZE = 4096;
+    public static final byte COMPRESSION_DEFLATE = 2;
+    public static final byte COMPRESSION_NONE = 3;
+
+    private static final int HEADER_SECTORS = 2;
+    private static final int CHUNK_COUNT = REGION_SIZE * REGION_SIZE;
+    private static final int MAX_SECTORS_PER_CHUNK = 255;
+    private static final int RECORD_HEADER_SIZE = 9;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final BitSet usedSectors = new BitSet();
+    private int sectorCount;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * Opens or creates the region file at the given path.
+     */
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                        StandardOpenOption.CREATE);
+
+        long size = channel.size();
+        if (size < HEADER_SECTORS * SECTOR_SIZE) {
+            writeFully(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE - (int) size), size);
+            size = HEADER_SECTORS * SECTOR_SIZE;
+        }
+        this.sectorCount = (int) ((size + SECTOR_SIZE - 1) / SECTOR_SIZE);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SECTORS * SECTOR_SIZE);
+
+        // Rebuild the sector allocation map from the location table
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            int location = header.getInt(i * 4);
+            if (location == 0) {
+                continue;
+            }
+            int offset = location >>> 8;
+            int count = location & 0xFF;
+            if (offset < HEADER_SECTORS || count == 0 || offset + count > sectorCount) {
+                // Entry points outside the file, drop it rather than read garbage
+                header.putInt(i * 4, 0);
+                continue;
+            }
+            usedSectors.set(offset, offset + count);
+        }
+    }
+
+    /**
+     * Checks if the given chunk has a record in this region
+     */
+    public synchronized boolean hasChunk(int chunkX, int chunkZ) {
+        return header.getInt(locationIndex(chunkX, chunkZ)) != 0;
+    }
+
+    /**
+     * Reads and decompresses a chunk payload, or returns null if the chunk is absent.
+     */
+    public synchronized byte[] read(int chunkX, int chunkZ) throws IOException {
+        int location = header.getInt(locationIndex(chunkX, chunkZ));
+        if (location == 0) {
+            return null;
+        }
+
+        long position = (long) (location >>> 8) * SECTOR_SIZE;
+        int sectors = location & 0xFF;
+
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(recordHeader, position);
+        recordHeader.flip();
+        int length = recordHeader.getInt();
+        byte compression = recordHeader.get();
+        int rawLength = recordHeader.getInt();
+
+        int payloadLength = length - 5;
+        if (payloadLength < 0 || RECORD_HEADER_SIZE + payloadLength > sectors * SECTOR_SIZE) {
+            throw new IOException("Corrupt chunk record (" + chunkX + ", " + chunkZ + ") in " + path);
+        }
+
+        byte[] payload = new byte[payloadLength];
+        readFully(ByteBuffer.wrap(payload), position + RECORD_HEADER_SIZE);
+
+        if (compression == COMPRESSION_NONE) {
+            return payload;
+        }
+        if (compression != COMPRESSION_DEFLATE) {
+            throw new IOException("Unknown compression " + compression + " for chunk (" + chunkX + ", " + chunkZ + ")");
+        }
+
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(payload);
+        try {
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != rawLength) {
+                throw new IOException("Truncated chunk record (" + chunkX + ", " + chunkZ + ") in " + path);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt chunk data (" + chunkX + ", " + chunkZ + ") in " + path, e);
+        }
+        return raw;
+    }
+
+    /**
+     * Compresses and writes a chunk payload, reusing its current sectors when it fits.
+     */
+    public synchronized void write(int chunkX, int chunkZ, byte[] data) throws IOException {
+        // Compress, falling back to raw storage for incompressible payloads
+        byte[] compressed = new byte[data.length + 64];
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished() && compressedLength < compressed.length) {
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        byte compression = COMPRESSION_DEFLATE;
+        byte[] payload = compressed;
+        int payloadLength = compressedLength;
+        if (!deflater.finished() || compressedLength >= data.length) {
+            compression = COMPRESSION_NONE;
+            payload = data;
+            payloadLength = data.length;
+        }
+
+        int recordLength = RECORD_HEADER_SIZE + payloadLength;
+        int sectorsNeeded = (recordLength + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        if (sectorsNeeded > MAX_SECTORS_PER_CHUNK) {
+            throw new IOException("Chunk (" + chunkX + ", " + chunkZ + ") is too large: " + recordLength + " bytes");
+        }
+
+        int index = locationIndex(chunkX, chunkZ);
+        int location = header.getInt(index);
+        int oldOffset = location >>> 8;
+        int oldCount = location & 0xFF;
+
+        int offset;
+        if (location != 0 && sectorsNeeded <= oldCount) {
+            // Rewrite in place, releasing any trailing sectors
+            offset = oldOffset;
+            usedSectors.clear(oldOffset + sectorsNeeded, oldOffset + oldCount);
+        } else {
+            if (location != 0) {
+                usedSectors.clear(oldOffset, oldOffset + oldCount);
+            }
+            offset = allocate(sectorsNeeded);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(sectorsNeeded * SECTOR_SIZE);
+        record.putInt(payloadLength + 5);
+        record.put(compression);
+        record.putInt(data.length);
+        record.put(payload, 0, payloadLength);
+        record.position(0);
+        writeFully(record, (long) offset * SECTOR_SIZE);
+
+        // Publish the location only after the record is on disk
+        header.putInt(index, (offset << 8) | sectorsNeeded);
+        header.putInt(CHUNK_COUNT * 4 + index, (int) (System.currentTimeMillis() / 1000L));
+    }
+
+    /**
+     * Removes a chunk record and frees its sectors
+     */
+    public synchronized void delete(int chunkX, int chunkZ) {
+        int index = locationIndex(chunkX, chunkZ);
+        int location = header.getInt(index);
+        if (location == 0) {
+            return;
+        }
+        usedSectors.clear(location >>> 8, (location >>> 8) + (location & 0xFF));
+        header.putInt(index, 0);
+        header.putInt(CHUNK_COUNT * 4 + index, 0);
+    }
+
+    /**
+     * Gets the last write time of a chunk in epoch seconds, or 0 if absent
+     */
+    public synchronized int getTimestamp(int chunkX, int chunkZ) {
+        return header.getInt(CHUNK_COUNT * 4 + locationIndex(chunkX, chunkZ));
+    }
+
+    /**
+     * Forces the header and chunk records to the storage device
+     */
+    public synchronized void flush() throws IOException {
+        header.force();
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            inflater.end();
+            channel.close();
+        }
+    }
+
+    public Path getPath() { return path; }
+    public synchronized int getSectorCount() { return sectorCount; }
+    public synchronized int getUsedSectorCount() { return usedSectors.cardinality(); }
+
+    /**
+     * Finds the first free run of sectors, growing the file if none is large enough
+     */
+    private int allocate(int sectors) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (start < sectorCount) {
+            int end = usedSectors.nextSetBit(start);
+            if (end < 0 || end > sectorCount) {
+                end = sectorCount;
+            }
+            if (end - start >= sectors) {
+                usedSectors.set(start, start + sectors);
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+
+        start = Math.max(start, sectorCount);
+        sectorCount = start + sectors;
+        usedSectors.set(start, start + sectors);
+        return start;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of region file " + path);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static int locationIndex(int chunkX, int chunkZ) {
+        return ((chunkX & (REGION_SIZE - 1)) + (chunkZ & (REGION_SIZE - 1)) * REGION_SIZE) * 4;
+    }
+}
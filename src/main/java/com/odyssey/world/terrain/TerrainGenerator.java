@@ -84,21 +84,18 @@ public class TerrainGenerator {
      */
     public void generateChunkTerrain(WorldChunk chunk) {
         int chunkSize = chunk.getChunkSize();
-        Vector2f worldPos = chunk.getWorldPosition();
         
-        // Generate height map
-        float[][] heightMap = generateHeightMap(chunk.getChunkX(), chunk.getChunkZ(), chunkSize);
-        
-        // Generate climate maps
-        float[][] temperatureMap = generateTemperatureMap(chunk.getChunkX(), chunk.getChunkZ(), chunkSize);
-        float[][] humidityMap = generateHumidityMap(chunk.getChunkX(), chunk.getChunkZ(), chunkSize);
+        // Height and climate for the whole chunk in one batched pass
+        GridWorkspace grid = sampleGrid(chunk.getChunkX() * chunkSize, chunk.getChunkZ() * chunkSize,
+                                        1, chunkSize, chunkSize);
         
         // Apply terrain data to chunk
         for (int x = 0; x < chunkSize; x++) {
             for (int z = 0; z < chunkSize; z++) {
-                float height = heightMap[x][z];
-                float temperature = temperatureMap[x][z];
-                float humidity = humidityMap[x][z];
+                int p = x + z * chunkSize;
+                float height = grid.height[p];
+                float temperature = grid.temperature[p];
+                float humidity = grid.humidity[p];
                 
                 // Set height
                 chunk.setHeight(x, z, height);
@@ -120,22 +117,158 @@ public class TerrainGenerator {
     }
     
     /**
-     * Generates a height map using multiple octaves of Simplex noise
+     * Generates heights for a grid of points in one pass. Point (i, j) lies at
+     * (originX + i * spacing, originZ + j * spacing) and is stored at heights[i + j * width].
+     * Gives the same values as {@link #generateHeightAt(float, float)} for every point, and
+     * unlike it doesn't touch the point cache, so it's safe to call from several threads.
+     */
+    public void generateHeightGrid(float originX, float originZ, float spacing,
+                                   int width, int depth, float[] heights) {
+        GridWorkspace grid = sampleGrid(originX, originZ, spacing, width, depth);
+        System.arraycopy(grid.height, 0, heights, 0, width * depth);
+    }
+    
+    /**
+     * Runs the height and climate noise stack over a grid. Each layer is evaluated
+     * for all points at once; the biome-specific layers only for the points they apply to.
+     * 
+     * @return this thread's workspace, holding height, temperature and humidity per point
      */
-    private float[][] generateHeightMap(int chunkX, int chunkZ, int chunkSize) {
-        float[][] heightMap = new float[chunkSize][chunkSize];
+    private GridWorkspace sampleGrid(float originX, float originZ, float spacing, int width, int depth) {
+        int count = width * depth;
+        GridWorkspace grid = GRID_WORKSPACE.get();
+        grid.ensureCapacity(count);
+        
+        float[] worldX = grid.worldX;
+        float[] worldZ = grid.worldZ;
+        for (int j = 0; j < depth; j++) {
+            for (int i = 0; i < width; i++) {
+                int p = i + j * width;
+                worldX[p] = originX + i * spacing;
+                worldZ[p] = originZ + j * spacing;
+            }
+        }
         
-        for (int x = 0; x < chunkSize; x++) {
-            for (int z = 0; z < chunkSize; z++) {
-                float worldX = chunkX * chunkSize + x;
-                float worldZ = chunkZ * chunkSize + z;
-                
-                float height = generateHeightAt(worldX, worldZ);
-                heightMap[x][z] = height;
+        // Climate, as in getTemperatureAt and getHumidityAt
+        grid.scale(count, TEMPERATURE_SCALE);
+        temperatureNoise.fractalNoise(grid.x, grid.z, grid.temperature, count, 3, 0.5f, 2.0f);
+        for (int p = 0; p < count; p++) {
+            float latitudeTemp = (float) Math.cos(worldZ[p] * 0.0001f) * 0.8f;
+            grid.temperature[p] = latitudeTemp + grid.temperature[p] * 0.4f;
+        }
+        grid.scale(count, HUMIDITY_SCALE);
+        humidityNoise.fractalNoise(grid.x, grid.z, grid.humidity, count, 3, 0.6f, 2.0f);
+        
+        // Base layers, as in generateHeightAt; the weights are applied when combining
+        grid.scale(count, CONTINENTAL_SCALE);
+        continentalNoise.fractalNoise(grid.x, grid.z, grid.continental, count, 4, 0.5f, 2.0f);
+        grid.scale(count, EROSION_SCALE);
+        erosionNoise.fractalNoise(grid.x, grid.z, grid.erosion, count, 3, 0.6f, 2.0f);
+        grid.scale(count, PEAKS_VALLEYS_SCALE);
+        peaksValleysNoise.ridgedNoise(grid.x, grid.z, grid.peaksValleys, count, 3, 0.5f, 2.0f);
+        grid.scale(count, RIDGE_SCALE);
+        ridgeNoise.ridgedNoise(grid.x, grid.z, grid.ridges, count, 2, 0.7f, 2.0f);
+        
+        applyBiomeTerrainModifiers(grid, count);
+        
+        for (int p = 0; p < count; p++) {
+            float combinedNoise = grid.continental[p] * CONTINENTAL_WEIGHT
+                                + grid.erosion[p] * EROSION_WEIGHT
+                                + grid.peaksValleys[p] * PEAKS_VALLEYS_WEIGHT
+                                + grid.ridges[p] * RIDGE_WEIGHT
+                                + grid.modifier[p];
+            combinedNoise = applyTerrainCurve(combinedNoise);
+            float height = SEA_LEVEL + (combinedNoise * (MAX_HEIGHT - SEA_LEVEL) * TERRAIN_SCALE);
+            grid.height[p] = Math.max(MIN_HEIGHT, Math.min(MAX_HEIGHT, height));
+        }
+        
+        return grid;
+    }
+    
+    /**
+     * Batched counterpart of {@link #getBiomeTerrainModifier}. The biome conditions are
+     * mutually exclusive, so each point gets at most one of the extra layers.
+     */
+    private void applyBiomeTerrainModifiers(GridWorkspace grid, int count) {
+        float[] temperature = grid.temperature;
+        float[] humidity = grid.humidity;
+        float[] modifier = grid.modifier;
+        int[] index = grid.index;
+        java.util.Arrays.fill(modifier, 0, count, 0.0f);
+        int n;
+        
+        // Cold mountains
+        n = 0;
+        for (int p = 0; p < count; p++) {
+            if (temperature[p] < TEMPERATURE_COLD) {
+                index[n++] = p;
+            }
+        }
+        if (n > 0) {
+            grid.gather(n, 0.008f);
+            peaksValleysNoise.ridgedNoise(grid.x, grid.z, grid.layerA, n, 4, 0.7f, 2.2f);
+            for (int k = 0; k < n; k++) {
+                modifier[index[k]] = grid.layerA[k] * 0.3f;
             }
         }
         
-        return heightMap;
+        // Desert dunes and mesas
+        n = 0;
+        for (int p = 0; p < count; p++) {
+            if (temperature[p] > TEMPERATURE_HOT && humidity[p] < HUMIDITY_DRY) {
+                index[n++] = p;
+            }
+        }
+        if (n > 0) {
+            grid.gather(n, 0.015f);
+            erosionNoise.fractalNoise(grid.x, grid.z, grid.layerA, n, 2, 0.4f, 1.8f);
+            grid.gather(n, 0.005f);
+            ridgeNoise.turbulenceNoise(grid.x, grid.z, grid.layerB, n, 3, 0.6f, 2.0f);
+            for (int k = 0; k < n; k++) {
+                modifier[index[k]] = (grid.layerA[k] * 0.15f) + (grid.layerB[k] * 0.25f);
+            }
+        }
+        
+        // Tropical hills and river valleys
+        n = 0;
+        for (int p = 0; p < count; p++) {
+            if (temperature[p] > TEMPERATURE_HOT && humidity[p] > HUMIDITY_WET) {
+                index[n++] = p;
+            }
+        }
+        if (n > 0) {
+            grid.gather(n, 0.012f);
+            continentalNoise.fractalNoise(grid.x, grid.z, grid.layerA, n, 3, 0.5f, 2.0f);
+            grid.gather(n, 0.003f);
+            erosionNoise.ridgedNoise(grid.x, grid.z, grid.layerB, n, 2, 0.8f, 2.0f);
+            for (int k = 0; k < n; k++) {
+                modifier[index[k]] = (grid.layerA[k] * 0.2f) - (Math.abs(grid.layerB[k]) * 0.15f);
+            }
+        }
+        
+        // Plains
+        n = 0;
+        for (int p = 0; p < count; p++) {
+            if (Math.abs(temperature[p]) < 0.3f && Math.abs(humidity[p]) < 0.4f) {
+                index[n++] = p;
+            }
+        }
+        if (n > 0) {
+            grid.gather(n, 0.02f);
+            continentalNoise.fractalNoise(grid.x, grid.z, grid.layerA, n, 2, 0.3f, 1.5f);
+            for (int k = 0; k < n; k++) {
+                modifier[index[k]] = grid.layerA[k] * 0.1f;
+            }
+        }
+        
+        // Coastal flattening
+        for (int p = 0; p < count; p++) {
+            float baseHeight = SEA_LEVEL + (modifier[p] * (MAX_HEIGHT - SEA_LEVEL) * TERRAIN_SCALE);
+            if (Math.abs(baseHeight - SEA_LEVEL) < 10) {
+                float coastalFlattening = (10 - Math.abs(baseHeight - SEA_LEVEL)) / 10.0f;
+                modifier[p] *= (1.0f - coastalFlattening * 0.7f);
+            }
+        }
     }
     
     /**
@@ -213,55 +346,6 @@ public class TerrainGenerator {
         }
     }
     
-    /**
-     * Generates temperature map for biome determination
-     */
-    private float[][] generateTemperatureMap(int chunkX, int chunkZ, int chunkSize) {
-        float[][] temperatureMap = new float[chunkSize][chunkSize];
-        
-        for (int x = 0; x < chunkSize; x++) {
-            for (int z = 0; z < chunkSize; z++) {
-                float worldX = chunkX * chunkSize + x;
-                float worldZ = chunkZ * chunkSize + z;
-                
-                // Base temperature varies with latitude (Z coordinate)
-                float latitudeTemp = (float) Math.cos(worldZ * 0.0001f) * 0.8f;
-                
-                // Add noise variation
-                float noiseTemp = temperatureNoise.fractalNoise(
-                    worldX * TEMPERATURE_SCALE, worldZ * TEMPERATURE_SCALE, 3, 0.5f, 2.0f
-                ) * 0.4f;
-                
-                temperatureMap[x][z] = latitudeTemp + noiseTemp;
-            }
-        }
-        
-        return temperatureMap;
-    }
-    
-    /**
-     * Generates humidity map for biome determination
-     */
-    private float[][] generateHumidityMap(int chunkX, int chunkZ, int chunkSize) {
-        float[][] humidityMap = new float[chunkSize][chunkSize];
-        
-        for (int x = 0; x < chunkSize; x++) {
-            for (int z = 0; z < chunkSize; z++) {
-                float worldX = chunkX * chunkSize + x;
-                float worldZ = chunkZ * chunkSize + z;
-                
-                // Humidity varies with noise and distance from water
-                float humidity = humidityNoise.fractalNoise(
-                    worldX * HUMIDITY_SCALE, worldZ * HUMIDITY_SCALE, 3, 0.6f, 2.0f
-                );
-                
-                humidityMap[x][z] = humidity;
-            }
-        }
-        
-        return humidityMap;
-    }
-    
     /**
      * Determines biome based on height, temperature, and humidity
      */
@@ -441,4 +525,66 @@ public class TerrainGenerator {
     // Getters
     public long getSeed() { return seed; }
     public WorldConfig getConfig() { return config; }
+    
+    private static final ThreadLocal<GridWorkspace> GRID_WORKSPACE = ThreadLocal.withInitial(GridWorkspace::new);
+    
+    /**
+     * Per-thread scratch arrays for batched sampling, one value per grid point
+     */
+    private static final class GridWorkspace {
+        float[] worldX = new float[0];
+        float[] worldZ = new float[0];
+        // Scaled coordinates handed to the noise, either for every point or for a gathered subset
+        float[] x = new float[0];
+        float[] z = new float[0];
+        int[] index = new int[0];
+        float[] temperature = new float[0];
+        float[] humidity = new float[0];
+        float[] continental = new float[0];
+        float[] erosion = new float[0];
+        float[] peaksValleys = new float[0];
+        float[] ridges = new float[0];
+        float[] modifier = new float[0];
+        float[] layerA = new float[0];
+        float[] layerB = new float[0];
+        float[] height = new float[0];
+        
+        void ensureCapacity(int count) {
+            if (worldX.length >= count) {
+                return;
+            }
+            worldX = new float[count];
+            worldZ = new float[count];
+            x = new float[count];
+            z = new float[count];
+            index = new int[count];
+            temperature = new float[count];
+            humidity = new float[count];
+            continental = new float[count];
+            erosion = new float[count];
+            peaksValleys = new float[count];
+            ridges = new float[count];
+            modifier = new float[count];
+            layerA = new float[count];
+            layerB = new float[count];
+            height = new float[count];
+        }
+        
+        /** Scales the coordinates of every point into x and z */
+        void scale(int count, float scale) {
+            for (int p = 0; p < count; p++) {
+                x[p] = worldX[p] * scale;
+                z[p] = worldZ[p] * scale;
+            }
+        }
+        
+        /** Scales the coordinates of the first n points listed in index into x and z */
+        void gather(int n, float scale) {
+            for (int k = 0; k < n; k++) {
+                int p = index[k];
+                x[k] = worldX[p] * scale;
+                z[k] = worldZ[p] * scale;
+            }
+        }
+    }
 }
\ No newline at end of file
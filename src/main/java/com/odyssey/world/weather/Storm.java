@@ -48,6 +48,24 @@ public class Storm {
         generateMovement();
     }
     
+    /**
+     * Copies a storm's current state; the copy doesn't follow later updates
+     */
+    Storm(Storm other) {
+        this.position = new Vector2f(other.position);
+        this.velocity = new Vector2f(other.velocity);
+        this.intensity = other.intensity;
+        this.radius = other.radius;
+        this.type = other.type;
+        this.creationTime = other.creationTime;
+        this.duration = other.duration;
+        this.active = other.active;
+        this.maxWindSpeed = other.maxWindSpeed;
+        this.minPressure = other.minPressure;
+        this.precipitationIntensity = other.precipitationIntensity;
+        this.lightningFrequency = other.lightningFrequency;
+    }
+    
     private void initializeStormProperties() {
         // Base properties from storm type
         this.radius = type.getBaseRadius() * (0.5f + intensity * 0.5f);
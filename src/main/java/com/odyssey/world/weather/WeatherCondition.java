@@ -52,6 +52,24 @@ public class WeatherCondition {
         this.windDirection = windDirection % 360.0f;
     }
     
+    /**
+     * Copies every value from another condition
+     * 
+     * @return this condition
+     */
+    public WeatherCondition set(WeatherCondition other) {
+        this.temperature = other.temperature;
+        this.humidity = other.humidity;
+        this.pressure = other.pressure;
+        this.visibility = other.visibility;
+        this.precipitation = other.precipitation;
+        this.precipitationIntensity = other.precipitationIntensity;
+        this.cloudCover = other.cloudCover;
+        this.windSpeed = other.windSpeed;
+        this.windDirection = other.windDirection;
+        return this;
+    }
+    
     /**
      * Gets a description of the current weather conditions
      */
@@ -0,0 +1,254 @@
+package com.odyssey.world.weather;
+
+import com.odyssey.util.Logger;
+import org.joml.Vector2f;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Coarse grid of precomputed wind and weather around a focus point, usually the player's
+ * ship, so per-ship lookups each tick are a few array reads instead of several 3D noise
+ * evaluations and a pass over the storms.
+ *
+ * The grid is double-buffered. A background thread refills the back layer a few rows per
+ * step at a fixed rate, evaluating every node against one {@link WeatherSystem.Snapshot},
+ * and swaps it to the front once all rows are done. Lookups interpolate the front layer
+ * bilinearly and never allocate. They validate against the layer's lock optimistically,
+ * so a reader still holding a layer the worker has started refilling reports a miss
+ * instead of mixing two passes; callers then evaluate the point directly.
+ */
+final class WeatherField {
+
+    /** Nodes along one side of the grid */
+    static final int SIZE = 65;
+    /** World units between neighboring nodes */
+    static final float SPACING = 32.0f;
+
+    private static final long STEP_INTERVAL_MS = 50;
+    private static final int ROWS_PER_STEP = 13;
+    private static final PrecipitationType[] PRECIPITATION = PrecipitationType.values();
+
+    private final WeatherSystem weatherSystem;
+    private volatile Layer front;
+    private volatile float focusX;
+    private volatile float focusZ;
+    private ScheduledExecutorService worker;
+
+    // Only touched by the worker thread
+    private Layer back = new Layer();
+    private WeatherSystem.Snapshot passSnapshot;
+    private long passStamp;
+    private int nextRow;
+    private volatile long passesCompleted;
+
+    WeatherField(WeatherSystem weatherSystem) {
+        this.weatherSystem = weatherSystem;
+    }
+
+    /**
+     * Moves the grid's center; takes effect with the next refill pass
+     */
+    void setFocus(float x, float z) {
+        focusX = x;
+        focusZ = z;
+    }
+
+    synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "WeatherField");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleAtFixedRate(this::step, 0, STEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+    }
+
+    synchronized boolean isRunning() {
+        return worker != null;
+    }
+
+    long getPassesCompleted() {
+        return passesCompleted;
+    }
+
+    /**
+     * Interpolates the wind at a point
+     *
+     * @return false if the point is outside the grid or no pass has completed yet
+     */
+    boolean sampleWind(float x, float z, Vector2f out) {
+        Layer layer = front;
+        if (layer == null) {
+            return false;
+        }
+        long stamp = layer.lock.tryOptimisticRead();
+        float gx = (x - layer.originX) / SPACING;
+        float gz = (z - layer.originZ) / SPACING;
+        int i = index(gx, gz);
+        if (i < 0) {
+            return false;
+        }
+        float fx = gx - (i % SIZE);
+        float fz = gz - (i / SIZE);
+
+        float windX = bilinear(layer.windX, i, fx, fz);
+        float windZ = bilinear(layer.windZ, i, fx, fz);
+        if (!layer.lock.validate(stamp)) {
+            return false;
+        }
+        out.set(windX, windZ);
+        return true;
+    }
+
+    /**
+     * Interpolates the weather conditions at a point. Precipitation type and wind
+     * direction come from the nearest node.
+     *
+     * @return false if the point is outside the grid or no pass has completed yet
+     */
+    boolean sampleWeather(float x, float z, WeatherCondition out) {
+        Layer layer = front;
+        if (layer == null) {
+            return false;
+        }
+        long stamp = layer.lock.tryOptimisticRead();
+        float gx = (x - layer.originX) / SPACING;
+        float gz = (z - layer.originZ) / SPACING;
+        int i = index(gx, gz);
+        if (i < 0) {
+            return false;
+        }
+        float fx = gx - (i % SIZE);
+        float fz = gz - (i / SIZE);
+        int nearest = i + (fx >= 0.5f ? 1 : 0) + (fz >= 0.5f ? SIZE : 0);
+
+        float temperature = bilinear(layer.temperature, i, fx, fz);
+        float humidity = bilinear(layer.humidity, i, fx, fz);
+        float pressure = bilinear(layer.pressure, i, fx, fz);
+        float visibility = bilinear(layer.visibility, i, fx, fz);
+        float precipitationIntensity = bilinear(layer.precipitationIntensity, i, fx, fz);
+        float cloudCover = bilinear(layer.cloudCover, i, fx, fz);
+        float windSpeed = bilinear(layer.windSpeed, i, fx, fz);
+        float windDirection = layer.windDirection[nearest];
+        int precipitation = layer.precipitation[nearest];
+        if (!layer.lock.validate(stamp)) {
+            return false;
+        }
+
+        out.setTemperature(temperature);
+        out.setHumidity(humidity);
+        out.setPressure(pressure);
+        out.setVisibility(visibility);
+        out.setPrecipitation(PRECIPITATION[precipitation]);
+        out.setPrecipitationIntensity(precipitationIntensity);
+        out.setCloudCover(cloudCover);
+        out.setWindSpeed(windSpeed);
+        out.setWindDirection(windDirection);
+        return true;
+    }
+
+    /**
+     * Refills the next rows of the back layer, starting a new pass or publishing a
+     * finished one as needed
+     */
+    private void step() {
+        try {
+            if (nextRow == 0) {
+                passSnapshot = weatherSystem.getSnapshot();
+                passStamp = back.lock.writeLock();
+                float half = (SIZE - 1) * SPACING * 0.5f;
+                back.originX = (float) Math.floor((focusX - half) / SPACING) * SPACING;
+                back.originZ = (float) Math.floor((focusZ - half) / SPACING) * SPACING;
+            }
+
+            int endRow = Math.min(SIZE, nextRow + ROWS_PER_STEP);
+            Vector2f wind = new Vector2f();
+            for (int j = nextRow; j < endRow; j++) {
+                float z = back.originZ + j * SPACING;
+                for (int i = 0; i < SIZE; i++) {
+                    float x = back.originX + i * SPACING;
+                    weatherSystem.evaluateWind(passSnapshot, x, z, wind);
+                    back.set(i + j * SIZE, wind, weatherSystem.evaluateWeather(passSnapshot, x, z));
+                }
+            }
+            nextRow = endRow;
+
+            if (nextRow == SIZE) {
+                Layer finished = back;
+                finished.lock.unlockWrite(passStamp);
+                back = front != null ? front : new Layer();
+                front = finished;
+                nextRow = 0;
+                passesCompleted++;
+            }
+        } catch (RuntimeException e) {
+            // Start over with a fresh layer rather than publishing a partial one
+            back = new Layer();
+            nextRow = 0;
+            Logger.logError("Weather field refill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the index of the node at the lower corner of the cell holding a grid position,
+     * or -1 if the position is outside the grid
+     */
+    private static int index(float gx, float gz) {
+        if (!(gx >= 0 && gz >= 0 && gx < SIZE - 1 && gz < SIZE - 1)) {
+            return -1;
+        }
+        return (int) gx + (int) gz * SIZE;
+    }
+
+    private static float bilinear(float[] values, int i, float fx, float fz) {
+        float top = values[i] + (values[i + 1] - values[i]) * fx;
+        float bottom = values[i + SIZE] + (values[i + SIZE + 1] - values[i + SIZE]) * fx;
+        return top + (bottom - top) * fz;
+    }
+
+    /**
+     * One buffer of node values, row-major by z
+     */
+    private static final class Layer {
+        final StampedLock lock = new StampedLock();
+        float originX;
+        float originZ;
+        final float[] windX = new float[SIZE * SIZE];
+        final float[] windZ = new float[SIZE * SIZE];
+        final float[] temperature = new float[SIZE * SIZE];
+        final float[] humidity = new float[SIZE * SIZE];
+        final float[] pressure = new float[SIZE * SIZE];
+        final float[] visibility = new float[SIZE * SIZE];
+        final float[] precipitationIntensity = new float[SIZE * SIZE];
+        final float[] cloudCover = new float[SIZE * SIZE];
+        final float[] windSpeed = new float[SIZE * SIZE];
+        final float[] windDirection = new float[SIZE * SIZE];
+        final byte[] precipitation = new byte[SIZE * SIZE];
+
+        void set(int index, Vector2f wind, WeatherCondition condition) {
+            windX[index] = wind.x;
+            windZ[index] = wind.y;
+            temperature[index] = condition.getTemperature();
+            humidity[index] = condition.getHumidity();
+            pressure[index] = condition.getPressure();
+            visibility[index] = condition.getVisibility();
+            precipitationIntensity[index] = condition.getPrecipitationIntensity();
+            cloudCover[index] = condition.getCloudCover();
+            windSpeed[index] = condition.getWindSpeed();
+            windDirection[index] = condition.getWindDirection();
+            precipitation[index] = (byte) condition.getPrecipitation().ordinal();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.odyssey.world.weather;
 import org.joml.Vector2f;
 import com.odyssey.util.NoiseGenerator;
 import com.odyssey.util.Logger;
+import com.odyssey.world.SpatialIndex;
 import com.odyssey.world.WorldConfig;
 import java.util.*;
 
@@ -25,8 +26,15 @@ public class WeatherSystem {
     // Global weather patterns
     private final List<WeatherPattern> globalPatterns;
     private final List<Storm> activeStorms;
+    private final SpatialIndex<Storm> stormIndex;
     private final Map<Vector2f, WeatherCell> weatherCells;
     
+    // Precomputed wind and weather around the player, refilled in the background
+    private final WeatherField field;
+    
+    // Weather state as of the last update, for evaluation off the game thread
+    private volatile Snapshot snapshot;
+    
     // Weather state
     private float globalTime = 0;
     private float seasonalFactor = 0; // 0-1 representing seasonal variation
@@ -37,6 +45,7 @@ public class WeatherSystem {
     private static final float CELL_SIZE = 100.0f;
     private static final float STORM_DURATION = 300.0f; // 5 minutes
     private static final float STORM_SPAWN_CHANCE = 0.001f;
+    private static final float STORM_INDEX_CELL_SIZE = 1024.0f;
     
     public WeatherSystem(long seed, WorldConfig.WeatherConfig config) {
         this.seed = seed;
@@ -53,7 +62,10 @@ public class WeatherSystem {
         // Initialize collections
         this.globalPatterns = new ArrayList<>();
         this.activeStorms = new ArrayList<>();
+        this.stormIndex = new SpatialIndex<>(STORM_INDEX_CELL_SIZE);
         this.weatherCells = new HashMap<>();
+        this.field = new WeatherField(this);
+        this.snapshot = new Snapshot(this);
         
         Logger.world("Initialized weather system with seed: {}", seed);
     }
@@ -78,25 +90,96 @@ public class WeatherSystem {
         
         // Update weather cells
         updateWeatherCells(deltaTime);
+        
+        snapshot = new Snapshot(this);
     }
     
     /**
      * Gets wind velocity at a specific world position
      */
     public Vector2f getWindAt(float worldX, float worldZ) {
+        return getWindAt(worldX, worldZ, new Vector2f());
+    }
+    
+    /**
+     * Gets wind velocity at a specific world position without allocating. Inside the
+     * weather field the value is interpolated from the precomputed grid.
+     * 
+     * @return out, holding the wind velocity
+     */
+    public Vector2f getWindAt(float worldX, float worldZ, Vector2f out) {
+        if (!field.sampleWind(worldX, worldZ, out)) {
+            evaluateWind(snapshot, worldX, worldZ, out);
+        }
+        return out;
+    }
+    
+    /**
+     * Gets weather conditions at a specific world position
+     */
+    public WeatherCondition getWeatherAt(float worldX, float worldZ) {
+        return getWeatherAt(worldX, worldZ, new WeatherCondition());
+    }
+    
+    /**
+     * Gets weather conditions at a specific world position into an existing condition.
+     * Inside the weather field this doesn't allocate; the values are interpolated from
+     * the precomputed grid.
+     * 
+     * @return out, holding the weather conditions
+     */
+    public WeatherCondition getWeatherAt(float worldX, float worldZ, WeatherCondition out) {
+        if (!field.sampleWeather(worldX, worldZ, out)) {
+            out.set(evaluateWeather(snapshot, worldX, worldZ));
+        }
+        return out;
+    }
+    
+    /**
+     * Centers the precomputed weather field on a point, usually the player's ship, and
+     * starts refilling it in the background if it isn't running yet. Queries further
+     * than about {@link #getFieldRadius()} from the focus are evaluated directly.
+     */
+    public void setFieldFocus(float worldX, float worldZ) {
+        field.setFocus(worldX, worldZ);
+        field.start();
+    }
+    
+    /**
+     * Gets the distance from the focus within which queries are served by the field
+     */
+    public float getFieldRadius() {
+        return (WeatherField.SIZE - 2) * WeatherField.SPACING * 0.5f;
+    }
+    
+    /**
+     * Stops the background weather field refills
+     */
+    public void shutdown() {
+        field.stop();
+    }
+    
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Computes the wind at a point from a snapshot of the weather state
+     */
+    void evaluateWind(Snapshot state, float worldX, float worldZ, Vector2f wind) {
         // Base wind from global patterns
-        Vector2f wind = new Vector2f(globalWindDirection);
-        wind.mul(globalWindStrength);
+        wind.set(state.windDirectionX, state.windDirectionZ);
+        wind.mul(state.windStrength);
         
         // Add local wind variations
-        float localWindX = windNoise.noise(worldX * 0.001f, worldZ * 0.001f, globalTime * 0.1f);
-        float localWindZ = windNoise.noise(worldX * 0.001f + 1000, worldZ * 0.001f + 1000, globalTime * 0.1f);
+        float localWindX = windNoise.noise(worldX * 0.001f, worldZ * 0.001f, state.globalTime * 0.1f);
+        float localWindZ = windNoise.noise(worldX * 0.001f + 1000, worldZ * 0.001f + 1000, state.globalTime * 0.1f);
         
         wind.x += localWindX * config.getWindStrength() * 0.3f;
         wind.y += localWindZ * config.getWindStrength() * 0.3f;
         
         // Check for storm influence
-        for (Storm storm : activeStorms) {
+        for (Storm storm : state.stormsAt(worldX, worldZ)) {
             float distance = storm.getDistanceTo(worldX, worldZ);
             if (distance < storm.getRadius()) {
                 Vector2f stormWind = storm.getWindAt(worldX, worldZ);
@@ -106,29 +189,27 @@ public class WeatherSystem {
                 wind.y += stormWind.y * influence;
             }
         }
-        
-        return wind;
     }
     
     /**
-     * Gets weather conditions at a specific world position
+     * Computes the weather conditions at a point from a snapshot of the weather state
      */
-    public WeatherCondition getWeatherAt(float worldX, float worldZ) {
+    WeatherCondition evaluateWeather(Snapshot state, float worldX, float worldZ) {
         WeatherCondition condition = new WeatherCondition();
         
         // Base temperature and humidity
-        float baseTemp = 20.0f + seasonalFactor * config.getTemperatureVariation();
-        float baseHumidity = 0.6f + seasonalFactor * config.getHumidityVariation();
+        float baseTemp = 20.0f + state.seasonalFactor * config.getTemperatureVariation();
+        float baseHumidity = 0.6f + state.seasonalFactor * config.getHumidityVariation();
         
         // Add noise variations
-        float tempNoise = temperatureNoise.noise(worldX * 0.002f, worldZ * 0.002f, globalTime * 0.05f);
-        float humidityNoise = this.humidityNoise.noise(worldX * 0.003f, worldZ * 0.003f, globalTime * 0.03f);
+        float tempNoise = temperatureNoise.noise(worldX * 0.002f, worldZ * 0.002f, state.globalTime * 0.05f);
+        float humidityNoise = this.humidityNoise.noise(worldX * 0.003f, worldZ * 0.003f, state.globalTime * 0.03f);
         
         condition.setTemperature(baseTemp + tempNoise * 10.0f);
         condition.setHumidity(Math.max(0, Math.min(1, baseHumidity + humidityNoise * 0.3f)));
         
         // Atmospheric pressure
-        float pressure = pressureNoise.noise(worldX * 0.001f, worldZ * 0.001f, globalTime * 0.02f);
+        float pressure = pressureNoise.noise(worldX * 0.001f, worldZ * 0.001f, state.globalTime * 0.02f);
         condition.setPressure(1013.25f + pressure * 50.0f); // Standard pressure ± 50 hPa
         
         // Check for precipitation
@@ -139,7 +220,7 @@ public class WeatherSystem {
         condition.setPrecipitationIntensity(Math.max(0, precipitationChance - 0.6f) * 2.5f);
         
         // Check for storm influence
-        for (Storm storm : activeStorms) {
+        for (Storm storm : state.stormsAt(worldX, worldZ)) {
             float distance = storm.getDistanceTo(worldX, worldZ);
             if (distance < storm.getRadius()) {
                 WeatherCondition stormCondition = storm.getWeatherAt(worldX, worldZ);
@@ -216,6 +297,9 @@ public class WeatherSystem {
             if (storm.isExpired()) {
                 Logger.world("Storm '{}' has dissipated", storm.getName());
                 stormIterator.remove();
+                stormIndex.remove(storm);
+            } else {
+                indexStorm(storm);
             }
         }
     }
@@ -237,10 +321,16 @@ public class WeatherSystem {
             );
             
             activeStorms.add(newStorm);
+            indexStorm(newStorm);
             Logger.world("New {} spawned at ({}, {})", stormType, stormX, stormZ);
         }
     }
     
+    private void indexStorm(Storm storm) {
+        Vector2f position = storm.getPosition();
+        stormIndex.update(storm, position.x, position.y, storm.getRadius());
+    }
+    
     private StormType determineStormType(float worldX, float worldZ) {
         float stormIntensity = stormNoise.noise(worldX * 0.0005f, worldZ * 0.0005f);
         
@@ -294,6 +384,27 @@ public class WeatherSystem {
         return new ArrayList<>(activeStorms);
     }
     
+    /**
+     * Gets the active storms whose area overlaps a circle
+     */
+    public List<Storm> getStormsInRadius(float worldX, float worldZ, float radius) {
+        return stormIndex.queryRadius(worldX, worldZ, radius, new ArrayList<>());
+    }
+    
+    /**
+     * Gets the active storms whose area overlaps a rectangle
+     */
+    public List<Storm> getStormsInRegion(float minX, float minZ, float maxX, float maxZ) {
+        return stormIndex.queryRect(minX, minZ, maxX, maxZ, new ArrayList<>());
+    }
+    
+    /**
+     * Gets the active storm whose center is closest to a point, or null if there is none
+     */
+    public Storm getNearestStorm(float worldX, float worldZ) {
+        return stormIndex.nearest(worldX, worldZ);
+    }
+    
     public float getGlobalTime() {
         return globalTime;
     }
@@ -341,4 +452,44 @@ public class WeatherSystem {
     public float getCellSize() {
         return CELL_SIZE;
     }
+    
+    /**
+     * Copy of the state weather evaluation depends on. Storms are copied too, since the
+     * game thread moves the originals while the field is being refilled, and indexed so
+     * evaluating a point only looks at the storms covering it.
+     */
+    static final class Snapshot {
+        final float globalTime;
+        final float seasonalFactor;
+        final float windDirectionX;
+        final float windDirectionZ;
+        final float windStrength;
+        final Storm[] storms;
+        private final SpatialIndex<Storm> stormIndex = new SpatialIndex<>(STORM_INDEX_CELL_SIZE);
+        
+        Snapshot(WeatherSystem weather) {
+            this.globalTime = weather.globalTime;
+            this.seasonalFactor = weather.seasonalFactor;
+            this.windDirectionX = weather.globalWindDirection.x;
+            this.windDirectionZ = weather.globalWindDirection.y;
+            this.windStrength = weather.globalWindStrength;
+            this.storms = new Storm[weather.activeStorms.size()];
+            for (int i = 0; i < storms.length; i++) {
+                Storm storm = new Storm(weather.activeStorms.get(i));
+                Vector2f position = storm.getPosition();
+                stormIndex.add(storm, position.x, position.y, storm.getRadius());
+                storms[i] = storm;
+            }
+        }
+        
+        /**
+         * Gets the storm copies whose area covers a point
+         */
+        List<Storm> stormsAt(float worldX, float worldZ) {
+            if (storms.length == 0) {
+                return Collections.emptyList();
+            }
+            return stormIndex.queryRadius(worldX, worldZ, 0.0f, new ArrayList<>());
+        }
+    }
 }
\ No newline at end of file
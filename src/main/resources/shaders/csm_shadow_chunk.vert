@@ -0,0 +1,11 @@
+#version 330 core
+
+layout (location = 0) in vec3 aPos;
+// Chunk origin, one per indirect draw
+layout (location = 4) in vec3 aChunkOrigin;
+
+uniform mat4 u_LightSpaceMatrix;
+
+void main() {
+    gl_Position = u_LightSpaceMatrix * vec4(aPos + aChunkOrigin, 1.0);
+}
@@ -0,0 +1,21 @@
+#version 330 core
+layout (location = 0) in vec3 aPos;
+layout (location = 1) in vec2 aTexCoord;
+layout (location = 2) in vec3 aNormal;
+// Per-instance model matrix, one column per location
+layout (location = 3) in mat4 aInstanceMatrix;
+
+uniform mat4 u_ProjectionMatrix;
+uniform mat4 u_ViewMatrix;
+
+out vec2 TexCoord;
+out vec3 Normal;
+out vec3 FragPos;
+
+void main()
+{
+    gl_Position = u_ProjectionMatrix * u_ViewMatrix * aInstanceMatrix * vec4(aPos, 1.0);
+    FragPos = vec3(aInstanceMatrix * vec4(aPos, 1.0));
+    TexCoord = aTexCoord;
+    Normal = mat3(transpose(inverse(aInstanceMatrix))) * aNormal;
+}
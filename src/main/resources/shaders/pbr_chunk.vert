@@ -0,0 +1,22 @@
+#version 330 core
+layout (location = 0) in vec3 aPos;
+layout (location = 1) in vec3 aNormal;
+layout (location = 2) in vec2 aTexCoords;
+// Chunk origin, one per indirect draw; chunk vertices are chunk-local and unrotated
+layout (location = 4) in vec3 aChunkOrigin;
+
+out vec2 TexCoords;
+out vec3 WorldPos;
+out vec3 Normal;
+
+uniform mat4 projection;
+uniform mat4 view;
+
+void main()
+{
+    TexCoords = aTexCoords;
+    WorldPos = aPos + aChunkOrigin;
+    Normal = aNormal;
+
+    gl_Position = projection * view * vec4(WorldPos, 1.0);
+}
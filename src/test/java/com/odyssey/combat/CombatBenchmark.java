@@ -0,0 +1,89 @@
+package com.odyssey.combat;
+
+import com.odyssey.ship.DamageType;
+import com.odyssey.ship.Ship;
+import com.odyssey.ship.ShipType;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times one 60 Hz combat step of a fleet battle: {@value #SHIPS} ships trading
+ * {@value #PROJECTILES} cannonballs, topped up before every step so the count stays level.
+ * The step should stay well inside a 1 ms budget.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.combat.CombatBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombatBenchmark {
+
+    private static final int SHIPS = 24;
+    private static final int PROJECTILES = 4000;
+    private static final float STEP = 1.0f / 60.0f;
+
+    private final List<Ship> ships = new ArrayList<>();
+    private final ProjectilePool pool = new ProjectilePool(PROJECTILES);
+    private final ShipBroadPhase broadPhase = new ShipBroadPhase();
+    private final Random random = new Random(42);
+    private final Vector3f muzzle = new Vector3f();
+    private final Vector3f velocity = new Vector3f();
+
+    @Setup
+    public void setUp() {
+        ShipType[] types = ShipType.values();
+        // Two lines of battle 150 units apart
+        for (int i = 0; i < SHIPS; i++) {
+            float x = (i / 2) * 60.0f;
+            float z = (i % 2) * 150.0f;
+            ships.add(new Ship("Ship " + i, types[i % types.length], new Vector3f(x, 0, z)));
+        }
+        topUp();
+    }
+
+    @Benchmark
+    public int step() {
+        topUp();
+        broadPhase.build(ships);
+        return pool.update(STEP, 5.0f, 0.0f, 0.0f, broadPhase);
+    }
+
+    private void topUp() {
+        while (pool.size() < PROJECTILES) {
+            Ship firing = ships.get(random.nextInt(SHIPS));
+            muzzle.set(firing.getPosition()).add(0, 2, 0);
+            // Broadside across the gap, toward the other line
+            float side = firing.getPosition().z > 0 ? -1.0f : 1.0f;
+            velocity.set(random.nextFloat() - 0.5f, 0.05f, side).normalize().mul(500.0f);
+            pool.add(Projectile.ProjectileType.CANNON_BALL, muzzle, velocity, 25.0f, 800.0f, 0.9f,
+                     DamageType.CANNON_BALL, firing);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CombatBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.odyssey.networking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary wire protocol with the Java serialization frames it replaced.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.networking.MessageCodecBenchmark
+ *
+ * Bytes per message for both formats are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageCodecBenchmark {
+
+    private PlayerPositionMessage position;
+    private byte[] binaryPosition;
+    private byte[] javaPosition;
+
+    @Setup
+    public void setUp() throws IOException {
+        position = new PlayerPositionMessage(1024.37, 71.5, -2048.81, 137.5f, -12.25f, 0.0f,
+                                             3.2, 0.0, -1.75, false, true, false, false, null);
+        position.setSenderId("/192.168.1.20:51234");
+        position.setSenderNetId(42);
+        binaryPosition = FrameCodec.encode(position);
+        javaPosition = javaEncode(position);
+
+        JoinResponseMessage response = new JoinResponseMessage("The Odyssey Server", "1.0.0", 100, 12,
+                                                               "Welcome to The Odyssey!", "player-1234", 42);
+
+        System.out.printf("%nPlayerPositionMessage: binary %d bytes, java %d bytes%n",
+                          binaryPosition.length, javaPosition.length);
+        System.out.printf("JoinResponseMessage: binary %d bytes, java %d bytes%n",
+                          FrameCodec.encode(response).length, javaEncode(response).length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        return FrameCodec.encode(position);
+    }
+
+    @Benchmark
+    public NetworkMessage decodeBinary() throws IOException {
+        return FrameCodec.decode(binaryPosition);
+    }
+
+    @Benchmark
+    public byte[] encodeJava() throws IOException {
+        return javaEncode(position);
+    }
+
+    @Benchmark
+    public NetworkMessage decodeJava() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaPosition))) {
+            return (NetworkMessage) in.readObject();
+        }
+    }
+
+    private static byte[] javaEncode(NetworkMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MessageCodecBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
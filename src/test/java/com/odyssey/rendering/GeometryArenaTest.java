@@ -0,0 +1,231 @@
+package com.odyssey.rendering;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the GPU buffer sub-allocator: placement, coalescing, growth, compaction and
+ * the fragmentation metrics.
+ */
+public class GeometryArenaTest {
+
+    @Test
+    void allocatesContiguousRanges() {
+        GeometryArena arena = new GeometryArena(100);
+        int a = arena.allocate(10);
+        int b = arena.allocate(20);
+        int c = arena.allocate(30);
+
+        assertEquals(0, arena.getOffset(a));
+        assertEquals(10, arena.getOffset(b));
+        assertEquals(30, arena.getOffset(c));
+        assertEquals(20, arena.getSize(b));
+        assertEquals(60, arena.getUsed());
+        assertEquals(40, arena.getFree());
+        assertEquals(3, arena.getAllocationCount());
+        assertEquals(1, arena.getFreeBlockCount());
+        assertEquals(0.0f, arena.getFragmentation());
+    }
+
+    @Test
+    void failsWhenNothingFits() {
+        GeometryArena arena = new GeometryArena(32);
+        assertNotEquals(GeometryArena.NONE, arena.allocate(32));
+        assertEquals(GeometryArena.NONE, arena.allocate(1));
+        assertEquals(0, arena.getLargestFreeBlock());
+        assertEquals(0.0f, arena.getFragmentation());
+    }
+
+    @Test
+    void rejectsInvalidSizesAndHandles() {
+        GeometryArena arena = new GeometryArena(16);
+        assertThrows(IllegalArgumentException.class, () -> arena.allocate(0));
+        assertThrows(IllegalArgumentException.class, () -> new GeometryArena(-1));
+
+        int handle = arena.allocate(4);
+        arena.free(handle);
+        assertThrows(IllegalArgumentException.class, () -> arena.free(handle));
+        assertThrows(IllegalArgumentException.class, () -> arena.getOffset(handle));
+        assertThrows(IllegalArgumentException.class, () -> arena.getOffset(GeometryArena.NONE));
+    }
+
+    @Test
+    void freedRangesCoalesce() {
+        GeometryArena arena = new GeometryArena(40);
+        int a = arena.allocate(10);
+        int b = arena.allocate(10);
+        int c = arena.allocate(10);
+        arena.allocate(10);
+
+        arena.free(a);
+        arena.free(c);
+        assertEquals(2, arena.getFreeBlockCount());
+        assertEquals(10, arena.getLargestFreeBlock());
+        assertEquals(0.5f, arena.getFragmentation(), 1e-6f);
+
+        // Joins both neighbours into one range
+        arena.free(b);
+        assertEquals(1, arena.getFreeBlockCount());
+        assertEquals(30, arena.getLargestFreeBlock());
+        assertEquals(0.0f, arena.getFragmentation());
+        assertEquals(0, arena.getOffset(arena.allocate(30)));
+    }
+
+    @Test
+    void picksSmallestRangeThatFits() {
+        GeometryArena arena = new GeometryArena(100);
+        int large = arena.allocate(30);
+        arena.allocate(5);
+        int small = arena.allocate(8);
+        arena.allocate(5);
+
+        arena.free(large);
+        arena.free(small);
+
+        int handle = arena.allocate(6);
+        assertEquals(35, arena.getOffset(handle));
+        // The large range stays whole for a large allocation
+        assertEquals(0, arena.getOffset(arena.allocate(30)));
+    }
+
+    @Test
+    void handlesAreReused() {
+        GeometryArena arena = new GeometryArena(16);
+        int first = arena.allocate(4);
+        arena.free(first);
+
+        assertEquals(first, arena.allocate(8));
+        assertEquals(1, arena.getAllocationCount());
+    }
+
+    @Test
+    void growExtendsTrailingFreeRange() {
+        GeometryArena arena = new GeometryArena(20);
+        arena.allocate(15);
+        assertEquals(GeometryArena.NONE, arena.allocate(10));
+
+        arena.grow(40);
+        assertEquals(40, arena.getCapacity());
+        assertEquals(1, arena.getFreeBlockCount());
+        assertEquals(15, arena.getOffset(arena.allocate(25)));
+
+        // A full arena gets a fresh range at its old end
+        arena.grow(50);
+        assertEquals(1, arena.getFreeBlockCount());
+        assertEquals(40, arena.getOffset(arena.allocate(10)));
+    }
+
+    @Test
+    void defragmentPacksAllocationsInOrder() {
+        GeometryArena arena = new GeometryArena(100);
+        int a = arena.allocate(10);
+        int b = arena.allocate(20);
+        int c = arena.allocate(30);
+        int d = arena.allocate(5);
+        arena.free(a);
+        arena.free(c);
+        assertEquals(GeometryArena.NONE, arena.allocate(50));
+
+        List<int[]> relocations = new ArrayList<>();
+        int moved = arena.defragment((handle, from, to, size) -> relocations.add(new int[] { handle, from, to, size }));
+
+        assertEquals(2, moved);
+        assertEquals(2, relocations.size());
+        assertArrayEquals(new int[] { b, 10, 0, 20 }, relocations.get(0));
+        assertArrayEquals(new int[] { d, 60, 20, 5 }, relocations.get(1));
+        assertEquals(0, arena.getOffset(b));
+        assertEquals(20, arena.getOffset(d));
+        assertEquals(1, arena.getFreeBlockCount());
+        assertEquals(75, arena.getLargestFreeBlock());
+        assertEquals(0.0f, arena.getFragmentation());
+        assertEquals(25, arena.getOffset(arena.allocate(50)));
+    }
+
+    @Test
+    void defragmentReportsUnmovedRanges() {
+        GeometryArena arena = new GeometryArena(30);
+        int a = arena.allocate(10);
+        int b = arena.allocate(10);
+        arena.allocate(10);
+        arena.free(b);
+
+        int[] calls = new int[1];
+        int moved = arena.defragment((handle, from, to, size) -> {
+            if (handle == a) {
+                assertEquals(from, to);
+            }
+            calls[0]++;
+        });
+        assertEquals(1, moved);
+        assertEquals(2, calls[0]);
+    }
+
+    /**
+     * Random churn against a stand-in buffer, with freed ranges zeroed: defragmenting and
+     * growing must keep every allocation's contents, and a new range must never overlap a
+     * live one
+     */
+    @Test
+    void churnKeepsContentsThroughDefragmentAndGrow() {
+        Random random = new Random(42);
+        GeometryArena arena = new GeometryArena(256);
+        int[][] buffer = { new int[256] };
+        List<Integer> live = new ArrayList<>();
+        List<Integer> stamps = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                int index = random.nextInt(live.size());
+                int handle = live.remove(index);
+                int stamp = stamps.remove(index);
+                int offset = arena.getOffset(handle);
+                assertFilled(buffer[0], offset, arena.getSize(handle), stamp);
+                Arrays.fill(buffer[0], offset, offset + arena.getSize(handle), 0);
+                arena.free(handle);
+                continue;
+            }
+
+            int size = 1 + random.nextInt(24);
+            int handle = arena.allocate(size);
+            if (handle == GeometryArena.NONE) {
+                int[] source = buffer[0];
+                int capacity = arena.getUsed() + size > arena.getCapacity() * 3 / 4
+                    ? arena.getCapacity() * 2 : arena.getCapacity();
+                int[] target = new int[capacity];
+                arena.defragment((h, from, to, length) -> System.arraycopy(source, from, target, to, length));
+                arena.grow(capacity);
+                buffer[0] = target;
+                assertEquals(0.0f, arena.getFragmentation());
+                handle = arena.allocate(size);
+            }
+            assertNotEquals(GeometryArena.NONE, handle);
+            int offset = arena.getOffset(handle);
+            assertFilled(buffer[0], offset, size, 0);
+            Arrays.fill(buffer[0], offset, offset + size, step + 1);
+            live.add(handle);
+            stamps.add(step + 1);
+
+            float fragmentation = arena.getFragmentation();
+            assertTrue(fragmentation >= 0.0f && fragmentation < 1.0f);
+        }
+
+        for (int i = 0; i < live.size(); i++) {
+            int handle = live.get(i);
+            assertFilled(buffer[0], arena.getOffset(handle), arena.getSize(handle), stamps.get(i));
+            arena.free(handle);
+        }
+        assertEquals(0, arena.getUsed());
+        assertEquals(1, arena.getFreeBlockCount());
+    }
+
+    private static void assertFilled(int[] buffer, int offset, int size, int value) {
+        for (int i = offset; i < offset + size; i++) {
+            assertEquals(value, buffer[i], "Element " + i);
+        }
+    }
+}
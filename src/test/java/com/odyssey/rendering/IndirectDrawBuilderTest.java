@@ -0,0 +1,63 @@
+package com.odyssey.rendering;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for packing indirect draw records and their per-draw origins.
+ */
+public class IndirectDrawBuilderTest {
+
+    @Test
+    void packsDrawElementsIndirectRecords() {
+        IndirectDrawBuilder builder = new IndirectDrawBuilder();
+        builder.add(36, 0, 0, 0, 0, 0);
+        builder.add(12, 36, 24, 16, 0, -32);
+
+        assertEquals(2, builder.getDrawCount());
+        assertEquals(48, builder.getIndexCount());
+        int[] commands = builder.getCommands();
+        assertArrayEquals(new int[] { 36, 1, 0, 0, 0 }, slice(commands, 0));
+        assertArrayEquals(new int[] { 12, 1, 36, 24, 1 }, slice(commands, IndirectDrawBuilder.INTS_PER_COMMAND));
+
+        float[] origins = builder.getOrigins();
+        assertEquals(16.0f, origins[IndirectDrawBuilder.FLOATS_PER_ORIGIN]);
+        assertEquals(-32.0f, origins[IndirectDrawBuilder.FLOATS_PER_ORIGIN + 2]);
+    }
+
+    @Test
+    void skipsEmptyDraws() {
+        IndirectDrawBuilder builder = new IndirectDrawBuilder();
+        builder.add(0, 0, 0, 0, 0, 0);
+        assertTrue(builder.isEmpty());
+
+        builder.add(6, 0, 0, 0, 0, 0);
+        // Base instance counts only the draws that were kept
+        assertEquals(0, builder.getCommands()[4]);
+    }
+
+    @Test
+    void growsAndRewinds() {
+        IndirectDrawBuilder builder = new IndirectDrawBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(6, i * 6, i * 4, i, 0, 0);
+        }
+        assertEquals(1000, builder.getDrawCount());
+        assertArrayEquals(new int[] { 6, 1, 999 * 6, 999 * 4, 999 },
+                          slice(builder.getCommands(), 999 * IndirectDrawBuilder.INTS_PER_COMMAND));
+        assertEquals(999.0f, builder.getOrigins()[999 * IndirectDrawBuilder.FLOATS_PER_ORIGIN]);
+
+        int[] commands = builder.getCommands();
+        builder.clear();
+        assertTrue(builder.isEmpty());
+        assertEquals(0, builder.getIndexCount());
+        builder.add(3, 0, 0, 0, 0, 0);
+        assertSame(commands, builder.getCommands());
+    }
+
+    private static int[] slice(int[] commands, int offset) {
+        int[] command = new int[IndirectDrawBuilder.INTS_PER_COMMAND];
+        System.arraycopy(commands, offset, command, 0, command.length);
+        return command;
+    }
+}
@@ -0,0 +1,137 @@
+package com.odyssey.rendering;
+
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPU-side tests for instance batching. Plain objects stand in for meshes, shaders and
+ * materials, so no GL context is needed.
+ */
+public class InstanceBatcherTest {
+
+    private static final String CUBE = "cube";
+    private static final String SPHERE = "sphere";
+    private static final String OPAQUE = "opaque";
+    private static final String OPAQUE_INSTANCED = "opaque_instanced";
+    private static final String UNLIT = "unlit";
+    private static final String WOOD = "wood";
+    private static final String IRON = "iron";
+
+    private InstanceBatcher<String, String, String> batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new InstanceBatcher<>();
+        batcher.registerInstancedShader(OPAQUE, OPAQUE_INSTANCED);
+    }
+
+    @Test
+    void groupsByMeshShaderAndMaterial() {
+        assertTrue(batcher.add(CUBE, OPAQUE, WOOD, at(0, 0, 0)));
+        assertTrue(batcher.add(SPHERE, OPAQUE, IRON, at(1, 0, 0)));
+        assertTrue(batcher.add(CUBE, OPAQUE, WOOD, at(2, 0, 0)));
+        assertTrue(batcher.add(CUBE, OPAQUE, IRON, at(3, 0, 0)));
+        assertTrue(batcher.add(SPHERE, OPAQUE, IRON, at(4, 0, 0)));
+        assertTrue(batcher.add(CUBE, OPAQUE, null, at(5, 0, 0)));
+
+        assertEquals(4, batcher.getBatchCount());
+        assertEquals(6, batcher.getInstanceCount());
+
+        // In order of each group's first instance
+        assertBatch(batcher.getBatch(0), CUBE, WOOD, 2);
+        assertBatch(batcher.getBatch(1), SPHERE, IRON, 2);
+        assertBatch(batcher.getBatch(2), CUBE, IRON, 1);
+        assertBatch(batcher.getBatch(3), CUBE, null, 1);
+        assertEquals(OPAQUE, batcher.getBatch(0).getShader());
+        assertEquals(OPAQUE_INSTANCED, batcher.getBatch(0).getInstancedShader());
+    }
+
+    @Test
+    void shaderWithoutInstancedVariantIsNotBatched() {
+        assertFalse(batcher.add(CUBE, UNLIT, WOOD, at(0, 0, 0)));
+        assertFalse(batcher.add(CUBE, null, WOOD, at(0, 0, 0)));
+        assertFalse(batcher.add(null, OPAQUE, WOOD, at(0, 0, 0)));
+        assertFalse(batcher.addInstances(SPHERE, UNLIT, null, new float[3], 1, 1.0f));
+
+        assertTrue(batcher.isEmpty());
+        assertFalse(batcher.isInstanced(UNLIT));
+        assertTrue(batcher.isInstanced(OPAQUE));
+    }
+
+    @Test
+    void ignoresMissingShaderVariants() {
+        batcher.registerInstancedShader(UNLIT, null);
+
+        assertFalse(batcher.isInstanced(UNLIT));
+    }
+
+    @Test
+    void packsModelMatricesInSubmissionOrder() {
+        for (int i = 0; i < 100; i++) {
+            batcher.add(CUBE, OPAQUE, WOOD, at(i, 2 * i, 3 * i));
+        }
+
+        InstanceBatcher.Batch<String, String, String> batch = batcher.getBatch(0);
+        assertEquals(100, batch.getInstanceCount());
+        float[] transforms = batch.getTransforms();
+        assertTrue(transforms.length >= 100 * InstanceBatcher.FLOATS_PER_INSTANCE);
+        for (int i = 0; i < 100; i++) {
+            int offset = i * InstanceBatcher.FLOATS_PER_INSTANCE;
+            assertEquals(1.0f, transforms[offset]);
+            assertEquals((float) i, transforms[offset + 12]);
+            assertEquals(2.0f * i, transforms[offset + 13]);
+            assertEquals(3.0f * i, transforms[offset + 14]);
+            assertEquals(1.0f, transforms[offset + 15]);
+        }
+    }
+
+    @Test
+    void addsScaledInstancesAtPositions() {
+        float[] positions = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        assertTrue(batcher.addInstances(SPHERE, OPAQUE, null, positions, 2, 0.5f));
+
+        InstanceBatcher.Batch<String, String, String> batch = batcher.getBatch(0);
+        assertEquals(2, batch.getInstanceCount());
+        float[] expected = new float[InstanceBatcher.FLOATS_PER_INSTANCE];
+        new Matrix4f().translation(4, 5, 6).scale(0.5f).get(expected);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], batch.getTransforms()[InstanceBatcher.FLOATS_PER_INSTANCE + i], 1e-6f);
+        }
+    }
+
+    @Test
+    void instancesAndCommandsShareBatches() {
+        batcher.add(SPHERE, OPAQUE, null, at(0, 0, 0));
+        batcher.addInstances(SPHERE, OPAQUE, null, new float[] { 1, 1, 1 }, 1, 1.0f);
+
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(2, batcher.getBatch(0).getInstanceCount());
+    }
+
+    @Test
+    void clearReusesBatches() {
+        batcher.add(CUBE, OPAQUE, WOOD, at(0, 0, 0));
+        InstanceBatcher.Batch<String, String, String> batch = batcher.getBatch(0);
+
+        batcher.clear();
+        assertTrue(batcher.isEmpty());
+        assertEquals(0, batcher.getInstanceCount());
+
+        batcher.add(SPHERE, OPAQUE, IRON, at(0, 0, 0));
+        assertSame(batch, batcher.getBatch(0));
+        assertBatch(batcher.getBatch(0), SPHERE, IRON, 1);
+    }
+
+    private static Matrix4f at(float x, float y, float z) {
+        return new Matrix4f().translation(x, y, z);
+    }
+
+    private static void assertBatch(InstanceBatcher.Batch<String, String, String> batch, String mesh,
+                                    String material, int instances) {
+        assertSame(mesh, batch.getMesh());
+        assertSame(material, batch.getMaterial());
+        assertEquals(instances, batch.getInstanceCount());
+    }
+}
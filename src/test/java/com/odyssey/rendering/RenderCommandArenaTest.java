@@ -0,0 +1,178 @@
+package com.odyssey.rendering;
+
+import com.odyssey.world.Block;
+import com.odyssey.world.Chunk;
+import com.odyssey.world.ChunkCuller;
+import com.odyssey.world.ChunkIndex;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the per-frame render command arena, including that the CPU side of a
+ * steady-state frame (culling, command building, sorting) allocates nothing.
+ */
+public class RenderCommandArenaTest {
+
+    private static final int RENDER_DISTANCE = 6;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 100;
+
+    private ChunkIndex chunks;
+    private ChunkCuller culler;
+    private Camera camera;
+    private RenderCommandArena arena;
+    private RenderCommandQueue queue;
+    private List<Chunk> visibleChunks;
+    private Vector3f cameraPosition;
+    private Vector3f lookTarget;
+    private float checksum;
+
+    @BeforeEach
+    void setUp() {
+        chunks = new ChunkIndex();
+        for (int cx = -RENDER_DISTANCE; cx <= RENDER_DISTANCE; cx++) {
+            for (int cz = -RENDER_DISTANCE; cz <= RENDER_DISTANCE; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        chunk.setBlock(x, 0, z, Block.BlockType.STONE);
+                    }
+                }
+                chunks.put(chunk);
+            }
+        }
+
+        culler = new ChunkCuller();
+        camera = new Camera(new Vector3f(8, 40, 8));
+        camera.setProjection(70.0f, 16.0f / 9.0f, 0.1f, 500.0f);
+        arena = new RenderCommandArena();
+        queue = new RenderCommandQueue();
+        visibleChunks = new ArrayList<>();
+        cameraPosition = new Vector3f();
+        lookTarget = new Vector3f();
+    }
+
+    @Test
+    void steadyStateFramesAllocateNothing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        enableAllocationCounting(threads);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            renderFrame(i);
+        }
+        assertTrue(queue.size() > 0, "Nothing visible to render");
+
+        // Replays views already seen, so section visibility is computed and the arena,
+        // queue and culler have grown to size
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            renderFrame(i);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(0, allocated, "Bytes allocated over " + MEASURED_FRAMES + " frames");
+        assertFalse(Float.isNaN(checksum));
+    }
+
+    @Test
+    void slotsAreReusedAcrossFrames() {
+        RenderCommand first = arena.acquire();
+        first.setRenderQueue(RenderCommand.RenderQueue.TRANSPARENT).setWorldPosition(1, 2, 3).setAlpha(0.5f);
+        RenderCommand second = arena.acquire();
+        assertEquals(2, arena.size());
+
+        arena.reset();
+        assertEquals(0, arena.size());
+        assertTrue(arena.getCommands().isEmpty());
+
+        RenderCommand reused = arena.acquire();
+        assertSame(first, reused);
+        assertEquals(RenderCommand.RenderQueue.OPAQUE, reused.getRenderQueue());
+        assertEquals(1.0f, reused.getAlpha());
+        assertEquals(0.0f, reused.getWorldPosition().x);
+        assertSame(second, arena.acquire());
+        assertEquals(2, arena.getCapacity());
+
+        arena.acquire();
+        assertEquals(3, arena.getCapacity());
+        assertEquals(3, arena.getCommands().size());
+    }
+
+    @Test
+    void commandsListIsLiveView() {
+        List<RenderCommand> commands = arena.getCommands();
+        RenderCommand command = arena.acquire();
+
+        assertSame(commands, arena.getCommands());
+        assertEquals(1, commands.size());
+        assertSame(command, commands.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> commands.add(new RenderCommand()));
+    }
+
+    @Test
+    void normalMatrixFollowsModelMatrix() {
+        RenderCommand command = new RenderCommand();
+        command.setWorldPosition(10, 20, 30);
+        Matrix4f normal = command.getNormalMatrix();
+        assertEquals(1.0f, normal.m00(), 1e-6f);
+        assertEquals(0.0f, normal.m30(), 1e-6f);
+
+        // Changed through the mutable model matrix, not a setter
+        command.getModelMatrix().scale(2.0f, 4.0f, 8.0f);
+        normal = command.getNormalMatrix();
+        assertEquals(0.5f, normal.m00(), 1e-6f);
+        assertEquals(0.25f, normal.m11(), 1e-6f);
+        assertEquals(0.125f, normal.m22(), 1e-6f);
+
+        command.reset();
+        assertEquals(1.0f, command.getNormalMatrix().m00(), 1e-6f);
+    }
+
+    /**
+     * One frame of the CPU side of world rendering, the way World.getRenderCommands and
+     * Renderer build and sort it. Chunk meshes need a GL context, so each visible chunk
+     * also gets a stand-in solid and water command of the kind it would add itself.
+     */
+    private void renderFrame(int frame) {
+        float yaw = frame * 0.01f;
+        camera.lookAt(lookTarget.set(8 + 100 * (float) Math.cos(yaw), 30, 8 + 100 * (float) Math.sin(yaw)));
+
+        visibleChunks.clear();
+        culler.cull(chunks, camera, camera.getPosition(cameraPosition), RENDER_DISTANCE, visibleChunks);
+
+        arena.reset();
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            Chunk chunk = visibleChunks.get(i);
+            chunk.addRenderCommands(arena);
+            float worldX = chunk.getChunkX() * Chunk.CHUNK_SIZE;
+            float worldZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE;
+            arena.acquire().setWorldPosition(worldX, 0, worldZ);
+            arena.acquire().setWorldPosition(worldX, 0, worldZ).setRenderQueue(RenderCommand.RenderQueue.TRANSPARENT);
+        }
+
+        queue.clear();
+        List<RenderCommand> commands = arena.getCommands();
+        for (int i = 0; i < commands.size(); i++) {
+            queue.add(commands.get(i));
+        }
+        queue.sort(cameraPosition);
+        for (int i = 0; i < queue.size(); i++) {
+            checksum += queue.get(i).getNormalMatrix().m00();
+        }
+    }
+
+    private static void enableAllocationCounting(com.sun.management.ThreadMXBean threads) {
+        if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        assertTrue(threads.isThreadAllocatedMemoryEnabled(), "JVM does not count thread allocations");
+    }
+}
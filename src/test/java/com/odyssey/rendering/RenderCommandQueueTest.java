@@ -0,0 +1,200 @@
+package com.odyssey.rendering;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the sort key layout and the radix sort of the render command queue.
+ *
+ * Shaders and textures need a GL context, so shader and material grouping is checked on
+ * the keys built from their ids; ordering by queue, depth and sorting order is checked
+ * on whole commands.
+ */
+public class RenderCommandQueueTest {
+
+    private static final Vector3f CAMERA = new Vector3f(0, 0, 0);
+
+    @Test
+    void opaqueKeysGroupByShaderThenMaterialThenDepth() {
+        long near = depth(1);
+        long far = depth(100);
+
+        // Shader outranks material and depth
+        assertBefore(RenderCommandQueue.opaqueKey(1, 9, far), RenderCommandQueue.opaqueKey(2, 1, near));
+        // Material outranks depth
+        assertBefore(RenderCommandQueue.opaqueKey(3, 1, far), RenderCommandQueue.opaqueKey(3, 2, near));
+        // Front to back within one shader and material
+        assertBefore(RenderCommandQueue.opaqueKey(3, 2, near), RenderCommandQueue.opaqueKey(3, 2, far));
+    }
+
+    @Test
+    void transparentKeysSortBackToFrontBeforeState() {
+        long near = depth(1);
+        long far = depth(100);
+
+        assertBefore(RenderCommandQueue.transparentKey(9, 9, far), RenderCommandQueue.transparentKey(1, 1, near));
+        assertBefore(RenderCommandQueue.transparentKey(1, 2, near), RenderCommandQueue.transparentKey(2, 1, near));
+    }
+
+    @Test
+    void queuesSortOpaqueThenTransparentThenUi() {
+        assertBefore(RenderCommandQueue.opaqueKey(4095, 65535, depth(1e6f)),
+                     RenderCommandQueue.transparentKey(0, 0, depth(1e6f)));
+        assertBefore(RenderCommandQueue.transparentKey(4095, 65535, depth(0)),
+                     RenderCommandQueue.uiKey(Short.MIN_VALUE));
+        assertBefore(RenderCommandQueue.uiKey(-1), RenderCommandQueue.uiKey(0));
+        assertBefore(RenderCommandQueue.uiKey(0), RenderCommandQueue.uiKey(1));
+    }
+
+    @Test
+    void depthBitsGrowWithDistance() {
+        long previous = -1;
+        for (float distance = 0.5f; distance < 5000.0f; distance *= 1.7f) {
+            long bits = depth(distance);
+            assertTrue(bits > previous, "Depth bits did not grow at distance " + distance);
+            previous = bits;
+        }
+    }
+
+    @Test
+    void sortsOpaqueFrontToBackAndTransparentBackToFront() {
+        RenderCommandQueue queue = new RenderCommandQueue();
+        RenderCommand farOpaque = command(RenderCommand.RenderQueue.OPAQUE, 50);
+        RenderCommand nearTransparent = command(RenderCommand.RenderQueue.TRANSPARENT, 5);
+        RenderCommand nearOpaque = command(RenderCommand.RenderQueue.OPAQUE, 5);
+        RenderCommand farTransparent = command(RenderCommand.RenderQueue.TRANSPARENT, 50);
+        RenderCommand ui = new RenderCommand().setRenderQueue(RenderCommand.RenderQueue.UI);
+        queue.add(ui);
+        queue.add(farOpaque);
+        queue.add(nearTransparent);
+        queue.add(nearOpaque);
+        queue.add(farTransparent);
+
+        queue.sort(CAMERA);
+
+        assertSorted(queue, nearOpaque, farOpaque, farTransparent, nearTransparent, ui);
+    }
+
+    @Test
+    void uiSortsBySortingOrderKeepingSubmissionOrderForTies() {
+        RenderCommandQueue queue = new RenderCommandQueue();
+        RenderCommand background = ui(-10);
+        RenderCommand firstPanel = ui(0);
+        RenderCommand tooltip = ui(20);
+        RenderCommand secondPanel = ui(0);
+        RenderCommand thirdPanel = ui(0);
+        queue.add(tooltip);
+        queue.add(firstPanel);
+        queue.add(secondPanel);
+        queue.add(background);
+        queue.add(thirdPanel);
+
+        queue.sort(CAMERA);
+
+        assertSorted(queue, background, firstPanel, secondPanel, thirdPanel, tooltip);
+    }
+
+    @Test
+    void equalKeysSkipEveryPassAndKeepSubmissionOrder() {
+        RenderCommandQueue queue = new RenderCommandQueue();
+        RenderCommand[] commands = new RenderCommand[10];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = command(RenderCommand.RenderQueue.OPAQUE, 8);
+            queue.add(commands[i]);
+        }
+
+        queue.sort(CAMERA);
+
+        assertSorted(queue, commands);
+    }
+
+    /**
+     * Sorting orders four apart differ only in the key's second-highest byte, so one pass
+     * runs and every other is skipped, leaving the result in what were the scratch arrays
+     */
+    @Test
+    void keysDifferingInOneByteSortAfterSkippedPasses() {
+        RenderCommandQueue queue = new RenderCommandQueue();
+        List<RenderCommand> commands = new ArrayList<>();
+        for (int order = 5; order >= 0; order--) {
+            RenderCommand command = ui(order * 4);
+            commands.add(command);
+            queue.add(command);
+        }
+
+        queue.sort(CAMERA);
+
+        for (int i = 0; i < queue.size(); i++) {
+            assertSame(commands.get(commands.size() - 1 - i), queue.get(i));
+        }
+    }
+
+    /**
+     * A mix of every queue, with repeated depths and sorting orders, must come out in the
+     * order of a stable sort on the unsigned keys, frame after frame
+     */
+    @Test
+    void matchesStableSortOnKeys() {
+        Random random = new Random(42);
+        RenderCommandQueue queue = new RenderCommandQueue();
+        RenderCommand.RenderQueue[] queues = RenderCommand.RenderQueue.values();
+
+        for (int frame = 0; frame < 5; frame++) {
+            queue.clear();
+            List<RenderCommand> commands = new ArrayList<>();
+            // Enough commands to grow the queue's arrays past their first size
+            for (int i = 0; i < 600; i++) {
+                RenderCommand command = new RenderCommand()
+                    .setRenderQueue(queues[random.nextInt(queues.length)])
+                    .setSortingOrder(random.nextInt(7) - 3)
+                    .setWorldPosition(random.nextInt(20) * 4.0f, 0, random.nextInt(20) * 4.0f);
+                commands.add(command);
+                queue.add(command);
+            }
+
+            Vector3f camera = new Vector3f(random.nextFloat() * 80.0f, 10.0f, random.nextFloat() * 80.0f);
+            List<RenderCommand> expected = new ArrayList<>(commands);
+            expected.sort(Comparator.comparing(command -> queue.key(command, camera), Long::compareUnsigned));
+
+            queue.sort(camera);
+
+            assertEquals(expected.size(), queue.size());
+            for (int i = 0; i < queue.size(); i++) {
+                assertSame(expected.get(i), queue.get(i), "Frame " + frame + ", position " + i);
+                if (i > 0) {
+                    assertTrue(Long.compareUnsigned(queue.getKey(i - 1), queue.getKey(i)) <= 0);
+                }
+            }
+        }
+    }
+
+    private static long depth(float distance) {
+        return RenderCommandQueue.depthBits(new Vector3f(distance, 0, 0), CAMERA);
+    }
+
+    private static RenderCommand command(RenderCommand.RenderQueue queue, float distance) {
+        return new RenderCommand().setRenderQueue(queue).setWorldPosition(distance, 0, 0);
+    }
+
+    private static RenderCommand ui(int sortingOrder) {
+        return new RenderCommand().setRenderQueue(RenderCommand.RenderQueue.UI).setSortingOrder(sortingOrder);
+    }
+
+    private static void assertBefore(long first, long second) {
+        assertTrue(Long.compareUnsigned(first, second) < 0,
+                   Long.toHexString(first) + " should sort before " + Long.toHexString(second));
+    }
+
+    private static void assertSorted(RenderCommandQueue queue, RenderCommand... expected) {
+        assertEquals(expected.length, queue.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], queue.get(i), "Position " + i);
+        }
+    }
+}
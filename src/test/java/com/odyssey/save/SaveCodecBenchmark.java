@@ -0,0 +1,162 @@
+package com.odyssey.save;
+
+import com.odyssey.core.GameState;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the binary save codec with the Java serialization format it replaced.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.save.SaveCodecBenchmark
+ *
+ * Encoded and gzipped sizes for both formats are printed once per trial. The save holds
+ * no ships because {@code Ship} components are not {@code Serializable}, so the old
+ * format cannot write them at all.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaveCodecBenchmark {
+
+    @Param({"100", "2000"})
+    public int entries;
+
+    private SaveData saveData;
+    private byte[] codecBytes;
+    private byte[] javaBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        saveData = createSaveData(entries);
+        codecBytes = SaveDataCodec.encode(saveData);
+        javaBytes = javaEncode(saveData);
+
+        System.out.printf("%n[entries=%d] codec: %d bytes (%d gzipped), java: %d bytes (%d gzipped)%n",
+                          entries, codecBytes.length, gzipSize(codecBytes), javaBytes.length, gzipSize(javaBytes));
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        return SaveDataCodec.encode(saveData);
+    }
+
+    @Benchmark
+    public SaveData decodeCodec() throws IOException {
+        return SaveDataCodec.decode(codecBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeJava() throws IOException {
+        return javaEncode(saveData);
+    }
+
+    @Benchmark
+    public SaveData decodeJava() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            return (SaveData) in.readObject();
+        }
+    }
+
+    private static byte[] javaEncode(SaveData saveData) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(saveData);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int gzipSize(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.size();
+    }
+
+    /**
+     * Builds a save with the given number of inventory items, quests, flags and statistics
+     */
+    private static SaveData createSaveData(int entries) {
+        Random random = new Random(42);
+        SaveData saveData = new SaveData("benchmark", "1.0.0");
+        saveData.setGameState(GameState.IN_GAME);
+        saveData.setPlaytimeSeconds(123_456);
+
+        SaveData.PlayerSaveData player = new SaveData.PlayerSaveData();
+        player.setPlayerName("Captain");
+        player.setPosition(new Vector3f(1024.5f, 70.0f, -2048.25f));
+        player.setRotation(new Vector3f(0.0f, 90.0f, 0.0f));
+        player.setVelocity(new Vector3f(0.5f, 0.0f, 1.5f));
+        player.setSpawnPoint(new Vector3f(0.0f, 64.0f, 0.0f));
+        player.setHealth(85.0f);
+        player.setMaxHealth(120.0f);
+        player.setLevel(17);
+        player.setExperience(98_765);
+        player.setGameTime(7_200_000);
+
+        Map<String, Integer> inventory = new HashMap<>();
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Integer> quests = new HashMap<>();
+        Map<String, Boolean> achievements = new HashMap<>();
+        Map<String, Object> flags = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            inventory.put("item_" + i, random.nextInt(64));
+            stats.put("stat_" + i, random.nextDouble() * 1000.0);
+            quests.put("quest_" + i, random.nextInt(100));
+            achievements.put("achievement_" + i, random.nextBoolean());
+            flags.put("flag_" + i, i % 3 == 0 ? "value_" + i : (Object) random.nextLong());
+        }
+        player.setInventory(inventory);
+        player.setPlayerStats(stats);
+        saveData.setPlayerData(player);
+
+        SaveData.WorldSaveData world = new SaveData.WorldSaveData();
+        world.setWorldName("default");
+        world.setWorldSeed(random.nextLong());
+        world.setGameTime(7_200_000);
+        world.setWeatherState("storm");
+        world.setWorldFlags(new HashMap<>(flags));
+        world.setChunkData(new byte[0]);
+        saveData.setWorldData(world);
+
+        saveData.setGameFlags(flags);
+        saveData.setQuestProgress(quests);
+        saveData.setAchievements(achievements);
+        saveData.setStatistics(new HashMap<>(stats));
+        return saveData;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SaveCodecBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.odyssey.world;
+
+import org.joml.Vector2i;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares block reads through {@link ChunkIndex} with the {@code Vector2i}-keyed
+ * {@code ConcurrentHashMap} lookup {@code World.getBlock} used before.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.world.BlockAccessBenchmark
+ *
+ * Random access reads scattered blocks over a 17x17 chunk area; coherent access sweeps a
+ * 64x64 block layer the way raycasts and light propagation walk neighbouring blocks.
+ * Add {@code -prof gc} to the runner options to confirm the index path allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockAccessBenchmark {
+
+    private static final int RADIUS = 8;
+    private static final int LOOKUPS = 4096;
+
+    private final ChunkIndex index = new ChunkIndex();
+    private final Map<Vector2i, Chunk> map = new ConcurrentHashMap<>();
+    private final int[] randomX = new int[LOOKUPS];
+    private final int[] randomY = new int[LOOKUPS];
+    private final int[] randomZ = new int[LOOKUPS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Block.BlockType[] types = Block.BlockType.values();
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                for (int i = 0; i < 512; i++) {
+                    chunk.setBlock(random.nextInt(Chunk.CHUNK_SIZE), random.nextInt(128),
+                                   random.nextInt(Chunk.CHUNK_SIZE), types[random.nextInt(types.length)]);
+                }
+                index.put(chunk);
+                map.put(new Vector2i(cx, cz), chunk);
+            }
+        }
+
+        int span = (2 * RADIUS + 1) * Chunk.CHUNK_SIZE;
+        int min = -RADIUS * Chunk.CHUNK_SIZE;
+        for (int i = 0; i < LOOKUPS; i++) {
+            randomX[i] = min + random.nextInt(span);
+            randomY[i] = random.nextInt(128);
+            randomZ[i] = min + random.nextInt(span);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int indexRandom() {
+        int sum = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            sum += index.getBlock(randomX[i], randomY[i], randomZ[i]).ordinal();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int mapRandom() {
+        int sum = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            sum += mapGetBlock(randomX[i], randomY[i], randomZ[i]).ordinal();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int indexCoherent() {
+        int sum = 0;
+        for (int x = 0; x < 64; x++) {
+            for (int z = 0; z < 64; z++) {
+                sum += index.getBlock(x, 64, z).ordinal();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int mapCoherent() {
+        int sum = 0;
+        for (int x = 0; x < 64; x++) {
+            for (int z = 0; z < 64; z++) {
+                sum += mapGetBlock(x, 64, z).ordinal();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The previous World.getBlock implementation
+     */
+    private Block.BlockType mapGetBlock(int x, int y, int z) {
+        Vector2i chunkPos = new Vector2i(Math.floorDiv(x, Chunk.CHUNK_SIZE), Math.floorDiv(z, Chunk.CHUNK_SIZE));
+        Chunk chunk = map.get(chunkPos);
+        if (chunk == null) {
+            return Block.BlockType.AIR;
+        }
+        return chunk.getBlock(x - chunkPos.x * Chunk.CHUNK_SIZE, y, z - chunkPos.y * Chunk.CHUNK_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(BlockAccessBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,180 @@
+package com.odyssey.world;
+
+import com.odyssey.rendering.Camera;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless tests for frustum and occlusion culling of chunk render submission, using
+ * synthetic cameras over a small hand-built world.
+ */
+public class ChunkCullerTest {
+
+    private static final int RENDER_DISTANCE = 4;
+    private static final int WALL_CHUNK_X = 2;
+
+    private ChunkIndex chunks;
+    private ChunkCuller culler;
+
+    @BeforeEach
+    void setUp() {
+        chunks = new ChunkIndex();
+        culler = new ChunkCuller();
+
+        // Flat stone floor one section deep, with a solid wall of full-height chunks at x = 2
+        for (int cx = -RENDER_DISTANCE - 1; cx <= RENDER_DISTANCE + 1; cx++) {
+            for (int cz = -RENDER_DISTANCE - 1; cz <= RENDER_DISTANCE + 1; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                int height = cx == WALL_CHUNK_X ? Chunk.CHUNK_HEIGHT : ChunkSection.SIZE;
+                fill(chunk, 0, height, Block.BlockType.STONE);
+                chunks.put(chunk);
+            }
+        }
+    }
+
+    @Test
+    void chunksBehindCameraAreFrustumCulled() {
+        culler.setOcclusionCulling(false);
+        List<Chunk> visible = cull(perspective(new Vector3f(8, 40, 8), new Vector3f(100, 40, 8)));
+
+        assertFalse(visible.isEmpty());
+        for (Chunk chunk : visible) {
+            assertTrue(chunk.getChunkX() >= -1, "Chunk behind the camera submitted: " + chunk);
+        }
+        assertTrue(culler.getStats().getFrustumCulled() > 0);
+        assertEquals(0, culler.getStats().getOcclusionCulled());
+    }
+
+    @Test
+    void chunksBehindWallAreOcclusionCulled() {
+        List<Chunk> visible = cull(perspective(new Vector3f(8, 40, 8), new Vector3f(100, 40, 8)));
+
+        assertTrue(containsChunk(visible, 1, 0), "Chunk in front of the wall missing");
+        assertTrue(containsChunk(visible, WALL_CHUNK_X, 0), "Wall itself missing");
+        for (Chunk chunk : visible) {
+            assertTrue(chunk.getChunkX() <= WALL_CHUNK_X, "Chunk behind the wall submitted: " + chunk);
+        }
+        assertTrue(culler.getStats().getOcclusionCulled() > 0);
+    }
+
+    @Test
+    void disablingOcclusionKeepsChunksBehindWall() {
+        culler.setOcclusionCulling(false);
+        List<Chunk> visible = cull(perspective(new Vector3f(8, 40, 8), new Vector3f(100, 40, 8)));
+
+        assertTrue(containsChunk(visible, WALL_CHUNK_X + 1, 0));
+    }
+
+    @Test
+    void openingInWallLetsViewThrough() {
+        // A tunnel through the wall at the camera's height, along the x axis
+        Chunk wall = chunks.get(WALL_CHUNK_X, 0);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int y = 36; y < 44; y++) {
+                for (int z = 4; z < 12; z++) {
+                    wall.setBlock(x, y, z, Block.BlockType.AIR);
+                }
+            }
+        }
+
+        List<Chunk> visible = cull(perspective(new Vector3f(8, 40, 8), new Vector3f(100, 40, 8)));
+
+        assertTrue(containsChunk(visible, WALL_CHUNK_X + 1, 0), "Chunk seen through the tunnel missing");
+    }
+
+    @Test
+    void countsAddUp() {
+        cull(perspective(new Vector3f(8, 40, 8), new Vector3f(100, 40, 40)));
+
+        ChunkCuller.Stats stats = culler.getStats();
+        assertTrue(stats.getChunksInRange() > 0);
+        assertEquals(stats.getChunksInRange(),
+                     stats.getChunksVisible() + stats.getFrustumCulled() + stats.getOcclusionCulled());
+    }
+
+    @Test
+    void cameraOutsideLoadedAreaFallsBackToFrustum() {
+        Vector3f eye = new Vector3f(-200, 40, 8);
+        List<Chunk> visible = new ArrayList<>();
+        culler.cull(chunks, perspective(eye, new Vector3f(0, 40, 8)), eye, new Vector3f(8, 40, 8),
+                    RENDER_DISTANCE, visible);
+
+        assertTrue(containsChunk(visible, WALL_CHUNK_X + 1, 0));
+        assertEquals(0, culler.getStats().getOcclusionCulled());
+    }
+
+    @Test
+    void cullsFromCameraObject() {
+        Camera camera = new Camera(new Vector3f(8, 40, 8));
+        camera.setProjection(70.0f, 16.0f / 9.0f, 0.1f, 500.0f);
+        camera.lookAt(new Vector3f(100, 40, 8));
+
+        List<Chunk> visible = culler.cull(chunks, camera, new Vector3f(8, 40, 8), RENDER_DISTANCE, new ArrayList<>());
+
+        assertTrue(containsChunk(visible, 1, 0));
+        assertFalse(containsChunk(visible, WALL_CHUNK_X + 1, 0));
+        assertFalse(containsChunk(visible, -3, 0));
+    }
+
+    @Test
+    void sectionVisibilityFollowsEdits() {
+        Chunk chunk = chunks.get(WALL_CHUNK_X, 1);
+        assertEquals(SectionVisibility.NONE, chunk.getSectionVisibility(2));
+
+        // Open a shaft straight up through section 2
+        for (int y = 32; y < 48; y++) {
+            chunk.setBlock(5, y, 5, Block.BlockType.AIR);
+        }
+        long visibility = chunk.getSectionVisibility(2);
+        assertTrue(SectionVisibility.connects(visibility, SectionVisibility.DOWN, SectionVisibility.UP));
+        assertFalse(SectionVisibility.connects(visibility, SectionVisibility.WEST, SectionVisibility.EAST));
+    }
+
+    @Test
+    void sectionVisibilityOfUniformSections() {
+        assertEquals(SectionVisibility.ALL, SectionVisibility.compute(null));
+        assertEquals(SectionVisibility.ALL, SectionVisibility.compute(new ChunkSection((byte) 0)));
+
+        ChunkSection water = new ChunkSection((byte) 0);
+        for (int i = 0; i < ChunkSection.VOLUME; i++) {
+            water.setBlockId(i, Block.BlockType.WATER.getId());
+        }
+        assertEquals(SectionVisibility.ALL, SectionVisibility.compute(water));
+    }
+
+    private List<Chunk> cull(Matrix4f viewProjection) {
+        Vector3f eye = new Vector3f(8, 40, 8);
+        return culler.cull(chunks, viewProjection, eye, eye, RENDER_DISTANCE, new ArrayList<>());
+    }
+
+    private static Matrix4f perspective(Vector3f eye, Vector3f target) {
+        return new Matrix4f()
+            .perspective((float) Math.toRadians(70.0), 16.0f / 9.0f, 0.1f, 500.0f)
+            .lookAt(eye, target, new Vector3f(0, 1, 0));
+    }
+
+    private static boolean containsChunk(List<Chunk> list, int chunkX, int chunkZ) {
+        for (Chunk chunk : list) {
+            if (chunk.getChunkX() == chunkX && chunk.getChunkZ() == chunkZ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void fill(Chunk chunk, int fromY, int toY, Block.BlockType type) {
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int y = fromY; y < toY; y++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                    chunk.setBlock(x, y, z, type);
+                }
+            }
+        }
+    }
+}
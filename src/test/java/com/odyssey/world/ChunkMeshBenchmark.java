@@ -0,0 +1,102 @@
+package com.odyssey.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures chunk meshing throughput on the CPU side of {@link ChunkMeshBuilder}.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.world.ChunkMeshBenchmark
+ *
+ * The score is meshes per second; the GC profiler's gc.alloc.rate.norm line is the bytes
+ * allocated per meshed chunk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChunkMeshBenchmark {
+
+    /**
+     * island: rolling sand and grass over stone with scattered trees;
+     * sea: flat sea floor under a deep water column;
+     * noise: random blocks, the worst case for face merging
+     */
+    @Param({"island", "sea", "noise"})
+    public String terrain;
+
+    private Chunk chunk;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        chunk = new Chunk(0, 0);
+        for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                switch (terrain) {
+                    case "island": {
+                        int height = 70 + (int) (4 * Math.sin(x * 0.4) + 3 * Math.cos(z * 0.3));
+                        for (int y = 0; y < height; y++) {
+                            Block.BlockType type = y < height - 4 ? Block.BlockType.STONE
+                                : y < height - 1 ? Block.BlockType.SAND : Block.BlockType.GRASS;
+                            chunk.setBlock(x, y, z, type);
+                        }
+                        if (random.nextInt(40) == 0) {
+                            for (int y = height; y < height + 5; y++) {
+                                chunk.setBlock(x, y, z, Block.BlockType.PALM_WOOD);
+                            }
+                            chunk.setBlock(x, height + 5, z, Block.BlockType.PALM_LEAVES);
+                        }
+                        break;
+                    }
+                    case "sea": {
+                        for (int y = 0; y < 64; y++) {
+                            chunk.setBlock(x, y, z, y < 30 ? Block.BlockType.SAND : Block.BlockType.WATER);
+                        }
+                        break;
+                    }
+                    default: {
+                        Block.BlockType[] types = Block.BlockType.values();
+                        for (int y = 0; y < 96; y++) {
+                            if (random.nextBoolean()) {
+                                chunk.setBlock(x, y, z, types[random.nextInt(types.length)]);
+                            }
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public ChunkMeshBuilder.GeometryData mesh() {
+        return new ChunkMeshBuilder(chunk).buildGeometry();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ChunkMeshBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.odyssey.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lighting a freshly loaded 17x17 chunk area, the spawn area at the default
+ * render distance.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.world.LightingBenchmark
+ *
+ * batch lights the whole area through {@link LightingEngine#calculateInitialLighting(java.util.Collection)},
+ * which floods block light across chunk borders on the lighting pool; perChunk runs
+ * {@link Chunk#calculateLighting()} on each chunk in turn, as the pipeline's LIT stage does,
+ * flooding each chunk on its own through {@link LightPropagator#propagateWithin}.
+ * The terrain is rolling stone and sand with a torch or lantern scattered every few columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LightingBenchmark {
+
+    private static final int RADIUS = 8;
+
+    private World world;
+    private LightingEngine engine;
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        world = new World("lighting-benchmark", 42L);
+        engine = new LightingEngine(world);
+
+        Random random = new Random(42);
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                for (int x = 0; x < Chunk.CHUNK_SIZE; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE; z++) {
+                        int worldX = cx * Chunk.CHUNK_SIZE + x;
+                        int worldZ = cz * Chunk.CHUNK_SIZE + z;
+                        int height = 64 + (int) (6 * Math.sin(worldX * 0.05) + 4 * Math.cos(worldZ * 0.07));
+                        for (int y = 0; y < height; y++) {
+                            chunk.setBlock(x, y, z, y < height - 3 ? Block.BlockType.STONE : Block.BlockType.SAND);
+                        }
+                        if (random.nextInt(48) == 0) {
+                            chunk.setBlock(x, height, z, random.nextBoolean()
+                                ? Block.BlockType.TORCH : Block.BlockType.LANTERN);
+                        }
+                    }
+                }
+                world.getChunkIndex().put(chunk);
+                chunks.add(chunk);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public void batch() {
+        engine.calculateInitialLighting(chunks);
+    }
+
+    @Benchmark
+    public void perChunk() {
+        for (Chunk chunk : chunks) {
+            chunk.calculateLighting();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LightingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
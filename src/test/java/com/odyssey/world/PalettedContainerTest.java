@@ -0,0 +1,220 @@
+package com.odyssey.world;
+
+import com.odyssey.util.BinaryReader;
+import com.odyssey.util.BinaryWriter;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Tests for palette-indexed section storage: growing through the palette sizes into
+ * direct mode, compacting back down, and serialization round trips.
+ */
+public class PalettedContainerTest {
+
+    @Test
+    void startsSingleValued() {
+        PalettedContainer container = new PalettedContainer(7);
+
+        assertTrue(container.isSingleValued());
+        assertEquals(0, container.getBitsPerEntry());
+        assertEquals(1, container.getPaletteSize());
+        assertEquals(7, container.get(0));
+        assertEquals(7, container.get(PalettedContainer.SIZE - 1));
+    }
+
+    @Test
+    void setReturnsPreviousValue() {
+        PalettedContainer container = new PalettedContainer(0);
+
+        assertEquals(0, container.set(10, 5));
+        assertEquals(5, container.set(10, 6));
+        assertEquals(6, container.set(10, 6));
+        assertEquals(6, container.get(10));
+        assertEquals(0, container.get(11));
+    }
+
+    @Test
+    void paletteGrowsBitsWithDistinctValues() {
+        PalettedContainer container = new PalettedContainer(0);
+
+        container.set(0, 1);
+        assertEquals(1, container.getBitsPerEntry());
+        container.set(1, 2);
+        assertEquals(2, container.getBitsPerEntry());
+        for (int value = 3; value < 17; value++) {
+            container.set(value, value);
+        }
+        assertEquals(5, container.getBitsPerEntry());
+        assertEquals(17, container.getPaletteSize());
+
+        // Earlier entries survive every repack
+        assertEquals(1, container.get(0));
+        assertEquals(2, container.get(1));
+        for (int value = 3; value < 17; value++) {
+            assertEquals(value, container.get(value));
+        }
+        assertEquals(0, container.get(100));
+    }
+
+    @Test
+    void switchesToDirectStorageBeyondPalette() {
+        PalettedContainer container = new PalettedContainer(0);
+        for (int i = 0; i < 300; i++) {
+            container.set(i, 1000 + i);
+        }
+
+        assertEquals(16, container.getBitsPerEntry());
+        assertEquals(0, container.getPaletteSize());
+        for (int i = 0; i < 300; i++) {
+            assertEquals(1000 + i, container.get(i));
+        }
+        assertEquals(0, container.get(300));
+    }
+
+    @Test
+    void compactShrinksPaletteToValuesInUse() {
+        PalettedContainer container = new PalettedContainer(0);
+        for (int value = 1; value < 16; value++) {
+            container.set(value, value);
+        }
+        assertEquals(4, container.getBitsPerEntry());
+
+        // Replace all but one of the extra values again
+        for (int value = 2; value < 16; value++) {
+            container.set(value, 0);
+        }
+        container.compact();
+
+        assertEquals(1, container.getBitsPerEntry());
+        assertEquals(2, container.getPaletteSize());
+        assertEquals(1, container.get(1));
+        assertEquals(0, container.get(2));
+    }
+
+    @Test
+    void compactOfUniformContentsDropsIndexData() {
+        PalettedContainer container = new PalettedContainer(0);
+        container.set(5, 3);
+        container.set(5, 0);
+
+        container.compact();
+
+        assertTrue(container.isSingleValued());
+        assertEquals(0, container.get(5));
+    }
+
+    @Test
+    void compactLeavesDirectModeForFewValues() {
+        PalettedContainer container = new PalettedContainer(0);
+        for (int i = 0; i < 300; i++) {
+            container.set(i, 1000 + i);
+        }
+        for (int i = 2; i < 300; i++) {
+            container.set(i, 0);
+        }
+
+        container.compact();
+
+        assertEquals(2, container.getBitsPerEntry());
+        assertEquals(3, container.getPaletteSize());
+        assertEquals(1000, container.get(0));
+        assertEquals(1001, container.get(1));
+        assertEquals(0, container.get(2));
+    }
+
+    @Test
+    void roundTripsSingleValued() throws IOException {
+        assertSameContents(new PalettedContainer(42), roundTrip(new PalettedContainer(42)));
+    }
+
+    @Test
+    void roundTripsPalette() throws IOException {
+        PalettedContainer container = new PalettedContainer(0);
+        for (int i = 0; i < PalettedContainer.SIZE; i++) {
+            container.set(i, (i * 31) % 9);
+        }
+
+        PalettedContainer read = roundTrip(container);
+        assertEquals(container.getBitsPerEntry(), read.getBitsPerEntry());
+        assertEquals(container.getPaletteSize(), read.getPaletteSize());
+        assertSameContents(container, read);
+
+        // The read palette keeps growing like the original
+        read.set(0, 500);
+        assertEquals(500, read.get(0));
+        assertEquals((31 % 9), read.get(1));
+    }
+
+    @Test
+    void roundTripsDirectStorage() throws IOException {
+        PalettedContainer container = new PalettedContainer(0);
+        for (int i = 0; i < PalettedContainer.SIZE; i++) {
+            container.set(i, i);
+        }
+
+        PalettedContainer read = roundTrip(container);
+        assertEquals(16, read.getBitsPerEntry());
+        assertSameContents(container, read);
+    }
+
+    @Test
+    void rejectsTruncatedData() {
+        PalettedContainer container = new PalettedContainer(0);
+        container.set(0, 1);
+        BinaryWriter out = new BinaryWriter();
+        container.write(out);
+        byte[] bytes = out.toByteArray();
+
+        byte[] truncated = new byte[bytes.length - 8];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> PalettedContainer.read(new BinaryReader(truncated)));
+    }
+
+    /**
+     * Chunks saved in format version 1 wrote the container as a fixed big-endian layout
+     */
+    @Test
+    void readsVersion1Layout() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeShort(2);
+            out.writeInt(3);
+            out.writeInt(9);
+            for (int i = 0; i < PalettedContainer.SIZE / 64; i++) {
+                out.writeLong(0xAAAAAAAAAAAAAAAAL);
+            }
+            out.writeByte(0);
+            out.writeInt(42);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            PalettedContainer read = PalettedContainer.readVersion1(in);
+            assertEquals(1, read.getBitsPerEntry());
+            assertEquals(2, read.getPaletteSize());
+            for (int i = 0; i < PalettedContainer.SIZE; i++) {
+                assertEquals(i % 2 == 0 ? 3 : 9, read.get(i), "Entry " + i);
+            }
+
+            assertSameContents(new PalettedContainer(42), PalettedContainer.readVersion1(in));
+        }
+    }
+
+    private static PalettedContainer roundTrip(PalettedContainer container) throws IOException {
+        BinaryWriter out = new BinaryWriter();
+        container.write(out);
+        return PalettedContainer.read(new BinaryReader(out.toByteArray()));
+    }
+
+    private static void assertSameContents(PalettedContainer expected, PalettedContainer actual) {
+        for (int i = 0; i < PalettedContainer.SIZE; i++) {
+            assertEquals(expected.get(i), actual.get(i), "Entry " + i);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.odyssey.world;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the uniform grid index, checking every query against a linear scan over the
+ * same objects, including after objects move, change radius or are removed.
+ */
+public class SpatialIndexTest {
+
+    private static final float CELL_SIZE = 16.0f;
+
+    @Test
+    void rejectsNonPositiveCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialIndex<Blob>(0.0f));
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        SpatialIndex<Blob> index = new SpatialIndex<>(CELL_SIZE);
+
+        assertTrue(index.queryRadius(0, 0, 100, new ArrayList<>()).isEmpty());
+        assertTrue(index.queryRect(-100, -100, 100, 100, new ArrayList<>()).isEmpty());
+        assertNull(index.nearest(0, 0));
+        assertTrue(index.nearest(0, 0, 3, new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    void largeRadiusReachesFromDistantCell() {
+        SpatialIndex<Blob> index = new SpatialIndex<>(CELL_SIZE);
+        Blob storm = new Blob(200, 0, 150);
+        index.add(storm, storm.x, storm.z, storm.radius);
+
+        // The query cell is many cells from the storm's center but inside its edge
+        assertEquals(List.of(storm), index.queryRadius(60, 0, 1, new ArrayList<>()));
+        assertEquals(List.of(storm), index.queryRect(55, -5, 60, 5, new ArrayList<>()));
+        assertTrue(index.queryRadius(40, 0, 1, new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    void updateMovesAndRemoveForgets() {
+        SpatialIndex<Blob> index = new SpatialIndex<>(CELL_SIZE);
+        Blob a = new Blob(0, 0, 1);
+        Blob b = new Blob(100, 100, 1);
+        index.add(a, a.x, a.z, a.radius);
+        index.add(b, b.x, b.z, b.radius);
+        assertEquals(a, index.nearest(10, 10));
+
+        index.update(a, 500, 500, 1);
+        assertEquals(2, index.size());
+        assertEquals(b, index.nearest(10, 10));
+        assertTrue(index.queryRadius(0, 0, 5, new ArrayList<>()).isEmpty());
+        assertEquals(List.of(a), index.queryRadius(500, 500, 5, new ArrayList<>()));
+
+        assertTrue(index.remove(a));
+        assertFalse(index.remove(a));
+        assertFalse(index.contains(a));
+        assertEquals(1, index.size());
+        assertTrue(index.queryRadius(500, 500, 5, new ArrayList<>()).isEmpty());
+        assertEquals(b, index.nearest(500, 500));
+    }
+
+    /**
+     * Random objects of very different radii, moved and removed between rounds of random
+     * queries, must give the same answers as scanning every object
+     */
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        SpatialIndex<Blob> index = new SpatialIndex<>(CELL_SIZE);
+        List<Blob> blobs = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Blob blob = new Blob(coordinate(random), coordinate(random), radius(random));
+            blobs.add(blob);
+            index.add(blob, blob.x, blob.z, blob.radius);
+        }
+
+        for (int round = 0; round < 6; round++) {
+            for (int query = 0; query < 200; query++) {
+                float x = coordinate(random);
+                float z = coordinate(random);
+
+                float radius = random.nextFloat() * 60.0f;
+                assertEquals(scanRadius(blobs, x, z, radius),
+                             asSet(index.queryRadius(x, z, radius, new ArrayList<>())),
+                             "queryRadius at " + x + ", " + z);
+
+                float width = random.nextFloat() * 80.0f;
+                float depth = random.nextFloat() * 80.0f;
+                assertEquals(scanRect(blobs, x, z, x + width, z + depth),
+                             asSet(index.queryRect(x, z, x + width, z + depth, new ArrayList<>())),
+                             "queryRect at " + x + ", " + z);
+
+                assertNearestMatches(index, blobs, x, z);
+            }
+
+            // Move some objects, some by a little and some across the map, and drop others
+            Collections.shuffle(blobs, random);
+            for (int i = 0; i < 60; i++) {
+                Blob blob = blobs.get(i);
+                if (i % 2 == 0) {
+                    blob.x += random.nextFloat() * 10.0f - 5.0f;
+                    blob.z += random.nextFloat() * 10.0f - 5.0f;
+                } else {
+                    blob.x = coordinate(random);
+                    blob.z = coordinate(random);
+                    blob.radius = radius(random);
+                }
+                index.update(blob, blob.x, blob.z, blob.radius);
+            }
+            for (int i = 0; i < 20; i++) {
+                assertTrue(index.remove(blobs.remove(blobs.size() - 1)));
+            }
+            assertEquals(blobs.size(), index.size());
+        }
+    }
+
+    private static void assertNearestMatches(SpatialIndex<Blob> index, List<Blob> blobs, float x, float z) {
+        List<Blob> sorted = new ArrayList<>(blobs);
+        sorted.sort(Comparator.comparingDouble(blob -> blob.distanceSquared(x, z)));
+
+        // Ties may come back in either order, so compare distances
+        assertEquals(sorted.get(0).distanceSquared(x, z), index.nearest(x, z).distanceSquared(x, z),
+                     "nearest at " + x + ", " + z);
+        List<Blob> nearest = index.nearest(x, z, 5, new ArrayList<>());
+        assertEquals(5, nearest.size());
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(sorted.get(i).distanceSquared(x, z), nearest.get(i).distanceSquared(x, z),
+                         "nearest #" + i + " at " + x + ", " + z);
+        }
+    }
+
+    private static Set<Blob> scanRadius(List<Blob> blobs, float x, float z, float radius) {
+        Set<Blob> found = new HashSet<>();
+        for (Blob blob : blobs) {
+            float limit = radius + blob.radius;
+            if (blob.distanceSquared(x, z) <= limit * limit) {
+                found.add(blob);
+            }
+        }
+        return found;
+    }
+
+    private static Set<Blob> scanRect(List<Blob> blobs, float minX, float minZ, float maxX, float maxZ) {
+        Set<Blob> found = new HashSet<>();
+        for (Blob blob : blobs) {
+            float dx = blob.x - Math.max(minX, Math.min(blob.x, maxX));
+            float dz = blob.z - Math.max(minZ, Math.min(blob.z, maxZ));
+            if (dx * dx + dz * dz <= blob.radius * blob.radius) {
+                found.add(blob);
+            }
+        }
+        return found;
+    }
+
+    private static Set<Blob> asSet(List<Blob> list) {
+        Set<Blob> set = new HashSet<>(list);
+        assertEquals(list.size(), set.size(), "Object reported twice");
+        return set;
+    }
+
+    private static float coordinate(Random random) {
+        return random.nextFloat() * 1000.0f - 500.0f;
+    }
+
+    /**
+     * Mostly small objects with the odd storm-sized one, so queries have to widen their
+     * search well past the cells they cover
+     */
+    private static float radius(Random random) {
+        return random.nextInt(10) == 0 ? 40.0f + random.nextFloat() * 80.0f : random.nextFloat() * 4.0f;
+    }
+
+    /**
+     * Indexed object with a mutable position, compared by identity like the index does
+     */
+    private static final class Blob {
+        float x;
+        float z;
+        float radius;
+
+        Blob(float x, float z, float radius) {
+            this.x = x;
+            this.z = z;
+            this.radius = radius;
+        }
+
+        float distanceSquared(float px, float pz) {
+            float dx = x - px;
+            float dz = z - pz;
+            return dx * dx + dz * dz;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.odyssey.world;
+
+import com.odyssey.world.storage.ChunkStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Tests that pre-generation depends only on the seed and radius: the same world built
+ * on one thread and on several must write the same chunk payloads, and a second run
+ * over a finished world keeps every chunk already on disk.
+ */
+public class WorldPregeneratorTest {
+
+    private static final long SEED = 12345L;
+    private static final int RADIUS = 3;
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("pregen-test");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void sameSeedWritesSameChunksOnAnyThreadCount() throws IOException {
+        try (ChunkStorage single = new ChunkStorage(directory.resolve("single"));
+             ChunkStorage parallel = new ChunkStorage(directory.resolve("parallel"))) {
+            WorldPregenerator.Result singleResult = new WorldPregenerator(SEED, 1).run(single, RADIUS);
+            WorldPregenerator.Result parallelResult = new WorldPregenerator(SEED, 4).run(parallel, RADIUS);
+
+            assertEquals(singleResult.chunksGenerated, parallelResult.chunksGenerated);
+            assertEquals(singleResult.checksum, parallelResult.checksum);
+
+            int chunks = 0;
+            for (int chunkX = -RADIUS; chunkX <= RADIUS; chunkX++) {
+                for (int chunkZ = -RADIUS; chunkZ <= RADIUS; chunkZ++) {
+                    if (chunkX * chunkX + chunkZ * chunkZ > RADIUS * RADIUS) {
+                        continue;
+                    }
+                    byte[] expected = single.readChunk(chunkX, chunkZ);
+                    assertNotNull(expected, "Chunk (" + chunkX + ", " + chunkZ + ") was not written");
+                    assertArrayEquals(expected, parallel.readChunk(chunkX, chunkZ),
+                                      "Chunk (" + chunkX + ", " + chunkZ + ")");
+                    chunks++;
+                }
+            }
+            assertEquals(chunks, singleResult.chunksGenerated);
+        }
+    }
+
+    @Test
+    void secondRunKeepsChunksOnDisk() throws IOException {
+        try (ChunkStorage storage = new ChunkStorage(directory.resolve("region"))) {
+            WorldPregenerator.Result first = new WorldPregenerator(SEED, 2).run(storage, RADIUS);
+            WorldPregenerator.Result second = new WorldPregenerator(SEED, 2).run(storage, RADIUS);
+
+            assertEquals(0, second.chunksGenerated);
+            assertEquals(first.chunksGenerated, second.chunksSkipped);
+        }
+    }
+}
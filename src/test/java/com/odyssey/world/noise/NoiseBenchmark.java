@@ -0,0 +1,109 @@
+package com.odyssey.world.noise;
+
+import com.odyssey.world.WorldConfig;
+import com.odyssey.world.terrain.TerrainGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-point noise sampling with the batched grid calls, both for a single
+ * fractal layer and for the full terrain height stack over one chunk.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.odyssey.world.noise.NoiseBenchmark
+ *
+ * Scores are per sample. The height benchmarks walk a new chunk every invocation so the
+ * per-point path pays for its cache lookups the way chunk generation does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoiseBenchmark {
+
+    private static final int SIZE = 16;
+    private static final int SAMPLES = SIZE * SIZE;
+    private static final float SCALE = 0.002f;
+
+    private final SimplexNoise noise = new SimplexNoise(42);
+    private final float[] xs = new float[SAMPLES];
+    private final float[] zs = new float[SAMPLES];
+    private final float[] out = new float[SAMPLES];
+
+    private TerrainGenerator terrain;
+    private int chunk;
+
+    @Setup
+    public void setUp() {
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                xs[x + z * SIZE] = (1000 + x) * SCALE;
+                zs[x + z * SIZE] = (-2000 + z) * SCALE;
+            }
+        }
+        terrain = new TerrainGenerator(42, new WorldConfig());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float[] fractalPerPoint() {
+        for (int i = 0; i < SAMPLES; i++) {
+            out[i] = noise.fractalNoise(xs[i], zs[i], 4, 0.5f, 2.0f);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float[] fractalBatched() {
+        noise.fractalNoise(xs, zs, out, SAMPLES, 4, 0.5f, 2.0f);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float[] heightPerPoint() {
+        int originX = nextChunk() * SIZE;
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                out[x + z * SIZE] = terrain.generateHeightAt(originX + x, z);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float[] heightBatched() {
+        int originX = nextChunk() * SIZE;
+        terrain.generateHeightGrid(originX, 0, 1, SIZE, SIZE, out);
+        return out;
+    }
+
+    private int nextChunk() {
+        chunk = (chunk + 1) & 0xFFFF;
+        return chunk;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(NoiseBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}